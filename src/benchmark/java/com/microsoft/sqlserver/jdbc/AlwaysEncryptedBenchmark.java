@@ -0,0 +1,105 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures encrypting and decrypting a cell value with AEAD_AES_256_CBC_HMAC_SHA256, the algorithm used for Always
+ * Encrypted columns, and decrypting the values of encrypted int and nvarchar columns of {@link #COLUMN_ROWS} rows. The
+ * column encryption key is derived once in setup, as the driver does when it caches the key. Run with {@code -t} above
+ * 1 to measure the algorithm shared by several threads, as it is by the connections that use the same key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlwaysEncryptedBenchmark {
+
+    static final int COLUMN_ROWS = 1000;
+
+    @Param({"Deterministic", "Randomized"})
+    public String encryptionType;
+
+    @Param({"8", "64", "1024"})
+    public int valueLength;
+
+    private SQLServerAeadAes256CbcHmac256Algorithm algorithm;
+    private byte[] plainText;
+    private byte[] cipherText;
+    private byte[][] intColumn;
+    private byte[][] nvarcharColumn;
+
+    @Setup
+    public void setup() throws SQLServerException {
+        Random random = new Random(0);
+        byte[] rootKey = new byte[32];
+        random.nextBytes(rootKey);
+        SQLServerAeadAes256CbcHmac256EncryptionKey key = new SQLServerAeadAes256CbcHmac256EncryptionKey(rootKey,
+                SQLServerAeadAes256CbcHmac256Algorithm.algorithmName);
+        algorithm = new SQLServerAeadAes256CbcHmac256Algorithm(key, SQLServerEncryptionType.valueOf(encryptionType),
+                (byte) 0x01);
+
+        plainText = new byte[valueLength];
+        random.nextBytes(plainText);
+        cipherText = algorithm.encryptData(plainText);
+
+        // The plain text of an encrypted int is its 4 little-endian bytes, and that of an nvarchar its UTF-16LE bytes
+        intColumn = new byte[COLUMN_ROWS][];
+        nvarcharColumn = new byte[COLUMN_ROWS][];
+        for (int i = 0; i < COLUMN_ROWS; i++) {
+            intColumn[i] = algorithm.encryptData(
+                    ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(random.nextInt()).array());
+            nvarcharColumn[i] = algorithm.encryptData(("Customer name " + i).getBytes(UTF_16LE));
+        }
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws SQLServerException {
+        return algorithm.encryptData(plainText);
+    }
+
+    @Benchmark
+    public byte[] decrypt() throws SQLServerException {
+        return algorithm.decryptData(cipherText);
+    }
+
+    @Benchmark
+    public int decryptIntColumn() throws SQLServerException {
+        int sum = 0;
+        for (byte[] value : intColumn)
+            sum += algorithm.decryptData(value).length;
+        return sum;
+    }
+
+    @Benchmark
+    public int decryptNVarcharColumn() throws SQLServerException {
+        int sum = 0;
+        for (byte[] value : nvarcharColumn)
+            sum += algorithm.decryptData(value).length;
+        return sum;
+    }
+}
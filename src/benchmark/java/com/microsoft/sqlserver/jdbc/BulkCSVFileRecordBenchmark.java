@@ -0,0 +1,77 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures reading the rows of a CSV file of int, bigint, decimal, nvarchar and bit columns with
+ * SQLServerBulkCSVFileRecord, with the byte parser used for a plain delimiter, and with the regular expression split
+ * used for the equivalent delimiter "[,]".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkCSVFileRecordBenchmark {
+
+    @Param({"100000"})
+    public int rowCount;
+
+    private byte[] file;
+
+    @Setup
+    public void setup() {
+        StringBuilder csv = new StringBuilder("id,quantity,price,name,active\n");
+        for (int i = 0; i < rowCount; i++)
+            csv.append(i).append(',').append(1000L * i).append(',').append(i % 1000).append('.').append(i % 100)
+                    .append(",Customer name ").append(i).append(',').append(i % 2).append('\n');
+        file = csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Object[] read(String delimiter) throws SQLServerException {
+        try (SQLServerBulkCSVFileRecord record = new SQLServerBulkCSVFileRecord(new ByteArrayInputStream(file),
+                "UTF-8", delimiter, true)) {
+            record.addColumnMetadata(1, null, Types.INTEGER, 0, 0);
+            record.addColumnMetadata(2, null, Types.BIGINT, 0, 0);
+            record.addColumnMetadata(3, null, Types.DECIMAL, 10, 2);
+            record.addColumnMetadata(4, null, Types.NVARCHAR, 50, 0);
+            record.addColumnMetadata(5, null, Types.BIT, 0, 0);
+            Object[] row = null;
+            while (record.next())
+                row = record.getRowData();
+            return row;
+        }
+    }
+
+    @Benchmark
+    public Object[] byteParser() throws SQLServerException {
+        return read(",");
+    }
+
+    @Benchmark
+    public Object[] regexSplit() throws SQLServerException {
+        return read("[,]");
+    }
+}
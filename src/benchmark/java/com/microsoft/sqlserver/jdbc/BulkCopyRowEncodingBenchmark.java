@@ -0,0 +1,107 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy.BulkColumnMetaData;
+
+
+/**
+ * Measures encoding a row of 20 columns of mixed types, read from a CSV file, into the bulk load stream. The destination
+ * table metadata, which bulk copy normally queries from the server, is built in setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkCopyRowEncodingBenchmark {
+
+    private static final String ROW = "1234567890,1234567890123456789,The quick brown fox,jumps over the lazy dog,"
+            + "12345678901234.5678,12345678.12345678,1,2019-03-14 15:09:26.5358979,2019-03-14,"
+            + "000102030405060708090A0B0C0D0E0F,12345,123,1234.5,abcdefghij,klmnopqrst,12345678.90,"
+            + "15:09:26.5358979,Pack my box with five dozen liquor jugs,987654321098765432,42";
+
+    // Source JDBC type, precision, scale and destination type of each column
+    private static final Object[][] COLUMNS = {{Types.INTEGER, 10, 0, SSType.INTEGER},
+            {Types.BIGINT, 19, 0, SSType.BIGINT}, {Types.NVARCHAR, 50, 0, SSType.NVARCHAR},
+            {Types.VARCHAR, 50, 0, SSType.VARCHAR}, {Types.DECIMAL, 18, 4, SSType.DECIMAL},
+            {Types.DOUBLE, 15, 0, SSType.FLOAT}, {Types.BIT, 1, 0, SSType.BIT},
+            {Types.TIMESTAMP, 27, 7, SSType.DATETIME2}, {Types.DATE, 10, 0, SSType.DATE},
+            {Types.VARBINARY, 64, 0, SSType.VARBINARY}, {Types.SMALLINT, 5, 0, SSType.SMALLINT},
+            {Types.TINYINT, 3, 0, SSType.TINYINT}, {Types.REAL, 7, 0, SSType.REAL},
+            {Types.NCHAR, 10, 0, SSType.NCHAR}, {Types.CHAR, 10, 0, SSType.CHAR},
+            {Types.NUMERIC, 10, 2, SSType.NUMERIC}, {Types.TIME, 16, 7, SSType.TIME},
+            {Types.NVARCHAR, 100, 0, SSType.NVARCHAR}, {Types.BIGINT, 19, 0, SSType.BIGINT},
+            {Types.INTEGER, 10, 0, SSType.INTEGER}};
+
+    private TDSWriter writer;
+    private SQLServerBulkCopy bulkCopy;
+    private Object[] rowData;
+
+    @Setup
+    public void setup() throws Exception {
+        SQLServerConnection con = InMemoryTDS.newConnection();
+        writer = InMemoryTDS.newWriter(con, TDS.PKT_BULK);
+
+        SQLServerBulkCSVFileRecord record = new SQLServerBulkCSVFileRecord(
+                new ByteArrayInputStream(ROW.getBytes(StandardCharsets.UTF_8)), "UTF-8", ",", false);
+        for (int i = 0; i < COLUMNS.length; i++)
+            record.addColumnMetadata(i + 1, "c" + (i + 1), (Integer) COLUMNS[i][0], (Integer) COLUMNS[i][1],
+                    (Integer) COLUMNS[i][2]);
+        record.next();
+        rowData = record.getRowData();
+
+        bulkCopy = new SQLServerBulkCopy(con);
+        InMemoryTDS.setField(bulkCopy, "sourceBulkRecord", record);
+        invoke(bulkCopy, "getSourceMetadata");
+
+        Map<Integer, BulkColumnMetaData> destColumnMetadata = new HashMap<>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            SSType ssType = (SSType) COLUMNS[i][3];
+            BulkColumnMetaData destColumn = bulkCopy.new BulkColumnMetaData("c" + (i + 1), true,
+                    (Integer) COLUMNS[i][1], (Integer) COLUMNS[i][2], ssType.getJDBCType().getIntValue(), null);
+            destColumn.ssType = ssType;
+            destColumn.collation = con.getDatabaseCollation();
+            destColumnMetadata.put(i + 1, destColumn);
+        }
+        InMemoryTDS.setField(bulkCopy, "destColumnMetadata", destColumnMetadata);
+        InMemoryTDS.setField(bulkCopy, "destColumnCount", COLUMNS.length);
+        invoke(bulkCopy, "validateColumnMappings");
+        invoke(bulkCopy, "compileColumnWriters");
+    }
+
+    private static void invoke(Object target, String methodName) throws ReflectiveOperationException {
+        Method method = target.getClass().getDeclaredMethod(methodName);
+        method.setAccessible(true);
+        method.invoke(target);
+    }
+
+    @Benchmark
+    public void encodeRow() throws SQLServerException {
+        writer.writeByte((byte) TDS.TDS_ROW);
+        bulkCopy.writeRowData(writer, rowData);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures decoding a column value from the TDS response into the Java object returned by getObject(), for each SQL
+ * Server type. The type info is parsed once; each invocation decodes the value from the same position in the
+ * response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnDecodingBenchmark {
+
+    @Param({"BIT", "TINYINT", "SMALLINT", "INTEGER", "BIGINT", "REAL", "FLOAT", "SMALLDATETIME", "DATETIME", "DATE",
+            "TIME", "DATETIME2", "DATETIMEOFFSET", "SMALLMONEY", "MONEY", "CHAR", "VARCHAR", "VARCHARMAX", "TEXT",
+            "NCHAR", "NVARCHAR", "NVARCHARMAX", "NTEXT", "BINARY", "VARBINARY", "VARBINARYMAX", "IMAGE", "DECIMAL",
+            "NUMERIC", "GUID", "SQL_VARIANT", "UDT", "XML", "TIMESTAMP"})
+    public String ssTypeName;
+
+    private static final String TEXT_VALUE = "The quick brown fox jumps over the lazy dog";
+    private static final LocalDate DATE_VALUE = LocalDate.of(2019, 3, 14);
+    private static final LocalTime TIME_VALUE = LocalTime.of(15, 9, 26, 535897900);
+
+    private TDSReader reader;
+    private TDSReaderMark valueStart;
+    private TypeInfo typeInfo;
+    private JDBCType jdbcType;
+    private final DTV dtv = new DTV();
+
+    @Setup
+    public void setup() throws Exception {
+        SQLServerConnection con = InMemoryTDS.newConnection();
+        SSType ssType = SSType.valueOf(ssTypeName);
+        reader = InMemoryTDS.newReader(con, typeInfoAndValue(ssType));
+        typeInfo = TypeInfo.getInstance(reader, false);
+        if (ssType != typeInfo.getSSType())
+            throw new IllegalStateException(ssType + " was parsed as " + typeInfo.getSSType());
+        valueStart = reader.mark();
+        jdbcType = ssType.getJDBCType();
+    }
+
+    @Benchmark
+    public Object decode() throws SQLServerException {
+        reader.reset(valueStart);
+        dtv.clear();
+        return dtv.getValue(jdbcType, typeInfo.getScale(), null, null, typeInfo, null, reader);
+    }
+
+    /**
+     * Returns the TDS encoding of the type info (as in RPC return values, without the flags) followed by a value of the
+     * given type.
+     */
+    static byte[] typeInfoAndValue(SSType ssType) {
+        Payload p = new Payload();
+        p.writeInt(SSType.TIMESTAMP == ssType ? UserTypes.TIMESTAMP : 0);
+
+        switch (ssType) {
+            case BIT:
+                p.writeType(TDSType.BITN).writeByte(1).writeByte(1).writeByte(1);
+                break;
+            case TINYINT:
+                p.writeType(TDSType.INTN).writeByte(1).writeByte(1).writeByte(123);
+                break;
+            case SMALLINT:
+                p.writeType(TDSType.INTN).writeByte(2).writeByte(2).writeShort(12345);
+                break;
+            case INTEGER:
+                p.writeType(TDSType.INTN).writeByte(4).writeByte(4).writeInt(1234567890);
+                break;
+            case BIGINT:
+                p.writeType(TDSType.INTN).writeByte(8).writeByte(8).writeLong(1234567890123456789L);
+                break;
+            case REAL:
+                p.writeType(TDSType.FLOATN).writeByte(4).writeByte(4).writeInt(Float.floatToIntBits(1234.5678f));
+                break;
+            case FLOAT:
+                p.writeType(TDSType.FLOATN).writeByte(8).writeByte(8)
+                        .writeLong(Double.doubleToLongBits(12345678.12345678));
+                break;
+            case SMALLDATETIME:
+                p.writeType(TDSType.DATETIMEN).writeByte(4).writeByte(4).writeShort(daysSince(1900))
+                        .writeShort(TIME_VALUE.toSecondOfDay() / 60);
+                break;
+            case DATETIME:
+                p.writeType(TDSType.DATETIMEN).writeByte(8).writeByte(8).writeInt(daysSince(1900))
+                        .writeInt((int) (TIME_VALUE.toNanoOfDay() / 1000000 * 3 / 10));
+                break;
+            case DATE:
+                p.writeType(TDSType.DATEN).writeByte(3).writeBytes(daysSince(1), 3);
+                break;
+            case TIME:
+                p.writeType(TDSType.TIMEN).writeByte(7).writeByte(5).writeBytes(TIME_VALUE.toNanoOfDay() / 100, 5);
+                break;
+            case DATETIME2:
+                p.writeType(TDSType.DATETIME2N).writeByte(7).writeByte(8)
+                        .writeBytes(TIME_VALUE.toNanoOfDay() / 100, 5).writeBytes(daysSince(1), 3);
+                break;
+            case DATETIMEOFFSET:
+                // Date and time are in UTC, followed by the offset in minutes
+                p.writeType(TDSType.DATETIMEOFFSETN).writeByte(7).writeByte(10)
+                        .writeBytes(TIME_VALUE.toNanoOfDay() / 100, 5).writeBytes(daysSince(1), 3).writeShort(-420);
+                break;
+            case SMALLMONEY:
+                p.writeType(TDSType.MONEYN).writeByte(4).writeByte(4).writeInt(2147483647);
+                break;
+            case MONEY:
+                long money = 9223372036854775807L;
+                // High 4 bytes first
+                p.writeType(TDSType.MONEYN).writeByte(8).writeByte(8).writeInt((int) (money >> 32))
+                        .writeInt((int) money);
+                break;
+            case CHAR:
+                p.writeType(TDSType.BIGCHAR).writeShort(TEXT_VALUE.length()).writeCollation()
+                        .writeShortLenBytes(ascii(TEXT_VALUE));
+                break;
+            case VARCHAR:
+                p.writeType(TDSType.BIGVARCHAR).writeShort(100).writeCollation().writeShortLenBytes(ascii(TEXT_VALUE));
+                break;
+            case VARCHARMAX:
+                p.writeType(TDSType.BIGVARCHAR).writeShort(DataTypes.MAXTYPE_LENGTH).writeCollation()
+                        .writePLP(ascii(TEXT_VALUE));
+                break;
+            case TEXT:
+                p.writeType(TDSType.TEXT).writeInt(Integer.MAX_VALUE).writeCollation()
+                        .writeTextPtrValue(ascii(TEXT_VALUE));
+                break;
+            case NCHAR:
+                p.writeType(TDSType.NCHAR).writeShort(2 * TEXT_VALUE.length()).writeCollation()
+                        .writeShortLenBytes(unicode(TEXT_VALUE));
+                break;
+            case NVARCHAR:
+                p.writeType(TDSType.NVARCHAR).writeShort(200).writeCollation().writeShortLenBytes(unicode(TEXT_VALUE));
+                break;
+            case NVARCHARMAX:
+                p.writeType(TDSType.NVARCHAR).writeShort(DataTypes.MAXTYPE_LENGTH).writeCollation()
+                        .writePLP(unicode(TEXT_VALUE));
+                break;
+            case NTEXT:
+                p.writeType(TDSType.NTEXT).writeInt(Integer.MAX_VALUE / 2).writeCollation()
+                        .writeTextPtrValue(unicode(TEXT_VALUE));
+                break;
+            case BINARY:
+                p.writeType(TDSType.BIGBINARY).writeShort(64).writeShortLenBytes(binary(64));
+                break;
+            case VARBINARY:
+                p.writeType(TDSType.BIGVARBINARY).writeShort(100).writeShortLenBytes(binary(64));
+                break;
+            case VARBINARYMAX:
+                p.writeType(TDSType.BIGVARBINARY).writeShort(DataTypes.MAXTYPE_LENGTH).writePLP(binary(64));
+                break;
+            case IMAGE:
+                p.writeType(TDSType.IMAGE).writeInt(Integer.MAX_VALUE).writeTextPtrValue(binary(64));
+                break;
+            case DECIMAL:
+            case NUMERIC:
+                // 12345678901234.5678: sign byte (1 = positive) followed by the unscaled value
+                p.writeType(SSType.DECIMAL == ssType ? TDSType.DECIMALN : TDSType.NUMERICN).writeByte(17).writeByte(38)
+                        .writeByte(4).writeByte(17).writeByte(1)
+                        .writeBytes(new BigInteger("123456789012345678"), 16);
+                break;
+            case GUID:
+                p.writeType(TDSType.GUID).writeByte(16).writeByte(16).writeRaw(binary(16));
+                break;
+            case SQL_VARIANT:
+                // An int: base type, number of property bytes, value
+                p.writeType(TDSType.SQL_VARIANT).writeInt(8016).writeInt(6).writeType(TDSType.INT4).writeByte(0)
+                        .writeInt(1234567890);
+                break;
+            case UDT:
+                p.writeType(TDSType.UDT).writeShort(DataTypes.MAXTYPE_LENGTH).writeByteLenString("master")
+                        .writeByteLenString("sys").writeByteLenString("geometry")
+                        .writeShortLenString("Microsoft.SqlServer.Types.SqlGeometry").writePLP(binary(64));
+                break;
+            case XML:
+                p.writeType(TDSType.XML).writeByte(0).writePLP(unicode("<doc><p>" + TEXT_VALUE + "</p></doc>"));
+                break;
+            case TIMESTAMP:
+                p.writeType(TDSType.BIGBINARY).writeShort(8).writeShortLenBytes(binary(8));
+                break;
+            default:
+                throw new IllegalArgumentException(ssType.toString());
+        }
+        return p.toByteArray();
+    }
+
+    private static int daysSince(int year) {
+        return (int) (DATE_VALUE.toEpochDay() - LocalDate.of(year, 1, 1).toEpochDay());
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] unicode(String s) {
+        return s.getBytes(StandardCharsets.UTF_16LE);
+    }
+
+    private static byte[] binary(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = (byte) i;
+        return bytes;
+    }
+
+    /**
+     * Little-endian TDS payload writer.
+     */
+    static final class Payload {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Payload writeByte(int value) {
+            out.write(value);
+            return this;
+        }
+
+        Payload writeType(TDSType tdsType) {
+            return writeByte(tdsType.byteValue());
+        }
+
+        Payload writeBytes(long value, int length) {
+            for (int i = 0; i < length; i++)
+                out.write((int) (value >>> (8 * i)));
+            return this;
+        }
+
+        Payload writeBytes(BigInteger value, int length) {
+            byte[] bigEndian = value.toByteArray();
+            for (int i = 0; i < length; i++)
+                out.write((i < bigEndian.length) ? bigEndian[bigEndian.length - 1 - i] : 0);
+            return this;
+        }
+
+        Payload writeShort(int value) {
+            return writeBytes(value, 2);
+        }
+
+        Payload writeInt(int value) {
+            return writeBytes(value, 4);
+        }
+
+        Payload writeLong(long value) {
+            return writeBytes(value, 8);
+        }
+
+        Payload writeRaw(byte[] bytes) {
+            out.write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        Payload writeCollation() {
+            return writeRaw(InMemoryTDS.COLLATION);
+        }
+
+        Payload writeShortLenBytes(byte[] bytes) {
+            return writeShort(bytes.length).writeRaw(bytes);
+        }
+
+        Payload writeByteLenString(String s) {
+            return writeByte(s.length()).writeRaw(unicode(s));
+        }
+
+        Payload writeShortLenString(String s) {
+            return writeShort(s.length()).writeRaw(unicode(s));
+        }
+
+        // Partially length-prefixed value in a single chunk
+        Payload writePLP(byte[] bytes) {
+            return writeLong(bytes.length).writeInt(bytes.length).writeRaw(bytes).writeInt(0);
+        }
+
+        // Text pointer, timestamp, then the length-prefixed value
+        Payload writeTextPtrValue(byte[] bytes) {
+            writeByte(16).writeRaw(new byte[16]).writeRaw(new byte[8]);
+            return writeInt(bytes.length).writeRaw(bytes);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares reading a result set of int, bigint, float, decimal(18,4), datetime2, nvarchar and varchar columns row by
+ * row through the getters with reading it through fetchColumnarBatch(). The result set is returned from memory by a
+ * connection that is never opened.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarFetchBenchmark {
+
+    @Param({"10000"})
+    public int rowCount;
+
+    @Param({"1024"})
+    public int batchSize;
+
+    private SQLServerConnection con;
+    private byte[] response;
+
+    @Setup
+    public void setup() throws Exception {
+        con = InMemoryTDS.newConnection();
+
+        ColumnDecodingBenchmark.Payload p = new ColumnDecodingBenchmark.Payload();
+        p.writeByte(TDS.TDS_COLMETADATA).writeShort(7);
+        column(p).writeType(TDSType.INTN).writeByte(4).writeByteLenString("id");
+        column(p).writeType(TDSType.INTN).writeByte(8).writeByteLenString("quantity");
+        column(p).writeType(TDSType.FLOATN).writeByte(8).writeByteLenString("weight");
+        column(p).writeType(TDSType.DECIMALN).writeByte(9).writeByte(18).writeByte(4).writeByteLenString("price");
+        column(p).writeType(TDSType.DATETIME2N).writeByte(7).writeByteLenString("created");
+        column(p).writeType(TDSType.NVARCHAR).writeShort(100).writeCollation().writeByteLenString("name");
+        column(p).writeType(TDSType.BIGVARCHAR).writeShort(50).writeCollation().writeByteLenString("code");
+
+        for (int i = 0; i < rowCount; i++) {
+            p.writeByte(TDS.TDS_ROW);
+            p.writeByte(4).writeInt(i);
+            p.writeByte(8).writeLong(1000L * i);
+            p.writeByte(8).writeLong(Double.doubleToLongBits(i * 0.25));
+            p.writeByte(9).writeByte(1).writeLong(1234567L + i);
+            p.writeByte(8).writeBytes((i % 86400) * 10000000L, 5).writeBytes(737000 + i % 1000, 3);
+            p.writeShortLenBytes(("Customer name " + i).getBytes(StandardCharsets.UTF_16LE));
+            p.writeShortLenBytes(("CODE-" + i).getBytes(StandardCharsets.US_ASCII));
+        }
+        // DONE with a row count for the SELECT
+        p.writeByte(TDS.TDS_DONE).writeShort(0x10).writeShort(StreamDone.CMD_SELECT).writeLong(rowCount);
+        response = p.toByteArray();
+    }
+
+    // User type and flags of a nullable column, followed by its type info and name
+    private static ColumnDecodingBenchmark.Payload column(ColumnDecodingBenchmark.Payload p) {
+        return p.writeInt(0).writeShort(0x09);
+    }
+
+    @Benchmark
+    public long getters() throws Exception {
+        InMemoryTDS.setResponse(con, response);
+        long checksum = 0;
+        try (Statement stmt = con.createStatement(); ResultSet rs = stmt.executeQuery("SELECT")) {
+            while (rs.next()) {
+                checksum += rs.getInt(1) + rs.getLong(2) + (long) rs.getDouble(3);
+                checksum += rs.getBigDecimal(4).unscaledValue().longValue();
+                Timestamp created = rs.getTimestamp(5);
+                checksum += created.getNanos() + rs.getString(6).length() + rs.getString(7).length();
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long columnar() throws Exception {
+        InMemoryTDS.setResponse(con, response);
+        long checksum = 0;
+        try (Statement stmt = con.createStatement();
+                SQLServerResultSet rs = (SQLServerResultSet) stmt.executeQuery("SELECT")) {
+            SQLServerColumnarBatch batch;
+            while ((batch = rs.fetchColumnarBatch(batchSize)).getRowCount() > 0)
+                checksum += checksum(batch);
+        }
+        return checksum;
+    }
+
+    private static long checksum(SQLServerColumnarBatch batch) {
+        long checksum = 0;
+        for (int columnIndex = 1; columnIndex <= batch.getColumnCount(); columnIndex++) {
+            SQLServerColumnVector column = batch.getColumn(columnIndex);
+            switch (column.getVectorType()) {
+                case LONG:
+                    for (int i = 0; i < batch.getRowCount(); i++)
+                        checksum += column.getLong(i);
+                    break;
+                case DOUBLE:
+                    for (int i = 0; i < batch.getRowCount(); i++)
+                        checksum += (long) column.getDouble(i);
+                    break;
+                default:
+                    checksum += column.getOffsets()[batch.getRowCount()];
+                    break;
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures filling a SQLServerDataTable of int, bigint, float and nvarchar columns through addRow(Object...) and
+ * through a RowBuilder, writing the rows of a filled table as a TVP, and writing the same rows as a TVP streamed from
+ * an iterator. Run with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataTableTVPBenchmark {
+
+    @Param({"10000"})
+    public int rowCount;
+
+    private SQLServerConnection con;
+    private String[] names;
+    private TVP tvp;
+
+    @Setup
+    public void setup() throws Exception {
+        con = InMemoryTDS.newConnection();
+        names = new String[rowCount];
+        for (int i = 0; i < rowCount; i++)
+            names[i] = "Customer name " + i;
+        tvp = new TVP("tvp", builder());
+    }
+
+    private SQLServerDataTable newTable() throws SQLServerException {
+        SQLServerDataTable table = new SQLServerDataTable();
+        table.addColumnMetadata("id", java.sql.Types.INTEGER);
+        table.addColumnMetadata("quantity", java.sql.Types.BIGINT);
+        table.addColumnMetadata("weight", java.sql.Types.DOUBLE);
+        table.addColumnMetadata("name", java.sql.Types.NVARCHAR);
+        return table;
+    }
+
+    @Benchmark
+    public SQLServerDataTable addRow() throws SQLServerException {
+        SQLServerDataTable table = newTable();
+        for (int i = 0; i < rowCount; i++)
+            table.addRow(i, 1000L * i, i * 0.25, names[i]);
+        return table;
+    }
+
+    @Benchmark
+    public SQLServerDataTable builder() throws SQLServerException {
+        SQLServerDataTable table = newTable();
+        SQLServerDataTable.RowBuilder row = table.newRowBuilder();
+        for (int i = 0; i < rowCount; i++)
+            row.setInt(1, i).setLong(2, 1000L * i).setDouble(3, i * 0.25).setString(4, names[i]).addRow();
+        return table;
+    }
+
+    @Benchmark
+    public void writeRows() throws Exception {
+        InMemoryTDS.newWriter(con, TDS.PKT_RPC).writeTVPRows(tvp);
+    }
+
+    @Benchmark
+    public void writeStreamedRows() throws Exception {
+        SQLServerIteratorDataRecord record = new SQLServerIteratorDataRecord(
+                IntStream.range(0, rowCount).mapToObj(i -> new Object[] {i, 1000L * i, i * 0.25, names[i]}),
+                new SQLServerMetaData("id", java.sql.Types.INTEGER),
+                new SQLServerMetaData("quantity", java.sql.Types.BIGINT),
+                new SQLServerMetaData("weight", java.sql.Types.DOUBLE),
+                new SQLServerMetaData("name", java.sql.Types.NVARCHAR, 100));
+        InMemoryTDS.newWriter(con, TDS.PKT_RPC).writeTVPRows(new TVP("tvp", record));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares reading a fixed-length numeric column through the boxed getValue() path with the getLongValue() and
+ * getDoubleValue() paths used by the primitive ResultSet getters. Run with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveGetterBenchmark {
+
+    @Param({"BIT", "TINYINT", "SMALLINT", "INTEGER", "BIGINT", "REAL", "FLOAT", "SMALLMONEY", "MONEY"})
+    public String ssTypeName;
+
+    private TDSReader reader;
+    private TypeInfo typeInfo;
+    private JDBCType jdbcType;
+    private boolean isFloatingPoint;
+    private final DTV dtv = new DTV();
+
+    @Setup
+    public void setup() throws Exception {
+        SQLServerConnection con = InMemoryTDS.newConnection();
+        SSType ssType = SSType.valueOf(ssTypeName);
+        reader = InMemoryTDS.newReader(con, ColumnDecodingBenchmark.typeInfoAndValue(ssType));
+        typeInfo = TypeInfo.getInstance(reader, false);
+        isFloatingPoint = (SSType.REAL == ssType || SSType.FLOAT == ssType);
+        jdbcType = isFloatingPoint ? JDBCType.DOUBLE : JDBCType.BIGINT;
+
+        // Mark the value's position once, as repeated getter calls on the same row do
+        dtv.getValue(jdbcType, typeInfo.getScale(), null, null, typeInfo, null, reader);
+    }
+
+    @Benchmark
+    public double boxed() throws SQLServerException {
+        Object value = dtv.getValue(jdbcType, typeInfo.getScale(), null, null, typeInfo, null, reader);
+        return ((Number) value).doubleValue();
+    }
+
+    @Benchmark
+    public double primitive() throws SQLServerException {
+        return isFloatingPoint ? dtv.getDoubleValue(jdbcType, typeInfo, reader)
+                               : dtv.getLongValue(jdbcType, typeInfo, reader);
+    }
+}
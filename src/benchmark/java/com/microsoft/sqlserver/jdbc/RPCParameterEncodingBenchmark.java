@@ -0,0 +1,135 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures setting a prepared statement parameter and encoding it into an RPC request, for each JDBC type that can be
+ * sent as a parameter value. LOB, SQLXML, TVP and spatial types need a live connection to create their values and are
+ * not covered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RPCParameterEncodingBenchmark {
+
+    @Param({"BIT", "BOOLEAN", "TINYINT", "SMALLINT", "INTEGER", "BIGINT", "REAL", "FLOAT", "DOUBLE", "DECIMAL",
+            "NUMERIC", "MONEY", "SMALLMONEY", "CHAR", "VARCHAR", "LONGVARCHAR", "NCHAR", "NVARCHAR", "LONGNVARCHAR",
+            "BINARY", "VARBINARY", "LONGVARBINARY", "DATE", "TIME", "TIMESTAMP", "DATETIME", "SMALLDATETIME",
+            "DATETIMEOFFSET", "TIME_WITH_TIMEZONE", "TIMESTAMP_WITH_TIMEZONE", "GUID"})
+    public String jdbcTypeName;
+
+    private SQLServerConnection con;
+    private TDSWriter writer;
+    private Parameter parameter;
+    private JDBCType jdbcType;
+    private Object value;
+    private JavaType javaType;
+
+    @Setup
+    public void setup() throws Exception {
+        con = InMemoryTDS.newConnection();
+        writer = InMemoryTDS.newWriter(con, TDS.PKT_RPC);
+        parameter = new Parameter(false);
+        jdbcType = JDBCType.valueOf(jdbcTypeName);
+        value = sampleValue(jdbcType);
+        javaType = JavaType.of(value);
+    }
+
+    /**
+     * Returns a value of the Java type that the setter for the JDBC type takes.
+     */
+    static Object sampleValue(JDBCType jdbcType) {
+        switch (jdbcType) {
+            case BIT:
+            case BOOLEAN:
+                return Boolean.TRUE;
+            case TINYINT:
+                return (byte) 123;
+            case SMALLINT:
+                return (short) 12345;
+            case INTEGER:
+                return 1234567890;
+            case BIGINT:
+                return 1234567890123456789L;
+            case REAL:
+                return 1234.5678f;
+            case FLOAT:
+            case DOUBLE:
+                return 12345678.12345678;
+            case DECIMAL:
+            case NUMERIC:
+                return new BigDecimal("12345678901234.5678");
+            case MONEY:
+                return new BigDecimal("922337203685477.5807");
+            case SMALLMONEY:
+                return new BigDecimal("214748.3647");
+            case CHAR:
+            case VARCHAR:
+            case LONGVARCHAR:
+            case NCHAR:
+            case NVARCHAR:
+            case LONGNVARCHAR:
+                return "The quick brown fox jumps over the lazy dog";
+            case BINARY:
+            case VARBINARY:
+            case LONGVARBINARY:
+                byte[] bytes = new byte[64];
+                for (int i = 0; i < bytes.length; i++)
+                    bytes[i] = (byte) i;
+                return bytes;
+            case DATE:
+                return Date.valueOf("2019-03-14");
+            case TIME:
+                return Time.valueOf("15:09:26");
+            case TIMESTAMP:
+            case DATETIME:
+            case SMALLDATETIME:
+                return Timestamp.valueOf("2019-03-14 15:09:26.535897");
+            case DATETIMEOFFSET:
+                return microsoft.sql.DateTimeOffset.valueOf(Timestamp.valueOf("2019-03-14 15:09:26.535897"), -420);
+            case TIME_WITH_TIMEZONE:
+                return OffsetTime.parse("15:09:26.535897-07:00");
+            case TIMESTAMP_WITH_TIMEZONE:
+                return OffsetDateTime.parse("2019-03-14T15:09:26.535897-07:00");
+            case GUID:
+                return "6F9619FF-8B86-D011-B42D-00C04FC964FF";
+            default:
+                throw new IllegalArgumentException(jdbcType.toString());
+        }
+    }
+
+    @Benchmark
+    public void setAndEncode() throws SQLServerException {
+        parameter.setValue(jdbcType, value, javaType, null, null, null, null, con, false,
+                SQLServerStatementColumnEncryptionSetting.UseConnectionSetting, 1, null, null);
+        parameter.getTypeDefinition(con, null);
+        parameter.sendByRPC(writer, con);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microsoft.sqlserver.jdbc.SQLServerConnection.CityHash128Key;
+
+
+/**
+ * Measures the client side processing of SQL text when a statement is created: translating the JDBC escape syntax,
+ * parsing the text into a cache entry, and looking up an already parsed text.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SQLTranslationBenchmark {
+
+    /** Plain DML with parameter markers */
+    static final String PARAMETERS = "SELECT o.id, o.customer_id, o.total FROM orders o WHERE o.customer_id = ? "
+            + "AND o.status = ? AND o.created >= ? AND o.created < ? ORDER BY o.created DESC";
+
+    /**
+     * Query using the JDBC escape syntax. The function, date, outer join and LIKE escapes are passed through to the
+     * server, the LIMIT escape is rewritten by the driver.
+     */
+    static final String ESCAPES = "SELECT {fn UCASE(c.name)}, {fn CONCAT(c.first, c.last)}, {fn CURDATE()} "
+            + "FROM {oj customers c LEFT OUTER JOIN orders o ON c.id = o.customer_id} "
+            + "WHERE c.created > {ts '2019-03-14 15:09:26'} AND c.birthday = {d '1970-01-01'} "
+            + "AND c.code LIKE 'A\\_%' {escape '\\'} AND c.note <> 'it''s a ? \"quoted\" [marker]' "
+            + "AND c.id = ? -- trailing comment with a ?\n"
+            + "/* block comment with a ? */ AND c.region = ? ORDER BY c.id {limit 100}";
+
+    /** Stored procedure call with a return value */
+    static final String CALL = "{? = call dbo.update_order_status(?, ?, ?, ?)}";
+
+    @Param({"PARAMETERS", "ESCAPES", "CALL"})
+    public String sqlName;
+
+    private String sql;
+
+    @Setup
+    public void setup() throws Exception {
+        sql = (String) SQLTranslationBenchmark.class.getDeclaredField(sqlName).get(null);
+        SQLServerConnection.parseAndCacheSQL(new CityHash128Key(sql), sql);
+    }
+
+    @Benchmark
+    public String translate() throws SQLServerException {
+        return new JDBCSyntaxTranslator().translate(sql);
+    }
+
+    @Benchmark
+    public ParsedSQLCacheItem parseAndCacheSQL() throws SQLServerException {
+        return SQLServerConnection.parseAndCacheSQL(new CityHash128Key(sql), sql);
+    }
+
+    @Benchmark
+    public ParsedSQLCacheItem getCachedParsedSQL() {
+        return SQLServerConnection.getCachedParsedSQL(new CityHash128Key(sql));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures reading the packets of a 1 MB response message from a loopback socket through the socket stream, as the
+ * driver does by default, and through the socket channel, as it does with useSocketChannel=true. A thread stands in for
+ * the server and writes the message over and over.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SocketChannelReadBenchmark {
+
+    private static final int MESSAGE_SIZE = 1024 * 1024;
+
+    @Param({"false", "true"})
+    public boolean useSocketChannel;
+
+    private SQLServerConnection con;
+    private ServerSocket serverSocket;
+    private Socket socket;
+    private TDSChannel channel;
+    private int packetCount;
+
+    @Setup
+    public void setup() throws Exception {
+        con = InMemoryTDS.newConnection();
+
+        byte[] message = InMemoryTDS.toPackets(new byte[MESSAGE_SIZE]);
+        int maxPayload = InMemoryTDS.PACKET_SIZE - TDS.PACKET_HEADER_SIZE;
+        packetCount = (MESSAGE_SIZE + maxPayload - 1) / maxPayload;
+
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Thread server = new Thread(() -> {
+            try (Socket s = serverSocket.accept(); OutputStream out = s.getOutputStream()) {
+                while (true)
+                    out.write(message);
+            } catch (IOException e) {
+                // The benchmark closed the socket
+            }
+        }, "SocketChannelReadBenchmark server");
+        server.setDaemon(true);
+        server.start();
+
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                serverSocket.getLocalPort());
+        socket = useSocketChannel ? SocketChannel.open(address).socket() : new Socket(address.getAddress(),
+                address.getPort());
+        socket.setTcpNoDelay(true);
+
+        // Set up the channel the way TDSChannel.open() does
+        channel = InMemoryTDS.newChannel(con, socket.getInputStream(), InMemoryTDS.DISCARD);
+        if (useSocketChannel) {
+            ByteBuffer channelReadBuffer = ByteBuffer.allocateDirect(64 * 1024);
+            ((Buffer) channelReadBuffer).limit(0);
+            InMemoryTDS.setField(channel, "tcpSocket", socket);
+            InMemoryTDS.setField(channel, "socketChannel", socket.getChannel());
+            InMemoryTDS.setField(channel, "channelReadBuffer", channelReadBuffer);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        socket.close();
+        serverSocket.close();
+    }
+
+    @Benchmark
+    public TDSReader readMessage() throws SQLServerException {
+        TDSReader reader = new TDSReader(channel, con, null);
+        for (int i = 0; i < packetCount; i++)
+            reader.readPacket();
+        return reader;
+    }
+}
@@ -232,6 +232,39 @@ class CryptoMetadata {
 }
 
 
+/**
+ * Holds the parameter encryption metadata returned by sp_describe_parameter_encryption for a statement, so that it can
+ * be shared by the statements of a connection that execute the same SQL text with the same parameter definitions.
+ * <p>
+ * The metadata of each parameter is held as a template, from which each statement gets its own CryptoMetadata, as a
+ * CryptoMetadata holds the cipher algorithm that was initialized for the statement.
+ */
+final class ParameterEncryptionMetadata {
+    // The template of each parameter by index, null for the parameters that are not encrypted
+    private final CryptoMetadata[] templates;
+
+    ParameterEncryptionMetadata(int parameterCount) {
+        templates = new CryptoMetadata[parameterCount];
+    }
+
+    void set(int paramIndex, CryptoMetadata template) {
+        templates[paramIndex] = template;
+    }
+
+    /**
+     * Returns new crypto metadata for a parameter, or null if the parameter is not encrypted.
+     */
+    CryptoMetadata newCryptoMetadata(int paramIndex) throws SQLServerException {
+        CryptoMetadata template = templates[paramIndex];
+        if (null == template)
+            return null;
+
+        return new CryptoMetadata(template.cekTableEntry, template.ordinal, template.cipherAlgorithmId,
+                template.cipherAlgorithmName, template.encryptionType.value, template.normalizationRuleVersion);
+    }
+}
+
+
 // Fields in the first resultset of "sp_describe_parameter_encryption"
 // We expect the server to return the fields in the resultset in the same order as mentioned below.
 // If the server changes the below order, then transparent parameter encryption will break.
@@ -0,0 +1,322 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+/**
+ * Splits the lines of a delimited file into fields without decoding them into Strings first.
+ * <p>
+ * The bytes of the file are read into a buffer that holds at least the current row, and the fields of the row are
+ * found by scanning the buffer for the delimiter and the line terminators, which may be "\n", "\r" or "\r\n" as for
+ * {@link java.io.BufferedReader#readLine()}. A field is only decoded when it is asked for as a String, and plain
+ * integers are parsed from the bytes. This only works for charsets in which the bytes of the delimiter and of the line
+ * terminators cannot be part of another character, see {@link #isSupported(Charset)}.
+ * <p>
+ * When quoted fields are enabled, a field that starts with a double quote ends at the next double quote that is not
+ * doubled, and may contain the delimiter and line terminators. A doubled quote in a quoted field is read as one quote.
+ * Otherwise double quotes are part of the data, as for BCP and BULK INSERT.
+ * <p>
+ * This class is not thread safe.
+ */
+final class BulkCSVRowParser {
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_FIELD_COUNT = 16;
+
+    // The most digits of a long that cannot overflow
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private final InputStream in;
+    private final Charset charset;
+    private final byte[] delimiter;
+    private boolean isQuotedFieldEnabled = false;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private boolean isEndOfStream = false;
+    private boolean skipLineFeed = false;
+
+    // The fields of the current row are at [fieldStarts[i], fieldEnds[i]) relative to rowStart in the buffer
+    private int rowStart = 0;
+    private int fieldCount = 0;
+    private int[] fieldStarts = new int[INITIAL_FIELD_COUNT];
+    private int[] fieldEnds = new int[INITIAL_FIELD_COUNT];
+
+    BulkCSVRowParser(InputStream in, Charset charset, String delimiter) {
+        this.in = in;
+        this.charset = charset;
+        this.delimiter = delimiter.getBytes(charset);
+    }
+
+    /**
+     * Returns whether the bytes of the line terminators, of a double quote, and of all ASCII delimiters can only be
+     * part of those characters in a charset.
+     */
+    static boolean isSupported(Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset) || "windows-1252".equals(charset.name());
+    }
+
+    void setQuotedFieldEnabled(boolean isQuotedFieldEnabled) {
+        this.isQuotedFieldEnabled = isQuotedFieldEnabled;
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return false if the end of the stream was reached before any byte of a row
+     */
+    boolean nextRow() throws IOException {
+        rowStart = position;
+        if (skipLineFeed) {
+            if (position == limit)
+                fill();
+            if (position < limit && LF == buffer[position])
+                rowStart = ++position;
+            skipLineFeed = false;
+        }
+        if (position == limit && !fill())
+            return false;
+
+        fieldCount = 0;
+        int pos = position;
+        int fieldStart = pos;
+        int write = pos;
+        boolean isQuoted = false;
+        boolean isInQuotes = false;
+        byte delimiterStart = delimiter[0];
+
+        for (;;) {
+            if (pos == limit) {
+                int shift = rowStart;
+                if (!fill()) {
+                    // The last line of the stream has no line terminator
+                    addField(fieldStart - shift, write - shift);
+                    position = limit;
+                    return true;
+                }
+                shift -= rowStart;
+                pos -= shift;
+                fieldStart -= shift;
+                write -= shift;
+            }
+
+            byte b = buffer[pos];
+            if (isInQuotes) {
+                if (QUOTE == b) {
+                    if (pos + 1 == limit && !isEndOfStream) {
+                        // Read ahead to tell a doubled quote from the end of the field
+                        int shift = rowStart;
+                        fill();
+                        shift -= rowStart;
+                        pos -= shift;
+                        fieldStart -= shift;
+                        write -= shift;
+                        continue;
+                    }
+                    if (pos + 1 < limit && QUOTE == buffer[pos + 1]) {
+                        buffer[write++] = QUOTE;
+                        pos += 2;
+                    } else {
+                        isInQuotes = false;
+                        pos++;
+                    }
+                } else {
+                    buffer[write++] = b;
+                    pos++;
+                }
+            } else if (LF == b || CR == b) {
+                addField(fieldStart - rowStart, write - rowStart);
+                position = pos + 1;
+                skipLineFeed = (CR == b);
+                return true;
+            } else if (delimiterStart == b && isDelimiterAt(pos)) {
+                if (pos + delimiter.length > limit) {
+                    // Read the rest of what may be the delimiter
+                    int shift = rowStart;
+                    fill();
+                    shift -= rowStart;
+                    pos -= shift;
+                    fieldStart -= shift;
+                    write -= shift;
+                    continue;
+                }
+                addField(fieldStart - rowStart, write - rowStart);
+                pos += delimiter.length;
+                fieldStart = pos;
+                write = pos;
+                isQuoted = false;
+            } else if (QUOTE == b && isQuotedFieldEnabled && !isQuoted && pos == fieldStart) {
+                isQuoted = true;
+                isInQuotes = true;
+                pos++;
+                fieldStart = pos;
+                write = pos;
+            } else {
+                buffer[write++] = b;
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the bytes at pos match the delimiter as far as they have been read. The caller must read more
+     * bytes if the match is partial.
+     */
+    private boolean isDelimiterAt(int pos) {
+        int end = Math.min(pos + delimiter.length, limit);
+        for (int i = pos + 1; i < end; i++) {
+            if (buffer[i] != delimiter[i - pos])
+                return false;
+        }
+        return (end == pos + delimiter.length) || !isEndOfStream;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, 2 * fieldCount);
+            fieldEnds = Arrays.copyOf(fieldEnds, 2 * fieldCount);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Reads more bytes into the buffer, first moving the current row to the start of the buffer, or growing the buffer
+     * if the row fills it.
+     *
+     * @return false if the end of the stream was reached
+     */
+    private boolean fill() throws IOException {
+        if (isEndOfStream)
+            return false;
+
+        if (rowStart > 0) {
+            System.arraycopy(buffer, rowStart, buffer, 0, limit - rowStart);
+            position -= rowStart;
+            limit -= rowStart;
+            rowStart = 0;
+        } else if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+        }
+
+        int count;
+        do {
+            count = in.read(buffer, limit, buffer.length - limit);
+        } while (0 == count);
+
+        if (count < 0) {
+            isEndOfStream = true;
+            return false;
+        }
+        limit += count;
+        return true;
+    }
+
+    void close() throws IOException {
+        in.close();
+    }
+
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    int getLength(int field) {
+        return fieldEnds[field] - fieldStarts[field];
+    }
+
+    String getString(int field) {
+        return new String(buffer, rowStart + fieldStarts[field], getLength(field), charset);
+    }
+
+    /**
+     * Returns the fields of the current row as Strings.
+     */
+    String[] getStrings() {
+        String[] strings = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++)
+            strings[i] = getString(i);
+        return strings;
+    }
+
+    /**
+     * Returns whether a field is an optional sign followed by digits that fit in a long, with no other characters.
+     */
+    boolean isLong(int field) {
+        int start = rowStart + fieldStarts[field];
+        int end = rowStart + fieldEnds[field];
+        if (start < end && ('-' == buffer[start] || '+' == buffer[start]))
+            start++;
+        if (start == end || end - start > MAX_LONG_DIGITS)
+            return false;
+
+        for (int i = start; i < end; i++) {
+            if (buffer[i] < '0' || buffer[i] > '9')
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value of a field for which {@link #isLong(int)} is true.
+     */
+    long getLong(int field) {
+        int start = rowStart + fieldStarts[field];
+        int end = rowStart + fieldEnds[field];
+        boolean isNegative = ('-' == buffer[start]);
+        if (isNegative || '+' == buffer[start])
+            start++;
+
+        long value = 0;
+        for (int i = start; i < end; i++)
+            value = value * 10 + (buffer[i] - '0');
+        return isNegative ? -value : value;
+    }
+
+    /**
+     * Returns the value of a field that is an optional sign followed by digits with at most one decimal point, of which
+     * there are few enough to fit in a long, or null if the field is any other number or not a number.
+     */
+    BigDecimal getBigDecimal(int field) {
+        int start = rowStart + fieldStarts[field];
+        int end = rowStart + fieldEnds[field];
+        boolean isNegative = (start < end && '-' == buffer[start]);
+        if (isNegative || (start < end && '+' == buffer[start]))
+            start++;
+
+        long unscaledValue = 0;
+        int digits = 0;
+        int point = -1;
+        for (int i = start; i < end; i++) {
+            byte b = buffer[i];
+            if (b >= '0' && b <= '9') {
+                unscaledValue = unscaledValue * 10 + (b - '0');
+                digits++;
+            } else if ('.' == b && point < 0) {
+                point = i;
+            } else {
+                return null;
+            }
+        }
+        if (0 == digits || digits > MAX_LONG_DIGITS)
+            return null;
+
+        int scale = (point < 0) ? 0 : end - point - 1;
+        return BigDecimal.valueOf(isNegative ? -unscaledValue : unscaledValue, scale);
+    }
+}
@@ -193,6 +193,38 @@ final class Column {
         return (null != filter) ? filter.apply(value, jdbcType) : value;
     }
 
+    /**
+     * Returns the encrypted bytes of this encrypted column's value without decrypting them, or null if the value is
+     * null.
+     */
+    final byte[] getEncryptedValue(TDSReader tdsReader) throws SQLServerException {
+        assert null != cryptoMetadata && null == filter;
+        return getterDTV.getEncryptedValue(typeInfo, tdsReader);
+    }
+
+    /**
+     * Returns whether this column's value can be read with getLongValue() and getDoubleValue(), which do not box it.
+     */
+    final boolean hasPrimitiveValue() {
+        return null == filter && getterDTV.hasPrimitiveValue(typeInfo, cryptoMetadata);
+    }
+
+    /**
+     * Retrieves this column's value converted to BIT, TINYINT, SMALLINT, INTEGER or BIGINT, as 1 or 0 for BIT and 0 for
+     * NULL. Only valid if hasPrimitiveValue() is true.
+     */
+    final long getLongValue(JDBCType jdbcType, TDSReader tdsReader) throws SQLServerException {
+        return getterDTV.getLongValue(jdbcType, typeInfo, tdsReader);
+    }
+
+    /**
+     * Retrieves this column's value converted to REAL or DOUBLE, as 0 for NULL. Only valid if hasPrimitiveValue() is
+     * true.
+     */
+    final double getDoubleValue(JDBCType jdbcType, TDSReader tdsReader) throws SQLServerException {
+        return getterDTV.getDoubleValue(jdbcType, typeInfo, tdsReader);
+    }
+
     int getInt(TDSReader tdsReader) throws SQLServerException {
         return (Integer) getValue(JDBCType.INTEGER, null, null, tdsReader);
     }
@@ -0,0 +1,284 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.Arrays;
+
+
+/**
+ * Holds the metadata and the values of one column of a {@link SQLServerDataTable}.
+ * <p>
+ * Integer and bit values are held in a long[], floating point values in a double[], temporal and character values in a
+ * char[] arena and binary values in a byte[] arena, with the end offset of each value in an int[]. Values of all other
+ * types (decimal, numeric and sql_variant) are held as objects. Nulls are held in a bitmap, with a set bit for a null.
+ * <p>
+ * This class is not thread safe.
+ */
+final class DataTableColumnValues {
+
+    enum Storage {
+        LONG,
+        DOUBLE,
+        CHARS,
+        BYTES,
+        OBJECT
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    final SQLServerDataColumn column;
+    final JDBCType jdbcType;
+    final Storage storage;
+
+    private int size = 0;
+    private long[] nulls = new long[1];
+
+    private long[] longValues;
+    private double[] doubleValues;
+    private Object[] objectValues;
+
+    // For CHARS and BYTES, the value of row i is at [offsets[i], offsets[i + 1]) in chars or bytes
+    private int[] offsets;
+    private char[] chars;
+    private byte[] bytes;
+
+    DataTableColumnValues(SQLServerDataColumn column) throws SQLServerException {
+        this.column = column;
+        this.jdbcType = JDBCType.of(column.javaSqlType);
+        this.storage = storageOf(jdbcType);
+        switch (storage) {
+            case LONG:
+                longValues = new long[INITIAL_CAPACITY];
+                break;
+            case DOUBLE:
+                doubleValues = new double[INITIAL_CAPACITY];
+                break;
+            case CHARS:
+                offsets = new int[INITIAL_CAPACITY + 1];
+                chars = new char[INITIAL_CAPACITY * 8];
+                break;
+            case BYTES:
+                offsets = new int[INITIAL_CAPACITY + 1];
+                bytes = new byte[INITIAL_CAPACITY * 8];
+                break;
+            default:
+                objectValues = new Object[INITIAL_CAPACITY];
+                break;
+        }
+    }
+
+    private static Storage storageOf(JDBCType jdbcType) {
+        switch (jdbcType) {
+            case BIGINT:
+            case BIT:
+            case INTEGER:
+            case SMALLINT:
+            case TINYINT:
+                return Storage.LONG;
+
+            case DOUBLE:
+            case FLOAT:
+            case REAL:
+                return Storage.DOUBLE;
+
+            case TIMESTAMP_WITH_TIMEZONE:
+            case TIME_WITH_TIMEZONE:
+            case DATE:
+            case TIME:
+            case TIMESTAMP:
+            case DATETIMEOFFSET:
+            case DATETIME:
+            case SMALLDATETIME:
+            case CHAR:
+            case VARCHAR:
+            case NCHAR:
+            case NVARCHAR:
+            case LONGVARCHAR:
+            case LONGNVARCHAR:
+            case SQLXML:
+                return Storage.CHARS;
+
+            case BINARY:
+            case VARBINARY:
+            case LONGVARBINARY:
+                return Storage.BYTES;
+
+            default:
+                return Storage.OBJECT;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the value of a row is null. Rows that were added before this column was are null.
+     */
+    boolean isNull(int row) {
+        return row >= size || 0 != (nulls[row >> 6] & (1L << row));
+    }
+
+    long getLong(int row) {
+        return longValues[row];
+    }
+
+    double getDouble(int row) {
+        return doubleValues[row];
+    }
+
+    int getOffset(int row) {
+        return offsets[row];
+    }
+
+    int getLength(int row) {
+        return offsets[row + 1] - offsets[row];
+    }
+
+    char[] getChars() {
+        return chars;
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    Object getObject(int row) {
+        return objectValues[row];
+    }
+
+    /**
+     * Returns the value of a row as the object that the data table used to hold for it: a Long, Boolean, Integer,
+     * Short, Double, Float, String or byte[] depending on the type of the column.
+     */
+    Object getValue(int row) {
+        if (isNull(row))
+            return null;
+
+        switch (storage) {
+            case LONG:
+                switch (jdbcType) {
+                    case BIGINT:
+                        return longValues[row];
+                    case BIT:
+                        return 0 != longValues[row];
+                    case INTEGER:
+                        return (int) longValues[row];
+                    default:
+                        return (short) longValues[row];
+                }
+            case DOUBLE:
+                return (JDBCType.DOUBLE == jdbcType) ? (Object) doubleValues[row] : (Object) (float) doubleValues[row];
+            case CHARS:
+                return new String(chars, offsets[row], getLength(row));
+            case BYTES:
+                return Arrays.copyOfRange(bytes, offsets[row], offsets[row + 1]);
+            default:
+                return objectValues[row];
+        }
+    }
+
+    void appendNull() {
+        int row = reserve();
+        nulls[row >> 6] |= 1L << row;
+        if (null != offsets)
+            offsets[row + 1] = offsets[row];
+    }
+
+    void appendLong(long value) {
+        int row = reserve();
+        longValues[row] = value;
+    }
+
+    void appendDouble(double value) {
+        int row = reserve();
+        doubleValues[row] = value;
+    }
+
+    void appendChars(String value) {
+        int row = reserve();
+        int start = offsets[row];
+        int end = start + value.length();
+        if (end > chars.length)
+            chars = Arrays.copyOf(chars, Math.max(end, 2 * chars.length));
+        value.getChars(0, value.length(), chars, start);
+        offsets[row + 1] = end;
+    }
+
+    void appendBytes(byte[] value) {
+        int row = reserve();
+        int start = offsets[row];
+        int end = start + value.length;
+        if (end > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(end, 2 * bytes.length));
+        System.arraycopy(value, 0, bytes, start, value.length);
+        offsets[row + 1] = end;
+    }
+
+    void appendObject(Object value) {
+        int row = reserve();
+        objectValues[row] = value;
+    }
+
+    /**
+     * Appends a value converted by the data table, which is null or of the type returned by {@link #getValue(int)}
+     * for the column, or a BigDecimal or any object for the columns held as objects.
+     */
+    void append(Object value) {
+        if (null == value) {
+            appendNull();
+            return;
+        }
+
+        switch (storage) {
+            case LONG:
+                appendLong((value instanceof Boolean) ? (((Boolean) value) ? 1 : 0) : ((Number) value).longValue());
+                break;
+            case DOUBLE:
+                appendDouble(((Number) value).doubleValue());
+                break;
+            case CHARS:
+                appendChars((String) value);
+                break;
+            case BYTES:
+                appendBytes((byte[]) value);
+                break;
+            default:
+                appendObject(value);
+                break;
+        }
+    }
+
+    /**
+     * Makes room for one more row, and returns its index.
+     */
+    private int reserve() {
+        int row = size++;
+        if ((row >> 6) >= nulls.length)
+            nulls = Arrays.copyOf(nulls, 2 * nulls.length);
+
+        switch (storage) {
+            case LONG:
+                if (row == longValues.length)
+                    longValues = Arrays.copyOf(longValues, 2 * row);
+                break;
+            case DOUBLE:
+                if (row == doubleValues.length)
+                    doubleValues = Arrays.copyOf(doubleValues, 2 * row);
+                break;
+            case CHARS:
+            case BYTES:
+                if (row + 1 == offsets.length)
+                    offsets = Arrays.copyOf(offsets, 2 * row + 1);
+                break;
+            default:
+                if (row == objectValues.length)
+                    objectValues = Arrays.copyOf(objectValues, 2 * row);
+                break;
+        }
+        return row;
+    }
+}
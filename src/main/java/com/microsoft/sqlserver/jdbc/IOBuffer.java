@@ -27,6 +27,8 @@ import java.net.SocketTimeoutException;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
@@ -40,6 +42,7 @@ import java.sql.Timestamp;
 import java.text.MessageFormat;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
@@ -58,6 +61,7 @@ import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -574,6 +578,13 @@ final class TDSChannel implements Serializable {
         return new TDSReader(this, con, command);
     }
 
+    // Pool of consumed response packets whose buffers can be reused by subsequent reads
+    private final TDSPacketPool packetPool = new TDSPacketPool();
+
+    final TDSPacketPool getPacketPool() {
+        return packetPool;
+    }
+
     // Socket for raw TCP/IP communications with SQL Server
     private Socket tcpSocket;
 
@@ -603,6 +614,20 @@ final class TDSChannel implements Serializable {
     private InputStream inputStream;
     private OutputStream outputStream;
 
+    // When the useSocketChannel connection property is set, unencrypted traffic bypasses the streams above and goes
+    // directly through the TCP socket's channel in non-blocking mode, using direct buffers. Requests are written from
+    // the direct packet buffers of TDSWriter. Responses are read into channelReadBuffer and copied from there into the
+    // heap buffers of the packets, as the stream would copy them. TLS traffic always goes through the streams. Reads
+    // and writes use separate selectors since attention packets can be written from another thread while a response
+    // is being read.
+    private static final int SOCKET_CHANNEL_BUFFER_SIZE = 64 * 1024;
+    private SocketChannel socketChannel;
+    private Selector readSelector;
+    private Selector writeSelector;
+    private boolean isSocketChannelNonBlocking = false;
+    private ByteBuffer channelReadBuffer;
+    private ByteBuffer channelWriteBuffer;
+
     /** TDS packet payload logger */
     private static Logger packetLogger = Logger.getLogger("com.microsoft.sqlserver.jdbc.internals.TDS.DATA");
     private final boolean isLoggingPackets = packetLogger.isLoggable(Level.FINEST);
@@ -668,11 +693,126 @@ final class TDSChannel implements Serializable {
 
             inputStream = tcpInputStream = tcpSocket.getInputStream();
             outputStream = tcpOutputStream = tcpSocket.getOutputStream();
+
+            // The socket only has a channel if it was opened as one (see SocketFinder).
+            if (con.useSocketChannel() && null != tcpSocket.getChannel()) {
+                if (logger.isLoggable(Level.FINER))
+                    logger.finer(this.toString() + ": Using socket channel I/O");
+
+                socketChannel = tcpSocket.getChannel();
+                channelReadBuffer = ByteBuffer.allocateDirect(SOCKET_CHANNEL_BUFFER_SIZE);
+                ((Buffer) channelReadBuffer).limit(0);
+                channelWriteBuffer = ByteBuffer.allocateDirect(SOCKET_CHANNEL_BUFFER_SIZE);
+            }
         } catch (IOException ex) {
             SQLServerException.ConvertConnectExceptionToSQLServerException(host, port, con, ex);
         }
     }
 
+    /**
+     * Returns whether TDS packet buffers should be allocated as direct buffers, which is the case when packets are
+     * written to a socket channel rather than to a stream.
+     */
+    final boolean useDirectBuffers() {
+        return null != socketChannel;
+    }
+
+    /**
+     * Returns whether I/O currently goes through the socket channel. While SSL is enabled, the socket streams are used.
+     */
+    private boolean isSocketChannelIO() {
+        return null != socketChannel && null == sslSocket;
+    }
+
+    /**
+     * Switches the socket channel between blocking mode, which the socket streams require, and non-blocking mode, which
+     * socket channel I/O uses so that it can honor the socket timeout.
+     */
+    private synchronized void configureSocketChannel(boolean nonBlocking) throws IOException {
+        if (nonBlocking == isSocketChannelNonBlocking)
+            return;
+
+        if (nonBlocking) {
+            socketChannel.configureBlocking(false);
+            if (null == readSelector) {
+                readSelector = Selector.open();
+                writeSelector = Selector.open();
+                socketChannel.register(readSelector, SelectionKey.OP_READ);
+                socketChannel.register(writeSelector, SelectionKey.OP_WRITE);
+            }
+        } else {
+            // A channel cannot be put back in blocking mode while it is registered with a selector
+            socketChannel.keyFor(readSelector).cancel();
+            socketChannel.keyFor(writeSelector).cancel();
+            readSelector.selectNow();
+            writeSelector.selectNow();
+            readSelector.close();
+            writeSelector.close();
+            readSelector = null;
+            writeSelector = null;
+            socketChannel.configureBlocking(true);
+        }
+        isSocketChannelNonBlocking = nonBlocking;
+    }
+
+    /**
+     * Waits until the socket channel is ready for the operation of the given selector.
+     *
+     * @param selector
+     *        the read or write selector
+     * @param timeoutMillis
+     *        the maximum time to wait, 0 to wait indefinitely
+     * @throws SocketTimeoutException
+     *         if the timeout elapsed before the channel became ready
+     */
+    private static void awaitSocketChannel(Selector selector, int timeoutMillis) throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        try {
+            while (0 == selector.select(remaining)) {
+                if (0 < timeoutMillis) {
+                    remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0)
+                        throw new SocketTimeoutException(SQLServerException.getErrString("R_readTimedOut"));
+                }
+            }
+            selector.selectedKeys().clear();
+        } catch (ClosedSelectorException e) {
+            // The channel was closed from another thread
+            throw new ClosedChannelException();
+        }
+    }
+
+    // Copies up to length bytes of the response into data, reading from the channel when the read buffer is empty
+    private int readSocketChannel(byte[] data, int offset, int length) throws IOException {
+        if (!channelReadBuffer.hasRemaining()) {
+            configureSocketChannel(true);
+
+            // Read as much as is available so that consecutive packet header and payload reads are served from the
+            // buffer without further system calls.
+            ((Buffer) channelReadBuffer).clear();
+            int bytesRead;
+            while (0 == (bytesRead = socketChannel.read(channelReadBuffer)))
+                awaitSocketChannel(readSelector, tcpSocket.getSoTimeout());
+            ((Buffer) channelReadBuffer).flip();
+
+            if (bytesRead < 0)
+                return -1;
+        }
+
+        int bytesToCopy = Math.min(length, channelReadBuffer.remaining());
+        channelReadBuffer.get(data, offset, bytesToCopy);
+        return bytesToCopy;
+    }
+
+    private void writeSocketChannel(ByteBuffer buffer) throws IOException {
+        configureSocketChannel(true);
+        while (buffer.hasRemaining()) {
+            if (0 == socketChannel.write(buffer))
+                awaitSocketChannel(writeSelector, 0);
+        }
+    }
+
     /**
      * Disables SSL on this TDS channel.
      */
@@ -1614,6 +1754,12 @@ final class TDSChannel implements Serializable {
             if (logger.isLoggable(Level.FINER))
                 logger.finer(toString() + " Enabling SSL...");
 
+            // SSL goes through the socket streams, which require a blocking channel
+            if (null != socketChannel) {
+                assert !channelReadBuffer.hasRemaining();
+                configureSocketChannel(false);
+            }
+
             String trustStoreFileName = con.activeConnectionProperties
                     .getProperty(SQLServerDriverStringProperty.TRUST_STORE.toString());
             String trustStorePassword = con.activeConnectionProperties
@@ -2020,6 +2166,9 @@ final class TDSChannel implements Serializable {
 
     final int read(byte[] data, int offset, int length) throws SQLServerException {
         try {
+            if (isSocketChannelIO())
+                return readSocketChannel(data, offset, length);
+
             return inputStream.read(data, offset, length);
         } catch (IOException e) {
             if (logger.isLoggable(Level.FINE))
@@ -2037,6 +2186,19 @@ final class TDSChannel implements Serializable {
 
     final void write(byte[] data, int offset, int length) throws SQLServerException {
         try {
+            if (isSocketChannelIO()) {
+                while (length > 0) {
+                    int bytesToWrite = Math.min(length, channelWriteBuffer.capacity());
+                    ((Buffer) channelWriteBuffer).clear();
+                    channelWriteBuffer.put(data, offset, bytesToWrite);
+                    ((Buffer) channelWriteBuffer).flip();
+                    writeSocketChannel(channelWriteBuffer);
+                    offset += bytesToWrite;
+                    length -= bytesToWrite;
+                }
+                return;
+            }
+
             outputStream.write(data, offset, length);
         } catch (IOException e) {
             if (logger.isLoggable(Level.FINER))
@@ -2046,7 +2208,35 @@ final class TDSChannel implements Serializable {
         }
     }
 
+    /**
+     * Writes the remaining contents of a buffer, leaving the buffer's position at its limit. Direct buffers are written
+     * to the socket channel without an intermediate copy.
+     */
+    final void write(ByteBuffer buffer) throws SQLServerException {
+        if (buffer.hasArray()) {
+            write(buffer.array(), buffer.arrayOffset() + ((Buffer) buffer).position(), buffer.remaining());
+        } else if (isSocketChannelIO()) {
+            try {
+                writeSocketChannel(buffer);
+            } catch (IOException e) {
+                if (logger.isLoggable(Level.FINER))
+                    logger.finer(toString() + " write failed:" + e.getMessage());
+
+                con.terminate(SQLServerException.DRIVER_ERROR_IO_FAILED, e.getMessage(), e);
+            }
+        } else {
+            // Direct buffer over the SSL streams, e.g. during login
+            byte[] data = new byte[buffer.remaining()];
+            buffer.duplicate().get(data);
+            write(data, 0, data.length);
+        }
+        ((Buffer) buffer).position(((Buffer) buffer).limit());
+    }
+
     final void flush() throws SQLServerException {
+        if (isSocketChannelIO())
+            return; // Socket channel writes are not buffered
+
         try {
             outputStream.flush();
         } catch (IOException e) {
@@ -2058,6 +2248,9 @@ final class TDSChannel implements Serializable {
     }
 
     final void close() {
+        if (logger.isLoggable(Level.FINER))
+            logger.finer(this.toString() + ": Closing channel, " + packetPool.toString());
+
         if (null != sslSocket)
             disableSSL();
 
@@ -2096,6 +2289,20 @@ final class TDSChannel implements Serializable {
                     logger.log(Level.FINE, this.toString() + ": Ignored error closing socket", e);
             }
         }
+
+        closeSelector(readSelector);
+        closeSelector(writeSelector);
+    }
+
+    private void closeSelector(Selector selector) {
+        if (null != selector) {
+            try {
+                selector.close();
+            } catch (IOException e) {
+                if (logger.isLoggable(Level.FINE))
+                    logger.log(Level.FINE, this.toString() + ": Ignored error closing selector", e);
+            }
+        }
     }
 
     /**
@@ -2618,7 +2825,8 @@ final class SocketFinder {
         assert timeoutInMilliSeconds != 0 : "timeout cannot be zero";
         if (addr.isUnresolved())
             throw new java.net.UnknownHostException();
-        selectedSocket = new Socket();
+        // Open the socket from a channel if socket channel I/O was requested; see TDSChannel.open
+        selectedSocket = conn.useSocketChannel() ? SocketChannel.open().socket() : new Socket();
         selectedSocket.connect(addr, timeoutInMilliSeconds);
         return selectedSocket;
     }
@@ -3062,6 +3270,9 @@ final class TDSWriter {
     // Monotonically increasing packet number associated with the current message
     private int packetNum = 0;
 
+    // Bytes of the packets written to the channel, including their headers
+    private long bytesSent = 0;
+
     // Bytes for sending decimal/numeric data
     private final static int BYTES4 = 4;
     private final static int BYTES8 = 8;
@@ -3166,8 +3377,13 @@ final class TDSWriter {
         // then allocate new buffers that are the correct size.
         int negotiatedPacketSize = con.getTDSPacketSize();
         if (currentPacketSize != negotiatedPacketSize) {
-            socketBuffer = ByteBuffer.allocate(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
-            stagingBuffer = ByteBuffer.allocate(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
+            if (tdsChannel.useDirectBuffers()) {
+                socketBuffer = ByteBuffer.allocateDirect(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
+                stagingBuffer = ByteBuffer.allocateDirect(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
+            } else {
+                socketBuffer = ByteBuffer.allocate(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
+                stagingBuffer = ByteBuffer.allocate(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
+            }
             logBuffer = ByteBuffer.allocate(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
             currentPacketSize = negotiatedPacketSize;
         }
@@ -3779,6 +3995,28 @@ final class TDSWriter {
         }
     }
 
+    /**
+     * Writes length chars from offset in chars, as writeString does.
+     */
+    void writeString(char[] chars, int offset, int length) throws SQLServerException {
+        int end = offset + length;
+        while (offset < end) {
+            int bytesToCopy = 2 * (end - offset);
+
+            if (bytesToCopy > valueBytes.length)
+                bytesToCopy = valueBytes.length;
+
+            int bytesCopied = 0;
+            while (bytesCopied < bytesToCopy) {
+                char ch = chars[offset++];
+                valueBytes[bytesCopied++] = (byte) ((ch >> 0) & 0xFF);
+                valueBytes[bytesCopied++] = (byte) ((ch >> 8) & 0xFF);
+            }
+
+            writeBytes(valueBytes, 0, bytesCopied);
+        }
+    }
+
     void writeStream(InputStream inputStream, long advertisedLength,
             boolean writeChunkSizes) throws SQLServerException {
         assert DataTypes.UNKNOWN_STREAM_LENGTH == advertisedLength || advertisedLength >= 0;
@@ -4074,6 +4312,7 @@ final class TDSWriter {
     private void writePacketHeader(int tdsMessageStatus) {
         int tdsMessageLength = ((Buffer) stagingBuffer).position();
         ++packetNum;
+        bytesSent += tdsMessageLength;
 
         // Write the TDS packet header back at the start of the staging buffer
         stagingBuffer.put(TDS.PACKET_HEADER_MESSAGE_TYPE, tdsMessageType);
@@ -4109,9 +4348,11 @@ final class TDSWriter {
     }
 
     void flush(boolean atEOM) throws SQLServerException {
+        final TDSRequestTimer requestTimer = (null != command) ? command.getRequestTimer() : null;
+        final long startNanos = (null != requestTimer) ? System.nanoTime() : 0;
+
         // First, flush any data left in the socket buffer.
-        tdsChannel.write(socketBuffer.array(), ((Buffer) socketBuffer).position(), socketBuffer.remaining());
-        ((Buffer) socketBuffer).position(((Buffer) socketBuffer).limit());
+        tdsChannel.write(socketBuffer);
 
         // If there is data in the staging buffer that needs to be written
         // to the socket, the socket buffer is now empty, so swap buffers
@@ -4143,9 +4384,11 @@ final class TDSWriter {
                 preparePacket();
 
             // Finally, start sending data from the new socket buffer.
-            tdsChannel.write(socketBuffer.array(), ((Buffer) socketBuffer).position(), socketBuffer.remaining());
-            ((Buffer) socketBuffer).position(((Buffer) socketBuffer).limit());
+            tdsChannel.write(socketBuffer);
         }
+
+        if (null != requestTimer)
+            requestTimer.onNetworkWrite(startNanos);
     }
 
     // Composite write operations
@@ -4542,6 +4785,11 @@ final class TDSWriter {
     }
 
     void writeTVPRows(TVP value) throws SQLServerException {
+        if (TVPType.SQLServerDataTable == value.tvpType) {
+            writeTVPDataTableRows(value);
+            return;
+        }
+
         boolean tdsWritterCached = false;
         ByteBuffer cachedTVPHeaders = null;
         TDSCommand cachedCommand = null;
@@ -4565,7 +4813,9 @@ final class TDSWriter {
 
                     if (con.equals(src_stmt.getConnection()) && 0 != resultSetServerCursorId) {
                         cachedTVPHeaders = ByteBuffer.allocate(stagingBuffer.capacity()).order(stagingBuffer.order());
-                        cachedTVPHeaders.put(stagingBuffer.array(), 0, ((Buffer) stagingBuffer).position());
+                        ByteBuffer stagedHeaders = stagingBuffer.duplicate();
+                        ((Buffer) stagedHeaders).flip();
+                        cachedTVPHeaders.put(stagedHeaders);
 
                         cachedCommand = this.command;
 
@@ -4664,6 +4914,128 @@ final class TDSWriter {
         }
     }
 
+    /**
+     * Writes the rows of a TVP whose source is a SQLServerDataTable straight from the columns of the data table, without
+     * boxing the values of the numeric columns or copying the values of the character and binary columns.
+     */
+    private void writeTVPDataTableRows(TVP value) throws SQLServerException {
+        SQLServerDataTable dataTable = value.sourceDataTable;
+        @SuppressWarnings("unchecked")
+        Map.Entry<Integer, SQLServerMetaData>[] columns = value.getColumnMetadata().entrySet()
+                .toArray(new Map.Entry[0]);
+        DataTableColumnValues[] columnValues = dataTable.columnValues;
+
+        for (int row = 0; row < dataTable.rowCount; row++) {
+            // ROW
+            writeByte((byte) TDS.TVP_ROW);
+            for (int i = 0; i < columns.length; i++) {
+                // If useServerDefault is set, client MUST NOT emit TvpColumnData for the associated column
+                if (columns[i].getValue().useServerDefault)
+                    continue;
+                writeTVPDataTableValue(columnValues[i], row, columns[i]);
+            }
+        }
+
+        // TVP_END_TOKEN
+        writeByte((byte) 0x00);
+    }
+
+    private void writeTVPDataTableValue(DataTableColumnValues values, int row,
+            Map.Entry<Integer, SQLServerMetaData> columnPair) throws SQLServerException {
+        boolean isNull = values.isNull(row);
+        switch (values.storage) {
+            case LONG:
+                if (isNull) {
+                    writeByte((byte) 0);
+                    break;
+                }
+                switch (values.jdbcType) {
+                    case BIGINT:
+                        writeByte((byte) 8);
+                        writeLong(values.getLong(row));
+                        break;
+                    case BIT:
+                        writeByte((byte) 1);
+                        writeByte((byte) ((0 != values.getLong(row)) ? 1 : 0));
+                        break;
+                    case INTEGER:
+                        writeByte((byte) 4);
+                        writeInt((int) values.getLong(row));
+                        break;
+                    default:
+                        writeByte((byte) 2); // length of datatype
+                        writeShort((short) values.getLong(row));
+                        break;
+                }
+                break;
+
+            case DOUBLE:
+                if (isNull) {
+                    writeByte((byte) 0);
+                } else if (JDBCType.DOUBLE == values.jdbcType) {
+                    writeByte((byte) 8);
+                    writeDouble(values.getDouble(row));
+                } else {
+                    writeByte((byte) 4);
+                    writeInt(Float.floatToRawIntBits((float) values.getDouble(row)));
+                }
+                break;
+
+            case CHARS: {
+                boolean isShortValue = (2L * columnPair.getValue().precision) <= DataTypes.SHORT_VARTYPE_MAX_BYTES;
+                int length = isNull ? 0 : values.getLength(row);
+                if (!isShortValue) {
+                    // Null header for v*max types is 0xFFFFFFFFFFFFFFFF.
+                    // For v*max types with known length, length is <totallength8><chunklength4>
+                    writeLong(isNull ? 0xFFFFFFFFFFFFFFFFL : 2L * length);
+                    if (!isNull) {
+                        if (length > 0) {
+                            writeInt(2 * length);
+                            writeString(values.getChars(), values.getOffset(row), length);
+                        }
+                        // Send the terminator PLP chunk.
+                        writeInt(0);
+                    }
+                } else if (isNull) {
+                    writeShort((short) -1); // actual len
+                } else {
+                    writeShort((short) (2 * length));
+                    writeString(values.getChars(), values.getOffset(row), length);
+                }
+                break;
+            }
+
+            case BYTES: {
+                boolean isShortValue = columnPair.getValue().precision <= DataTypes.SHORT_VARTYPE_MAX_BYTES;
+                int length = isNull ? 0 : values.getLength(row);
+                if (!isShortValue) {
+                    writeLong(isNull ? 0xFFFFFFFFFFFFFFFFL : length);
+                    if (!isNull) {
+                        if (length > 0) {
+                            writeInt(length);
+                            writeBytes(values.getBytes(), values.getOffset(row), length);
+                        }
+                        // Send the terminator PLP chunk.
+                        writeInt(0);
+                    }
+                } else if (isNull) {
+                    writeShort((short) -1); // actual len
+                } else {
+                    writeShort((short) length);
+                    writeBytes(values.getBytes(), values.getOffset(row), length);
+                }
+                break;
+            }
+
+            default:
+                // decimal, numeric and sql_variant
+                Object currentObject = isNull ? null : values.getObject(row);
+                writeInternalTVPRowValues(values.jdbcType, isNull ? null : String.valueOf(currentObject),
+                        currentObject, columnPair, false);
+                break;
+        }
+    }
+
     private void writeInternalTVPRowValues(JDBCType jdbcType, String currentColumnStringValue, Object currentObject,
             Map.Entry<Integer, SQLServerMetaData> columnPair, boolean isSqlVariant) throws SQLServerException {
         boolean isShortValue, isNull;
@@ -5139,6 +5511,13 @@ final class TDSWriter {
         return cryptoMeta;
     }
 
+    /**
+     * Returns the number of bytes of the packets written to the channel, including their headers.
+     */
+    long getBytesSent() {
+        return bytesSent;
+    }
+
     void writeEncryptedRPCByteArray(byte bValue[]) throws SQLServerException {
         boolean bValueNull = (bValue == null);
         long nValueLen = bValueNull ? 0 : bValue.length;
@@ -6199,6 +6578,9 @@ final class TDSWriter {
  * exactly as much response data as they need, and no more. Java reference semantics ensure that a mark holds onto its
  * referenced packet and subsequent packets (through next references). When all marked references to a packet go away,
  * the packet, and any linked unmarked packets, can be reclaimed by GC.
+ *
+ * A packet that was unlinked from its predecessor while streaming and was never marked is not reachable from anywhere
+ * once the reader moves past it, so it can be handed back to the channel's TDSPacketPool for reuse.
  */
 final class TDSPacket {
     final byte[] header = new byte[TDS.PACKET_HEADER_SIZE];
@@ -6206,6 +6588,12 @@ final class TDSPacket {
     int payloadLength;
     volatile TDSPacket next;
 
+    // Set when the link from the previous packet in the chain is cut while streaming.
+    boolean isUnlinked;
+
+    // Set (and never cleared while in use) once a TDSReaderMark refers to this packet.
+    boolean isMarked;
+
     final public String toString() {
         return "TDSPacket(SPID:" + Util.readUnsignedShortBigEndian(header, TDS.PACKET_HEADER_SPID) + " Seq:"
                 + header[TDS.PACKET_HEADER_SEQUENCE_NUM] + ")";
@@ -6220,6 +6608,96 @@ final class TDSPacket {
     final boolean isEOM() {
         return TDS.STATUS_BIT_EOM == (header[TDS.PACKET_HEADER_MESSAGE_STATUS] & TDS.STATUS_BIT_EOM);
     }
+
+    final boolean isRecyclable() {
+        return isUnlinked && !isMarked && 0 < payload.length;
+    }
+
+    /**
+     * Clears the packet state so that it can be reused for another read.
+     */
+    final void recycle() {
+        payloadLength = 0;
+        next = null;
+        isUnlinked = false;
+        isMarked = false;
+    }
+}
+
+
+/**
+ * TDSPacketPool retains consumed response packets of a TDSChannel so that their payload buffers can be reused when
+ * reading subsequent packets, instead of allocating a new buffer for every packet of a streamed response.
+ *
+ * Only packets that are provably unreferenced (see TDSPacket.isRecyclable) are returned to the pool. The amount of
+ * payload memory retained by the pool is capped at MAX_RETAINED_BYTES; packets beyond the cap are left to GC.
+ */
+final class TDSPacketPool {
+    static final int MAX_RETAINED_BYTES = 256 * 1024;
+
+    private final ArrayDeque<TDSPacket> packets = new ArrayDeque<>();
+    private int retainedBytes = 0;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Returns a packet with a payload buffer of the given size, reusing a pooled packet if one is available.
+     *
+     * @param size
+     *        the payload size (negotiated TDS packet size)
+     * @return a packet ready to be read into
+     */
+    TDSPacket acquire(int size) {
+        synchronized (packets) {
+            TDSPacket packet = packets.pollLast();
+            if (null != packet) {
+                if (size == packet.payload.length) {
+                    retainedBytes -= size;
+                    hitCount.incrementAndGet();
+                    packet.recycle();
+                    return packet;
+                }
+
+                // Packet size was renegotiated; none of the retained packets fit anymore.
+                packets.clear();
+                retainedBytes = 0;
+            }
+        }
+
+        missCount.incrementAndGet();
+        return new TDSPacket(size);
+    }
+
+    /**
+     * Returns a consumed packet to the pool, unless the pool has already reached its memory cap.
+     *
+     * @param packet
+     *        a packet for which isRecyclable() is true
+     */
+    void release(TDSPacket packet) {
+        assert packet.isRecyclable();
+
+        synchronized (packets) {
+            if (retainedBytes + packet.payload.length > MAX_RETAINED_BYTES)
+                return;
+
+            retainedBytes += packet.payload.length;
+            packets.addLast(packet);
+        }
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    public String toString() {
+        return "TDSPacketPool(hits:" + hitCount.get() + " misses:" + missCount.get() + ")";
+    }
 }
 
 
@@ -6380,6 +6858,11 @@ final class TDSReader implements Serializable {
                 logger.finest(toString() + " Moving to next packet -- unlinking consumed packet");
 
             consumedPacket.next = null;
+            nextPacket.isUnlinked = true;
+
+            // Nothing refers to an unlinked, unmarked packet anymore, so its buffer can be reused.
+            if (consumedPacket.isRecyclable())
+                tdsChannel.getPacketPool().release(consumedPacket);
         }
         currentPacket = nextPacket;
         payloadOffset = 0;
@@ -6402,7 +6885,10 @@ final class TDSReader implements Serializable {
         assert tdsChannel.numMsgsRcvd < tdsChannel.numMsgsSent : "numMsgsRcvd:" + tdsChannel.numMsgsRcvd
                 + " should be less than numMsgsSent:" + tdsChannel.numMsgsSent;
 
-        TDSPacket newPacket = new TDSPacket(con.getTDSPacketSize());
+        final TDSRequestTimer requestTimer = (null != command) ? command.getRequestTimer() : null;
+        final long startNanos = (null != requestTimer) ? System.nanoTime() : 0;
+
+        TDSPacket newPacket = tdsChannel.getPacketPool().acquire(con.getTDSPacketSize());
         if (null != command) {
             // if cancelQueryTimeout is set, we should wait for the total amount of
             // queryTimeout + cancelQueryTimeout to
@@ -6483,6 +6969,9 @@ final class TDSReader implements Serializable {
                     this.toString() + " received Packet:" + packetNum + " (" + newPacket.payloadLength + " bytes)");
         }
 
+        if (null != requestTimer)
+            requestTimer.onPacketRead(startNanos);
+
         // If end of message, then bump the count of messages received and disable
         // interrupts. If an interrupt happened prior to disabling, then expect
         // to read the attention ack packet as well.
@@ -6499,6 +6988,7 @@ final class TDSReader implements Serializable {
 
     final TDSReaderMark mark() {
         TDSReaderMark mark = new TDSReaderMark(currentPacket, payloadOffset);
+        currentPacket.isMarked = true;
         isStreaming = false;
 
         if (logger.isLoggable(Level.FINEST))
@@ -6720,6 +7210,76 @@ final class TDSReader implements Serializable {
         return DDC.convertBigDecimalToObject(new BigDecimal(bi, 4), jdbcType, streamType);
     }
 
+    /**
+     * Reads a BIT, TINYINT, SMALLINT, INT or BIGINT value of the given length.
+     */
+    final long readIntegerValue(int valueLength) throws SQLServerException {
+        switch (valueLength) {
+            case 8:
+                return readLong();
+            case 4:
+                return readInt();
+            case 2:
+                return readShort();
+            case 1:
+                return readUnsignedByte();
+            default:
+                throwInvalidTDS();
+                return 0;
+        }
+    }
+
+    /**
+     * Reads a MONEY or SMALLMONEY value as its unscaled value, in ten-thousandths.
+     */
+    final long readMoneyValue(int valueLength) throws SQLServerException {
+        switch (valueLength) {
+            case 8: // money
+                int intBitsHi = readInt();
+                int intBitsLo = readInt();
+                return ((long) intBitsHi << 32) | (intBitsLo & 0xFFFFFFFFL);
+            case 4: // smallmoney
+                return readInt();
+            default:
+                throwInvalidTDS();
+                return 0;
+        }
+    }
+
+    /**
+     * Reads a DECIMAL or NUMERIC value with a precision of at most 18 as its unscaled value.
+     */
+    final long readUnscaledDecimalValue(int valueLength) throws SQLServerException {
+        if (valueLength < 2 || valueLength > 9)
+            throwInvalidTDS();
+
+        boolean isNegative = (0 == readUnsignedByte());
+        long magnitude = 0;
+        for (int i = 0; i < valueLength - 1; i++)
+            magnitude |= (long) readUnsignedByte() << (8 * i);
+
+        // A magnitude of more than 18 digits cannot be represented as a long
+        if (magnitude < 0)
+            throwInvalidTDS();
+
+        return isNegative ? -magnitude : magnitude;
+    }
+
+    /**
+     * Reads a REAL or FLOAT value of the given length.
+     */
+    final double readFloatingPointValue(int valueLength) throws SQLServerException {
+        switch (valueLength) {
+            case 8: // float
+                return Double.longBitsToDouble(readLong());
+            case 4: // real
+                return Float.intBitsToFloat(readInt());
+            default:
+                throwInvalidTDS();
+                return 0;
+        }
+    }
+
     final Object readReal(int valueLength, JDBCType jdbcType, StreamType streamType) throws SQLServerException {
         if (4 != valueLength)
             throwInvalidTDS();
@@ -6851,13 +7411,10 @@ final class TDSReader implements Serializable {
                 utcNanosSinceMidnight, typeInfo.getScale());
     }
 
-    private int readDaysIntoCE() throws SQLServerException {
-        byte value[] = new byte[TDS.DAYS_INTO_CE_LENGTH];
-        readBytes(value, 0, value.length);
-
+    final int readDaysIntoCE() throws SQLServerException {
         int daysIntoCE = 0;
-        for (int i = 0; i < value.length; i++)
-            daysIntoCE |= ((value[i] & 0xFF) << (8 * i));
+        for (int i = 0; i < TDS.DAYS_INTO_CE_LENGTH; i++)
+            daysIntoCE |= (readUnsignedByte() << (8 * i));
 
         // Theoretically should never encounter a value that is outside of the valid date range
         if (daysIntoCE < 0)
@@ -6871,15 +7428,13 @@ final class TDSReader implements Serializable {
     // Using this array is measurably faster than using Math.pow(10, ...)
     private final static int[] SCALED_MULTIPLIERS = {10000000, 1000000, 100000, 10000, 1000, 100, 10, 1};
 
-    private long readNanosSinceMidnight(int scale) throws SQLServerException {
+    final long readNanosSinceMidnight(int scale) throws SQLServerException {
         assert 0 <= scale && scale <= TDS.MAX_FRACTIONAL_SECONDS_SCALE;
 
-        byte value[] = new byte[TDS.nanosSinceMidnightLength(scale)];
-        readBytes(value, 0, value.length);
-
+        int length = TDS.nanosSinceMidnightLength(scale);
         long hundredNanosSinceMidnight = 0;
-        for (int i = 0; i < value.length; i++)
-            hundredNanosSinceMidnight |= (value[i] & 0xFFL) << (8 * i);
+        for (int i = 0; i < length; i++)
+            hundredNanosSinceMidnight |= (long) readUnsignedByte() << (8 * i);
 
         hundredNanosSinceMidnight *= SCALED_MULTIPLIERS[scale];
 
@@ -7162,6 +7717,17 @@ abstract class TDSCommand implements Serializable {
         return readingResponse;
     }
 
+    // Latency breakdown of this command's requests; only set when a request timing listener is in use.
+    private transient TDSRequestTimer requestTimer;
+
+    final TDSRequestTimer getRequestTimer() {
+        return requestTimer;
+    }
+
+    final void setRequestTimer(TDSRequestTimer requestTimer) {
+        this.requestTimer = requestTimer;
+    }
+
     /**
      * Creates this command with an optional timeout.
      *
@@ -7401,6 +7967,9 @@ abstract class TDSCommand implements Serializable {
 
             requestComplete = true;
 
+            if (null != requestTimer)
+                requestTimer.onRequestSent();
+
             // If this command was interrupted before its request was complete then
             // we need to send the attention signal if necessary. Note that if no
             // attention signal is sent (i.e. no packets were sent to the server before
@@ -7482,6 +8051,9 @@ abstract class TDSCommand implements Serializable {
      */
     final void onTokenEOF() {
         processedResponse = true;
+
+        if (null != requestTimer)
+            requestTimer.onResponseProcessed();
     }
 
     /**
@@ -7507,6 +8079,9 @@ abstract class TDSCommand implements Serializable {
         if (logger.isLoggable(Level.FINEST))
             logger.finest(this + ": starting request...");
 
+        if (null != requestTimer)
+            requestTimer.onRequestStart();
+
         // Start this command's request message
         try {
             tdsWriter.startMessage(this, tdsMessageType);
@@ -0,0 +1,27 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+/**
+ * Receives the progress of the writeToServer methods of a {@link SQLServerBulkCopy}. A listener is registered with
+ * {@link SQLServerBulkCopy#setProgressListener(ISQLServerBulkCopyProgressListener)}, and is called after each batch
+ * has been committed, and after every {@link SQLServerBulkCopy#getNotifyAfter()} rows if that is not 0.
+ * <p>
+ * The listener is called on the thread that calls writeToServer, while the bulk copy is sending rows to the server. It
+ * must not use the connection of the bulk copy, and should return quickly as the server waits for more rows meanwhile.
+ * Exceptions thrown by the listener are logged and ignored. The bulk copy can be stopped with
+ * {@link SQLServerBulkCopyProgress#abort()}.
+ */
+public interface ISQLServerBulkCopyProgressListener {
+
+    /**
+     * Called with the progress of a bulk copy.
+     * 
+     * @param progress
+     *        the progress of the bulk copy
+     */
+    public void onProgress(SQLServerBulkCopyProgress progress);
+}
@@ -8,6 +8,7 @@ package com.microsoft.sqlserver.jdbc;
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.List;
 import java.util.UUID;
 
 
@@ -329,6 +330,31 @@ public interface ISQLServerConnection extends java.sql.Connection {
      */
     public int getStatementHandleCacheEntryCount();
 
+    /**
+     * Returns a snapshot of the statement cache counters of this connection: prepared statement handle and parameter
+     * metadata cache hits, misses and evictions, batched unprepares, and re-prepares.
+     * 
+     * @return the statement cache counters
+     */
+    public SQLServerStatementCacheStatistics getStatementCacheStatistics();
+
+    /**
+     * Sets the listener that receives the latency breakdown of each request sent to the server on this connection:
+     * time waiting for the connection, encoding the request, writing it, waiting for the server, reading the response,
+     * and processing its tokens. Timestamps are only taken while a listener is set.
+     * 
+     * @param listener
+     *        the listener, or null to stop timing requests
+     */
+    public void setRequestTimingListener(ISQLServerRequestTimingListener listener);
+
+    /**
+     * Returns the listener that receives the latency breakdown of each request sent to the server on this connection.
+     * 
+     * @return the listener, or null if requests are not being timed
+     */
+    public ISQLServerRequestTimingListener getRequestTimingListener();
+
     /**
      * Sets the value to Disable/enable statement pooling.
      * 
@@ -343,4 +369,44 @@ public interface ISQLServerConnection extends java.sql.Connection {
      * @return true if statement pooling is disabled, false if it is enabled.
      */
     public boolean getDisableStatementPooling();
+
+    /**
+     * Returns the number of TDS response packets that were read into a recycled packet buffer instead of a newly
+     * allocated one. Buffers are recycled while forward-only responses are being streamed.
+     * 
+     * @return the number of response packet buffers reused on this connection
+     */
+    public long getResponsePacketPoolHitCount();
+
+    /**
+     * Returns the number of TDS response packets for which a new packet buffer had to be allocated because no recycled
+     * buffer was available.
+     * 
+     * @return the number of response packet buffers allocated on this connection
+     */
+    public long getResponsePacketPoolMissCount();
+
+    /**
+     * Returns the statements whose prepared statement handles are cached on this connection, most recently used first.
+     * The definitions can be passed to {@link #prepareStatementHandles(List)} on another connection to the same
+     * database.
+     * 
+     * @return the cached statement definitions, or an empty list if statement pooling is not enabled
+     */
+    public List<SQLServerPreparedStatementDefinition> getCachedPreparedStatementDefinitions();
+
+    /**
+     * Prepares handles for the given statements and adds them to the prepared statement handle cache, so that the first
+     * execution of these statements on this connection reuses a handle. Statements that are already cached are skipped,
+     * and no more statements are prepared than the cache can hold. Nothing is prepared if statement pooling is not
+     * enabled. Each statement is prepared in its own round trip. A statement that cannot be prepared does not stop the
+     * others from being prepared and cached; the first such failure is thrown once they are.
+     * 
+     * @param definitions
+     *        the statements to prepare
+     * @return the number of handles prepared
+     * @throws SQLServerException
+     *         if the connection is closed or a statement cannot be prepared
+     */
+    public int prepareStatementHandles(List<SQLServerPreparedStatementDefinition> definitions) throws SQLServerException;
 }
@@ -520,6 +520,25 @@ public interface ISQLServerDataSource extends javax.sql.CommonDataSource {
      */
     public GSSCredential getGSSCredentials();
 
+    /**
+     * Sets the listener that receives the latency breakdown of each request sent to the server on connections created
+     * by this data source. The listener is shared by the connections and must be thread safe. It is not saved in the
+     * reference or the serialized form of the data source.
+     * 
+     * @param listener
+     *        the listener
+     * @see ISQLServerConnection#setRequestTimingListener(ISQLServerRequestTimingListener)
+     */
+    public void setRequestTimingListener(ISQLServerRequestTimingListener listener);
+
+    /**
+     * Returns the listener that receives the latency breakdown of each request sent to the server on connections created
+     * by this data source.
+     * 
+     * @return the listener, or null if none is set
+     */
+    public ISQLServerRequestTimingListener getRequestTimingListener();
+
     /**
      * Sets the access token.
      * 
@@ -623,6 +642,23 @@ public interface ISQLServerDataSource extends javax.sql.CommonDataSource {
      */
     public int getCancelQueryTimeout();
 
+    /**
+     * Sets the number of threads that decrypt the values of encrypted columns read with
+     * {@link ISQLServerResultSet#fetchColumnarBatch(int)}. With more than 1, the values of the rows of a batch are
+     * decrypted in parallel on the common fork join pool. The default is 1, which decrypts them on the reading thread.
+     * 
+     * @param columnDecryptionParallelism
+     *        the number of threads, at least 1
+     */
+    public void setColumnDecryptionParallelism(int columnDecryptionParallelism);
+
+    /**
+     * Returns the number of threads that decrypt the values of encrypted columns read in a columnar batch.
+     * 
+     * @return the number of threads
+     */
+    public int getColumnDecryptionParallelism();
+
     /**
      * Sets the value that enables/disables whether the first execution of a prepared statement will call sp_executesql
      * and not prepare a statement. If this configuration is false the first execution of a prepared statement will call
@@ -806,6 +842,40 @@ public interface ISQLServerDataSource extends javax.sql.CommonDataSource {
      */
     public void setUseBulkCopyForBatchInsert(boolean useBulkCopyForBatchInsert);
 
+    /**
+     * Returns whether unencrypted TDS packets are sent and received through a socket channel using direct buffers.
+     * 
+     * @return whether the driver uses socket channel I/O.
+     */
+    public boolean getUseSocketChannel();
+
+    /**
+     * Sets whether unencrypted TDS packets should be sent and received through a socket channel using direct buffers,
+     * instead of through the socket streams. Request packets are written from direct buffers without being copied.
+     * Responses are read into a direct buffer that holds several packets per read, and each packet is copied from
+     * there into the heap buffer it is decoded from. Encrypted traffic always uses the socket streams.
+     * 
+     * @param useSocketChannel
+     *        indicates whether socket channel I/O should be used.
+     */
+    public void setUseSocketChannel(boolean useSocketChannel);
+
+    /**
+     * Returns whether the statement cache counters of all connections are published as a JMX MBean.
+     * 
+     * @return whether the statement cache MBean is registered.
+     */
+    public boolean getRegisterStatementCacheMBean();
+
+    /**
+     * Sets whether the statement cache counters of all connections should be published as the JMX MBean
+     * com.microsoft.sqlserver.jdbc:type=StatementCache when a connection is opened.
+     * 
+     * @param registerStatementCacheMBean
+     *        indicates whether the statement cache MBean should be registered.
+     */
+    public void setRegisterStatementCacheMBean(boolean registerStatementCacheMBean);
+
     /**
      * Sets the client id to be used to retrieve access token from MSI EndPoint.
      * 
@@ -9,6 +9,8 @@ import java.math.BigDecimal;
 import java.sql.ParameterMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 
 /**
@@ -763,4 +765,75 @@ public interface ISQLServerPreparedStatement extends java.sql.PreparedStatement,
      */
     public ParameterMetaData getParameterMetaData(boolean forceRefresh) throws SQLServerException;
 
+    /**
+     * Executes the prepared query asynchronously on a driver-managed thread pool. The returned future completes with
+     * the ResultSet, or exceptionally with the SQLException raised by {@link #executeQuery()}. Cancelling the future
+     * cancels the statement.
+     * 
+     * @return a future for the ResultSet
+     * @throws SQLServerException
+     *         if the statement is closed or the driver-managed pool is full
+     */
+    public CompletableFuture<ResultSet> executeQueryAsync() throws SQLServerException;
+
+    /**
+     * Executes the prepared query asynchronously using the given executor. The returned future completes with the
+     * ResultSet, or exceptionally with the SQLException raised by {@link #executeQuery()}. Cancelling the future
+     * cancels the statement.
+     * 
+     * @param executor
+     *        the executor that runs the statement
+     * @return a future for the ResultSet
+     * @throws SQLServerException
+     *         if the statement is closed, the executor is null or the executor rejects the execution
+     */
+    public CompletableFuture<ResultSet> executeQueryAsync(Executor executor) throws SQLServerException;
+
+    /**
+     * Executes the prepared statement asynchronously on a driver-managed thread pool. The returned future completes
+     * with the row count, or exceptionally with the SQLException raised by {@link #executeUpdate()}. Cancelling the
+     * future cancels the statement.
+     * 
+     * @return a future for the row count
+     * @throws SQLServerException
+     *         if the statement is closed or the driver-managed pool is full
+     */
+    public CompletableFuture<Integer> executeUpdateAsync() throws SQLServerException;
+
+    /**
+     * Executes the prepared statement asynchronously using the given executor. The returned future completes with the
+     * row count, or exceptionally with the SQLException raised by {@link #executeUpdate()}. Cancelling the future
+     * cancels the statement.
+     * 
+     * @param executor
+     *        the executor that runs the statement
+     * @return a future for the row count
+     * @throws SQLServerException
+     *         if the statement is closed, the executor is null or the executor rejects the execution
+     */
+    public CompletableFuture<Integer> executeUpdateAsync(Executor executor) throws SQLServerException;
+
+    /**
+     * Returns a publisher for the rows of the prepared query. The query is executed on a driver-managed thread pool
+     * when the subscriber first requests rows, and rows are only read from the server as they are requested. Requires a
+     * JDBC 4.3 runtime.
+     * 
+     * @return a publisher that can be subscribed to once
+     * @throws SQLServerException
+     *         if the statement is closed
+     */
+    public SQLServerRowPublisher publishQuery() throws SQLServerException;
+
+    /**
+     * Returns a publisher for the rows of the prepared query. The query is executed using the given executor when the
+     * subscriber first requests rows, and rows are only read from the server as they are requested. Requires a JDBC
+     * 4.3 runtime.
+     * 
+     * @param executor
+     *        the executor on which the query is executed and subscriber signals are delivered
+     * @return a publisher that can be subscribed to once
+     * @throws SQLServerException
+     *         if the statement is closed or the executor is null
+     */
+    public SQLServerRowPublisher publishQuery(Executor executor) throws SQLServerException;
 }
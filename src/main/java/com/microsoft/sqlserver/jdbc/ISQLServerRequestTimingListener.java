@@ -0,0 +1,27 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+/**
+ * Receives a latency breakdown of each request sent to the server on a connection. A listener is registered with
+ * {@link ISQLServerConnection#setRequestTimingListener(ISQLServerRequestTimingListener)} or, for every connection
+ * created by a data source, with {@link ISQLServerDataSource#setRequestTimingListener(ISQLServerRequestTimingListener)}.
+ * <p>
+ * The listener is called on the thread that finishes processing the response, after the last token of the response has
+ * been processed. It must return quickly and must not use the connection. Exceptions thrown by the listener are logged
+ * and ignored. One listener may be shared by several connections and must then be thread safe.
+ * {@link SQLServerRequestTimingHistogram} is a thread safe listener that aggregates the timings.
+ */
+public interface ISQLServerRequestTimingListener {
+
+    /**
+     * Called when the response to a request has been processed.
+     * 
+     * @param timing
+     *        the latency breakdown of the request
+     */
+    public void onRequestComplete(SQLServerRequestTiming timing);
+}
@@ -1571,4 +1571,25 @@ public interface ISQLServerResultSet extends java.sql.ResultSet {
      * @return SensitivityClassification
      */
     public SensitivityClassification getSensitivityClassification();
+
+    /**
+     * Reads up to the given number of rows, starting with the row after the current row, into column vectors. The
+     * values of most types are decoded directly from the response into primitive arrays, without creating an object
+     * for each value; see {@link SQLServerColumnVector}. Afterwards the cursor is positioned on the last row of the
+     * batch, or after the last row if there were no more rows, as if next() had been called once for each row.
+     * Only supported on forward only result sets.
+     * <p>
+     * When the connection property columnDecryptionParallelism is above 1, the values of the encrypted columns of the
+     * batch are decrypted by up to that many threads once all of its rows have been read.
+     * <p>
+     * The column vectors grow as rows are read, so a batch size larger than the number of remaining rows does not
+     * allocate memory for the rows that are not there.
+     * 
+     * @param batchSize
+     *        the maximum number of rows to read, from 1 to Integer.MAX_VALUE - 8
+     * @return the batch of rows, which has no rows if there were no more rows in the result set
+     * @throws SQLServerException
+     *         If any errors occur.
+     */
+    public SQLServerColumnarBatch fetchColumnarBatch(int batchSize) throws SQLServerException;
 }
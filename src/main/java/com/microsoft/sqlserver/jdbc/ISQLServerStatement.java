@@ -6,6 +6,9 @@
 package com.microsoft.sqlserver.jdbc;
 
 import java.io.Serializable;
+import java.sql.ResultSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Provides an interface to the {@link SQLServerStatement} class.
@@ -58,4 +61,119 @@ public interface ISQLServerStatement extends java.sql.Statement, Serializable {
      *         if any error occurs
      */
     public void setCancelQueryTimeout(int seconds) throws SQLServerException;
+
+    /**
+     * Executes the given SQL statement asynchronously on a driver-managed thread pool. The returned future completes
+     * with the single ResultSet produced by the statement, or exceptionally with the SQLException raised by
+     * {@link #executeQuery(String)}. Cancelling the future cancels the statement.
+     * <p>
+     * Only one execution may be outstanding on a statement at a time, as with the synchronous execute methods.
+     * <p>
+     * The asynchronous execute methods offload the blocking execution to another thread, which is held until the
+     * statement completes. The driver-managed pool has twice as many threads as there are processors, and at least 4,
+     * and queues up to 8 further executions per thread. Executions beyond that are rejected with a SQLServerException;
+     * applications that run more executions concurrently should pass their own executor.
+     * 
+     * @param sql
+     *        an SQL statement to be sent to the database, typically a static SQL SELECT statement
+     * @return a future for the ResultSet
+     * @throws SQLServerException
+     *         if the statement is closed or the driver-managed pool is full
+     */
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLServerException;
+
+    /**
+     * Executes the given SQL statement asynchronously using the given executor. The returned future completes with the
+     * single ResultSet produced by the statement, or exceptionally with the SQLException raised by
+     * {@link #executeQuery(String)}. Cancelling the future cancels the statement.
+     * 
+     * @param sql
+     *        an SQL statement to be sent to the database, typically a static SQL SELECT statement
+     * @param executor
+     *        the executor that runs the statement
+     * @return a future for the ResultSet
+     * @throws SQLServerException
+     *         if the statement is closed, the executor is null or the executor rejects the execution
+     */
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql, Executor executor) throws SQLServerException;
+
+    /**
+     * Executes the given SQL statement asynchronously on a driver-managed thread pool. The returned future completes
+     * with the row count, or exceptionally with the SQLException raised by {@link #executeUpdate(String)}. Cancelling
+     * the future cancels the statement.
+     * 
+     * @param sql
+     *        an SQL Data Manipulation Language (DML) statement, or an SQL statement that returns nothing
+     * @return a future for the row count
+     * @throws SQLServerException
+     *         if the statement is closed or the driver-managed pool is full
+     */
+    public CompletableFuture<Integer> executeUpdateAsync(String sql) throws SQLServerException;
+
+    /**
+     * Executes the given SQL statement asynchronously using the given executor. The returned future completes with the
+     * row count, or exceptionally with the SQLException raised by {@link #executeUpdate(String)}. Cancelling the
+     * future cancels the statement.
+     * 
+     * @param sql
+     *        an SQL Data Manipulation Language (DML) statement, or an SQL statement that returns nothing
+     * @param executor
+     *        the executor that runs the statement
+     * @return a future for the row count
+     * @throws SQLServerException
+     *         if the statement is closed, the executor is null or the executor rejects the execution
+     */
+    public CompletableFuture<Integer> executeUpdateAsync(String sql, Executor executor) throws SQLServerException;
+
+    /**
+     * Submits the current batch of commands for asynchronous execution on a driver-managed thread pool. The returned
+     * future completes with the update counts, or exceptionally with the BatchUpdateException raised by
+     * {@link #executeBatch()}. Cancelling the future cancels the statement.
+     * 
+     * @return a future for the update counts
+     * @throws SQLServerException
+     *         if the statement is closed or the driver-managed pool is full
+     */
+    public CompletableFuture<int[]> executeBatchAsync() throws SQLServerException;
+
+    /**
+     * Submits the current batch of commands for asynchronous execution using the given executor. The returned future
+     * completes with the update counts, or exceptionally with the BatchUpdateException raised by
+     * {@link #executeBatch()}. Cancelling the future cancels the statement.
+     * 
+     * @param executor
+     *        the executor that runs the batch
+     * @return a future for the update counts
+     * @throws SQLServerException
+     *         if the statement is closed, the executor is null or the executor rejects the execution
+     */
+    public CompletableFuture<int[]> executeBatchAsync(Executor executor) throws SQLServerException;
+
+    /**
+     * Returns a publisher for the rows of the given query. The query is executed on a driver-managed thread pool when
+     * the subscriber first requests rows, and rows are only read from the server as they are requested. Requires a
+     * JDBC 4.3 runtime.
+     * 
+     * @param sql
+     *        an SQL statement that returns a single result set
+     * @return a publisher that can be subscribed to once
+     * @throws SQLServerException
+     *         if the statement is closed
+     */
+    public SQLServerRowPublisher publishQuery(String sql) throws SQLServerException;
+
+    /**
+     * Returns a publisher for the rows of the given query. The query is executed using the given executor when the
+     * subscriber first requests rows, and rows are only read from the server as they are requested. Requires a JDBC
+     * 4.3 runtime.
+     * 
+     * @param sql
+     *        an SQL statement that returns a single result set
+     * @param executor
+     *        the executor on which the query is executed and subscriber signals are delivered
+     * @return a publisher that can be subscribed to once
+     * @throws SQLServerException
+     *         if the statement is closed or the executor is null
+     */
+    public SQLServerRowPublisher publishQuery(String sql, Executor executor) throws SQLServerException;
 }
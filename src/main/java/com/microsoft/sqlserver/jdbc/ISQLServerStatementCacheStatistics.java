@@ -0,0 +1,109 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import javax.management.MXBean;
+
+
+/**
+ * Provides counters for the statement caches of the driver: the prepared statement handle cache and the parameter
+ * metadata cache of each connection, and the parsed SQL cache shared by all connections. The same counters totalled
+ * over all connections are published as the JMX MBean <code>com.microsoft.sqlserver.jdbc:type=StatementCache</code>
+ * when a connection is opened with the registerStatementCacheMBean connection property.
+ */
+@MXBean
+public interface ISQLServerStatementCacheStatistics {
+
+    /**
+     * Returns the number of times a prepared statement found a reusable handle in the prepared statement handle cache.
+     * 
+     * @return the number of handle cache hits
+     */
+    public long getPreparedStatementHandleCacheHitCount();
+
+    /**
+     * Returns the number of times a prepared statement did not find a handle in the prepared statement handle cache.
+     * 
+     * @return the number of handle cache misses
+     */
+    public long getPreparedStatementHandleCacheMissCount();
+
+    /**
+     * Returns the number of handles evicted from the prepared statement handle cache because it was full.
+     * 
+     * @return the number of handle cache evictions
+     */
+    public long getPreparedStatementHandleCacheEvictionCount();
+
+    /**
+     * Returns the number of times the parameter metadata of a prepared statement was found in the parameter metadata
+     * cache.
+     * 
+     * @return the number of parameter metadata cache hits
+     */
+    public long getParameterMetadataCacheHitCount();
+
+    /**
+     * Returns the number of times the parameter metadata of a prepared statement had to be retrieved from the server.
+     * 
+     * @return the number of parameter metadata cache misses
+     */
+    public long getParameterMetadataCacheMissCount();
+
+    /**
+     * Returns the number of times the Always Encrypted parameter encryption metadata of a prepared statement was found
+     * in the parameter encryption metadata cache.
+     * 
+     * @return the number of parameter encryption metadata cache hits
+     */
+    public long getParameterEncryptionMetadataCacheHitCount();
+
+    /**
+     * Returns the number of times the Always Encrypted parameter encryption metadata of a prepared statement had to be
+     * retrieved from the server with sp_describe_parameter_encryption.
+     * 
+     * @return the number of parameter encryption metadata cache misses
+     */
+    public long getParameterEncryptionMetadataCacheMissCount();
+
+    /**
+     * Returns the number of times the SQL text of a statement was found already parsed in the parsed SQL cache. The
+     * parsed SQL cache is shared by all connections, so this count is process-wide.
+     * 
+     * @return the number of parsed SQL cache hits
+     */
+    public long getParsedSQLCacheHitCount();
+
+    /**
+     * Returns the number of times the SQL text of a statement had to be parsed. The parsed SQL cache is shared by all
+     * connections, so this count is process-wide.
+     * 
+     * @return the number of parsed SQL cache misses
+     */
+    public long getParsedSQLCacheMissCount();
+
+    /**
+     * Returns the number of batches sent to the server to unprepare discarded prepared statement handles.
+     * 
+     * @return the number of unprepare batches
+     */
+    public long getUnprepareBatchCount();
+
+    /**
+     * Returns the number of discarded prepared statement handles unprepared in batches.
+     * 
+     * @return the number of handles unprepared in batches
+     */
+    public long getUnpreparedHandleCount();
+
+    /**
+     * Returns the number of times a statement was prepared again because the server no longer accepted its cached
+     * handle, for example after a schema change.
+     * 
+     * @return the number of re-prepares
+     */
+    public long getReprepareCount();
+}
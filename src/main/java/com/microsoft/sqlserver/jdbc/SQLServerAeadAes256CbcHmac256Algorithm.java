@@ -5,18 +5,13 @@
 
 package com.microsoft.sqlserver.jdbc;
 
-import java.security.InvalidAlgorithmParameterException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.text.MessageFormat;
+import java.util.concurrent.ArrayBlockingQueue;
 
-import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.Mac;
-import javax.crypto.NoSuchPaddingException;
-import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -39,7 +34,7 @@ class SQLServerAeadAes256CbcHmac256Algorithm extends SQLServerEncryptionAlgorith
     private byte algorithmVersion;
     // This variable indicate whether encryption type is deterministic (if true)
     // or random (if false)
-    private boolean isDeterministic = false;
+    private final boolean isDeterministic;
     // Each block in the AES is 128 bits
     private int blockSizeInBytes = 16;
     private int keySizeInBytes = SQLServerAeadAes256CbcHmac256EncryptionKey.keySize / 8;
@@ -60,6 +55,48 @@ class SQLServerAeadAes256CbcHmac256Algorithm extends SQLServerEncryptionAlgorith
     private int minimumCipherTextLengthInBytesWithAuthenticationTag = minimumCipherTextLengthInBytesNoAuthenticationTag
             + keySizeInBytes;
 
+    // The keys of the cipher and of the HMACs, derived from the column encryption key
+    private final SecretKeySpec encryptionKeySpec;
+    private final SecretKeySpec macKeySpec;
+    private final SecretKeySpec ivKeySpec;
+
+    /*
+     * The algorithm is shared by all the connections that use the same column encryption key, while Cipher, Mac and
+     * SecureRandom instances are not thread safe and are costly to look up for each value. Instances are borrowed from
+     * a small pool for each value and returned to it afterwards. The pool belongs to the algorithm, so the instances
+     * and the keys they are initialized with are released together with the algorithm.
+     */
+    private static final int MAX_POOLED_CRYPTO_PRIMITIVES = Runtime.getRuntime().availableProcessors();
+    private final ArrayBlockingQueue<CryptoPrimitives> cryptoPrimitivesPool = new ArrayBlockingQueue<>(
+            MAX_POOLED_CRYPTO_PRIMITIVES);
+
+    private static final class CryptoPrimitives {
+        final Cipher cipher;
+        // HMAC keyed with the MAC key, for the authentication tag
+        final Mac mac;
+        // HMAC keyed with the IV key for deterministic encryption, or random IVs for randomized encryption
+        final Mac ivMac;
+        final SecureRandom random;
+        // The output of the HMACs
+        final byte[] hash;
+
+        CryptoPrimitives(SecretKeySpec macKeySpec, SecretKeySpec ivKeySpec, boolean isDeterministic,
+                int hashSizeInBytes) throws GeneralSecurityException {
+            hash = new byte[hashSizeInBytes];
+            cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+            mac = Mac.getInstance("HmacSHA256");
+            mac.init(macKeySpec);
+            if (isDeterministic) {
+                ivMac = Mac.getInstance("HmacSHA256");
+                ivMac.init(ivKeySpec);
+                random = null;
+            } else {
+                ivMac = null;
+                random = new SecureRandom();
+            }
+        }
+    }
+
     /**
      * Initializes a new instance of SQLServerAeadAes256CbcHmac256Algorithm with a given key, encryption type and
      * algorithm version
@@ -74,12 +111,29 @@ class SQLServerAeadAes256CbcHmac256Algorithm extends SQLServerEncryptionAlgorith
     SQLServerAeadAes256CbcHmac256Algorithm(SQLServerAeadAes256CbcHmac256EncryptionKey columnEncryptionkey,
             SQLServerEncryptionType encryptionType, byte algorithmVersion) {
         this.columnEncryptionkey = columnEncryptionkey;
-
-        if (encryptionType == SQLServerEncryptionType.Deterministic) {
-            this.isDeterministic = true;
-        }
+        this.isDeterministic = (encryptionType == SQLServerEncryptionType.Deterministic);
         this.algorithmVersion = algorithmVersion;
         version[0] = algorithmVersion;
+
+        encryptionKeySpec = new SecretKeySpec(columnEncryptionkey.getEncryptionKey(), "AES");
+        macKeySpec = new SecretKeySpec(columnEncryptionkey.getMacKey(), "HmacSHA256");
+        ivKeySpec = new SecretKeySpec(columnEncryptionkey.getIVKey(), "HmacSHA256");
+    }
+
+    /**
+     * Borrows cipher and HMAC instances from the pool, creating them if the pool is empty.
+     */
+    private CryptoPrimitives borrowCryptoPrimitives() throws GeneralSecurityException {
+        CryptoPrimitives primitives = cryptoPrimitivesPool.poll();
+        return (null != primitives) ? primitives
+                                    : new CryptoPrimitives(macKeySpec, ivKeySpec, isDeterministic, keySizeInBytes);
+    }
+
+    /**
+     * Returns borrowed instances to the pool, or drops them if the pool is full.
+     */
+    private void returnCryptoPrimitives(CryptoPrimitives primitives) {
+        cryptoPrimitivesPool.offer(primitives);
     }
 
     @Override
@@ -100,27 +154,7 @@ class SQLServerAeadAes256CbcHmac256Algorithm extends SQLServerEncryptionAlgorith
      */
     protected byte[] encryptData(byte[] plainText, boolean hasAuthenticationTag) throws SQLServerException {
         aeLogger.entering(SQLServerAeadAes256CbcHmac256Algorithm.class.getName(), "encryptData", "Encrypting data.");
-        // we will generate this initialization vector based whether
-        // this encryption type is deterministic
         assert (plainText != null);
-        byte[] iv = new byte[blockSizeInBytes];
-        // Secret/private key to be used in AES encryption
-        SecretKeySpec skeySpec = new SecretKeySpec(columnEncryptionkey.getEncryptionKey(), "AES");
-
-        if (isDeterministic) {
-            // this method makes sure this is 16 bytes key
-            try {
-                iv = SQLServerSecurityUtility.getHMACWithSHA256(plainText, columnEncryptionkey.getIVKey(),
-                        blockSizeInBytes);
-            } catch (InvalidKeyException | NoSuchAlgorithmException e) {
-                MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_EncryptionFailed"));
-                Object[] msgArgs = {e.getMessage()};
-                throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
-            }
-        } else {
-            SecureRandom random = new SecureRandom();
-            random.nextBytes(iv);
-        }
 
         int numBlocks = plainText.length / blockSizeInBytes + 1;
 
@@ -130,54 +164,52 @@ class SQLServerAeadAes256CbcHmac256Algorithm extends SQLServerEncryptionAlgorith
         int cipherStartIndex = ivStartIndex + blockSizeInBytes;
 
         // Output buffer size = size of VersionByte + Authentication Tag + IV + cipher Text blocks.
-        int outputBufSize = 1 + authenticationTagLen + iv.length + (numBlocks * blockSizeInBytes);
+        int outputBufSize = 1 + authenticationTagLen + blockSizeInBytes + (numBlocks * blockSizeInBytes);
         byte[] outBuffer = new byte[outputBufSize];
 
         // Copying the version to output buffer
         outBuffer[0] = algorithmVersion;
-        // Coping IV to the output buffer
-        System.arraycopy(iv, 0, outBuffer, ivStartIndex, iv.length);
-
-        // Start the AES encryption
 
+        CryptoPrimitives primitives = null;
         try {
-            // initialization vector
-            IvParameterSpec ivector = new IvParameterSpec(iv);
-            Cipher encryptCipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            encryptCipher.init(Cipher.ENCRYPT_MODE, skeySpec, ivector);
-
-            int count = 0;
-            int cipherIndex = cipherStartIndex; // this is where cipherText starts
-
-            if (numBlocks > 1) {
-                count = (numBlocks - 1) * blockSizeInBytes;
-                cipherIndex += encryptCipher.update(plainText, 0, count, outBuffer, cipherIndex);
+            primitives = borrowCryptoPrimitives();
+
+            // The initialization vector is the truncated HMAC of the plain text for deterministic encryption, and
+            // random otherwise. It is written to the output buffer directly.
+            if (isDeterministic) {
+                primitives.ivMac.reset();
+                primitives.ivMac.update(plainText);
+                primitives.ivMac.doFinal(primitives.hash, 0);
+                System.arraycopy(primitives.hash, 0, outBuffer, ivStartIndex, blockSizeInBytes);
+            } else {
+                byte[] iv = new byte[blockSizeInBytes];
+                primitives.random.nextBytes(iv);
+                System.arraycopy(iv, 0, outBuffer, ivStartIndex, blockSizeInBytes);
             }
-            // doFinal will complete the encryption
-            byte[] buffTmp = encryptCipher.doFinal(plainText, count, plainText.length - count);
-            // Encryption completed
-            System.arraycopy(buffTmp, 0, outBuffer, cipherIndex, buffTmp.length);
 
-            if (hasAuthenticationTag) {
+            // Start the AES encryption, into the output buffer after the IV
+            Cipher encryptCipher = primitives.cipher;
+            encryptCipher.init(Cipher.ENCRYPT_MODE, encryptionKeySpec,
+                    new IvParameterSpec(outBuffer, ivStartIndex, blockSizeInBytes));
+            encryptCipher.doFinal(plainText, 0, plainText.length, outBuffer, cipherStartIndex);
 
-                Mac hmac = Mac.getInstance("HmacSHA256");
-                SecretKeySpec initkey = new SecretKeySpec(columnEncryptionkey.getMacKey(), "HmacSHA256");
-                hmac.init(initkey);
+            if (hasAuthenticationTag) {
+                // The IV and the cipher text are contiguous in the output buffer
+                Mac hmac = primitives.mac;
+                hmac.reset();
                 hmac.update(version, 0, version.length);
-                hmac.update(iv, 0, iv.length);
-                hmac.update(outBuffer, cipherStartIndex, numBlocks * blockSizeInBytes);
+                hmac.update(outBuffer, ivStartIndex, blockSizeInBytes + numBlocks * blockSizeInBytes);
                 hmac.update(versionSize, 0, version.length);
-                byte[] hash = hmac.doFinal();
-                // coping the authentication tag in the output buffer which holds cipher text
-                System.arraycopy(hash, 0, outBuffer, hmacStartIndex, authenticationTagLen);
-
+                // the authentication tag is the whole hash
+                hmac.doFinal(outBuffer, hmacStartIndex);
             }
-        } catch (NoSuchAlgorithmException | InvalidAlgorithmParameterException | InvalidKeyException
-                | NoSuchPaddingException | IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
-
+        } catch (GeneralSecurityException e) {
             MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_EncryptionFailed"));
             Object[] msgArgs = {e.getMessage()};
             throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
+        } finally {
+            if (null != primitives)
+                returnCryptoPrimitives(primitives);
         }
 
         aeLogger.exiting(SQLServerAeadAes256CbcHmac256Algorithm.class.getName(), "encryptData", "Data encrypted.");
@@ -203,8 +235,6 @@ class SQLServerAeadAes256CbcHmac256Algorithm extends SQLServerEncryptionAlgorith
     private byte[] decryptData(byte[] cipherText, boolean hasAuthenticationTag) throws SQLServerException {
         assert (cipherText != null);
 
-        byte[] iv = new byte[blockSizeInBytes];
-
         int minimumCipherTextLength = hasAuthenticationTag ? minimumCipherTextLengthInBytesWithAuthenticationTag
                                                            : minimumCipherTextLengthInBytesNoAuthenticationTag;
 
@@ -238,46 +268,62 @@ class SQLServerAeadAes256CbcHmac256Algorithm extends SQLServerEncryptionAlgorith
             startIndex += keySizeInBytes;
         }
 
-        // Read IV from cipher text
-        System.arraycopy(cipherText, startIndex, iv, 0, iv.length);
-        startIndex += iv.length;
+        // The IV is read from the cipher text in place
+        int ivOffset = startIndex;
+        startIndex += blockSizeInBytes;
 
         // To read encrypted text from cipher
         int cipherTextOffset = startIndex;
         // All data after IV is encrypted data
         int cipherTextCount = cipherText.length - startIndex;
 
-        if (hasAuthenticationTag) {
-            byte[] authenticationTag;
-            try {
-                authenticationTag = prepareAuthenticationTag(iv, cipherText, cipherTextOffset, cipherTextCount);
-            } catch (InvalidKeyException | NoSuchAlgorithmException e) {
-                MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_DecryptionFailed"));
-                Object[] msgArgs = {e.getMessage()};
-                throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
+        CryptoPrimitives primitives;
+        try {
+            primitives = borrowCryptoPrimitives();
+        } catch (GeneralSecurityException e) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_DecryptionFailed"));
+            Object[] msgArgs = {e.getMessage()};
+            throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
+        }
 
-            }
-            if (!(SQLServerSecurityUtility.compareBytes(authenticationTag, cipherText, authenticationTagOffset,
-                    cipherTextCount))) {
+        try {
+            if (hasAuthenticationTag) {
+                byte[] authenticationTag;
+                try {
+                    authenticationTag = prepareAuthenticationTag(primitives, cipherText, ivOffset,
+                            blockSizeInBytes + cipherTextCount);
+                } catch (GeneralSecurityException e) {
+                    MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_DecryptionFailed"));
+                    Object[] msgArgs = {e.getMessage()};
+                    throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
 
-                throw new SQLServerException(this, SQLServerException.getErrString("R_InvalidAuthenticationTag"), null,
-                        0, false);
+                }
+                if (!(SQLServerSecurityUtility.compareBytes(authenticationTag, cipherText, authenticationTagOffset,
+                        cipherTextCount))) {
+
+                    throw new SQLServerException(this, SQLServerException.getErrString("R_InvalidAuthenticationTag"),
+                            null, 0, false);
+
+                }
 
             }
 
+            // Decrypt the text and return
+            return decryptData(primitives, cipherText, ivOffset, cipherTextOffset, cipherTextCount);
+        } finally {
+            returnCryptoPrimitives(primitives);
         }
-
-        // Decrypt the text and return
-        return decryptData(iv, cipherText, cipherTextOffset, cipherTextCount);
     }
 
     /**
-     * Decrypt data with specified IV
+     * Decrypt data with the IV at the specified offset
      * 
-     * @param iv
-     *        initialization vector
+     * @param primitives
+     *        the cipher and HMAC instances borrowed from the pool
      * @param cipherText
      *        text to be decrypted
+     * @param ivOffset
+     *        offset of the initialization vector in cipherText
      * @param offset
      *        of cipher text
      * @param count
@@ -285,22 +331,17 @@ class SQLServerAeadAes256CbcHmac256Algorithm extends SQLServerEncryptionAlgorith
      * @return plain text
      * @throws SQLServerException
      */
-    private byte[] decryptData(byte[] iv, byte[] cipherText, int offset, int count) throws SQLServerException {
+    private byte[] decryptData(CryptoPrimitives primitives, byte[] cipherText, int ivOffset, int offset,
+            int count) throws SQLServerException {
         aeLogger.entering(SQLServerAeadAes256CbcHmac256Algorithm.class.getName(), "decryptData", "Decrypting data.");
         assert (cipherText != null);
-        assert (iv != null);
         byte[] plainText = null;
-        // key to be used for decryption
-        SecretKeySpec skeySpec = new SecretKeySpec(columnEncryptionkey.getEncryptionKey(), "AES");
-        IvParameterSpec ivector = new IvParameterSpec(iv);
-        Cipher decryptCipher;
         try {
-            decryptCipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            decryptCipher.init(Cipher.DECRYPT_MODE, skeySpec, ivector);
+            Cipher decryptCipher = primitives.cipher;
+            decryptCipher.init(Cipher.DECRYPT_MODE, encryptionKeySpec,
+                    new IvParameterSpec(cipherText, ivOffset, blockSizeInBytes));
             plainText = decryptCipher.doFinal(cipherText, offset, count);
-        } catch (NoSuchAlgorithmException | InvalidAlgorithmParameterException | InvalidKeyException
-                | NoSuchPaddingException | IllegalBlockSizeException | BadPaddingException e) {
-
+        } catch (GeneralSecurityException e) {
             MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_DecryptionFailed"));
             Object[] msgArgs = {e.getMessage()};
             throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
@@ -314,33 +355,28 @@ class SQLServerAeadAes256CbcHmac256Algorithm extends SQLServerEncryptionAlgorith
     /**
      * Prepare the authentication tag
      * 
-     * @param iv
-     *        initialization vector
+     * @param primitives
+     *        the cipher and HMAC instances borrowed from the pool
      * @param cipherText
      * @param offset
+     *        offset of the initialization vector, which is followed by the cipher text
      * @param length
-     *        length of cipher text
-     * @return authentication tag
-     * @throws NoSuchAlgorithmException
-     * @throws InvalidKeyException
+     *        length of the initialization vector and cipher text
+     * @return authentication tag, in the buffer of the borrowed primitives that is overwritten by their next use
+     * @throws GeneralSecurityException
      */
-    private byte[] prepareAuthenticationTag(byte[] iv, byte[] cipherText, int offset,
-            int length) throws NoSuchAlgorithmException, InvalidKeyException {
+    private byte[] prepareAuthenticationTag(CryptoPrimitives primitives, byte[] cipherText, int offset,
+            int length) throws GeneralSecurityException {
         assert (cipherText != null);
-        byte[] computedHash;
-        byte[] authenticationTag = new byte[keySizeInBytes];
 
-        Mac hmac = Mac.getInstance("HmacSHA256");
-        SecretKeySpec key = new SecretKeySpec(columnEncryptionkey.getMacKey(), "HmacSHA256");
-        hmac.init(key);
+        Mac hmac = primitives.mac;
+        hmac.reset();
         hmac.update(version, 0, version.length);
-        hmac.update(iv, 0, iv.length);
         hmac.update(cipherText, offset, length);
         hmac.update(versionSize, 0, version.length);
-        computedHash = hmac.doFinal();
-        System.arraycopy(computedHash, 0, authenticationTag, 0, authenticationTag.length);
+        hmac.doFinal(primitives.hash, 0);
 
-        return authenticationTag;
+        return primitives.hash;
 
     }
 
@@ -0,0 +1,273 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSetMetaData;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeNanoVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+
+/**
+ * Reads the rows of a forward only result set into Apache Arrow record batches.
+ * <p>
+ * The reader fills one {@link VectorSchemaRoot} with up to batchSize rows each time {@link #loadNextBatch()} is called.
+ * The rows are fetched with {@link ISQLServerResultSet#fetchColumnarBatch(int)} and copied into the Arrow vectors
+ * without going through the ResultSet getters. The SQL Server types of the columns are mapped onto Arrow types as
+ * follows:
+ * <ul>
+ * <li>bit: Bool.</li>
+ * <li>tinyint and smallint: Int(16, signed); int: Int(32, signed); bigint: Int(64, signed).</li>
+ * <li>real: FloatingPoint(SINGLE); float: FloatingPoint(DOUBLE).</li>
+ * <li>decimal, numeric, money and smallmoney: Decimal with the precision and scale of the column.</li>
+ * <li>date: Date(DAY); time: Time(NANOSECOND, 64).</li>
+ * <li>datetime, smalldatetime and datetime2: Timestamp(MICROSECOND) without a time zone.</li>
+ * <li>datetimeoffset: Timestamp(MICROSECOND, "UTC").</li>
+ * <li>binary, varbinary, image, timestamp and CLR types: Binary.</li>
+ * <li>All other types: Utf8, the value as returned by getString().</li>
+ * </ul>
+ * The Apache Arrow arrow-vector library is an optional dependency of the driver, and must be on the class path to use
+ * this class.
+ */
+public final class SQLServerArrowReader implements AutoCloseable {
+    private final SQLServerResultSet resultSet;
+    private final int batchSize;
+    private final VectorSchemaRoot root;
+
+    /**
+     * Constructs a reader over the remaining rows of a result set.
+     *
+     * @param resultSet
+     *        a forward only result set
+     * @param allocator
+     *        the allocator of the memory of the Arrow vectors
+     * @param batchSize
+     *        the maximum number of rows in a record batch
+     * @throws SQLServerException
+     *         if the result set is closed or batchSize is not positive
+     */
+    public SQLServerArrowReader(SQLServerResultSet resultSet, BufferAllocator allocator,
+            int batchSize) throws SQLServerException {
+        if (batchSize <= 0) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+            Object[] msgArgs = {"batchSize"};
+            SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+        }
+
+        this.resultSet = resultSet;
+        this.batchSize = batchSize;
+
+        SQLServerResultSetMetaData metaData = (SQLServerResultSetMetaData) resultSet.getMetaData();
+        List<Field> fields = new ArrayList<>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            Column column = resultSet.getColumn(i);
+            CryptoMetadata cryptoMetadata = column.getCryptoMetadata();
+            TypeInfo typeInfo = (null != cryptoMetadata) ? cryptoMetadata.getBaseTypeInfo() : column.getTypeInfo();
+            boolean nullable = ResultSetMetaData.columnNoNulls != metaData.isNullable(i);
+            fields.add(new Field(metaData.getColumnLabel(i), new FieldType(nullable, arrowTypeOf(typeInfo), null),
+                    null));
+        }
+        root = VectorSchemaRoot.create(new Schema(fields), allocator);
+    }
+
+    private static ArrowType arrowTypeOf(TypeInfo typeInfo) {
+        switch (typeInfo.getSSType()) {
+            case BIT:
+                return ArrowType.Bool.INSTANCE;
+            case TINYINT:
+            case SMALLINT:
+                return new ArrowType.Int(16, true);
+            case INTEGER:
+                return new ArrowType.Int(32, true);
+            case BIGINT:
+                return new ArrowType.Int(64, true);
+            case REAL:
+                return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+            case FLOAT:
+                return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case DECIMAL:
+            case NUMERIC:
+            case MONEY:
+            case SMALLMONEY:
+                return new ArrowType.Decimal(typeInfo.getPrecision(), typeInfo.getScale());
+            case DATE:
+                return new ArrowType.Date(DateUnit.DAY);
+            case TIME:
+                return new ArrowType.Time(TimeUnit.NANOSECOND, 64);
+            case DATETIME:
+            case SMALLDATETIME:
+            case DATETIME2:
+                return new ArrowType.Timestamp(TimeUnit.MICROSECOND, null);
+            case DATETIMEOFFSET:
+                return new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC");
+            default:
+                if (SQLServerColumnVector.VectorType.BINARY == SQLServerColumnVector.vectorTypeOf(typeInfo))
+                    return ArrowType.Binary.INSTANCE;
+                return ArrowType.Utf8.INSTANCE;
+        }
+    }
+
+    /**
+     * Returns the schema of the record batches.
+     *
+     * @return the schema, with one field per column of the result set
+     */
+    public Schema getSchema() {
+        return root.getSchema();
+    }
+
+    /**
+     * Returns the root that holds the current record batch. The same root is refilled by each call to
+     * {@link #loadNextBatch()}.
+     *
+     * @return the vector schema root
+     */
+    public VectorSchemaRoot getVectorSchemaRoot() {
+        return root;
+    }
+
+    /**
+     * Reads the next rows of the result set into the vector schema root.
+     *
+     * @return true if at least one row was read; false if there were no more rows, in which case the row count of the
+     *         root is 0
+     * @throws SQLServerException
+     *         if the rows could not be read
+     */
+    public boolean loadNextBatch() throws SQLServerException {
+        SQLServerColumnarBatch batch = resultSet.fetchColumnarBatch(batchSize);
+        int rowCount = batch.getRowCount();
+
+        List<FieldVector> vectors = root.getFieldVectors();
+        for (int i = 0; i < vectors.size(); i++) {
+            FieldVector vector = vectors.get(i);
+            vector.setInitialCapacity(Math.max(1, rowCount));
+            vector.allocateNew();
+            copy(batch.getColumn(i + 1), vector, rowCount);
+            vector.setValueCount(rowCount);
+        }
+        root.setRowCount(rowCount);
+        return rowCount > 0;
+    }
+
+    /**
+     * Copies the values of a column vector into an Arrow vector that was allocated for at least rowCount values.
+     * Null values are skipped, as the validity buffer of a newly allocated vector has all of its bits cleared.
+     */
+    private static void copy(SQLServerColumnVector source, FieldVector target, int rowCount) {
+        if (target instanceof BigIntVector) {
+            BigIntVector vector = (BigIntVector) target;
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.set(i, source.getLong(i));
+        } else if (target instanceof IntVector) {
+            IntVector vector = (IntVector) target;
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.set(i, (int) source.getLong(i));
+        } else if (target instanceof SmallIntVector) {
+            SmallIntVector vector = (SmallIntVector) target;
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.set(i, (int) source.getLong(i));
+        } else if (target instanceof BitVector) {
+            BitVector vector = (BitVector) target;
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.set(i, (int) source.getLong(i));
+        } else if (target instanceof Float8Vector) {
+            Float8Vector vector = (Float8Vector) target;
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.set(i, source.getDouble(i));
+        } else if (target instanceof Float4Vector) {
+            Float4Vector vector = (Float4Vector) target;
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.set(i, (float) source.getDouble(i));
+        } else if (target instanceof TimeStampVector) {
+            // Both with and without a time zone
+            TimeStampVector vector = (TimeStampVector) target;
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.set(i, source.getLong(i));
+        } else if (target instanceof DateDayVector) {
+            DateDayVector vector = (DateDayVector) target;
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.set(i, (int) source.getLong(i));
+        } else if (target instanceof TimeNanoVector) {
+            TimeNanoVector vector = (TimeNanoVector) target;
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.set(i, source.getLong(i));
+        } else if (target instanceof DecimalVector) {
+            copyDecimal(source, (DecimalVector) target, rowCount);
+        } else if (target instanceof VarCharVector) {
+            VarCharVector vector = (VarCharVector) target;
+            int[] offsets = source.getOffsets();
+            byte[] data = source.getData();
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.setSafe(i, data, offsets[i], offsets[i + 1] - offsets[i]);
+        } else {
+            VarBinaryVector vector = (VarBinaryVector) target;
+            int[] offsets = source.getOffsets();
+            byte[] data = source.getData();
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    vector.setSafe(i, data, offsets[i], offsets[i + 1] - offsets[i]);
+        }
+    }
+
+    private static void copyDecimal(SQLServerColumnVector source, DecimalVector target, int rowCount) {
+        int scale = target.getScale();
+        if (SQLServerColumnVector.VectorType.LONG == source.getVectorType()) {
+            // The vector holds the unscaled values at the scale of the column
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    target.set(i, BigDecimal.valueOf(source.getLong(i), scale));
+        } else {
+            // Precision over 18, held as the strings returned by getString()
+            for (int i = 0; i < rowCount; i++)
+                if (!source.isNull(i))
+                    target.set(i, new BigDecimal(source.getString(i)).setScale(scale, RoundingMode.UNNECESSARY));
+        }
+    }
+
+    /**
+     * Closes the vector schema root, releasing the memory of its vectors. The result set is not closed.
+     */
+    @Override
+    public void close() {
+        root.close();
+    }
+}
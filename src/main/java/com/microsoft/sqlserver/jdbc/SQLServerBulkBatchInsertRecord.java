@@ -36,6 +36,12 @@ public class SQLServerBulkBatchInsertRecord extends SQLServerBulkCommon {
     private List<String> columnList;
     private List<String> valueList;
 
+    /** The position in valueList of the value of each column, or -1 if the column has no value */
+    private transient int[] valuePositions;
+
+    /** The index in the batch parameters of the value of each column whose value is a parameter marker */
+    private transient int[] parameterIndexes;
+
     /*
      * Class name for logging.
      */
@@ -234,13 +240,48 @@ public class SQLServerBulkBatchInsertRecord extends SQLServerBulkCommon {
         return (s.charAt(0) == '\'' && s.charAt(len - 1) == '\'') ? s.substring(1, len - 1) : s;
     }
 
+    /**
+     * Finds the position in the list of values of the value of each column, and the index of the parameter of the
+     * columns whose value is a parameter marker.
+     */
+    private void mapValuesToColumns() throws SQLServerException {
+        int columnCount = columnMetadata.size();
+        int[] positions = new int[columnCount];
+        int[] parameters = new int[columnCount];
+        for (Entry<Integer, ColumnMetadata> pair : columnMetadata.entrySet()) {
+            int index = pair.getKey() - 1;
+            if (index >= columnCount) {
+                throw new SQLServerException(SQLServerException.getErrString("R_DataSchemaMismatch"), null);
+            }
+            int position = index;
+            if (null != columnList && columnList.size() > 0) {
+                position = -1;
+                for (int i = 0; i < columnList.size(); i++) {
+                    if (columnList.get(i).equalsIgnoreCase(pair.getValue().columnName)) {
+                        position = i;
+                        break;
+                    }
+                }
+            } else if (position >= valueList.size()) {
+                throw new SQLServerException(SQLServerException.getErrString("R_DataSchemaMismatch"), null);
+            }
+            positions[index] = position;
+
+            // the parameter of a value is the number of parameter markers before it
+            for (int i = 0; i < position; i++) {
+                if (valueList.get(i).equals("?")) {
+                    parameters[index]++;
+                }
+            }
+        }
+        parameterIndexes = parameters;
+        valuePositions = positions;
+    }
+
     @Override
     public Object[] getRowData() throws SQLServerException {
         Object[] data = new Object[columnMetadata.size()];
-        int valueIndex = 0;
-        String valueData;
         Object rowData;
-        int columnListIndex = 0;
 
         /*
          * check if the size of the list of values = size of the list of columns (which is optional)
@@ -251,6 +292,10 @@ public class SQLServerBulkBatchInsertRecord extends SQLServerBulkCommon {
             throw new SQLServerException(form.format(msgArgs), SQLState.COL_NOT_FOUND, DriverError.NOT_SET, null);
         }
 
+        if (null == valuePositions) {
+            mapValuesToColumns();
+        }
+
         for (Entry<Integer, ColumnMetadata> pair : columnMetadata.entrySet()) {
             int index = pair.getKey() - 1;
 
@@ -261,16 +306,19 @@ public class SQLServerBulkBatchInsertRecord extends SQLServerBulkCommon {
              * user needs provide. This is the (?, ?) part of the previous query. The size of this valueList will always
              * equal the number of the entire columns in the table IF columnList has NOT been provided. If columnList
              * HAS been provided, then this valueList may be smaller than the list of all columns (which is
-             * columnMetadata).
+             * columnMetadata), and the columns may be listed in any order.
              */
-            // case when the user has not provided the optional list of column names.
-            if (null == columnList || columnList.size() == 0) {
-                valueData = valueList.get(index);
+            int valuePosition = valuePositions[index];
+            if (valuePosition < 0) {
+                // the user has not provided a value for this column.
+                rowData = null;
+            } else {
+                String valueData = valueList.get(valuePosition);
                 /*
                  * if the user has provided a wildcard for this column, fetch the set value from the batchParam.
                  */
-                if (valueData.equalsIgnoreCase("?")) {
-                    rowData = batchParam.get(batchParamIndex)[valueIndex++].getSetterValue();
+                if (valueData.equals("?")) {
+                    rowData = batchParam.get(batchParamIndex)[parameterIndexes[index]].getSetterValue();
                 } else if (valueData.equalsIgnoreCase("null")) {
                     rowData = null;
                 }
@@ -282,30 +330,6 @@ public class SQLServerBulkBatchInsertRecord extends SQLServerBulkCommon {
                     rowData = removeSingleQuote(valueData);
                 }
             }
-            // case when the user has provided the optional list of column names.
-            else {
-                /*
-                 * columnListIndex is a separate counter we need to keep track of for each time we've processed a column
-                 * that the user provided. for example, if the user provided an optional columnList of (c1, c3, c5, c7)
-                 * in a table that has 8 columns (c1~c8), then the columnListIndex would increment only when we're
-                 * dealing with the four columns inside columnMetadata. compare the list of the optional list of column
-                 * names to the table's metadata, and match each other, so we assign the correct value to each column.
-                 */
-                if (columnList.size() > columnListIndex
-                        && columnList.get(columnListIndex).equalsIgnoreCase(columnMetadata.get(index + 1).columnName)) {
-                    valueData = valueList.get(columnListIndex);
-                    if (valueData.equalsIgnoreCase("?")) {
-                        rowData = batchParam.get(batchParamIndex)[valueIndex++].getSetterValue();
-                    } else if (valueData.equalsIgnoreCase("null")) {
-                        rowData = null;
-                    } else {
-                        rowData = removeSingleQuote(valueData);
-                    }
-                    columnListIndex++;
-                } else {
-                    rowData = null;
-                }
-            }
 
             try {
                 if (null == rowData) {
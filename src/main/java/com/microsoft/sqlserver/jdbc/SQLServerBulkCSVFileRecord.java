@@ -10,9 +10,9 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.Charset;
 import java.sql.Types;
 import java.text.DecimalFormat;
 import java.text.MessageFormat;
@@ -27,6 +27,11 @@ import java.util.Set;
 /**
  * Provides a simple implementation of the ISQLServerBulkRecord interface that can be used to read in the basic Java
  * data types from a delimited file where each line represents a row of data.
+ * <p>
+ * The delimiter is a regular expression, as for {@link String#split(String)}. When it matches only one string, such as
+ * "," or "\\|", and the file is encoded in UTF-8, US-ASCII, ISO-8859-1 or windows-1252, the rows are split into fields
+ * directly from the bytes of the file, and integer and decimal fields are parsed without being decoded into Strings.
+ * Otherwise each line is read as a String and split with the regular expression.
  */
 public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements java.lang.AutoCloseable {
     /**
@@ -50,6 +55,17 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
      */
     private final String delimiter;
 
+    /*
+     * Parser of the bytes of the file, or null if the lines are read as Strings and split with the delimiter.
+     */
+    private BulkCSVRowParser rowParser = null;
+
+    /*
+     * Whether the parser has read a row, and the fields of the current line when it is split with the delimiter.
+     */
+    private boolean isRowRead = false;
+    private String[] currentFields = null;
+
     /*
      * Class name for logging.
      */
@@ -86,26 +102,11 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
         }
 
         this.delimiter = delimiter;
+        Charset charset = getCharset(encoding);
         try {
             // Create the file reader
             fis = new FileInputStream(fileToParse);
-            if (null == encoding || 0 == encoding.length()) {
-                sr = new InputStreamReader(fis);
-            } else {
-                sr = new InputStreamReader(fis, encoding);
-            }
-
-            fileReader = new BufferedReader(sr);
-
-            if (firstLineIsColumnNames) {
-                currentLine = fileReader.readLine();
-                if (null != currentLine) {
-                    columnNames = currentLine.split(delimiter, -1);
-                }
-            }
-        } catch (UnsupportedEncodingException unsupportedEncoding) {
-            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_unsupportedEncoding"));
-            throw new SQLServerException(form.format(new Object[] {encoding}), null, 0, unsupportedEncoding);
+            open(fis, charset, firstLineIsColumnNames);
         } catch (Exception e) {
             throw new SQLServerException(null, e.getMessage(), null, 0, false);
         }
@@ -140,23 +141,9 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
         }
 
         this.delimiter = delimiter;
+        Charset charset = getCharset(encoding);
         try {
-            if (null == encoding || 0 == encoding.length()) {
-                sr = new InputStreamReader(fileToParse);
-            } else {
-                sr = new InputStreamReader(fileToParse, encoding);
-            }
-            fileReader = new BufferedReader(sr);
-
-            if (firstLineIsColumnNames) {
-                currentLine = fileReader.readLine();
-                if (null != currentLine) {
-                    columnNames = currentLine.split(delimiter, -1);
-                }
-            }
-        } catch (UnsupportedEncodingException unsupportedEncoding) {
-            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_unsupportedEncoding"));
-            throw new SQLServerException(form.format(new Object[] {encoding}), null, 0, unsupportedEncoding);
+            open(fileToParse, charset, firstLineIsColumnNames);
         } catch (Exception e) {
             throw new SQLServerException(null, e.getMessage(), null, 0, false);
         }
@@ -196,6 +183,88 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
         this(fileToParse, null, ",", firstLineIsColumnNames);
     }
 
+    private static Charset getCharset(String encoding) throws SQLServerException {
+        if (null == encoding || 0 == encoding.length())
+            return Charset.defaultCharset();
+
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException unsupportedEncoding) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_unsupportedEncoding"));
+            throw new SQLServerException(form.format(new Object[] {encoding}), null, 0, unsupportedEncoding);
+        }
+    }
+
+    /**
+     * Returns the string that a delimiter matches if it is a regular expression without metacharacters other than
+     * backslashes that escape characters that are not letters or digits; null otherwise.
+     */
+    private static String getLiteralDelimiter(String delimiter) {
+        StringBuilder literal = new StringBuilder(delimiter.length());
+        for (int i = 0; i < delimiter.length(); i++) {
+            char c = delimiter.charAt(i);
+            if ('\\' == c && i + 1 < delimiter.length() && !Character.isLetterOrDigit(delimiter.charAt(i + 1))) {
+                literal.append(delimiter.charAt(++i));
+            } else if (0 <= "\\^$.|?*+()[]{}".indexOf(c)) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return (0 == literal.length()) ? null : literal.toString();
+    }
+
+    /**
+     * Starts reading the file, with the byte parser if the delimiter and the charset allow it, and reads the column
+     * names.
+     */
+    private void open(InputStream stream, Charset charset, boolean firstLineIsColumnNames) throws IOException {
+        String literalDelimiter = getLiteralDelimiter(delimiter);
+        if (null != literalDelimiter && BulkCSVRowParser.isSupported(charset)) {
+            rowParser = new BulkCSVRowParser(stream, charset, literalDelimiter);
+            if (firstLineIsColumnNames && rowParser.nextRow()) {
+                columnNames = rowParser.getStrings();
+            }
+            return;
+        }
+
+        sr = new InputStreamReader(stream, charset);
+        fileReader = new BufferedReader(sr);
+
+        if (firstLineIsColumnNames) {
+            currentLine = fileReader.readLine();
+            if (null != currentLine) {
+                columnNames = currentLine.split(delimiter, -1);
+            }
+        }
+    }
+
+    /**
+     * Sets whether fields may be enclosed in double quotes, in which case they may contain the delimiter and line
+     * breaks, and a quote in the field is written as two quotes. By default, double quotes are part of the data as for
+     * BCP and BULK INSERT. Quoted fields can only be read when the delimiter matches only one string and the file is
+     * encoded in UTF-8, US-ASCII, ISO-8859-1 or windows-1252. The column names in the first line are not unquoted.
+     *
+     * @param escapeDelimiters
+     *        true to read fields enclosed in double quotes
+     * @throws SQLServerException
+     *         if quoted fields cannot be read with the delimiter and the encoding of this file
+     */
+    public void setEscapeColumnDelimitersCSV(boolean escapeDelimiters) throws SQLServerException {
+        loggerExternal.entering(loggerClassName, "setEscapeColumnDelimitersCSV", escapeDelimiters);
+
+        if (null == rowParser) {
+            if (escapeDelimiters) {
+                throw new SQLServerException(SQLServerException.getErrString("R_unsupportedCSVEscapeDelimiters"), null,
+                        0, null);
+            }
+        } else {
+            rowParser.setQuotedFieldEnabled(escapeDelimiters);
+        }
+
+        loggerExternal.exiting(loggerClassName, "setEscapeColumnDelimitersCSV");
+    }
+
     /**
      * Releases any resources associated with the file reader.
      * 
@@ -206,6 +275,10 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
         loggerExternal.entering(loggerClassName, "close");
 
         // Ignore errors since we are only cleaning up here
+        if (rowParser != null)
+            try {
+                rowParser.close();
+            } catch (Exception e) {}
         if (fileReader != null)
             try {
                 fileReader.close();
@@ -259,25 +332,31 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
 
     @Override
     public Object[] getRowData() throws SQLServerException {
-        if (null == currentLine)
+        if ((null != rowParser) ? !isRowRead : (null == currentLine))
             return null;
         else {
-            // Binary data may be corrupted
-            // The limit in split() function should be a negative value,
-            // otherwise trailing empty strings are discarded.
-            // Empty string is returned if there is no value.
-            String[] data = currentLine.split(delimiter, -1);
+            int fieldCount;
+            if (null != rowParser) {
+                fieldCount = rowParser.getFieldCount();
+            } else {
+                // Binary data may be corrupted
+                // The limit in split() function should be a negative value,
+                // otherwise trailing empty strings are discarded.
+                // Empty string is returned if there is no value.
+                currentFields = currentLine.split(delimiter, -1);
+                fieldCount = currentFields.length;
+            }
 
             // Cannot go directly from String[] to Object[] and expect it to act
             // as an array.
-            Object[] dataRow = new Object[data.length];
+            Object[] dataRow = new Object[fieldCount];
 
             for (Entry<Integer, ColumnMetadata> pair : columnMetadata.entrySet()) {
                 ColumnMetadata cm = pair.getValue();
 
                 // Reading a column not available in csv
                 // positionInFile > number of columns retrieved after split
-                if (data.length < pair.getKey() - 1) {
+                if (fieldCount < pair.getKey() - 1) {
                     MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidColumn"));
                     Object[] msgArgs = {pair.getKey()};
                     throw new SQLServerException(form.format(msgArgs), SQLState.COL_NOT_FOUND, DriverError.NOT_SET,
@@ -285,7 +364,7 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
                 }
 
                 // Source header has more columns than current line read
-                if (columnNames != null && (columnNames.length > data.length)) {
+                if (columnNames != null && (columnNames.length > fieldCount)) {
                     MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_DataSchemaMismatch"));
                     Object[] msgArgs = {};
                     throw new SQLServerException(form.format(msgArgs), SQLState.COL_NOT_FOUND, DriverError.NOT_SET,
@@ -293,7 +372,11 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
                 }
 
                 try {
-                    if (0 == data[pair.getKey() - 1].length()) {
+                    if (pair.getKey() > fieldCount) {
+                        throw new SQLServerException(SQLServerException.getErrString("R_DataSchemaMismatch"), null);
+                    }
+
+                    if (0 == getFieldLength(pair.getKey() - 1)) {
                         dataRow[pair.getKey() - 1] = null;
                         continue;
                     }
@@ -304,34 +387,57 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
                          * data (say "10") is to be inserted into an numeric column. Our implementation does the same.
                          */
                         case Types.INTEGER: {
+                            if (null != rowParser && rowParser.isLong(pair.getKey() - 1)) {
+                                long value = rowParser.getLong(pair.getKey() - 1);
+                                if (value != (int) value) {
+                                    throw new NumberFormatException(getField(pair.getKey() - 1));
+                                }
+                                dataRow[pair.getKey() - 1] = (int) value;
+                                break;
+                            }
+
                             // Formatter to remove the decimal part as SQL
                             // Server floors the decimal in integer types
                             DecimalFormat decimalFormatter = new DecimalFormat("#");
                             decimalFormatter.setRoundingMode(RoundingMode.DOWN);
                             String formatedfInput = decimalFormatter
-                                    .format(Double.parseDouble(data[pair.getKey() - 1]));
+                                    .format(Double.parseDouble(getField(pair.getKey() - 1)));
                             dataRow[pair.getKey() - 1] = Integer.valueOf(formatedfInput);
                             break;
                         }
 
                         case Types.TINYINT:
                         case Types.SMALLINT: {
+                            if (null != rowParser && rowParser.isLong(pair.getKey() - 1)) {
+                                long value = rowParser.getLong(pair.getKey() - 1);
+                                if (value != (short) value) {
+                                    throw new NumberFormatException(getField(pair.getKey() - 1));
+                                }
+                                dataRow[pair.getKey() - 1] = (short) value;
+                                break;
+                            }
+
                             // Formatter to remove the decimal part as SQL
                             // Server floors the decimal in integer types
                             DecimalFormat decimalFormatter = new DecimalFormat("#");
                             decimalFormatter.setRoundingMode(RoundingMode.DOWN);
                             String formatedfInput = decimalFormatter
-                                    .format(Double.parseDouble(data[pair.getKey() - 1]));
+                                    .format(Double.parseDouble(getField(pair.getKey() - 1)));
                             dataRow[pair.getKey() - 1] = Short.valueOf(formatedfInput);
                             break;
                         }
 
                         case Types.BIGINT: {
-                            BigDecimal bd = new BigDecimal(data[pair.getKey() - 1].trim());
+                            if (null != rowParser && rowParser.isLong(pair.getKey() - 1)) {
+                                dataRow[pair.getKey() - 1] = rowParser.getLong(pair.getKey() - 1);
+                                break;
+                            }
+
+                            BigDecimal bd = new BigDecimal(getField(pair.getKey() - 1).trim());
                             try {
                                 dataRow[pair.getKey() - 1] = bd.setScale(0, RoundingMode.DOWN).longValueExact();
                             } catch (ArithmeticException ex) {
-                                String value = "'" + data[pair.getKey() - 1] + "'";
+                                String value = "'" + getField(pair.getKey() - 1) + "'";
                                 MessageFormat form = new MessageFormat(
                                         SQLServerException.getErrString("R_errorConvertingValue"));
                                 throw new SQLServerException(
@@ -342,7 +448,10 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
 
                         case Types.DECIMAL:
                         case Types.NUMERIC: {
-                            BigDecimal bd = new BigDecimal(data[pair.getKey() - 1].trim());
+                            BigDecimal bd = (null != rowParser) ? rowParser.getBigDecimal(pair.getKey() - 1) : null;
+                            if (null == bd) {
+                                bd = new BigDecimal(getField(pair.getKey() - 1).trim());
+                            }
                             dataRow[pair.getKey() - 1] = bd.setScale(cm.scale, RoundingMode.HALF_UP);
                             break;
                         }
@@ -351,23 +460,28 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
                             // "true" => 1, "false" => 0
                             // Any non-zero value (integer/double) => 1, 0/0.0
                             // => 0
+                            if (null != rowParser && rowParser.isLong(pair.getKey() - 1)) {
+                                dataRow[pair.getKey() - 1] = (0 == rowParser.getLong(pair.getKey() - 1)) ? Boolean.FALSE
+                                                                                                         : Boolean.TRUE;
+                                break;
+                            }
                             try {
                                 dataRow[pair.getKey()
-                                        - 1] = (0 == Double.parseDouble(data[pair.getKey() - 1])) ? Boolean.FALSE
+                                        - 1] = (0 == Double.parseDouble(getField(pair.getKey() - 1))) ? Boolean.FALSE
                                                                                                   : Boolean.TRUE;
                             } catch (NumberFormatException e) {
-                                dataRow[pair.getKey() - 1] = Boolean.parseBoolean(data[pair.getKey() - 1]);
+                                dataRow[pair.getKey() - 1] = Boolean.parseBoolean(getField(pair.getKey() - 1));
                             }
                             break;
                         }
 
                         case Types.REAL: {
-                            dataRow[pair.getKey() - 1] = Float.parseFloat(data[pair.getKey() - 1]);
+                            dataRow[pair.getKey() - 1] = Float.parseFloat(getField(pair.getKey() - 1));
                             break;
                         }
 
                         case Types.DOUBLE: {
-                            dataRow[pair.getKey() - 1] = Double.parseDouble(data[pair.getKey() - 1]);
+                            dataRow[pair.getKey() - 1] = Double.parseDouble(getField(pair.getKey() - 1));
                             break;
                         }
 
@@ -385,7 +499,7 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
                              * shows 1 row with columns: 0x61, 0x62
                              */
                             // Strip off 0x if present.
-                            String binData = data[pair.getKey() - 1].trim();
+                            String binData = getField(pair.getKey() - 1).trim();
                             if (binData.startsWith("0x") || binData.startsWith("0X")) {
                                 dataRow[pair.getKey() - 1] = binData.substring(2);
                             } else {
@@ -399,11 +513,11 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
 
                             // The per-column DateTimeFormatter gets priority.
                             if (null != cm.dateTimeFormatter)
-                                offsetTimeValue = OffsetTime.parse(data[pair.getKey() - 1], cm.dateTimeFormatter);
+                                offsetTimeValue = OffsetTime.parse(getField(pair.getKey() - 1), cm.dateTimeFormatter);
                             else if (timeFormatter != null)
-                                offsetTimeValue = OffsetTime.parse(data[pair.getKey() - 1], timeFormatter);
+                                offsetTimeValue = OffsetTime.parse(getField(pair.getKey() - 1), timeFormatter);
                             else
-                                offsetTimeValue = OffsetTime.parse(data[pair.getKey() - 1]);
+                                offsetTimeValue = OffsetTime.parse(getField(pair.getKey() - 1));
 
                             dataRow[pair.getKey() - 1] = offsetTimeValue;
                             break;
@@ -414,12 +528,13 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
 
                             // The per-column DateTimeFormatter gets priority.
                             if (null != cm.dateTimeFormatter)
-                                offsetDateTimeValue = OffsetDateTime.parse(data[pair.getKey() - 1],
+                                offsetDateTimeValue = OffsetDateTime.parse(getField(pair.getKey() - 1),
                                         cm.dateTimeFormatter);
                             else if (dateTimeFormatter != null)
-                                offsetDateTimeValue = OffsetDateTime.parse(data[pair.getKey() - 1], dateTimeFormatter);
+                                offsetDateTimeValue = OffsetDateTime.parse(getField(pair.getKey() - 1),
+                                        dateTimeFormatter);
                             else
-                                offsetDateTimeValue = OffsetDateTime.parse(data[pair.getKey() - 1]);
+                                offsetDateTimeValue = OffsetDateTime.parse(getField(pair.getKey() - 1));
 
                             dataRow[pair.getKey() - 1] = offsetDateTimeValue;
                             break;
@@ -454,12 +569,12 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
                              * allow field terminators in data: https://technet.microsoft.com/en-us/library/
                              * aa196735%28v=sql.80%29.aspx?f=255&MSPPError=- 2147217396
                              */
-                            dataRow[pair.getKey() - 1] = data[pair.getKey() - 1];
+                            dataRow[pair.getKey() - 1] = getField(pair.getKey() - 1);
                             break;
                         }
                     }
                 } catch (IllegalArgumentException e) {
-                    String value = "'" + data[pair.getKey() - 1] + "'";
+                    String value = "'" + getField(pair.getKey() - 1) + "'";
                     MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_errorConvertingValue"));
                     throw new SQLServerException(form.format(new Object[] {value, JDBCType.of(cm.columnType)}), null, 0,
                             e);
@@ -472,6 +587,14 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
         }
     }
 
+    private String getField(int index) {
+        return (null != rowParser) ? rowParser.getString(index) : currentFields[index];
+    }
+
+    private int getFieldLength(int index) {
+        return (null != rowParser) ? rowParser.getLength(index) : currentFields[index].length();
+    }
+
     @Override
     void addColumnMetadataInternal(int positionInSource, String name, int jdbcType, int precision, int scale,
             DateTimeFormatter dateTimeFormatter) throws SQLServerException {
@@ -579,6 +702,10 @@ public class SQLServerBulkCSVFileRecord extends SQLServerBulkCommon implements j
     @Override
     public boolean next() throws SQLServerException {
         try {
+            if (null != rowParser) {
+                isRowRead = rowParser.nextRow();
+                return isRowRead;
+            }
             currentLine = fileReader.readLine();
         } catch (IOException e) {
             throw new SQLServerException(e.getMessage(), null, 0, e);
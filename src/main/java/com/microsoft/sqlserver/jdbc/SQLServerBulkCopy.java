@@ -17,6 +17,7 @@ import java.io.StringReader;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.Charset;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.ResultSet;
@@ -254,6 +255,31 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
 
     private ScheduledFuture<?> timeout;
 
+    /**
+     * Receives the progress of the writeToServer methods, or null.
+     */
+    private transient ISQLServerBulkCopyProgressListener progressListener;
+
+    /**
+     * Number of rows after which the progress listener is called, in addition to after each batch. Zero (the default)
+     * calls it only after each batch.
+     */
+    private int notifyAfter = 0;
+
+    /*
+     * Progress of the current writeToServer call
+     */
+    private transient long progressStartNanos;
+    private transient long progressStartBytes;
+    private transient long rowsSent;
+    private transient int batchesCompleted;
+    private transient boolean isAbortedByListener;
+
+    /**
+     * Writers of the mapped columns of the current writeToServer call, in the order of the column mappings
+     */
+    private transient ColumnWriter[] columnWriters;
+
     /**
      * The maximum temporal precision we can send when using varchar(precision) in bulkcommand, to send a
      * smalldatetime/datetime value.
@@ -510,6 +536,53 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
         loggerExternal.exiting(loggerClassName, "updateBulkCopyOptions");
     }
 
+    /**
+     * Returns the listener that receives the progress of the writeToServer methods.
+     * 
+     * @return the progress listener, or null if there is none
+     */
+    public ISQLServerBulkCopyProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    /**
+     * Sets the listener that receives the progress of the writeToServer methods. The listener is called after each
+     * batch, and after every NotifyAfter rows if that is not 0.
+     * 
+     * @param listener
+     *        the progress listener, or null to remove it
+     */
+    public void setProgressListener(ISQLServerBulkCopyProgressListener listener) {
+        this.progressListener = listener;
+    }
+
+    /**
+     * Returns the number of rows after which the progress listener is called, in addition to after each batch.
+     * 
+     * @return Number of rows, or 0 if the progress listener is only called after each batch.
+     */
+    public int getNotifyAfter() {
+        return notifyAfter;
+    }
+
+    /**
+     * Sets the number of rows after which the progress listener is called, in addition to after each batch. The rows
+     * are counted from the start of each writeToServer call.
+     * 
+     * @param notifyAfter
+     *        Number of rows, or 0 to call the progress listener only after each batch.
+     * @throws SQLServerException
+     *         If the number of rows is negative.
+     */
+    public void setNotifyAfter(int notifyAfter) throws SQLServerException {
+        if (notifyAfter < 0) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidNegativeArg"));
+            Object[] msgArgs = {"notifyAfter"};
+            SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+        }
+        this.notifyAfter = notifyAfter;
+    }
+
     /**
      * Copies all rows in the supplied ResultSet to a destination table specified by the destinationTableName property
      * of the SQLServerBulkCopy object.
@@ -638,6 +711,7 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
             }
 
             final boolean doExecute() throws SQLServerException {
+                progressStartBytes = getTDSWriter().getBytesSent();
                 int timeoutSeconds = copyOptions.getBulkCopyTimeout();
                 if (timeoutSeconds > 0) {
                     connection.checkClosed();
@@ -683,7 +757,40 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
             }
         }
 
-        connection.executeCommand(new InsertBulk());
+        try {
+            connection.executeCommand(new InsertBulk());
+        } catch (SQLServerException e) {
+            // The INSERT BULK of the current batch was cancelled, so roll back the transaction of the batch.
+            if (isAbortedByListener && copyOptions.isUseInternalTransaction() && !connection.isClosed()) {
+                try {
+                    connection.rollback();
+                } catch (SQLServerException rollbackException) {
+                    e.addSuppressed(rollbackException);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Calls the progress listener, and stops the bulk copy if it asks to.
+     */
+    private void notifyProgress(TDSCommand command, boolean isBatchComplete) throws SQLServerException {
+        SQLServerBulkCopyProgress progress = new SQLServerBulkCopyProgress(rowsSent,
+                command.getTDSWriter().getBytesSent() - progressStartBytes, System.nanoTime() - progressStartNanos,
+                batchesCompleted, isBatchComplete);
+        try {
+            progressListener.onProgress(progress);
+        } catch (RuntimeException e) {
+            if (loggerExternal.isLoggable(Level.FINE))
+                loggerExternal.fine(this.toString() + " Ignoring exception from the progress listener: " + e);
+        }
+
+        if (progress.isAborted()) {
+            isAbortedByListener = true;
+            throw new SQLServerException(SQLServerException.getErrString("R_bulkCopyAborted"),
+                    SQLState.STATEMENT_CANCELED, DriverError.NOT_SET, null);
+        }
     }
 
     /**
@@ -1440,6 +1547,11 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
             bulkOptions.add("ALLOW_ENCRYPTED_VALUE_MODIFICATIONS");
         }
 
+        Map<String, SQLServerSortOrder> columnOrderHints = copyOptions.getColumnOrderHints();
+        if (!columnOrderHints.isEmpty()) {
+            bulkOptions.add(createOrderHint(columnOrderHints));
+        }
+
         Iterator<String> it = bulkOptions.iterator();
         if (it.hasNext()) {
             bulkCmd.append(" with (");
@@ -1458,6 +1570,36 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
         return bulkCmd.toString();
     }
 
+    /**
+     * Returns the ORDER hint for the columns by which the source rows are sorted, which must be mapped destination
+     * columns.
+     */
+    private String createOrderHint(Map<String, SQLServerSortOrder> columnOrderHints) throws SQLServerException {
+        StringBuilder orderHint = new StringBuilder("ORDER(");
+        for (Map.Entry<String, SQLServerSortOrder> columnOrderHint : columnOrderHints.entrySet()) {
+            // Column mappings match destination columns regardless of case, so the hint names the mapped column
+            String columnName = null;
+            for (ColumnMapping colMapping : columnMappings) {
+                if (colMapping.destinationColumnName.equalsIgnoreCase(columnOrderHint.getKey())) {
+                    columnName = colMapping.destinationColumnName;
+                    break;
+                }
+            }
+            if (null == columnName) {
+                MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidColumnOrderHint"));
+                Object[] msgArgs = {columnOrderHint.getKey()};
+                throw new SQLServerException(form.format(msgArgs), SQLState.COL_NOT_FOUND, DriverError.NOT_SET, null);
+            }
+
+            if (orderHint.length() > "ORDER(".length()) {
+                orderHint.append(", ");
+            }
+            orderHint.append("[").append(columnName.replaceAll("]", "]]")).append("] ")
+                    .append(SQLServerSortOrder.Descending == columnOrderHint.getValue() ? "DESC" : "ASC");
+        }
+        return orderHint.append(")").toString();
+    }
+
     private boolean doInsertBulk(TDSCommand command) throws SQLServerException {
         if (copyOptions.isUseInternalTransaction()) {
             // Begin a manual transaction for this batch.
@@ -1465,6 +1607,7 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
         }
 
         boolean insertRowByRow = false;
+        long batchStartRows = rowsSent;
 
         if (null != sourceResultSet && sourceResultSet instanceof SQLServerResultSet) {
             SQLServerStatement src_stmt = (SQLServerStatement) ((SQLServerResultSet) sourceResultSet).getStatement();
@@ -1525,6 +1668,14 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
             connection.commit();
         }
 
+        // The last batch is empty when the number of rows is a multiple of the batch size
+        if (rowsSent > batchStartRows) {
+            batchesCompleted++;
+            if (null != progressListener) {
+                notifyProgress(command, true);
+            }
+        }
+
         return moreDataAvailable;
     }
 
@@ -1580,7 +1731,12 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
         getSourceMetadata();
 
         validateColumnMappings();
+        compileColumnWriters();
 
+        progressStartNanos = System.nanoTime();
+        rowsSent = 0;
+        batchesCompleted = 0;
+        isAbortedByListener = false;
         sendBulkLoadBCP();
 
         long end = System.currentTimeMillis();
@@ -1592,33 +1748,46 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
     }
 
     private void validateStringBinaryLengths(Object colValue, int srcCol, int destCol) throws SQLServerException {
-        int sourcePrecision;
         int destPrecision = destColumnMetadata.get(destCol).precision;
         int srcJdbcType = srcColumnMetadata.get(srcCol).jdbcType;
         SSType destSSType = destColumnMetadata.get(destCol).ssType;
 
-        if ((Util.isCharType(srcJdbcType) && Util.isCharType(destSSType))
-                || (Util.isBinaryType(srcJdbcType) && Util.isBinaryType(destSSType))) {
-            if (colValue instanceof String) {
-                if (Util.isBinaryType(destSSType)) {
-                    // if the dest value is binary and the value is of type string.
-                    // Repro in test case: ImpISQLServerBulkRecord_IssuesTest#testSendValidValueforBinaryColumnAsString
-                    sourcePrecision = (((String) colValue).getBytes().length) / 2;
-                } else
-                    sourcePrecision = ((String) colValue).length();
-            } else if (colValue instanceof byte[]) {
-                sourcePrecision = ((byte[]) colValue).length;
-            } else {
-                return;
-            }
+        if (isLengthValidated(srcJdbcType, destSSType)) {
+            validateStringBinaryLength(colValue, srcJdbcType, destSSType, destPrecision);
+        }
+    }
 
-            if (sourcePrecision > destPrecision) {
-                String srcType = JDBCType.of(srcJdbcType) + "(" + sourcePrecision + ")";
-                String destType = destSSType.toString() + "(" + destPrecision + ")";
-                MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_InvalidDataForAE"));
-                Object[] msgArgs = {srcType, destType};
-                throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
-            }
+    /**
+     * Returns whether the length of the values must be validated against the precision of the destination column,
+     * which is the case when both the source and destination are character types or both are binary types.
+     */
+    private static boolean isLengthValidated(int srcJdbcType, SSType destSSType) {
+        return (Util.isCharType(srcJdbcType) && Util.isCharType(destSSType))
+                || (Util.isBinaryType(srcJdbcType) && Util.isBinaryType(destSSType));
+    }
+
+    private void validateStringBinaryLength(Object colValue, int srcJdbcType, SSType destSSType,
+            int destPrecision) throws SQLServerException {
+        int sourcePrecision;
+        if (colValue instanceof String) {
+            if (Util.isBinaryType(destSSType)) {
+                // if the dest value is binary and the value is of type string.
+                // Repro in test case: ImpISQLServerBulkRecord_IssuesTest#testSendValidValueforBinaryColumnAsString
+                sourcePrecision = (((String) colValue).getBytes().length) / 2;
+            } else
+                sourcePrecision = ((String) colValue).length();
+        } else if (colValue instanceof byte[]) {
+            sourcePrecision = ((byte[]) colValue).length;
+        } else {
+            return;
+        }
+
+        if (sourcePrecision > destPrecision) {
+            String srcType = JDBCType.of(srcJdbcType) + "(" + sourcePrecision + ")";
+            String destType = destSSType.toString() + "(" + destPrecision + ")";
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_InvalidDataForAE"));
+            Object[] msgArgs = {srcType, destType};
+            throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
         }
     }
 
@@ -1720,8 +1889,10 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
                             sourceBulkRecord.getColumnName(currentColumn), true,
                             sourceBulkRecord.getPrecision(currentColumn), sourceBulkRecord.getScale(currentColumn),
                             sourceBulkRecord.getColumnType(currentColumn),
-                            ((sourceBulkRecord instanceof SQLServerBulkCSVFileRecord) ? ((SQLServerBulkCSVFileRecord) sourceBulkRecord)
-                                    .getColumnDateTimeFormatter(currentColumn) : null)));
+                            ((sourceBulkRecord instanceof SQLServerBulkCSVFileRecord
+                                    || sourceBulkRecord instanceof SQLServerParallelBulkCopy.PartitionRecord)
+                                            ? sourceBulkRecord.getColumnDateTimeFormatter(currentColumn)
+                                            : null)));
                 }
             }
         } else {
@@ -1949,46 +2120,14 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
         }
     }
 
+    /**
+     * Writes a column value as the given type. The type, precision and scale are the ones resolved for the column by
+     * {@link #newColumnWriter(int, int)}.
+     */
     private void writeColumnToTdsWriter(TDSWriter tdsWriter, int bulkPrecision, int bulkScale, int bulkJdbcType,
             boolean bulkNullable, // should it be destNullable instead?
-            int srcColOrdinal, int destColOrdinal, boolean isStreaming, Object colValue) throws SQLServerException {
-        SSType destSSType = destColumnMetadata.get(destColOrdinal).ssType;
-
-        bulkPrecision = validateSourcePrecision(bulkPrecision, bulkJdbcType,
-                destColumnMetadata.get(destColOrdinal).precision);
-
-        CryptoMetadata sourceCryptoMeta = srcColumnMetadata.get(srcColOrdinal).cryptoMeta;
-        if (((null != destColumnMetadata.get(destColOrdinal).encryptionType)
-                && copyOptions.isAllowEncryptedValueModifications())
-                // if destination is encrypted send varbinary explicitly(needed for unencrypted source)
-                || (null != destColumnMetadata.get(destColOrdinal).cryptoMeta)) {
-            bulkJdbcType = java.sql.Types.VARBINARY;
-        }
-        /*
-         * if source is encrypted and destination is unencrypted, use destination sql type to send since there is no way
-         * of finding if source is encrypted without accessing the resultset, send destination type if source resultset
-         * set is of type SQLServer and encryption is enabled
-         */
-        else if (null != sourceCryptoMeta) {
-            bulkJdbcType = destColumnMetadata.get(destColOrdinal).jdbcType;
-            bulkScale = destColumnMetadata.get(destColOrdinal).scale;
-        } else if (null != sourceBulkRecord) {
-            // Bulk copy from CSV and destination is not encrypted. In this case, we send the temporal types as varchar
-            // and
-            // SQL Server does the conversion. If destination is encrypted, then temporal types can not be sent as
-            // varchar.
-            switch (bulkJdbcType) {
-                case java.sql.Types.DATE:
-                case java.sql.Types.TIME:
-                case java.sql.Types.TIMESTAMP:
-                case microsoft.sql.Types.DATETIMEOFFSET:
-                    bulkJdbcType = java.sql.Types.VARCHAR;
-                    break;
-                default:
-                    break;
-            }
-        }
-
+            int srcColOrdinal, int destColOrdinal, boolean isStreaming, SSType destSSType,
+            Object colValue) throws SQLServerException {
         try {
             // We are sending the data using JDBCType and not using SSType as SQL Server will automatically do the
             // conversion.
@@ -2405,18 +2544,23 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
                     break;
             } // End of switch
         } catch (ClassCastException ex) {
-            if (null == colValue) {
-                // this should not really happen, since ClassCastException should only happen when colValue is not null.
-                // just do one more checking here to make sure
-                throwInvalidArgument("colValue");
-            }
-            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_errorConvertingValue"));
-            Object[] msgArgs = {colValue.getClass().getSimpleName(), JDBCType.of(bulkJdbcType)};
-            throw new SQLServerException(form.format(msgArgs), SQLState.DATA_EXCEPTION_NOT_SPECIFIC,
-                    DriverError.NOT_SET, ex);
+            throwConversionError(colValue, bulkJdbcType, ex);
         }
     }
 
+    private void throwConversionError(Object colValue, int bulkJdbcType,
+            ClassCastException ex) throws SQLServerException {
+        if (null == colValue) {
+            // this should not really happen, since ClassCastException should only happen when colValue is not null.
+            // just do one more checking here to make sure
+            throwInvalidArgument("colValue");
+        }
+        MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_errorConvertingValue"));
+        Object[] msgArgs = {colValue.getClass().getSimpleName(), JDBCType.of(bulkJdbcType)};
+        throw new SQLServerException(form.format(msgArgs), SQLState.DATA_EXCEPTION_NOT_SPECIFIC, DriverError.NOT_SET,
+                ex);
+    }
+
     /**
      * Writes sql_variant data based on the baseType for bulkcopy
      * 
@@ -2792,17 +2936,17 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
     }
 
     /**
-     * Reads the given column from the result set current row and writes the data to tdsWriter.
+     * Returns the value of the given column for an encrypted destination column. The value is read from the result set
+     * current row if we are copying from a result set, and is validated and encrypted.
      */
-    private void writeColumn(TDSWriter tdsWriter, int srcColOrdinal, int destColOrdinal,
+    private Object getEncryptedColumnValue(TDSWriter tdsWriter, int srcColOrdinal, int destColOrdinal,
             Object colValue) throws SQLServerException {
         int srcPrecision, srcScale, destPrecision, srcJdbcType;
         SSType destSSType = null;
-        boolean isStreaming, srcNullable;
+        boolean isStreaming;
         srcPrecision = srcColumnMetadata.get(srcColOrdinal).precision;
         srcScale = srcColumnMetadata.get(srcColOrdinal).scale;
         srcJdbcType = srcColumnMetadata.get(srcColOrdinal).jdbcType;
-        srcNullable = srcColumnMetadata.get(srcColOrdinal).isNullable;
 
         destPrecision = destColumnMetadata.get(destColOrdinal).precision;
 
@@ -2914,8 +3058,7 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
                         connection);
             }
         }
-        writeColumnToTdsWriter(tdsWriter, srcPrecision, srcScale, srcJdbcType, srcNullable, srcColOrdinal,
-                destColOrdinal, isStreaming, colValue);
+        return colValue;
     }
 
     /**
@@ -3452,15 +3595,9 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
             if (null != sourceResultSet) {
                 // Loop for each destination column. The mappings is a many to one mapping
                 // where multiple source columns can be mapped to one destination column.
-                for (ColumnMapping columnMapping : columnMappings) {
-                    writeColumn(tdsWriter, columnMapping.sourceColumnOrdinal, columnMapping.destinationColumnOrdinal,
-                            null // cell
-                    // value is
-                    // retrieved
-                    // inside
-                    // writeRowData()
-                    // method.
-                    );
+                for (ColumnWriter columnWriter : columnWriters) {
+                    // The cell value is retrieved inside the write() method.
+                    columnWriter.write(tdsWriter, null);
                 }
             }
             // Copy from a file.
@@ -3475,15 +3612,10 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
                     throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveSourceData"), ex);
                 }
 
-                for (ColumnMapping columnMapping : columnMappings) {
-                    // If the SQLServerBulkCSVRecord does not have metadata for columns, it returns strings in the
-                    // object array.
-                    // COnvert the strings using destination table types.
-                    writeColumn(tdsWriter, columnMapping.sourceColumnOrdinal, columnMapping.destinationColumnOrdinal,
-                            rowObjects[columnMapping.sourceColumnOrdinal - 1]);
-                }
+                writeRowData(tdsWriter, rowObjects);
             }
             row++;
+            rowsSent++;
 
             if (insertRowByRow) {
                 writePacketDataDone(tdsWriter);
@@ -3492,6 +3624,409 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
                 // Send to the server and read response.
                 TDSParser.parse(command.startResponse(), command.getLogContext());
             }
+
+            if (null != progressListener && 0 != notifyAfter && 0 == rowsSent % notifyAfter) {
+                notifyProgress(command, false);
+            }
+        }
+    }
+
+    /**
+     * Writes the column values of a row read from an ISQLServerBulkRecord, in the order of the column mappings.
+     */
+    void writeRowData(TDSWriter tdsWriter, Object[] rowObjects) throws SQLServerException {
+        for (ColumnWriter columnWriter : columnWriters) {
+            // If the SQLServerBulkCSVRecord does not have metadata for columns, it returns strings in the
+            // object array.
+            // COnvert the strings using destination table types.
+            columnWriter.write(tdsWriter, rowObjects[columnWriter.srcColOrdinal - 1]);
+        }
+    }
+
+    /**
+     * Compiles the writers of the mapped columns. The source and destination metadata do not change during a
+     * writeToServer call, so the type each column is sent as is resolved once here instead of for every cell.
+     */
+    private void compileColumnWriters() throws SQLServerException {
+        columnWriters = new ColumnWriter[columnMappings.size()];
+        for (int i = 0; i < columnWriters.length; i++) {
+            ColumnMapping columnMapping = columnMappings.get(i);
+            columnWriters[i] = newColumnWriter(columnMapping.sourceColumnOrdinal,
+                    columnMapping.destinationColumnOrdinal);
+        }
+    }
+
+    /**
+     * Returns the writer of a column, specialized for the type the column is sent as.
+     */
+    private ColumnWriter newColumnWriter(int srcColOrdinal, int destColOrdinal) throws SQLServerException {
+        BulkColumnMetaData srcColumn = srcColumnMetadata.get(srcColOrdinal);
+        BulkColumnMetaData destColumn = destColumnMetadata.get(destColOrdinal);
+        int bulkJdbcType = srcColumn.jdbcType;
+        int bulkScale = srcColumn.scale;
+        int bulkPrecision = validateSourcePrecision(srcColumn.precision, bulkJdbcType, destColumn.precision);
+
+        boolean isStreaming;
+        if ((java.sql.Types.NCHAR == bulkJdbcType) || (java.sql.Types.NVARCHAR == bulkJdbcType)
+                || (java.sql.Types.LONGNVARCHAR == bulkJdbcType)) {
+            isStreaming = (DataTypes.SHORT_VARTYPE_MAX_CHARS < srcColumn.precision)
+                    || (DataTypes.SHORT_VARTYPE_MAX_CHARS < destColumn.precision);
+        } else {
+            isStreaming = (DataTypes.SHORT_VARTYPE_MAX_BYTES < srcColumn.precision)
+                    || (DataTypes.SHORT_VARTYPE_MAX_BYTES < destColumn.precision);
+        }
+
+        if (((null != destColumn.encryptionType) && copyOptions.isAllowEncryptedValueModifications())
+                // if destination is encrypted send varbinary explicitly(needed for unencrypted source)
+                || (null != destColumn.cryptoMeta)) {
+            bulkJdbcType = java.sql.Types.VARBINARY;
+        }
+        /*
+         * if source is encrypted and destination is unencrypted, use destination sql type to send since there is no way
+         * of finding if source is encrypted without accessing the resultset, send destination type if source resultset
+         * set is of type SQLServer and encryption is enabled
+         */
+        else if (null != srcColumn.cryptoMeta) {
+            bulkJdbcType = destColumn.jdbcType;
+            bulkScale = destColumn.scale;
+        } else if (null != sourceBulkRecord) {
+            // Bulk copy from CSV and destination is not encrypted. In this case, we send the temporal types as varchar
+            // and
+            // SQL Server does the conversion. If destination is encrypted, then temporal types can not be sent as
+            // varchar.
+            switch (bulkJdbcType) {
+                case java.sql.Types.DATE:
+                case java.sql.Types.TIME:
+                case java.sql.Types.TIMESTAMP:
+                case microsoft.sql.Types.DATETIMEOFFSET:
+                    bulkJdbcType = java.sql.Types.VARCHAR;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        switch (bulkJdbcType) {
+            case java.sql.Types.INTEGER:
+                return new IntColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale,
+                        isStreaming);
+            case java.sql.Types.BIGINT:
+                return new BigIntColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale,
+                        isStreaming);
+            case java.sql.Types.SMALLINT:
+                return new SmallIntColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision,
+                        bulkScale, isStreaming);
+            case java.sql.Types.TINYINT:
+                return new TinyIntColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale,
+                        isStreaming);
+            case java.sql.Types.BIT:
+                return new BitColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale,
+                        isStreaming);
+            case java.sql.Types.DOUBLE:
+                return new DoubleColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale,
+                        isStreaming);
+            case java.sql.Types.REAL:
+                return new RealColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale,
+                        isStreaming);
+            case java.sql.Types.LONGNVARCHAR:
+            case java.sql.Types.NCHAR:
+            case java.sql.Types.NVARCHAR:
+                if (!isStreaming) {
+                    return new NVarcharColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision,
+                            bulkScale, isStreaming);
+                }
+                break;
+            case microsoft.sql.Types.GUID:
+            case java.sql.Types.LONGVARCHAR:
+            case java.sql.Types.CHAR:
+            case java.sql.Types.VARCHAR:
+                // Strings sent to binary columns are converted from hexadecimal by the generic writer
+                if (!isStreaming && !Util.isBinaryType(destColumn.ssType)) {
+                    return new VarcharColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision,
+                            bulkScale, isStreaming);
+                }
+                break;
+            case java.sql.Types.LONGVARBINARY:
+            case java.sql.Types.BINARY:
+            case java.sql.Types.VARBINARY:
+                if (!isStreaming) {
+                    return new VarbinaryColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision,
+                            bulkScale, isStreaming);
+                }
+                break;
+            default:
+                break;
+        }
+        return new GenericColumnWriter(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale,
+                isStreaming);
+    }
+
+    /**
+     * Writes the values of a mapped column. The metadata of the column is looked up when the writer is created, and
+     * each subclass encodes a single type, so writing a cell only reads and encodes the value.
+     */
+    private abstract class ColumnWriter {
+        final int srcColOrdinal;
+        final int destColOrdinal;
+        final int srcJdbcType;
+        final boolean srcNullable;
+        final SSType destSSType;
+        final int destPrecision;
+        final CryptoMetadata destCryptoMeta;
+        final boolean isLengthValidated;
+
+        // The type, precision and scale the column is sent as
+        final int bulkJdbcType;
+        final int bulkPrecision;
+        final int bulkScale;
+        final boolean isStreaming;
+
+        // The conversion from the source type only needs to be validated once
+        private boolean isConversionValidated;
+
+        ColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            BulkColumnMetaData srcColumn = srcColumnMetadata.get(srcColOrdinal);
+            BulkColumnMetaData destColumn = destColumnMetadata.get(destColOrdinal);
+            this.srcColOrdinal = srcColOrdinal;
+            this.destColOrdinal = destColOrdinal;
+            this.srcJdbcType = srcColumn.jdbcType;
+            this.srcNullable = srcColumn.isNullable;
+            this.destSSType = destColumn.ssType;
+            this.destPrecision = destColumn.precision;
+            this.destCryptoMeta = destColumn.cryptoMeta;
+            this.isLengthValidated = isLengthValidated(srcJdbcType, destSSType);
+            this.bulkJdbcType = bulkJdbcType;
+            this.bulkPrecision = bulkPrecision;
+            this.bulkScale = bulkScale;
+            this.isStreaming = isStreaming;
+        }
+
+        /**
+         * Writes the value of the column in the current row. The value is read from the result set if we are copying
+         * from a result set, in which case colValue is null.
+         */
+        final void write(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            if (null != destCryptoMeta) {
+                colValue = getEncryptedColumnValue(tdsWriter, srcColOrdinal, destColOrdinal, colValue);
+            } else if (null != sourceResultSet) {
+                colValue = readColumnFromResultSet(srcColOrdinal, srcJdbcType, isStreaming, false);
+                if (isLengthValidated) {
+                    validateStringBinaryLength(colValue, srcJdbcType, destSSType, destPrecision);
+                }
+
+                // if AllowEncryptedValueModifications is set send varbinary read from source without checking type
+                // conversion
+                if (!isConversionValidated && !copyOptions.isAllowEncryptedValueModifications()) {
+                    validateDataTypeConversions(srcColOrdinal, destColOrdinal);
+                    isConversionValidated = true;
+                }
+            } else if (isLengthValidated) {
+                validateStringBinaryLength(colValue, srcJdbcType, destSSType, destPrecision);
+            }
+
+            try {
+                if (null == colValue) {
+                    writeNullToTdsWriter(tdsWriter, bulkJdbcType, isStreaming);
+                } else {
+                    writeValue(tdsWriter, colValue);
+                }
+            } catch (ClassCastException ex) {
+                throwConversionError(colValue, bulkJdbcType, ex);
+            }
+        }
+
+        /**
+         * Writes a value that is not null.
+         */
+        abstract void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException;
+    }
+
+    private final class GenericColumnWriter extends ColumnWriter {
+        GenericColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            writeColumnToTdsWriter(tdsWriter, bulkPrecision, bulkScale, bulkJdbcType, srcNullable, srcColOrdinal,
+                    destColOrdinal, isStreaming, destSSType, colValue);
+        }
+    }
+
+    private final class IntColumnWriter extends ColumnWriter {
+        IntColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            if (srcNullable) {
+                tdsWriter.writeByte((byte) 0x04);
+            }
+            tdsWriter.writeInt((int) colValue);
+        }
+    }
+
+    private final class BigIntColumnWriter extends ColumnWriter {
+        BigIntColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            if (srcNullable) {
+                tdsWriter.writeByte((byte) 0x08);
+            }
+            tdsWriter.writeLong((long) colValue);
+        }
+    }
+
+    private final class SmallIntColumnWriter extends ColumnWriter {
+        SmallIntColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            if (srcNullable) {
+                tdsWriter.writeByte((byte) 0x02);
+            }
+            tdsWriter.writeShort(((Number) colValue).shortValue());
+        }
+    }
+
+    private final class TinyIntColumnWriter extends ColumnWriter {
+        TinyIntColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            if (srcNullable) {
+                tdsWriter.writeByte((byte) 0x01);
+            }
+            // TINYINT JDBC type is returned as a short in getObject.
+            // MYSQL returns TINYINT as an Integer. Convert it to a Number to get the short value.
+            tdsWriter.writeByte((byte) ((((Number) colValue).shortValue()) & 0xFF));
+        }
+    }
+
+    private final class BitColumnWriter extends ColumnWriter {
+        BitColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            if (srcNullable) {
+                tdsWriter.writeByte((byte) 0x01);
+            }
+            tdsWriter.writeByte((byte) ((Boolean) colValue ? 1 : 0));
+        }
+    }
+
+    private final class DoubleColumnWriter extends ColumnWriter {
+        DoubleColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            if (srcNullable) {
+                tdsWriter.writeByte((byte) 0x08);
+            }
+            tdsWriter.writeDouble((double) colValue);
+        }
+    }
+
+    private final class RealColumnWriter extends ColumnWriter {
+        RealColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            if (srcNullable) {
+                tdsWriter.writeByte((byte) 0x04);
+            }
+            tdsWriter.writeReal((float) colValue);
+        }
+    }
+
+    /**
+     * Writes Unicode strings that are not streamed.
+     */
+    private final class NVarcharColumnWriter extends ColumnWriter {
+        NVarcharColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            String colValueStr = colValue.toString();
+            tdsWriter.writeShort((short) (2 * colValueStr.length()));
+            tdsWriter.writeString(colValueStr);
+        }
+    }
+
+    /**
+     * Writes non-Unicode strings that are not streamed, encoded with the charset of the destination collation.
+     */
+    private final class VarcharColumnWriter extends ColumnWriter {
+        // Resolved with the first value, as the charset of the collation may not be supported
+        private Charset charset;
+
+        VarcharColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision, int bulkScale,
+                boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            if (null == charset) {
+                // converting string into destination collation using Charset
+                SQLCollation destCollation = destColumnMetadata.get(destColOrdinal).collation;
+                charset = (null != destCollation) ? destCollation.getCharset() : Charset.defaultCharset();
+            }
+            String colValueStr = colValue.toString();
+            tdsWriter.writeShort((short) (colValueStr.length()));
+            tdsWriter.writeBytes(colValueStr.getBytes(charset));
+        }
+    }
+
+    /**
+     * Writes binary values that are not streamed.
+     */
+    private final class VarbinaryColumnWriter extends ColumnWriter {
+        VarbinaryColumnWriter(int srcColOrdinal, int destColOrdinal, int bulkJdbcType, int bulkPrecision,
+                int bulkScale, boolean isStreaming) {
+            super(srcColOrdinal, destColOrdinal, bulkJdbcType, bulkPrecision, bulkScale, isStreaming);
+        }
+
+        @Override
+        void writeValue(TDSWriter tdsWriter, Object colValue) throws SQLServerException {
+            byte[] srcBytes;
+            if (colValue instanceof byte[]) {
+                srcBytes = (byte[]) colValue;
+            } else {
+                try {
+                    srcBytes = ParameterUtils.HexToBin(colValue.toString());
+                } catch (SQLServerException e) {
+                    throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveSourceData"), e);
+                }
+            }
+            tdsWriter.writeShort((short) srcBytes.length);
+            tdsWriter.writeBytes(srcBytes);
         }
     }
 
@@ -7,6 +7,9 @@ package com.microsoft.sqlserver.jdbc;
 
 import java.io.Serializable;
 import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 
 /**
@@ -86,6 +89,14 @@ public class SQLServerBulkCopyOptions implements Serializable {
 
     private boolean allowEncryptedValueModifications;
 
+    /**
+     * Destination columns by which the source rows are sorted, in order of precedence, with their sort order. They are
+     * sent to the server in the ORDER hint of the bulk copy.
+     * 
+     * Default: empty - the source rows are not known to be sorted.
+     */
+    private LinkedHashMap<String, SQLServerSortOrder> columnOrderHints;
+
     /**
      * Constructs a SQLServerBulkCopySettings class using defaults for all of the settings.
      */
@@ -99,6 +110,7 @@ public class SQLServerBulkCopyOptions implements Serializable {
         tableLock = false;
         useInternalTransaction = false;
         allowEncryptedValueModifications = false;
+        columnOrderHints = new LinkedHashMap<>();
     }
 
     /**
@@ -299,4 +311,58 @@ public class SQLServerBulkCopyOptions implements Serializable {
     public void setAllowEncryptedValueModifications(boolean allowEncryptedValueModifications) {
         this.allowEncryptedValueModifications = allowEncryptedValueModifications;
     }
+
+    /**
+     * Declares that the source rows are sorted by a destination column, after the columns of the order hints added
+     * before it. The columns are sent to the server in the ORDER hint of the bulk copy, so that loading rows sorted by
+     * the clustered index of the destination table does not need a sort on the server. The server fails the bulk copy
+     * if the rows are not in the declared order.
+     * 
+     * @param destinationColumn
+     *        Name of a destination column of the bulk copy.
+     * @param sortOrder
+     *        The order of the source rows for the column, Ascending or Descending.
+     * @throws SQLServerException
+     *         If the column name is empty, the sort order is Unspecified, or the column already has an order hint,
+     *         whatever the case of its name.
+     */
+    public void addColumnOrderHint(String destinationColumn, SQLServerSortOrder sortOrder) throws SQLServerException {
+        if (null == destinationColumn || destinationColumn.trim().isEmpty()) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+            Object[] msgArgs = {"destinationColumn"};
+            SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+        } else if (null == sortOrder || SQLServerSortOrder.Unspecified == sortOrder) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+            Object[] msgArgs = {"sortOrder"};
+            SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+        } else {
+            // Column names are matched without regard to case, as they are to the column mappings
+            for (String columnName : columnOrderHints.keySet()) {
+                if (columnName.equalsIgnoreCase(destinationColumn.trim())) {
+                    MessageFormat form = new MessageFormat(
+                            SQLServerException.getErrString("R_duplicateColumnOrderHint"));
+                    Object[] msgArgs = {destinationColumn.trim()};
+                    SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+                }
+            }
+        }
+        columnOrderHints.put(destinationColumn.trim(), sortOrder);
+    }
+
+    /**
+     * Returns the destination columns by which the source rows are declared to be sorted, in order of precedence, with
+     * their sort order.
+     * 
+     * @return A read-only map of destination column names to sort orders.
+     */
+    public Map<String, SQLServerSortOrder> getColumnOrderHints() {
+        return Collections.unmodifiableMap(columnOrderHints);
+    }
+
+    /**
+     * Removes all order hints.
+     */
+    public void clearColumnOrderHints() {
+        columnOrderHints.clear();
+    }
 }
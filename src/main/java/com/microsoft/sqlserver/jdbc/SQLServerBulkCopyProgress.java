@@ -0,0 +1,102 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+/**
+ * The progress of a call to a writeToServer method of {@link SQLServerBulkCopy}, as passed to
+ * {@link ISQLServerBulkCopyProgressListener}. The counts start at 0 for each call.
+ */
+public final class SQLServerBulkCopyProgress {
+    private final long rowsCopied;
+    private final long bytesSent;
+    private final long elapsedNanos;
+    private final int batchesCompleted;
+    private final boolean isBatchComplete;
+    private boolean isAborted = false;
+
+    SQLServerBulkCopyProgress(long rowsCopied, long bytesSent, long elapsedNanos, int batchesCompleted,
+            boolean isBatchComplete) {
+        this.rowsCopied = rowsCopied;
+        this.bytesSent = bytesSent;
+        this.elapsedNanos = elapsedNanos;
+        this.batchesCompleted = batchesCompleted;
+        this.isBatchComplete = isBatchComplete;
+    }
+
+    /**
+     * Returns the number of rows sent to the server. When {@link #isBatchComplete()} is true, the server has processed
+     * all of them, and they have been committed if the UseInternalTransaction option is set.
+     * 
+     * @return the number of rows sent
+     */
+    public long getRowsCopied() {
+        return rowsCopied;
+    }
+
+    /**
+     * Returns the number of bytes of TDS packets written to the network, including the INSERT BULK statements. Rows
+     * that are still in the packet buffer are not counted.
+     * 
+     * @return the number of bytes sent
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Returns the time since writeToServer was called, measured with {@link System#nanoTime()}.
+     * 
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of batches the server has processed.
+     * 
+     * @return the number of completed batches
+     */
+    public int getBatchesCompleted() {
+        return batchesCompleted;
+    }
+
+    /**
+     * Returns whether the listener was called because a batch was completed, rather than because NotifyAfter rows were
+     * sent.
+     * 
+     * @return true if a batch was completed
+     */
+    public boolean isBatchComplete() {
+        return isBatchComplete;
+    }
+
+    /**
+     * Stops the bulk copy when the listener returns, and makes the writeToServer method throw a SQLServerException. The
+     * rows of the completed batches are kept, including those of the batch just completed when
+     * {@link #isBatchComplete()} is true. The rows sent since the last completed batch are not, as the bulk copy cancels
+     * its INSERT BULK statement, and rolls back its transaction if the UseInternalTransaction option is set.
+     */
+    public void abort() {
+        isAborted = true;
+    }
+
+    /**
+     * Returns whether the listener asked to stop the bulk copy.
+     * 
+     * @return true if {@link #abort()} was called
+     */
+    public boolean isAborted() {
+        return isAborted;
+    }
+
+    @Override
+    public String toString() {
+        return "bulkCopyProgress(rows:" + rowsCopied + " bytes:" + bytesSent + " elapsedNanos:" + elapsedNanos
+                + " batches:" + batchesCompleted + (isBatchComplete ? " batchComplete" : "")
+                + (isAborted ? " aborted" : "") + ")";
+    }
+}
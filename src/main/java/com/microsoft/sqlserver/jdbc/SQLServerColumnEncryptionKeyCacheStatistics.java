@@ -0,0 +1,112 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+/**
+ * A snapshot of the counters of the column encryption key cache of the Always Encrypted feature. The cache is shared by
+ * all connections. Obtain the snapshot with {@link #getStatistics()}.
+ */
+public final class SQLServerColumnEncryptionKeyCacheStatistics {
+    private final long hitCount;
+    private final long missCount;
+    private final long refreshCount;
+    private final long refreshFailureCount;
+    private final long evictionCount;
+    private final int size;
+    private final int capacity;
+
+    private SQLServerColumnEncryptionKeyCacheStatistics(SQLServerSymmetricKeyCache cache) {
+        hitCount = cache.getHitCount();
+        missCount = cache.getMissCount();
+        refreshCount = cache.getRefreshCount();
+        refreshFailureCount = cache.getRefreshFailureCount();
+        evictionCount = cache.getEvictionCount();
+        size = cache.size();
+        capacity = cache.getCapacity();
+    }
+
+    /**
+     * Returns a snapshot of the column encryption key cache counters.
+     *
+     * @return the column encryption key cache counters
+     */
+    public static SQLServerColumnEncryptionKeyCacheStatistics getStatistics() {
+        return new SQLServerColumnEncryptionKeyCacheStatistics(SQLServerSymmetricKeyCache.getInstance());
+    }
+
+    /**
+     * Returns the number of times a column encryption key was found in the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of times a column encryption key was decrypted by a key store provider because it was not in
+     * the cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of times a cached column encryption key was decrypted again in the background before it
+     * expired.
+     *
+     * @return the number of refreshes
+     */
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    /**
+     * Returns the number of times a key store provider failed to decrypt a cached column encryption key again. The key
+     * is kept until it expires.
+     *
+     * @return the number of failed refreshes
+     */
+    public long getRefreshFailureCount() {
+        return refreshFailureCount;
+    }
+
+    /**
+     * Returns the number of column encryption keys that were evicted because the cache was full.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of column encryption keys in the cache.
+     *
+     * @return the number of cached keys
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of column encryption keys in the cache.
+     *
+     * @return the capacity of the cache
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        return "columnEncryptionKeyCache(hits:" + hitCount + " misses:" + missCount + " refreshes:" + refreshCount
+                + " refreshFailures:" + refreshFailureCount + " evictions:" + evictionCount + " size:" + size
+                + " capacity:" + capacity + ")";
+    }
+}
@@ -0,0 +1,761 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+
+/**
+ * Represents the values of one column of a {@link SQLServerColumnarBatch}.
+ * <p>
+ * The values are held in one primitive array per column, with a validity bitmap and, for variable-length values, an
+ * offsets array, in the layout used by Apache Arrow. The array that holds the values depends on the SQL Server type of
+ * the column:
+ * <ul>
+ * <li>bit, tinyint, smallint, int and bigint: {@link VectorType#LONG}, the value (1 or 0 for bit).</li>
+ * <li>money, smallmoney, and decimal and numeric with a precision of at most 18: {@link VectorType#LONG}, the unscaled
+ * value; see {@link #getScale()}.</li>
+ * <li>date: {@link VectorType#LONG}, the number of days since 1970-01-01.</li>
+ * <li>time: {@link VectorType#LONG}, the number of nanoseconds since midnight.</li>
+ * <li>datetime, smalldatetime and datetime2: {@link VectorType#LONG}, the number of microseconds since
+ * 1970-01-01T00:00:00, without a time zone. datetime2 values are truncated to microseconds.</li>
+ * <li>datetimeoffset: {@link VectorType#LONG}, the number of microseconds since 1970-01-01T00:00:00Z.</li>
+ * <li>real and float: {@link VectorType#DOUBLE}.</li>
+ * <li>binary, varbinary, image, timestamp and CLR types: {@link VectorType#BINARY}, the value as returned by
+ * getBytes().</li>
+ * <li>All other types: {@link VectorType#UTF8}, the UTF-8 encoding of the value as returned by getString().</li>
+ * </ul>
+ * Values of all types are decoded directly from the response into the arrays, except for values of max, text, ntext,
+ * image, xml, uniqueidentifier, sql_variant and CLR types, decimal and numeric values with a precision of more than 18,
+ * and values of encrypted columns, which are read through the same conversions as the ResultSet getters.
+ */
+public final class SQLServerColumnVector {
+
+    /**
+     * Identifies the array that holds the values of a {@link SQLServerColumnVector}.
+     */
+    public enum VectorType {
+        /** The values are held in {@link SQLServerColumnVector#getLongValues()} */
+        LONG,
+
+        /** The values are held in {@link SQLServerColumnVector#getDoubleValues()} */
+        DOUBLE,
+
+        /**
+         * The values are UTF-8 encoded strings held in {@link SQLServerColumnVector#getData()}, delimited by
+         * {@link SQLServerColumnVector#getOffsets()}
+         */
+        UTF8,
+
+        /**
+         * The values are byte arrays held in {@link SQLServerColumnVector#getData()}, delimited by
+         * {@link SQLServerColumnVector#getOffsets()}
+         */
+        BINARY
+    }
+
+    // The arrays start with room for this many values and double as values are added
+    private static final int INITIAL_CAPACITY = 16;
+
+    // The largest number of values a vector can hold, which leaves room for the offset after the last value
+    static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private static final long MICROS_PER_SECOND = 1000L * 1000;
+    private static final long MICROS_PER_DAY = 24 * 60 * 60 * MICROS_PER_SECOND;
+
+    // Days from 0001-01-01, the base date of the date, datetime2 and datetimeoffset types, to 1970-01-01
+    private static final int EPOCH_DAYS_INTO_CE = 719162;
+
+    // Days from 1900-01-01, the base date of the datetime and smalldatetime types, to 1970-01-01
+    private static final int EPOCH_DAYS_SINCE_SQL_BASE_DATE = 25567;
+
+    private final String columnName;
+    private final int columnType;
+    private final TypeInfo typeInfo;
+    private final SSType ssType;
+    private final VectorType vectorType;
+    private final int scale;
+    private final boolean isDirect;
+
+    private final int capacity;
+    private int valueCount;
+    private int nullCount;
+    private byte[] validity;
+    private long[] longValues;
+    private double[] doubleValues;
+    private int[] offsets;
+    private byte[] data;
+
+    // Buffer for values that are transcoded to UTF-8
+    private byte[] scratch;
+
+    // Calendar for reading temporal values through the getter conversions
+    private Calendar utcCalendar;
+
+    SQLServerColumnVector(Column column, String columnName, int columnType, int capacity) {
+        this.columnName = columnName;
+        this.columnType = columnType;
+
+        CryptoMetadata cryptoMetadata = column.getCryptoMetadata();
+        typeInfo = (null != cryptoMetadata) ? cryptoMetadata.getBaseTypeInfo() : column.getTypeInfo();
+        ssType = typeInfo.getSSType();
+        vectorType = vectorTypeOf(typeInfo);
+        scale = scaleOf(typeInfo, vectorType);
+        isDirect = null == cryptoMetadata && null == column.filter && isDirectType(typeInfo);
+
+        this.capacity = capacity;
+        int initialCapacity = Math.min(capacity, INITIAL_CAPACITY);
+        validity = new byte[(initialCapacity + 7) >> 3];
+        switch (vectorType) {
+            case LONG:
+                longValues = new long[initialCapacity];
+                break;
+            case DOUBLE:
+                doubleValues = new double[initialCapacity];
+                break;
+            default:
+                offsets = new int[initialCapacity + 1];
+                data = new byte[Math.max(16, initialCapacity * Math.min(typeInfo.getMaxLength(), 16))];
+                break;
+        }
+    }
+
+    static VectorType vectorTypeOf(TypeInfo typeInfo) {
+        switch (typeInfo.getSSType()) {
+            case BIT:
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case MONEY:
+            case SMALLMONEY:
+            case DATE:
+            case TIME:
+            case DATETIME:
+            case SMALLDATETIME:
+            case DATETIME2:
+            case DATETIMEOFFSET:
+                return VectorType.LONG;
+
+            case DECIMAL:
+            case NUMERIC:
+                return (typeInfo.getPrecision() <= 18) ? VectorType.LONG : VectorType.UTF8;
+
+            case REAL:
+            case FLOAT:
+                return VectorType.DOUBLE;
+
+            case BINARY:
+            case VARBINARY:
+            case VARBINARYMAX:
+            case IMAGE:
+            case TIMESTAMP:
+            case UDT:
+            case GEOMETRY:
+            case GEOGRAPHY:
+                return VectorType.BINARY;
+
+            default:
+                return VectorType.UTF8;
+        }
+    }
+
+    private static int scaleOf(TypeInfo typeInfo, VectorType vectorType) {
+        switch (typeInfo.getSSType()) {
+            case MONEY:
+            case SMALLMONEY:
+                return 4;
+            case DECIMAL:
+            case NUMERIC:
+                return (VectorType.LONG == vectorType) ? typeInfo.getScale() : 0;
+            default:
+                return 0;
+        }
+    }
+
+    // Returns whether values of the type are read directly from the response by readValue()
+    private static boolean isDirectType(TypeInfo typeInfo) {
+        switch (typeInfo.getSSLenType()) {
+            case FIXEDLENTYPE:
+            case BYTELENTYPE:
+            case USHORTLENTYPE:
+                break;
+            default:
+                return false;
+        }
+
+        switch (typeInfo.getSSType()) {
+            case BIT:
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case MONEY:
+            case SMALLMONEY:
+            case REAL:
+            case FLOAT:
+            case DATE:
+            case TIME:
+            case DATETIME:
+            case SMALLDATETIME:
+            case DATETIME2:
+            case DATETIMEOFFSET:
+            case CHAR:
+            case VARCHAR:
+            case NCHAR:
+            case NVARCHAR:
+            case BINARY:
+            case VARBINARY:
+            case TIMESTAMP:
+                return true;
+            case DECIMAL:
+            case NUMERIC:
+                return typeInfo.getPrecision() <= 18;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the name of the column, as returned by ResultSetMetaData.getColumnLabel().
+     *
+     * @return the column name
+     */
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * Returns the type of the column, as returned by ResultSetMetaData.getColumnType().
+     *
+     * @return the column type from java.sql.Types or microsoft.sql.Types
+     */
+    public int getColumnType() {
+        return columnType;
+    }
+
+    /**
+     * Returns the array that holds the values of this vector.
+     *
+     * @return the vector type
+     */
+    public VectorType getVectorType() {
+        return vectorType;
+    }
+
+    /**
+     * Returns the number of digits to the right of the decimal point of the unscaled values of money, smallmoney,
+     * decimal and numeric columns.
+     *
+     * @return the scale, or 0 for other columns
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns the number of values in this vector.
+     *
+     * @return the number of values
+     */
+    public int getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     * Returns the number of NULL values in this vector.
+     *
+     * @return the number of NULL values
+     */
+    public int getNullCount() {
+        return nullCount;
+    }
+
+    /**
+     * Returns whether a value is NULL.
+     *
+     * @param index
+     *        the index of the value, starting at 0
+     * @return true if the value is NULL
+     */
+    public boolean isNull(int index) {
+        return 0 == (validity[index >> 3] & (1 << (index & 7)));
+    }
+
+    /**
+     * Returns the validity bitmap of this vector. The bit (index % 8) of byte (index / 8) is set if the value at the
+     * index is not NULL.
+     *
+     * @return the validity bitmap
+     */
+    public byte[] getValidityBitmap() {
+        return validity;
+    }
+
+    /**
+     * Returns the values of a {@link VectorType#LONG} vector. Only the first {@link #getValueCount()} elements are
+     * values, and NULL values are 0.
+     *
+     * @return the values, or null if this is not a LONG vector
+     */
+    public long[] getLongValues() {
+        return longValues;
+    }
+
+    /**
+     * Returns the values of a {@link VectorType#DOUBLE} vector. Only the first {@link #getValueCount()} elements are
+     * values, and NULL values are 0.
+     *
+     * @return the values, or null if this is not a DOUBLE vector
+     */
+    public double[] getDoubleValues() {
+        return doubleValues;
+    }
+
+    /**
+     * Returns the offsets of the values of a {@link VectorType#UTF8} or {@link VectorType#BINARY} vector in
+     * {@link #getData()}. The value at an index is stored in the bytes from offsets[index], inclusive, to
+     * offsets[index + 1], exclusive, and NULL values are empty.
+     *
+     * @return {@link #getValueCount()} + 1 offsets, or null if this is not a UTF8 or BINARY vector
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Returns the bytes of the values of a {@link VectorType#UTF8} or {@link VectorType#BINARY} vector. Only the bytes
+     * up to the last offset of {@link #getOffsets()} are values.
+     *
+     * @return the bytes of the values, or null if this is not a UTF8 or BINARY vector
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * Returns a value of a {@link VectorType#LONG} vector.
+     *
+     * @param index
+     *        the index of the value, starting at 0
+     * @return the value, or 0 if the value is NULL
+     */
+    public long getLong(int index) {
+        return longValues[index];
+    }
+
+    /**
+     * Returns a value of a {@link VectorType#DOUBLE} vector.
+     *
+     * @param index
+     *        the index of the value, starting at 0
+     * @return the value, or 0 if the value is NULL
+     */
+    public double getDouble(int index) {
+        return doubleValues[index];
+    }
+
+    /**
+     * Returns a copy of a value of a {@link VectorType#UTF8} or {@link VectorType#BINARY} vector.
+     *
+     * @param index
+     *        the index of the value, starting at 0
+     * @return the value, or null if the value is NULL
+     */
+    public byte[] getBytes(int index) {
+        return isNull(index) ? null : Arrays.copyOfRange(data, offsets[index], offsets[index + 1]);
+    }
+
+    /**
+     * Returns a value of a {@link VectorType#UTF8} vector as a String.
+     *
+     * @param index
+     *        the index of the value, starting at 0
+     * @return the value, or null if the value is NULL
+     */
+    public String getString(int index) {
+        return isNull(index) ? null
+                             : new String(data, offsets[index], offsets[index + 1] - offsets[index],
+                                     StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns whether the values of this vector are read directly from the response by readValue(). Otherwise they are
+     * read with the getter conversion to getJDBCType() and added with appendValue().
+     */
+    final boolean isDirect() {
+        return isDirect;
+    }
+
+    /**
+     * Returns the type to which the values of this vector are converted when they are not read directly.
+     */
+    final JDBCType getJDBCType() {
+        switch (ssType) {
+            case REAL:
+            case FLOAT:
+                return JDBCType.DOUBLE;
+            case MONEY:
+            case SMALLMONEY:
+            case DECIMAL:
+            case NUMERIC:
+                return (VectorType.LONG == vectorType) ? JDBCType.DECIMAL : JDBCType.CHAR;
+            case DATE:
+            case TIME:
+            case DATETIME:
+            case SMALLDATETIME:
+            case DATETIME2:
+                return JDBCType.TIMESTAMP;
+            case DATETIMEOFFSET:
+                return JDBCType.DATETIMEOFFSET;
+            default:
+                switch (vectorType) {
+                    case LONG:
+                        return JDBCType.BIGINT;
+                    case BINARY:
+                        return JDBCType.BINARY;
+                    default:
+                        return JDBCType.CHAR;
+                }
+        }
+    }
+
+    /**
+     * Returns the calendar with which temporal values are read when they are not read directly.
+     */
+    final Calendar getCalendar() {
+        if (JDBCType.TIMESTAMP != getJDBCType())
+            return null;
+
+        if (null == utcCalendar)
+            utcCalendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        return utcCalendar;
+    }
+
+    /**
+     * Adds a NULL value.
+     */
+    final void appendNull() {
+        reserveValue();
+        if (null != offsets)
+            offsets[valueCount + 1] = offsets[valueCount];
+        ++valueCount;
+        ++nullCount;
+    }
+
+    /**
+     * Adds a value converted to getJDBCType() by the getter conversions.
+     */
+    final void appendValue(Object value) {
+        if (null == value) {
+            appendNull();
+            return;
+        }
+
+        switch (ssType) {
+            case DATE:
+                appendLong(Math.floorDiv(toEpochMicros((java.sql.Timestamp) value), MICROS_PER_DAY));
+                return;
+            case TIME:
+                appendLong(Math.floorMod(toEpochMicros((java.sql.Timestamp) value), MICROS_PER_DAY) * 1000
+                        + ((java.sql.Timestamp) value).getNanos() % 1000);
+                return;
+            case DATETIME:
+            case SMALLDATETIME:
+            case DATETIME2:
+                appendLong(toEpochMicros((java.sql.Timestamp) value));
+                return;
+            case DATETIMEOFFSET:
+                appendLong(toEpochMicros(((microsoft.sql.DateTimeOffset) value).getTimestamp()));
+                return;
+            default:
+                break;
+        }
+
+        switch (vectorType) {
+            case LONG:
+                if (value instanceof BigDecimal)
+                    appendLong(((BigDecimal) value).setScale(scale).unscaledValue().longValue());
+                else if (value instanceof Boolean)
+                    appendLong((Boolean) value ? 1 : 0);
+                else
+                    appendLong(((Number) value).longValue());
+                break;
+            case DOUBLE:
+                appendDouble(((Number) value).doubleValue());
+                break;
+            case BINARY:
+                appendBytes((byte[]) value);
+                break;
+            default:
+                appendBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+                break;
+        }
+    }
+
+    private static long toEpochMicros(java.sql.Timestamp value) {
+        return Math.floorDiv(value.getTime(), 1000) * MICROS_PER_SECOND + value.getNanos() / 1000;
+    }
+
+    private void appendLong(long value) {
+        reserveValue();
+        longValues[valueCount] = value;
+        setValid();
+    }
+
+    private void appendDouble(double value) {
+        reserveValue();
+        doubleValues[valueCount] = value;
+        setValid();
+    }
+
+    private void appendBytes(byte[] value) {
+        int offset = reserve(value.length);
+        System.arraycopy(value, 0, data, offset, value.length);
+        endBytes(offset + value.length);
+    }
+
+    private void setValid() {
+        validity[valueCount >> 3] |= (byte) (1 << (valueCount & 7));
+        ++valueCount;
+    }
+
+    // Ensures that the arrays have room for one more value, up to the capacity of the vector
+    private void reserveValue() {
+        assert valueCount < capacity;
+
+        if ((valueCount >> 3) == validity.length)
+            validity = Arrays.copyOf(validity, (grow(valueCount) + 7) >> 3);
+        switch (vectorType) {
+            case LONG:
+                if (valueCount == longValues.length)
+                    longValues = Arrays.copyOf(longValues, grow(valueCount));
+                break;
+            case DOUBLE:
+                if (valueCount == doubleValues.length)
+                    doubleValues = Arrays.copyOf(doubleValues, grow(valueCount));
+                break;
+            default:
+                if (valueCount + 1 == offsets.length)
+                    offsets = Arrays.copyOf(offsets, grow(valueCount) + 1);
+                break;
+        }
+    }
+
+    // Returns the number of values to make room for when the arrays are full with size values
+    private int grow(int size) {
+        return (int) Math.min(2L * size, capacity);
+    }
+
+    // Ensures that data has room for length more bytes and returns the offset at which they are written
+    private int reserve(int length) {
+        reserveValue();
+        int offset = offsets[valueCount];
+        if (offset + length > data.length)
+            data = Arrays.copyOf(data, Math.max(offset + length, 2 * data.length));
+        return offset;
+    }
+
+    private void endBytes(int endOffset) {
+        offsets[valueCount + 1] = endOffset;
+        setValid();
+    }
+
+    /**
+     * Reads a value from the current position in the response, which must be the start of the value, and adds it.
+     */
+    final void readValue(TDSReader tdsReader) throws SQLServerException {
+        assert isDirect;
+
+        int valueLength;
+        switch (typeInfo.getSSLenType()) {
+            case FIXEDLENTYPE:
+                valueLength = typeInfo.getMaxLength();
+                if (0 == valueLength) {
+                    appendNull();
+                    return;
+                }
+                break;
+
+            case BYTELENTYPE:
+                valueLength = tdsReader.readUnsignedByte();
+                if (0 == valueLength) {
+                    appendNull();
+                    return;
+                }
+                break;
+
+            default:
+                assert SSLenType.USHORTLENTYPE == typeInfo.getSSLenType();
+                valueLength = tdsReader.readUnsignedShort();
+                if (65535 == valueLength) {
+                    appendNull();
+                    return;
+                }
+                break;
+        }
+
+        if (valueLength > typeInfo.getMaxLength())
+            tdsReader.throwInvalidTDS();
+
+        switch (ssType) {
+            case BIT:
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                appendLong(tdsReader.readIntegerValue(valueLength));
+                break;
+
+            case MONEY:
+            case SMALLMONEY:
+                appendLong(tdsReader.readMoneyValue(valueLength));
+                break;
+
+            case DECIMAL:
+            case NUMERIC:
+                appendLong(tdsReader.readUnscaledDecimalValue(valueLength));
+                break;
+
+            case REAL:
+            case FLOAT:
+                appendDouble(tdsReader.readFloatingPointValue(valueLength));
+                break;
+
+            case DATE:
+                if (TDS.DAYS_INTO_CE_LENGTH != valueLength)
+                    tdsReader.throwInvalidTDS();
+                appendLong(tdsReader.readDaysIntoCE() - EPOCH_DAYS_INTO_CE);
+                break;
+
+            case TIME:
+                if (TDS.timeValueLength(typeInfo.getScale()) != valueLength)
+                    tdsReader.throwInvalidTDS();
+                appendLong(tdsReader.readNanosSinceMidnight(typeInfo.getScale()));
+                break;
+
+            case DATETIME2:
+            case DATETIMEOFFSET: {
+                int expectedLength = (SSType.DATETIME2 == ssType) ? TDS.datetime2ValueLength(typeInfo.getScale())
+                                                                  : TDS.datetimeoffsetValueLength(typeInfo.getScale());
+                if (expectedLength != valueLength)
+                    tdsReader.throwInvalidTDS();
+
+                // The date and time parts of datetimeoffset values are in UTC; the offset that follows them is only
+                // needed to get the local time.
+                long nanosSinceMidnight = tdsReader.readNanosSinceMidnight(typeInfo.getScale());
+                int daysIntoCE = tdsReader.readDaysIntoCE();
+                if (SSType.DATETIMEOFFSET == ssType)
+                    tdsReader.readShort();
+                appendLong((daysIntoCE - EPOCH_DAYS_INTO_CE) * MICROS_PER_DAY + nanosSinceMidnight / 1000);
+                break;
+            }
+
+            case DATETIME:
+            case SMALLDATETIME: {
+                int daysSinceSQLBaseDate;
+                long msecSinceMidnight;
+                switch (valueLength) {
+                    case 8:
+                        // Days since 1900-01-01 and 1/300ths of a second since midnight, rounded the same way as
+                        // TDSReader.readDateTime()
+                        daysSinceSQLBaseDate = tdsReader.readInt();
+                        msecSinceMidnight = (tdsReader.readInt() * 10 + 1) / 3;
+                        break;
+                    case 4:
+                        // Days since 1900-01-01 and minutes since midnight
+                        daysSinceSQLBaseDate = tdsReader.readUnsignedShort();
+                        msecSinceMidnight = tdsReader.readUnsignedShort() * 60 * 1000L;
+                        break;
+                    default:
+                        tdsReader.throwInvalidTDS();
+                        return;
+                }
+                appendLong((daysSinceSQLBaseDate - EPOCH_DAYS_SINCE_SQL_BASE_DATE) * MICROS_PER_DAY
+                        + msecSinceMidnight * 1000);
+                break;
+            }
+
+            case CHAR:
+            case VARCHAR: {
+                int offset = reserve(valueLength);
+                tdsReader.readBytes(data, offset, valueLength);
+
+                // Values in the code page of the collation are copied as they are if they are UTF-8 or plain ASCII;
+                // other values are decoded and encoded again.
+                SQLCollation collation = typeInfo.getSQLCollation();
+                if (!StandardCharsets.UTF_8.equals(typeInfo.getCharset())
+                        && !(collation.supportsAsciiConversion() && isAscii(data, offset, valueLength))) {
+                    byte[] utf8Value = new String(data, offset, valueLength, typeInfo.getCharset())
+                            .getBytes(StandardCharsets.UTF_8);
+                    offset = reserve(utf8Value.length);
+                    System.arraycopy(utf8Value, 0, data, offset, utf8Value.length);
+                    valueLength = utf8Value.length;
+                }
+                endBytes(offset + valueLength);
+                break;
+            }
+
+            case NCHAR:
+            case NVARCHAR:
+                if (null == scratch || scratch.length < valueLength)
+                    scratch = new byte[Math.max(valueLength, 256)];
+                tdsReader.readBytes(scratch, 0, valueLength);
+                endBytes(encodeUTF16LEAsUTF8(scratch, valueLength, reserve(valueLength / 2 * 3)));
+                break;
+
+            default:
+                assert VectorType.BINARY == vectorType : "Unexpected SSType " + ssType;
+                int offset = reserve(valueLength);
+                tdsReader.readBytes(data, offset, valueLength);
+                endBytes(offset + valueLength);
+                break;
+        }
+    }
+
+    private static boolean isAscii(byte[] bytes, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] < 0)
+                return false;
+        }
+        return true;
+    }
+
+    // Writes the UTF-8 encoding of UTF-16LE characters to data at the offset and returns the offset after them.
+    // Unpaired surrogates are replaced by '?', as String.getBytes() does.
+    private int encodeUTF16LEAsUTF8(byte[] utf16, int length, int offset) {
+        for (int i = 0; i + 1 < length; i += 2) {
+            char c = (char) ((utf16[i] & 0xFF) | ((utf16[i + 1] & 0xFF) << 8));
+            if (c < 0x80) {
+                data[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                data[offset++] = (byte) (0xC0 | (c >> 6));
+                data[offset++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                char low = (i + 3 < length) ? (char) ((utf16[i + 2] & 0xFF) | ((utf16[i + 3] & 0xFF) << 8)) : 0;
+                if (Character.isHighSurrogate(c) && Character.isLowSurrogate(low)) {
+                    int codePoint = Character.toCodePoint(c, low);
+                    data[offset++] = (byte) (0xF0 | (codePoint >> 18));
+                    data[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    data[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    data[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+                    i += 2;
+                } else {
+                    data[offset++] = '?';
+                }
+            } else {
+                data[offset++] = (byte) (0xE0 | (c >> 12));
+                data[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                data[offset++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return offset;
+    }
+}
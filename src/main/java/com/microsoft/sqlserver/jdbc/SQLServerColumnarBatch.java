@@ -0,0 +1,49 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+/**
+ * Represents a batch of rows of a result set read by {@link ISQLServerResultSet#fetchColumnarBatch(int)}, with the
+ * values of each column held in a {@link SQLServerColumnVector}.
+ */
+public final class SQLServerColumnarBatch {
+    private final SQLServerColumnVector[] columns;
+    private final int rowCount;
+
+    SQLServerColumnarBatch(SQLServerColumnVector[] columns, int rowCount) {
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Returns the number of rows in this batch.
+     *
+     * @return the number of rows, which is 0 if there were no more rows in the result set
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns in this batch.
+     *
+     * @return the number of columns
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Returns the values of a column.
+     *
+     * @param columnIndex
+     *        the first column is 1, the second is 2, ...
+     * @return the column vector
+     */
+    public SQLServerColumnVector getColumn(int columnIndex) {
+        return columns[columnIndex - 1];
+    }
+}
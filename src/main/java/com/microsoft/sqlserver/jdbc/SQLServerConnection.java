@@ -168,14 +168,18 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         String unhashedString;
         private long[] segments;
         private int hashCode;
+        // Length of the SQL text at the start of unhashedString, followed by the parameter definitions if any
+        private int sqlLength;
 
         CityHash128Key(String sql, String parametersDefinition) {
             this(sql + parametersDefinition);
+            sqlLength = sql.length();
         }
 
         @SuppressWarnings("deprecation")
         CityHash128Key(String s) {
             unhashedString = s;
+            sqlLength = s.length();
             byte[] bytes = new byte[s.length()];
             s.getBytes(0, s.length(), bytes, 0);
             segments = CityHash.cityHash128(bytes, 0, bytes.length);
@@ -196,6 +200,14 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
             }
             return hashCode;
         }
+
+        String getSQL() {
+            return unhashedString.substring(0, sqlLength);
+        }
+
+        String getParametersDefinition() {
+            return unhashedString.substring(sqlLength);
+        }
     }
 
     /**
@@ -302,7 +314,10 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
 
     /** Returns prepared statement cache entry if exists, if not parse and create a new one */
     static ParsedSQLCacheItem getCachedParsedSQL(CityHash128Key key) {
-        return parsedSQLCache.get(key);
+        ParsedSQLCacheItem cacheItem = parsedSQLCache.get(key);
+        StatementCacheCounters.total.increment((null != cacheItem) ? StatementCacheCounters.Counter.PARSED_SQL_HIT
+                                                                   : StatementCacheCounters.Counter.PARSED_SQL_MISS);
+        return cacheItem;
     }
 
     /** Parses and create a information about parsed SQL text */
@@ -330,6 +345,8 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
     private ConcurrentLinkedHashMap<CityHash128Key, PreparedStatementHandle> preparedStatementHandleCache;
     /** Cache of prepared statement parameter metadata */
     private ConcurrentLinkedHashMap<CityHash128Key, SQLServerParameterMetaData> parameterMetadataCache;
+    /** Cache of prepared statement parameter encryption metadata */
+    private ConcurrentLinkedHashMap<CityHash128Key, ParameterEncryptionMetadata> parameterEncryptionMetadataCache;
     /**
      * Checks whether statement pooling is enabled or disabled. The default is set to true;
      */
@@ -527,6 +544,19 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
      */
     private int cancelQueryTimeoutSeconds;
 
+    /**
+     * Number of threads that decrypt the values of encrypted columns read in a columnar batch.
+     */
+    private int columnDecryptionParallelism = SQLServerDriverIntProperty.COLUMN_DECRYPTION_PARALLELISM.getDefaultValue();
+
+    /**
+     * Returns the number of threads that decrypt the values of encrypted columns read in a columnar batch, 1 to decrypt
+     * them on the reading thread.
+     */
+    final int getColumnDecryptionParallelism() {
+        return columnDecryptionParallelism;
+    }
+
     /**
      * Returns the cancelTimeout in seconds.
      * 
@@ -592,6 +622,21 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         return trustServerCertificate;
     }
 
+    private boolean useSocketChannel;
+
+    final boolean useSocketChannel() {
+        return useSocketChannel;
+    }
+
+    private final StatementCacheCounters statementCacheCounters = new StatementCacheCounters(
+            StatementCacheCounters.total);
+
+    final StatementCacheCounters getStatementCacheCounters() {
+        return statementCacheCounters;
+    }
+
+    private volatile ISQLServerRequestTimingListener requestTimingListener;
+
     private byte negotiatedEncryptionLevel = TDS.ENCRYPT_INVALID;
 
     final byte getNegotiatedEncryptionLevel() {
@@ -1049,6 +1094,27 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         initResettableValues();
     }
 
+    /**
+     * Returns whether the server has reported a transaction that has not been committed or rolled back yet.
+     */
+    private boolean isTransactionActive() {
+        for (byte b : getTransactionDescriptor()) {
+            if (0 != b)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the session state captured by beginRequest matches the state restored by
+     * initResettableValues, so that the reset connection flag alone can restore it.
+     */
+    private boolean isRequestStateResettable() {
+        return originalDatabaseAutoCommitMode
+                && Connection.TRANSACTION_READ_COMMITTED == originalTransactionIsolationLevel
+                && ResultSet.HOLD_CURSORS_OVER_COMMIT == originalHoldability && originalSCatalog.equals(originalCatalog);
+    }
+
     /**
      * Generates the next unique connection id.
      * 
@@ -1454,6 +1520,30 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
             }
             transparentNetworkIPResolution = booleanPropertyOn(sPropKey, sPropValue);
 
+            sPropKey = SQLServerDriverBooleanProperty.USE_SOCKET_CHANNEL.toString();
+            sPropValue = activeConnectionProperties.getProperty(sPropKey);
+            if (sPropValue == null) {
+                sPropValue = Boolean.toString(SQLServerDriverBooleanProperty.USE_SOCKET_CHANNEL.getDefaultValue());
+                activeConnectionProperties.setProperty(sPropKey, sPropValue);
+            }
+            useSocketChannel = booleanPropertyOn(sPropKey, sPropValue);
+
+            sPropKey = SQLServerDriverBooleanProperty.REGISTER_STATEMENT_CACHE_MBEAN.toString();
+            sPropValue = activeConnectionProperties.getProperty(sPropKey);
+            if (sPropValue == null) {
+                sPropValue = Boolean
+                        .toString(SQLServerDriverBooleanProperty.REGISTER_STATEMENT_CACHE_MBEAN.getDefaultValue());
+                activeConnectionProperties.setProperty(sPropKey, sPropValue);
+            }
+            if (booleanPropertyOn(sPropKey, sPropValue)) {
+                StatementCacheCounters.registerMBean();
+            }
+
+            sPropKey = SQLServerDriverObjectProperty.REQUEST_TIMING_LISTENER.toString();
+            if (activeConnectionProperties.containsKey(sPropKey)) {
+                requestTimingListener = (ISQLServerRequestTimingListener) activeConnectionProperties.get(sPropKey);
+            }
+
             sPropKey = SQLServerDriverBooleanProperty.ENCRYPT.toString();
             sPropValue = activeConnectionProperties.getProperty(sPropKey);
             if (sPropValue == null) {
@@ -1860,6 +1950,22 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
                 }
             }
 
+            sPropKey = SQLServerDriverIntProperty.COLUMN_DECRYPTION_PARALLELISM.toString();
+            if (activeConnectionProperties.getProperty(sPropKey) != null
+                    && activeConnectionProperties.getProperty(sPropKey).length() > 0) {
+                try {
+                    int n = Integer.parseInt(activeConnectionProperties.getProperty(sPropKey));
+                    if (n < 1)
+                        throw new NumberFormatException();
+                    columnDecryptionParallelism = n;
+                } catch (NumberFormatException e) {
+                    MessageFormat form = new MessageFormat(
+                            SQLServerException.getErrString("R_invalidColumnDecryptionParallelism"));
+                    Object[] msgArgs = {activeConnectionProperties.getProperty(sPropKey)};
+                    SQLServerException.makeFromDriverError(this, this, form.format(msgArgs), null, false);
+                }
+            }
+
             sPropKey = SQLServerDriverIntProperty.SERVER_PREPARED_STATEMENT_DISCARD_THRESHOLD.toString();
             if (activeConnectionProperties.getProperty(sPropKey) != null
                     && activeConnectionProperties.getProperty(sPropKey).length() > 0) {
@@ -2910,6 +3016,9 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
      *        the command to execute
      */
     boolean executeCommand(TDSCommand newCommand) throws SQLServerException {
+        final ISQLServerRequestTimingListener listener = requestTimingListener;
+        final long scheduleNanos = (null != listener) ? System.nanoTime() : 0;
+
         synchronized (schedulerLock) {
             /*
              * Detach (buffer) the response from any previously executing command so that we can execute the new
@@ -2937,6 +3046,11 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
              * The implementation of this scheduler is pretty simple... Since only one command at a time may use a
              * connection (to avoid TDS protocol errors), just synchronize to serialize command execution.
              */
+            if (null != listener) {
+                newCommand.setRequestTimer(new TDSRequestTimer(listener, newCommand.getLogContext(),
+                        System.nanoTime() - scheduleNanos));
+            }
+
             boolean commandComplete = false;
             try {
                 commandComplete = newCommand.execute(tdsChannel.getWriter(), tdsChannel.getReader(newCommand));
@@ -3228,6 +3342,9 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         if (null != parameterMetadataCache)
             parameterMetadataCache.clear();
 
+        if (null != parameterEncryptionMetadataCache)
+            parameterEncryptionMetadataCache.clear();
+
         // Clean-up queue etc. related to batching of prepared statement discard actions (sp_unprepare).
         cleanupPreparedStatementDiscardActions();
 
@@ -3248,7 +3365,10 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
             // the next allocated connection.
             // Also if the app closes a connection handle before committing or rolling back the uncompleted
             // transaction may lock other updates/queries so close the transaction now.
-            if (!databaseAutoCommitMode && !(pooledConnectionParent instanceof XAConnection)) {
+            // The reset connection flag sent on reuse rolls back the transaction too, so only roll back here to
+            // release its locks early, and skip the round trip if the server has not started a transaction.
+            if (!databaseAutoCommitMode && !(pooledConnectionParent instanceof XAConnection)
+                    && isTransactionActive()) {
                 connectionCommand("IF @@TRANCOUNT > 0 ROLLBACK TRAN" /* +close connection */, "close connection");
             }
             notifyPooledConnection(null);
@@ -5668,21 +5788,31 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         loggerExternal.entering(getClassNameLogging(), "endRequest", this);
         synchronized (this) {
             if (requestStarted) {
-                if (!databaseAutoCommitMode) {
+                if (!databaseAutoCommitMode && isTransactionActive()) {
                     rollback();
                 }
-                if (databaseAutoCommitMode != originalDatabaseAutoCommitMode) {
-                    setAutoCommit(originalDatabaseAutoCommitMode);
-                }
-                if (transactionIsolationLevel != originalTransactionIsolationLevel) {
-                    setTransactionIsolation(originalTransactionIsolationLevel);
+                // A connection that has been returned to its pool defers restoring the server session state to the
+                // reset connection flag, which is sent with the first packet of the next request instead of a round
+                // trip per setting now. A connection that is kept by its user keeps its session state.
+                boolean isResetDeferred = null != pooledConnectionParent && pooledConnectionParent.isReturnedToPool()
+                        && isRequestStateResettable();
+                if (!isResetDeferred) {
+                    if (databaseAutoCommitMode != originalDatabaseAutoCommitMode) {
+                        setAutoCommit(originalDatabaseAutoCommitMode);
+                    }
+                    if (transactionIsolationLevel != originalTransactionIsolationLevel) {
+                        setTransactionIsolation(originalTransactionIsolationLevel);
+                    }
+                    if (holdability != originalHoldability) {
+                        setHoldability(originalHoldability);
+                    }
+                    if (!sCatalog.equals(originalSCatalog)) {
+                        setCatalog(originalSCatalog);
+                    }
                 }
                 if (getNetworkTimeout() != originalNetworkTimeout) {
                     setNetworkTimeout(null, originalNetworkTimeout);
                 }
-                if (holdability != originalHoldability) {
-                    setHoldability(originalHoldability);
-                }
                 if (sendTimeAsDatetime != originalSendTimeAsDatetime) {
                     setSendTimeAsDatetime(originalSendTimeAsDatetime);
                 }
@@ -5698,19 +5828,21 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
                 if (getEnablePrepareOnFirstPreparedStatementCall() != originalEnablePrepareOnFirstPreparedStatementCall) {
                     setEnablePrepareOnFirstPreparedStatementCall(originalEnablePrepareOnFirstPreparedStatementCall);
                 }
-                if (!sCatalog.equals(originalSCatalog)) {
-                    setCatalog(originalSCatalog);
-                }
                 if (getUseBulkCopyForBatchInsert() != originalUseBulkCopyForBatchInsert) {
                     setUseBulkCopyForBatchInsert(originalUseBulkCopyForBatchInsert);
                 }
-                sqlWarnings = originalSqlWarnings;
                 if (null != openStatements) {
                     while (!openStatements.isEmpty()) {
                         try (Statement st = openStatements.get(0)) {}
                     }
                     openStatements.clear();
                 }
+                // Arm the flag once the statements are closed, so that it goes out with the next request rather than
+                // with a request that closes a statement
+                if (isResetDeferred) {
+                    resetPooledConnection();
+                }
+                sqlWarnings = originalSqlWarnings;
                 requestStarted = false;
             }
         }
@@ -5983,6 +6115,25 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         return columnEncryptionKeyCacheTtl;
     }
 
+    /**
+     * Sets the maximum number of column encryption keys held in the column encryption key cache for the Always
+     * Encrypted feature. When the cache is full, the least recently used key is evicted. The default value is 1000.
+     *
+     * @param columnEncryptionKeyCacheSize
+     *        The maximum number of keys
+     * @throws SQLServerException
+     *         when an error occurs
+     */
+    public static synchronized void setColumnEncryptionKeyCacheSize(
+            int columnEncryptionKeyCacheSize) throws SQLServerException {
+        if (columnEncryptionKeyCacheSize <= 0) {
+            throw new SQLServerException(null, SQLServerException.getErrString("R_invalidCEKCacheSize"), null, 0,
+                    false);
+        }
+
+        SQLServerSymmetricKeyCache.getInstance().setCapacity(columnEncryptionKeyCacheSize);
+    }
+
     /**
      * Enqueues a discarded prepared statement handle to be clean-up on the server.
      * 
@@ -6091,6 +6242,9 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
                     stmt.execute(sql.toString());
                 }
 
+                statementCacheCounters.increment(StatementCacheCounters.Counter.UNPREPARE_BATCH);
+                statementCacheCounters.add(StatementCacheCounters.Counter.UNPREPARED_HANDLE, handlesRemoved);
+
                 if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
                     loggerExternal.finer(this + ": Finished un-preparing handle count:" + handlesRemoved);
             } catch (SQLException e) {
@@ -6129,6 +6283,31 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
             return this.preparedStatementHandleCache.size();
     }
 
+    @Override
+    public SQLServerStatementCacheStatistics getStatementCacheStatistics() {
+        return new SQLServerStatementCacheStatistics(statementCacheCounters);
+    }
+
+    @Override
+    public void setRequestTimingListener(ISQLServerRequestTimingListener listener) {
+        requestTimingListener = listener;
+    }
+
+    @Override
+    public ISQLServerRequestTimingListener getRequestTimingListener() {
+        return requestTimingListener;
+    }
+
+    @Override
+    public long getResponsePacketPoolHitCount() {
+        return (null == tdsChannel) ? 0 : tdsChannel.getPacketPool().getHitCount();
+    }
+
+    @Override
+    public long getResponsePacketPoolMissCount() {
+        return (null == tdsChannel) ? 0 : tdsChannel.getPacketPool().getMissCount();
+    }
+
     @Override
     public boolean isStatementPoolingEnabled() {
         return null != preparedStatementHandleCache && 0 < this.getStatementPoolingCacheSize()
@@ -6148,6 +6327,9 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
 
         if (null != parameterMetadataCache)
             parameterMetadataCache.setCapacity(value);
+
+        if (null != parameterEncryptionMetadataCache)
+            parameterEncryptionMetadataCache.setCapacity(value);
     }
 
     /**
@@ -6162,6 +6344,9 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
 
         parameterMetadataCache = new Builder<CityHash128Key, SQLServerParameterMetaData>()
                 .maximumWeightedCapacity(getStatementPoolingCacheSize()).build();
+
+        parameterEncryptionMetadataCache = new Builder<CityHash128Key, ParameterEncryptionMetadata>()
+                .maximumWeightedCapacity(getStatementPoolingCacheSize()).build();
     }
 
     /** Returns a parameter metadata cache entry if statement pooling is enabled */
@@ -6169,7 +6354,10 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         if (!isStatementPoolingEnabled())
             return null;
 
-        return parameterMetadataCache.get(key);
+        SQLServerParameterMetaData pmd = parameterMetadataCache.get(key);
+        statementCacheCounters.increment((null != pmd) ? StatementCacheCounters.Counter.METADATA_HIT
+                                                       : StatementCacheCounters.Counter.METADATA_MISS);
+        return pmd;
     }
 
     /** Registers a parameter metadata cache entry if statement pooling is enabled */
@@ -6180,12 +6368,40 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         parameterMetadataCache.put(key, pmd);
     }
 
+    /** Returns a parameter encryption metadata cache entry if statement pooling is enabled */
+    final ParameterEncryptionMetadata getCachedParameterEncryptionMetadata(CityHash128Key key) {
+        if (!isStatementPoolingEnabled())
+            return null;
+
+        ParameterEncryptionMetadata metadata = parameterEncryptionMetadataCache.get(key);
+        statementCacheCounters.increment((null != metadata) ? StatementCacheCounters.Counter.ENCRYPTION_METADATA_HIT
+                                                            : StatementCacheCounters.Counter.ENCRYPTION_METADATA_MISS);
+        return metadata;
+    }
+
+    /** Registers a parameter encryption metadata cache entry if statement pooling is enabled */
+    final void registerCachedParameterEncryptionMetadata(CityHash128Key key, ParameterEncryptionMetadata metadata) {
+        if (!isStatementPoolingEnabled() || null == metadata)
+            return;
+
+        parameterEncryptionMetadataCache.put(key, metadata);
+    }
+
+    /** Removes a parameter encryption metadata cache entry that the server no longer accepts */
+    final void removeCachedParameterEncryptionMetadata(CityHash128Key key) {
+        if (null != parameterEncryptionMetadataCache)
+            parameterEncryptionMetadataCache.remove(key);
+    }
+
     /** Gets or creates prepared statement handle cache entry if statement pooling is enabled */
     final PreparedStatementHandle getCachedPreparedStatementHandle(CityHash128Key key) {
         if (!isStatementPoolingEnabled())
             return null;
 
-        return preparedStatementHandleCache.get(key);
+        PreparedStatementHandle handle = preparedStatementHandleCache.get(key);
+        statementCacheCounters.increment((null != handle) ? StatementCacheCounters.Counter.HANDLE_HIT
+                                                          : StatementCacheCounters.Counter.HANDLE_MISS);
+        return handle;
     }
 
     /** Gets or creates prepared statement handle cache entry if statement pooling is enabled */
@@ -6207,6 +6423,133 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
             enqueueUnprepareStatementHandle(handle);
     }
 
+    @Override
+    public List<SQLServerPreparedStatementDefinition> getCachedPreparedStatementDefinitions() {
+        List<SQLServerPreparedStatementDefinition> definitions = new ArrayList<>();
+        if (isStatementPoolingEnabled()) {
+            // Most recently used first
+            for (CityHash128Key key : preparedStatementHandleCache.descendingKeySet())
+                definitions.add(new SQLServerPreparedStatementDefinition(key.getSQL(), key.getParametersDefinition(),
+                        true));
+        }
+        return definitions;
+    }
+
+    @Override
+    public int prepareStatementHandles(
+            List<SQLServerPreparedStatementDefinition> definitions) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "prepareStatementHandles");
+        checkClosed();
+
+        if (null == definitions) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+            Object[] msgArgs = {"definitions"};
+            SQLServerException.makeFromDriverError(this, this, form.format(msgArgs), null, false);
+        }
+
+        int preparedCount = 0;
+        if (isStatementPoolingEnabled()) {
+            // Prepare each handle in its own batch, so that a statement that fails to prepare cannot leave the handles
+            // prepared before it in the same batch unregistered. Preparing more handles than the cache holds would only
+            // evict them.
+            List<CityHash128Key> keys = new ArrayList<>();
+            for (SQLServerPreparedStatementDefinition definition : definitions) {
+                if (keys.size() == getStatementPoolingCacheSize())
+                    break;
+
+                CityHash128Key key = new CityHash128Key(getPreparedSQL(definition),
+                        definition.getParameterDefinitions());
+                if (!preparedStatementHandleCache.containsKey(key) && !keys.contains(key))
+                    keys.add(key);
+            }
+
+            if (!keys.isEmpty()) {
+                SQLServerException firstError = null;
+                try (SQLServerStatement stmt = new SQLServerStatement(this, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY, SQLServerStatementColumnEncryptionSetting.UseConnectionSetting)) {
+                    for (CityHash128Key key : keys) {
+                        try {
+                            // Register the handle, then release the reference a statement would hold while using it
+                            PreparedStatementHandle handle = registerCachedPreparedStatementHandle(key,
+                                    prepareStatementHandle(stmt, key), false);
+                            if (null != handle) {
+                                returnCachedPreparedStatementHandle(handle);
+                                preparedCount++;
+                            }
+                        } catch (SQLServerException e) {
+                            if (isClosed())
+                                throw e;
+
+                            // Prepare the remaining statements, then report the first failure
+                            if (connectionlogger.isLoggable(Level.FINE))
+                                connectionlogger.fine(toString() + " Failed to prepare a statement handle: "
+                                        + e.getMessage());
+                            if (null == firstError)
+                                firstError = e;
+                        }
+                    }
+                }
+
+                if (null != firstError)
+                    throw firstError;
+            }
+        }
+
+        if (connectionlogger.isLoggable(Level.FINER))
+            connectionlogger.finer(toString() + " Prepared " + preparedCount + " statement handles");
+        loggerExternal.exiting(getClassNameLogging(), "prepareStatementHandles", preparedCount);
+        return preparedCount;
+    }
+
+    // Prepares the statement of a handle cache key and returns its handle
+    private int prepareStatementHandle(SQLServerStatement stmt, CityHash128Key key) throws SQLServerException {
+        StringBuilder batch = new StringBuilder("DECLARE @h int;EXEC sp_prepare @h OUTPUT,");
+        if (key.getParametersDefinition().isEmpty())
+            batch.append("NULL");
+        else
+            batch.append("N'").append(key.getParametersDefinition().replace("'", "''")).append("'");
+        batch.append(",N'").append(key.getSQL().replace("'", "''")).append("';SELECT @h");
+
+        try {
+            // sp_prepare may describe the statement it prepares in a result set without rows, so the handle is in the
+            // first result set that has a row
+            boolean isResultSet = stmt.execute(batch.toString());
+            while (isResultSet || -1 != stmt.getUpdateCount()) {
+                if (isResultSet) {
+                    ResultSet rs = stmt.getResultSet();
+                    if (rs.next() && 1 == rs.getMetaData().getColumnCount())
+                        return rs.getInt(1);
+                }
+                isResultSet = stmt.getMoreResults();
+            }
+        } catch (SQLServerException e) {
+            throw e;
+        } catch (SQLException e) {
+            throw new SQLServerException(e.getMessage(), e);
+        }
+
+        SQLServerException.makeFromDriverError(this, this,
+                SQLServerException.getErrString("R_preparedHandleNotReturned"), null, false);
+        return 0;
+    }
+
+    // Returns the SQL text of a definition in the form a prepared statement sends to the server
+    private String getPreparedSQL(SQLServerPreparedStatementDefinition definition) throws SQLServerException {
+        if (definition.isServerSyntax())
+            return definition.getSQL();
+
+        CityHash128Key sqlTextCacheKey = new CityHash128Key(definition.getSQL());
+        ParsedSQLCacheItem parsedSQL = getCachedParsedSQL(sqlTextCacheKey);
+        if (null == parsedSQL)
+            parsedSQL = parseAndCacheSQL(sqlTextCacheKey, definition.getSQL());
+
+        Parameter[] params = new Parameter[parsedSQL.parameterPositions.length];
+        for (int i = 0; i < params.length; i++)
+            params[i] = new Parameter(false);
+        return replaceParameterMarkers(parsedSQL.processedSQL, parsedSQL.parameterPositions, params,
+                parsedSQL.bReturnValueSyntax);
+    }
+
     /** Forces eviction of prepared statement handle cache entry. */
     final void evictCachedPreparedStatementHandle(PreparedStatementHandle handle) {
         if (null == handle || null == handle.getKey())
@@ -6223,6 +6566,7 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         public void onEviction(CityHash128Key key, PreparedStatementHandle handle) {
             if (null != handle) {
                 handle.setIsEvictedFromCache(true); // Mark as evicted from cache.
+                statementCacheCounters.increment(StatementCacheCounters.Counter.HANDLE_EVICTION);
 
                 // Only discard if not referenced.
                 if (handle.tryDiscardHandle()) {
@@ -0,0 +1,415 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+
+
+/**
+ * Pools the physical connections of a {@link SQLServerConnectionPoolDataSource}.
+ * <p>
+ * Every physical connection is held by a {@link SQLServerPooledConnection}, which already marks the next request sent
+ * on a reused connection with the TDS reset connection flag. Connections are therefore reset without an extra round
+ * trip, and are validated on borrow only by checking the state of the physical connection.
+ * <p>
+ * Idle connections are kept in a shared list and claimed by compare-and-set on their state, so borrowing and returning
+ * do not take a lock. Each thread first tries the connection it returned last, which is usually still idle. A
+ * semaphore bounds the number of connections in use to the maximum pool size. Idle connections beyond the minimum pool
+ * size are closed after the idle timeout by a task that the {@link SharedTimer} queues on a shared housekeeping thread
+ * when there is work to do.
+ */
+final class SQLServerConnectionPool {
+    private static final java.util.logging.Logger logger = java.util.logging.Logger
+            .getLogger("com.microsoft.sqlserver.jdbc.internals.SQLServerConnectionPool");
+
+    // Period of the task that evicts idle connections and keeps the pool at its minimum size
+    static final int HOUSEKEEPING_PERIOD_SECONDS = 30;
+
+    private static final int STATE_IDLE = 0;
+    private static final int STATE_IN_USE = 1;
+    private static final int STATE_REMOVED = -1;
+
+    private static final AtomicInteger basePoolID = new AtomicInteger(0);
+
+    /**
+     * Runs the housekeeping of all pools. Closing and opening connections blocks, so it is done on this daemon thread
+     * rather than on the shared timer thread. The thread is reclaimed after a minute of inactivity.
+     */
+    private static final class HousekeepingExecutor {
+        static final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread t = new Thread(task, "mssql-jdbc-pool-housekeeper");
+                    t.setDaemon(true);
+                    return t;
+                });
+
+        static {
+            executor.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    private final SQLServerConnectionPoolDataSource dataSource;
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final long idleTimeoutNanos;
+    private final int connectionWaitTimeoutSeconds;
+    private final String traceID;
+
+    private final CopyOnWriteArrayList<PoolEntry> entries = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<WeakReference<PoolEntry>> lastReturnedEntry = new ThreadLocal<>();
+    private final Semaphore permits;
+
+    private final SharedTimer timer;
+    private final ScheduledFuture<?> housekeeping;
+    private volatile boolean isClosed = false;
+    private final AtomicBoolean isHousekeepingQueued = new AtomicBoolean(false);
+
+    private final AtomicLong borrowCount = new AtomicLong(0);
+    private final AtomicLong createdCount = new AtomicLong(0);
+    private final AtomicLong removedCount = new AtomicLong(0);
+    private final AtomicLong waitTimeoutCount = new AtomicLong(0);
+
+    /**
+     * A pooled physical connection and its pool state.
+     */
+    private final class PoolEntry implements ConnectionEventListener {
+        final SQLServerPooledConnection pooledConnection;
+        final AtomicInteger state;
+        volatile long lastReturnedNanos = System.nanoTime();
+
+        PoolEntry(SQLServerPooledConnection pooledConnection, int initialState) {
+            this.pooledConnection = pooledConnection;
+            this.state = new AtomicInteger(initialState);
+        }
+
+        // The application closed its connection handle
+        @Override
+        public void connectionClosed(ConnectionEvent event) {
+            if (STATE_IN_USE == state.get())
+                returnEntry(this);
+        }
+
+        // A fatal error occurred on the physical connection
+        @Override
+        public void connectionErrorOccurred(ConnectionEvent event) {
+            if (removeEntry(this))
+                permits.release();
+        }
+    }
+
+    SQLServerConnectionPool(SQLServerConnectionPoolDataSource dataSource, int minPoolSize, int maxPoolSize,
+            int idleTimeoutSeconds, int connectionWaitTimeoutSeconds) {
+        this.dataSource = dataSource;
+        this.minPoolSize = minPoolSize;
+        this.maxPoolSize = maxPoolSize;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        this.connectionWaitTimeoutSeconds = connectionWaitTimeoutSeconds;
+        this.permits = new Semaphore(maxPoolSize);
+        this.traceID = "SQLServerConnectionPool:" + basePoolID.incrementAndGet();
+
+        timer = SharedTimer.getTimer();
+        housekeeping = timer.scheduleAtFixedRate(this::startHousekeeping, HOUSEKEEPING_PERIOD_SECONDS,
+                TimeUnit.SECONDS);
+        if (0 < minPoolSize)
+            startHousekeeping();
+
+        if (logger.isLoggable(Level.FINER))
+            logger.finer(toString() + " created by (" + dataSource.toString() + ") minPoolSize:" + minPoolSize
+                    + " maxPoolSize:" + maxPoolSize);
+    }
+
+    @Override
+    public String toString() {
+        return traceID;
+    }
+
+    /**
+     * Returns a connection handle from the pool, waiting up to the connection wait timeout for a connection to be
+     * returned when the pool is exhausted.
+     */
+    Connection getConnection() throws SQLServerException {
+        checkClosed();
+
+        boolean acquired;
+        try {
+            acquired = (0 == connectionWaitTimeoutSeconds) ? permits.tryAcquire()
+                                                           : permits.tryAcquire(connectionWaitTimeoutSeconds,
+                                                                   TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLServerException(e.getMessage(), e);
+        }
+
+        if (!acquired) {
+            waitTimeoutCount.incrementAndGet();
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_connectionPoolTimeout"));
+            Object[] msgArgs = {connectionWaitTimeoutSeconds};
+            SQLServerException.makeFromDriverError(null, this, form.format(msgArgs), null, false);
+        }
+
+        PoolEntry entry = null;
+        try {
+            checkClosed();
+
+            entry = takeIdleEntry();
+            while (null != entry && !entry.pooledConnection.isPhysicalConnectionUsable()) {
+                removeEntry(entry);
+                entry = takeIdleEntry();
+            }
+
+            if (null == entry)
+                entry = createEntry(STATE_IN_USE);
+
+            Connection connection = entry.pooledConnection.getConnection();
+            borrowCount.incrementAndGet();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            // A fatal error on the connection may already have removed the entry and released its permit
+            if (null == entry || removeEntry(entry))
+                permits.release();
+
+            if (e instanceof SQLServerException)
+                throw (SQLServerException) e;
+            if (e instanceof SQLException)
+                throw new SQLServerException(e.getMessage(), e);
+            throw (RuntimeException) e;
+        }
+    }
+
+    /**
+     * Closes the idle connections and stops pooling. Connections in use are closed when they are returned.
+     */
+    synchronized void close() {
+        if (isClosed)
+            return;
+        isClosed = true;
+
+        housekeeping.cancel(false);
+        timer.removeRef();
+
+        for (PoolEntry entry : entries) {
+            if (entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE))
+                removeEntry(entry);
+        }
+
+        if (logger.isLoggable(Level.FINER))
+            logger.finer(toString() + " closed. " + getStatistics());
+    }
+
+    boolean isClosed() {
+        return isClosed;
+    }
+
+    int getTotalConnectionCount() {
+        return entries.size();
+    }
+
+    int getActiveConnectionCount() {
+        int active = 0;
+        for (PoolEntry entry : entries) {
+            if (STATE_IN_USE == entry.state.get())
+                active++;
+        }
+        return active;
+    }
+
+    int getIdleConnectionCount() {
+        int idle = 0;
+        for (PoolEntry entry : entries) {
+            if (STATE_IDLE == entry.state.get())
+                idle++;
+        }
+        return idle;
+    }
+
+    long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    long getRemovedCount() {
+        return removedCount.get();
+    }
+
+    long getWaitTimeoutCount() {
+        return waitTimeoutCount.get();
+    }
+
+    String getStatistics() {
+        return "total:" + getTotalConnectionCount() + " active:" + getActiveConnectionCount() + " idle:"
+                + getIdleConnectionCount() + " borrowed:" + getBorrowCount() + " created:" + getCreatedCount()
+                + " removed:" + getRemovedCount() + " waitTimeouts:" + getWaitTimeoutCount();
+    }
+
+    private void checkClosed() throws SQLServerException {
+        if (isClosed)
+            SQLServerException.makeFromDriverError(null, this,
+                    SQLServerException.getErrString("R_connectionPoolClosed"), null, false);
+    }
+
+    private PoolEntry takeIdleEntry() {
+        // Prefer the connection this thread returned last
+        WeakReference<PoolEntry> lastReturned = lastReturnedEntry.get();
+        if (null != lastReturned) {
+            PoolEntry entry = lastReturned.get();
+            if (null != entry && entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE))
+                return entry;
+        }
+
+        for (PoolEntry entry : entries) {
+            if (entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE))
+                return entry;
+        }
+        return null;
+    }
+
+    private PoolEntry createEntry(int initialState) throws SQLException {
+        SQLServerPooledConnection pooledConnection = new SQLServerPooledConnection(dataSource, null, null);
+
+        List<SQLServerPreparedStatementDefinition> warmup = dataSource.getPreparedStatementWarmup();
+        if (null != warmup) {
+            try {
+                pooledConnection.getPhysicalConnection().prepareStatementHandles(warmup);
+            } catch (SQLServerException e) {
+                // The statements are prepared on first use instead
+                if (logger.isLoggable(Level.FINE))
+                    logger.fine(toString() + " Failed to prepare statement handles on " + pooledConnection.toString()
+                            + ": " + e.getMessage());
+            }
+        }
+
+        PoolEntry entry = new PoolEntry(pooledConnection, initialState);
+        pooledConnection.addConnectionEventListener(entry);
+        entries.add(entry);
+        createdCount.incrementAndGet();
+
+        if (logger.isLoggable(Level.FINER))
+            logger.finer(toString() + " added " + pooledConnection.toString());
+        return entry;
+    }
+
+    private void returnEntry(PoolEntry entry) {
+        entry.lastReturnedNanos = System.nanoTime();
+        if (isClosed || entries.size() > maxPoolSize) {
+            removeEntry(entry);
+        } else {
+            lastReturnedEntry.set(new WeakReference<>(entry));
+            entry.state.set(STATE_IDLE);
+        }
+        permits.release();
+    }
+
+    /**
+     * Removes an entry from the pool and closes its physical connection. Returns true if the entry was in use.
+     */
+    private boolean removeEntry(PoolEntry entry) {
+        int priorState = entry.state.getAndSet(STATE_REMOVED);
+        if (STATE_REMOVED == priorState)
+            return false;
+
+        entries.remove(entry);
+        removedCount.incrementAndGet();
+        try {
+            entry.pooledConnection.close();
+        } catch (SQLException e) {
+            if (logger.isLoggable(Level.FINER))
+                logger.finer(toString() + " Ignored error closing " + entry.pooledConnection.toString() + ": "
+                        + e.getMessage());
+        }
+
+        if (logger.isLoggable(Level.FINER))
+            logger.finer(toString() + " removed " + entry.pooledConnection.toString());
+        return STATE_IN_USE == priorState;
+    }
+
+    // Runs on the shared timer thread, so only checks whether there is work before queuing the housekeeping
+    private void startHousekeeping() {
+        if (!needsHousekeeping() || !isHousekeepingQueued.compareAndSet(false, true))
+            return;
+
+        try {
+            HousekeepingExecutor.executor.execute(() -> {
+                isHousekeepingQueued.set(false);
+                housekeep();
+            });
+        } catch (RejectedExecutionException e) {
+            isHousekeepingQueued.set(false);
+        }
+    }
+
+    /**
+     * Returns whether the pool is below its minimum size, or has connections beyond its minimum size that have been
+     * idle for longer than the idle timeout.
+     */
+    private boolean needsHousekeeping() {
+        if (isClosed)
+            return false;
+        if (entries.size() < minPoolSize)
+            return true;
+
+        if (0 < idleTimeoutNanos && entries.size() > minPoolSize) {
+            long now = System.nanoTime();
+            for (PoolEntry entry : entries) {
+                if (STATE_IDLE == entry.state.get() && idleTimeoutNanos < now - entry.lastReturnedNanos)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    void housekeep() {
+        if (isClosed)
+            return;
+
+        if (0 < idleTimeoutNanos) {
+            long now = System.nanoTime();
+            for (PoolEntry entry : entries) {
+                if (entries.size() <= minPoolSize)
+                    break;
+                if (idleTimeoutNanos < now - entry.lastReturnedNanos
+                        && entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE))
+                    removeEntry(entry);
+            }
+        }
+
+        try {
+            while (!isClosed && entries.size() < minPoolSize) {
+                PoolEntry entry = createEntry(STATE_IDLE);
+
+                // The pool may have been closed while the connection was opened
+                if (isClosed && entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE))
+                    removeEntry(entry);
+            }
+        } catch (SQLException e) {
+            if (logger.isLoggable(Level.FINE))
+                logger.fine(toString() + " Failed to fill the pool to its minimum size: " + e.getMessage());
+        }
+
+        if (logger.isLoggable(Level.FINEST))
+            logger.finest(toString() + " " + getStatistics());
+    }
+}
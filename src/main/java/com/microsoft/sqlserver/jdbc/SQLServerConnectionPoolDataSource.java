@@ -5,7 +5,11 @@
 
 package com.microsoft.sqlserver.jdbc;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 import javax.naming.Reference;
@@ -18,8 +22,22 @@ import javax.sql.PooledConnection;
  * used in Java Application Server environments that support built-in connection pooling and require a
  * ConnectionPoolDataSource to provide physical connections. For example, J2EE application servers that provide JDBC 3.0
  * API spec connection pooling.
+ * <p>
+ * When connection pooling is enabled with {@link #setConnectionPooling(boolean)}, {@link #getConnection()} returns
+ * connections from a pool maintained by the driver instead. The pool is created with the pool size and timeout settings
+ * of the data source by the first call to {@link #getConnection()}; changes to those settings take effect when the pool
+ * is created again after {@link #closeConnectionPool()}. The pool settings are not part of the reference or the
+ * serialized form of the data source.
  */
 public class SQLServerConnectionPoolDataSource extends SQLServerDataSource implements ConnectionPoolDataSource {
+    private boolean connectionPooling = false;
+    private int minPoolSize = 0;
+    private int maxPoolSize = 10;
+    private int idleTimeout = 600;
+    private int connectionWaitTimeout = 30;
+    private transient List<SQLServerPreparedStatementDefinition> preparedStatementWarmup;
+    private transient SQLServerConnectionPool connectionPool;
+
     // Get a new physical connection that the pool manager will issue logical connections from
     @Override
     public PooledConnection getPooledConnection() throws SQLException {
@@ -42,6 +60,239 @@ public class SQLServerConnectionPoolDataSource extends SQLServerDataSource imple
         return pc;
     }
 
+    /**
+     * Returns a connection. If connection pooling is enabled, the connection is taken from the driver-managed pool and
+     * is returned to the pool when it is closed; otherwise a new physical connection is opened.
+     */
+    @Override
+    public Connection getConnection() throws SQLServerException {
+        SQLServerConnectionPool pool = getConnectionPool();
+        if (null == pool)
+            return super.getConnection();
+
+        loggerExternal.entering(getClassNameLogging(), "getConnection");
+        Connection con = pool.getConnection();
+        loggerExternal.exiting(getClassNameLogging(), "getConnection", con);
+        return con;
+    }
+
+    /**
+     * Sets whether {@link #getConnection()} returns connections from a connection pool maintained by the driver.
+     * Connections requested with a user name and password are never pooled. Disabling connection pooling closes the
+     * pool as {@link #closeConnectionPool()} does. The default is false.
+     * 
+     * @param connectionPooling
+     *        true to pool connections
+     */
+    public synchronized void setConnectionPooling(boolean connectionPooling) {
+        this.connectionPooling = connectionPooling;
+        if (!connectionPooling) {
+            closeConnectionPool();
+        }
+    }
+
+    /**
+     * Returns whether {@link #getConnection()} returns connections from a connection pool maintained by the driver.
+     * 
+     * @return true if connections are pooled
+     */
+    public boolean getConnectionPooling() {
+        return connectionPooling;
+    }
+
+    /**
+     * Sets the number of connections the pool keeps open, including idle ones. The default is 0. Pool settings take
+     * effect when the pool is created by the first call to {@link #getConnection()}, and changes made afterwards when
+     * it is created again after {@link #closeConnectionPool()}.
+     * 
+     * @param minPoolSize
+     *        the minimum number of pooled connections
+     */
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    /**
+     * Returns the number of connections the pool keeps open.
+     * 
+     * @return the minimum number of pooled connections
+     */
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    /**
+     * Sets the maximum number of pooled connections that can be in use at the same time. The default is 10. Like the
+     * other pool settings, it takes effect when the pool is created.
+     * 
+     * @param maxPoolSize
+     *        the maximum number of pooled connections
+     */
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * Returns the maximum number of pooled connections that can be in use at the same time.
+     * 
+     * @return the maximum number of pooled connections
+     */
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * Sets the number of seconds after which an idle pooled connection is closed, as long as the pool keeps its
+     * minimum size. 0 keeps idle connections open. The default is 600. Like the other pool settings, it takes effect
+     * when the pool is created.
+     * 
+     * @param idleTimeout
+     *        the idle timeout in seconds
+     */
+    public void setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Returns the number of seconds after which an idle pooled connection is closed.
+     * 
+     * @return the idle timeout in seconds
+     */
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the number of seconds {@link #getConnection()} waits for a pooled connection to be returned when all of
+     * them are in use. 0 fails immediately. The default is 30. Like the other pool settings, it takes effect when the
+     * pool is created.
+     * 
+     * @param connectionWaitTimeout
+     *        the wait timeout in seconds
+     */
+    public void setConnectionWaitTimeout(int connectionWaitTimeout) {
+        this.connectionWaitTimeout = connectionWaitTimeout;
+    }
+
+    /**
+     * Returns the number of seconds {@link #getConnection()} waits for a pooled connection.
+     * 
+     * @return the wait timeout in seconds
+     */
+    public int getConnectionWaitTimeout() {
+        return connectionWaitTimeout;
+    }
+
+    /**
+     * Sets the statements whose handles are prepared on each physical connection the pool opens, using
+     * {@link ISQLServerConnection#prepareStatementHandles(List)}. This requires statement pooling to be enabled with
+     * the statementPoolingCacheSize connection property.
+     * 
+     * @param definitions
+     *        the statements to prepare, or null to prepare none
+     */
+    public synchronized void setPreparedStatementWarmup(List<SQLServerPreparedStatementDefinition> definitions) {
+        preparedStatementWarmup = (null == definitions) ? null : new ArrayList<>(definitions);
+    }
+
+    /**
+     * Returns the statements whose handles are prepared on each physical connection the pool opens.
+     * 
+     * @return the statements to prepare, or null if none
+     */
+    public synchronized List<SQLServerPreparedStatementDefinition> getPreparedStatementWarmup() {
+        return preparedStatementWarmup;
+    }
+
+    /**
+     * Returns the number of open pooled connections, both in use and idle.
+     * 
+     * @return the number of pooled connections, or 0 if no pool has been created
+     */
+    public synchronized int getPooledConnectionCount() {
+        return (null == connectionPool) ? 0 : connectionPool.getTotalConnectionCount();
+    }
+
+    /**
+     * Returns the number of pooled connections that are in use.
+     * 
+     * @return the number of pooled connections in use, or 0 if no pool has been created
+     */
+    public synchronized int getActivePooledConnectionCount() {
+        return (null == connectionPool) ? 0 : connectionPool.getActiveConnectionCount();
+    }
+
+    /**
+     * Returns the number of pooled connections that are idle.
+     * 
+     * @return the number of idle pooled connections, or 0 if no pool has been created
+     */
+    public synchronized int getIdlePooledConnectionCount() {
+        return (null == connectionPool) ? 0 : connectionPool.getIdleConnectionCount();
+    }
+
+    /**
+     * Returns the number of connections handed out by the pool.
+     * 
+     * @return the number of connections borrowed from the pool, or 0 if no pool has been created
+     */
+    public synchronized long getPooledConnectionBorrowCount() {
+        return (null == connectionPool) ? 0 : connectionPool.getBorrowCount();
+    }
+
+    /**
+     * Returns the number of physical connections opened by the pool.
+     * 
+     * @return the number of physical connections opened, or 0 if no pool has been created
+     */
+    public synchronized long getPooledConnectionCreatedCount() {
+        return (null == connectionPool) ? 0 : connectionPool.getCreatedCount();
+    }
+
+    /**
+     * Returns the number of times {@link #getConnection()} timed out waiting for a pooled connection.
+     * 
+     * @return the number of wait timeouts, or 0 if no pool has been created
+     */
+    public synchronized long getPooledConnectionWaitTimeoutCount() {
+        return (null == connectionPool) ? 0 : connectionPool.getWaitTimeoutCount();
+    }
+
+    /**
+     * Closes the idle pooled connections and discards the pool. Pooled connections that are in use are closed when the
+     * application closes them. A new pool is created by the next call to {@link #getConnection()} if connection pooling
+     * is still enabled.
+     */
+    public synchronized void closeConnectionPool() {
+        loggerExternal.entering(getClassNameLogging(), "closeConnectionPool");
+        if (null != connectionPool) {
+            connectionPool.close();
+            connectionPool = null;
+        }
+        loggerExternal.exiting(getClassNameLogging(), "closeConnectionPool");
+    }
+
+    private synchronized SQLServerConnectionPool getConnectionPool() throws SQLServerException {
+        if (!connectionPooling)
+            return null;
+
+        if (null == connectionPool) {
+            if (maxPoolSize <= 0 || maxPoolSize < minPoolSize) {
+                MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidPoolSize"));
+                Object[] msgArgs = {maxPoolSize, minPoolSize};
+                SQLServerException.makeFromDriverError(null, this, form.format(msgArgs), null, false);
+            }
+            if (idleTimeout < 0 || connectionWaitTimeout < 0) {
+                MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+                Object[] msgArgs = {(idleTimeout < 0) ? "idleTimeout" : "connectionWaitTimeout"};
+                SQLServerException.makeFromDriverError(null, this, form.format(msgArgs), null, false);
+            }
+            connectionPool = new SQLServerConnectionPool(this, Math.max(0, minPoolSize), maxPoolSize, idleTimeout,
+                    connectionWaitTimeout);
+        }
+        return connectionPool;
+    }
+
     // Implement javax.naming.Referenceable interface methods.
 
     @Override
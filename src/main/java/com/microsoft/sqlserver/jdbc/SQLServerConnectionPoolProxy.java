@@ -12,6 +12,7 @@ import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.sql.Statement;
 import java.text.MessageFormat;
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -574,6 +575,21 @@ class SQLServerConnectionPoolProxy implements ISQLServerConnection, java.io.Seri
         return wrappedConnection.getStatementHandleCacheEntryCount();
     }
 
+    @Override
+    public SQLServerStatementCacheStatistics getStatementCacheStatistics() {
+        return wrappedConnection.getStatementCacheStatistics();
+    }
+
+    @Override
+    public void setRequestTimingListener(ISQLServerRequestTimingListener listener) {
+        wrappedConnection.setRequestTimingListener(listener);
+    }
+
+    @Override
+    public ISQLServerRequestTimingListener getRequestTimingListener() {
+        return wrappedConnection.getRequestTimingListener();
+    }
+
     @Override
     public void setDisableStatementPooling(boolean value) {
         wrappedConnection.setDisableStatementPooling(value);
@@ -583,4 +599,26 @@ class SQLServerConnectionPoolProxy implements ISQLServerConnection, java.io.Seri
     public boolean getDisableStatementPooling() {
         return wrappedConnection.getDisableStatementPooling();
     }
+
+    @Override
+    public long getResponsePacketPoolHitCount() {
+        return wrappedConnection.getResponsePacketPoolHitCount();
+    }
+
+    @Override
+    public long getResponsePacketPoolMissCount() {
+        return wrappedConnection.getResponsePacketPoolMissCount();
+    }
+
+    @Override
+    public List<SQLServerPreparedStatementDefinition> getCachedPreparedStatementDefinitions() {
+        return wrappedConnection.getCachedPreparedStatementDefinitions();
+    }
+
+    @Override
+    public int prepareStatementHandles(
+            List<SQLServerPreparedStatementDefinition> definitions) throws SQLServerException {
+        checkClosed();
+        return wrappedConnection.prepareStatementHandles(definitions);
+    }
 }
@@ -225,6 +225,18 @@ public class SQLServerDataSource
                 SQLServerDriverObjectProperty.GSS_CREDENTIAL.getDefaultValue());
     }
 
+    @Override
+    public void setRequestTimingListener(ISQLServerRequestTimingListener listener) {
+        setObjectProperty(connectionProps, SQLServerDriverObjectProperty.REQUEST_TIMING_LISTENER.toString(), listener);
+    }
+
+    @Override
+    public ISQLServerRequestTimingListener getRequestTimingListener() {
+        return (ISQLServerRequestTimingListener) getObjectProperty(connectionProps,
+                SQLServerDriverObjectProperty.REQUEST_TIMING_LISTENER.toString(),
+                SQLServerDriverObjectProperty.REQUEST_TIMING_LISTENER.getDefaultValue());
+    }
+
     @Override
     public void setAccessToken(String accessToken) {
         setStringProperty(connectionProps, SQLServerDriverStringProperty.ACCESS_TOKEN.toString(), accessToken);
@@ -775,6 +787,18 @@ public class SQLServerDataSource
                 SQLServerDriverIntProperty.CANCEL_QUERY_TIMEOUT.getDefaultValue());
     }
 
+    @Override
+    public void setColumnDecryptionParallelism(int columnDecryptionParallelism) {
+        setIntProperty(connectionProps, SQLServerDriverIntProperty.COLUMN_DECRYPTION_PARALLELISM.toString(),
+                columnDecryptionParallelism);
+    }
+
+    @Override
+    public int getColumnDecryptionParallelism() {
+        return getIntProperty(connectionProps, SQLServerDriverIntProperty.COLUMN_DECRYPTION_PARALLELISM.toString(),
+                SQLServerDriverIntProperty.COLUMN_DECRYPTION_PARALLELISM.getDefaultValue());
+    }
+
     @Override
     public void setEnablePrepareOnFirstPreparedStatementCall(boolean enablePrepareOnFirstPreparedStatementCall) {
         setBooleanProperty(connectionProps,
@@ -854,6 +878,31 @@ public class SQLServerDataSource
                 SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_INSERT.getDefaultValue());
     }
 
+    @Override
+    public void setUseSocketChannel(boolean useSocketChannel) {
+        setBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.USE_SOCKET_CHANNEL.toString(),
+                useSocketChannel);
+    }
+
+    @Override
+    public boolean getUseSocketChannel() {
+        return getBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.USE_SOCKET_CHANNEL.toString(),
+                SQLServerDriverBooleanProperty.USE_SOCKET_CHANNEL.getDefaultValue());
+    }
+
+    @Override
+    public void setRegisterStatementCacheMBean(boolean registerStatementCacheMBean) {
+        setBooleanProperty(connectionProps,
+                SQLServerDriverBooleanProperty.REGISTER_STATEMENT_CACHE_MBEAN.toString(), registerStatementCacheMBean);
+    }
+
+    @Override
+    public boolean getRegisterStatementCacheMBean() {
+        return getBooleanProperty(connectionProps,
+                SQLServerDriverBooleanProperty.REGISTER_STATEMENT_CACHE_MBEAN.toString(),
+                SQLServerDriverBooleanProperty.REGISTER_STATEMENT_CACHE_MBEAN.getDefaultValue());
+    }
+
     @Override
     public void setJASSConfigurationName(String configurationName) {
         setStringProperty(connectionProps, SQLServerDriverStringProperty.JAAS_CONFIG_NAME.toString(),
@@ -1103,9 +1152,10 @@ public class SQLServerDataSource
                 // possible
                 assert !trustStorePasswordStripped;
                 ref.add(new StringRefAddr("trustStorePasswordStripped", "true"));
-            } else {
+            } else if (!propertyName.equals(SQLServerDriverObjectProperty.REQUEST_TIMING_LISTENER.toString())) {
                 // do not add passwords to the collection. we have normal
-                // password
+                // password. The request timing listener is an application
+                // object and is not added either.
                 if (!propertyName.contains(SQLServerDriverStringProperty.PASSWORD.toString()))
                     ref.add(new StringRefAddr(propertyName, connectionProps.getProperty(propertyName)));
             }
@@ -9,18 +9,24 @@ import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
 
 
 /**
  * Represents the data table for SQL Server.
+ * <p>
+ * The values are held by column, in primitive arrays for the numeric types, so that large tables take little more
+ * memory than their data. Rows can be added with {@link #addRow(Object...)}, or without boxing the values with a
+ * {@link RowBuilder}.
  */
 public final class SQLServerDataTable {
 
@@ -28,7 +34,7 @@ public final class SQLServerDataTable {
     int columnCount = 0;
     Map<Integer, SQLServerDataColumn> columnMetadata = null;
     Set<String> columnNames = null;
-    Map<Integer, Object[]> rows = null;
+    DataTableColumnValues[] columnValues = null;
 
     private String tvpName = null;
 
@@ -43,7 +49,7 @@ public final class SQLServerDataTable {
     public SQLServerDataTable() throws SQLServerException {
         columnMetadata = new LinkedHashMap<>();
         columnNames = new HashSet<>();
-        rows = new HashMap<>();
+        columnValues = new DataTableColumnValues[0];
     }
 
     /**
@@ -53,7 +59,7 @@ public final class SQLServerDataTable {
         rowCount = 0;
         columnCount = 0;
         columnMetadata.clear();
-        rows.clear();
+        columnValues = new DataTableColumnValues[0];
     }
 
     /**
@@ -62,10 +68,32 @@ public final class SQLServerDataTable {
      * @return an iterator on the rows of the data table.
      */
     public synchronized Iterator<Entry<Integer, Object[]>> getIterator() {
-        if ((null != rows) && (null != rows.entrySet())) {
-            return rows.entrySet().iterator();
-        }
-        return null;
+        return new Iterator<Entry<Integer, Object[]>>() {
+            private int row = 0;
+
+            @Override
+            public boolean hasNext() {
+                return row < rowCount;
+            }
+
+            @Override
+            public Entry<Integer, Object[]> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                Object[] rowValues = getRowData(row);
+                return new AbstractMap.SimpleImmutableEntry<>(row++, rowValues);
+            }
+        };
+    }
+
+    /**
+     * Returns the values of a row, boxed.
+     */
+    synchronized Object[] getRowData(int row) {
+        Object[] rowValues = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++)
+            rowValues[i] = columnValues[i].getValue(row);
+        return rowValues;
     }
 
     /**
@@ -79,9 +107,7 @@ public final class SQLServerDataTable {
      *         when an error occurs
      */
     public synchronized void addColumnMetadata(String columnName, int sqlType) throws SQLServerException {
-        // column names must be unique
-        Util.checkDuplicateColumnName(columnName, columnNames);
-        columnMetadata.put(columnCount++, new SQLServerDataColumn(columnName, sqlType));
+        addColumn(new SQLServerDataColumn(columnName, sqlType));
     }
 
     /**
@@ -93,8 +119,20 @@ public final class SQLServerDataTable {
      *         when an error occurs
      */
     public synchronized void addColumnMetadata(SQLServerDataColumn column) throws SQLServerException {
+        addColumn(column);
+    }
+
+    private void addColumn(SQLServerDataColumn column) throws SQLServerException {
+        DataTableColumnValues values = new DataTableColumnValues(column);
+
         // column names must be unique
         Util.checkDuplicateColumnName(column.columnName, columnNames);
+
+        // The rows added before the column are null in it
+        for (int i = 0; i < rowCount; i++)
+            values.appendNull();
+        columnValues = Arrays.copyOf(columnValues, columnCount + 1);
+        columnValues[columnCount] = values;
         columnMetadata.put(columnCount++, column);
     }
 
@@ -108,8 +146,6 @@ public final class SQLServerDataTable {
      */
     public synchronized void addRow(Object... values) throws SQLServerException {
         try {
-            int columnCount = columnMetadata.size();
-
             if ((null != values) && values.length > columnCount) {
                 MessageFormat form = new MessageFormat(
                         SQLServerException.getErrString("R_moreDataInRowThanColumnInTVP"));
@@ -117,20 +153,18 @@ public final class SQLServerDataTable {
                 throw new SQLServerException(null, form.format(msgArgs), null, 0, false);
             }
 
-            Iterator<Entry<Integer, SQLServerDataColumn>> columnsIterator = columnMetadata.entrySet().iterator();
+            // Convert all of the values before adding any, so that a row is added whole or not at all
             Object[] rowValues = new Object[columnCount];
-            int currentColumn = 0;
-            while (columnsIterator.hasNext()) {
+            for (int i = 0; i < columnCount; i++) {
                 Object val = null;
-
-                if ((null != values) && (currentColumn < values.length) && (null != values[currentColumn]))
-                    val = values[currentColumn];
-                currentColumn++;
-                Map.Entry<Integer, SQLServerDataColumn> pair = columnsIterator.next();
-                JDBCType jdbcType = JDBCType.of(pair.getValue().javaSqlType);
-                internalAddrow(jdbcType, val, rowValues, pair);
+                if ((null != values) && (i < values.length))
+                    val = values[i];
+                rowValues[i] = convertValue(columnValues[i].jdbcType, val, columnValues[i].column);
             }
-            rows.put(rowCount++, rowValues);
+
+            for (int i = 0; i < columnCount; i++)
+                columnValues[i].append(rowValues[i]);
+            rowCount++;
         } catch (NumberFormatException e) {
             throw new SQLServerException(SQLServerException.getErrString("R_TVPInvalidColumnValue"), e);
         } catch (ClassCastException e) {
@@ -140,43 +174,300 @@ public final class SQLServerDataTable {
     }
 
     /**
-     * Adding rows one row of data to data table.
+     * Returns a new row builder, which adds rows to this data table from typed values without boxing them.
+     * 
+     * @return a row builder
+     */
+    public RowBuilder newRowBuilder() {
+        return new RowBuilder();
+    }
+
+    /**
+     * Adds rows to a {@link SQLServerDataTable} from typed values. The values of a row are set by column, and the row
+     * is added to the data table by {@link #addRow()}; columns whose value was not set are null. Integer values of
+     * tinyint, smallint, int and bigint columns and floating point values of real, float and double columns are held
+     * without being boxed; all other values are converted as by {@link SQLServerDataTable#addRow(Object...)}.
+     * <p>
+     * A row builder is not thread safe, and must not be used while the columns of its data table are changed or the
+     * data table is cleared.
+     */
+    public final class RowBuilder {
+        private static final byte UNSET = 0;
+        private static final byte LONG = 1;
+        private static final byte DOUBLE = 2;
+        private static final byte OBJECT = 3;
+
+        private byte[] states = new byte[0];
+        private long[] longValues = new long[0];
+        private double[] doubleValues = new double[0];
+        private Object[] objectValues = new Object[0];
+
+        RowBuilder() {}
+
+        /**
+         * Sets the value of a column to null.
+         * 
+         * @param columnIndex
+         *        the first column is 1, the second is 2, ...
+         * @return this row builder
+         * @throws SQLServerException
+         *         if the column index is out of range
+         */
+        public RowBuilder setNull(int columnIndex) throws SQLServerException {
+            states[checkColumn(columnIndex)] = UNSET;
+            return this;
+        }
+
+        /**
+         * Sets the value of a column to a boolean value.
+         * 
+         * @param columnIndex
+         *        the first column is 1, the second is 2, ...
+         * @param value
+         *        the value
+         * @return this row builder
+         * @throws SQLServerException
+         *         if the column index is out of range, or the value is not valid for the column
+         */
+        public RowBuilder setBoolean(int columnIndex, boolean value) throws SQLServerException {
+            int i = checkColumn(columnIndex);
+            if (JDBCType.BIT == columnValues[i].jdbcType)
+                return setLongValue(i, value ? 1 : 0);
+            return setObject(columnIndex, value);
+        }
+
+        /**
+         * Sets the value of a column to an int value.
+         * 
+         * @param columnIndex
+         *        the first column is 1, the second is 2, ...
+         * @param value
+         *        the value
+         * @return this row builder
+         * @throws SQLServerException
+         *         if the column index is out of range, or the value is not valid for the column
+         */
+        public RowBuilder setInt(int columnIndex, int value) throws SQLServerException {
+            return setLong(columnIndex, value);
+        }
+
+        /**
+         * Sets the value of a column to a long value.
+         * 
+         * @param columnIndex
+         *        the first column is 1, the second is 2, ...
+         * @param value
+         *        the value
+         * @return this row builder
+         * @throws SQLServerException
+         *         if the column index is out of range, or the value is not valid for the column
+         */
+        public RowBuilder setLong(int columnIndex, long value) throws SQLServerException {
+            int i = checkColumn(columnIndex);
+            switch (columnValues[i].jdbcType) {
+                case BIGINT:
+                    return setLongValue(i, value);
+                case INTEGER:
+                    if ((int) value == value)
+                        return setLongValue(i, value);
+                    break;
+                case SMALLINT:
+                case TINYINT:
+                    if ((short) value == value)
+                        return setLongValue(i, value);
+                    break;
+                default:
+                    return setObject(columnIndex, value);
+            }
+            throw new SQLServerException(SQLServerException.getErrString("R_TVPInvalidColumnValue"), null);
+        }
+
+        /**
+         * Sets the value of a column to a double value.
+         * 
+         * @param columnIndex
+         *        the first column is 1, the second is 2, ...
+         * @param value
+         *        the value
+         * @return this row builder
+         * @throws SQLServerException
+         *         if the column index is out of range, or the value is not valid for the column
+         */
+        public RowBuilder setDouble(int columnIndex, double value) throws SQLServerException {
+            int i = checkColumn(columnIndex);
+            switch (columnValues[i].jdbcType) {
+                case DOUBLE:
+                    states[i] = DOUBLE;
+                    doubleValues[i] = value;
+                    return this;
+                case FLOAT:
+                case REAL:
+                    states[i] = DOUBLE;
+                    doubleValues[i] = (float) value;
+                    return this;
+                default:
+                    return setObject(columnIndex, value);
+            }
+        }
+
+        /**
+         * Sets the value of a column to a String value.
+         * 
+         * @param columnIndex
+         *        the first column is 1, the second is 2, ...
+         * @param value
+         *        the value
+         * @return this row builder
+         * @throws SQLServerException
+         *         if the column index is out of range, or the value is not valid for the column
+         */
+        public RowBuilder setString(int columnIndex, String value) throws SQLServerException {
+            return setObject(columnIndex, value);
+        }
+
+        /**
+         * Sets the value of a column to a byte array value.
+         * 
+         * @param columnIndex
+         *        the first column is 1, the second is 2, ...
+         * @param value
+         *        the value
+         * @return this row builder
+         * @throws SQLServerException
+         *         if the column index is out of range, or the value is not valid for the column
+         */
+        public RowBuilder setBytes(int columnIndex, byte[] value) throws SQLServerException {
+            return setObject(columnIndex, value);
+        }
+
+        /**
+         * Sets the value of a column to an object, which is converted as by
+         * {@link SQLServerDataTable#addRow(Object...)}.
+         * 
+         * @param columnIndex
+         *        the first column is 1, the second is 2, ...
+         * @param value
+         *        the value
+         * @return this row builder
+         * @throws SQLServerException
+         *         if the column index is out of range, or the value is not valid for the column
+         */
+        public RowBuilder setObject(int columnIndex, Object value) throws SQLServerException {
+            int i = checkColumn(columnIndex);
+            try {
+                Object converted = convertValue(columnValues[i].jdbcType, value, columnValues[i].column);
+                states[i] = (null == converted) ? UNSET : OBJECT;
+                objectValues[i] = converted;
+            } catch (NumberFormatException | ClassCastException e) {
+                throw new SQLServerException(SQLServerException.getErrString("R_TVPInvalidColumnValue"), e);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a row with the values that were set to the data table, and clears the values.
+         * 
+         * @throws SQLServerException
+         *         if a column whose value was not set cannot be null
+         */
+        public void addRow() throws SQLServerException {
+            // Check the columns that are null before adding any values, so that a row is added whole or not at all
+            for (int i = 0; i < columnCount; i++) {
+                if ((i >= states.length || UNSET == states[i])
+                        && DataTableColumnValues.Storage.OBJECT == columnValues[i].storage)
+                    convertValue(columnValues[i].jdbcType, null, columnValues[i].column);
+            }
+
+            int count = Math.min(columnCount, states.length);
+            for (int i = 0; i < count; i++) {
+                switch (states[i]) {
+                    case LONG:
+                        columnValues[i].appendLong(longValues[i]);
+                        break;
+                    case DOUBLE:
+                        columnValues[i].appendDouble(doubleValues[i]);
+                        break;
+                    case OBJECT:
+                        columnValues[i].append(objectValues[i]);
+                        break;
+                    default:
+                        columnValues[i].appendNull();
+                        break;
+                }
+                states[i] = UNSET;
+                objectValues[i] = null;
+            }
+            for (int i = count; i < columnCount; i++)
+                columnValues[i].appendNull();
+            rowCount++;
+        }
+
+        private RowBuilder setLongValue(int i, long value) {
+            states[i] = LONG;
+            longValues[i] = value;
+            return this;
+        }
+
+        /**
+         * Returns the 0-based index of a column, after making room for its value.
+         */
+        private int checkColumn(int columnIndex) throws SQLServerException {
+            if (columnIndex < 1 || columnIndex > columnCount) {
+                MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_indexOutOfRange"));
+                Object[] msgArgs = {columnIndex};
+                throw new SQLServerException(null, form.format(msgArgs), null, 0, false);
+            }
+
+            if (columnCount > states.length) {
+                states = Arrays.copyOf(states, columnCount);
+                longValues = Arrays.copyOf(longValues, columnCount);
+                doubleValues = Arrays.copyOf(doubleValues, columnCount);
+                objectValues = Arrays.copyOf(objectValues, columnCount);
+            }
+            return columnIndex - 1;
+        }
+    }
+
+    /**
+     * Converts a value to the type that the data table holds for a column, and widens the precision and scale of the
+     * column to fit it.
      * 
      * @param jdbcType
      *        The jdbcType
      * @param val
      *        The data value
-     * @param rowValues
-     *        Row of data
-     * @param pair
-     *        pair to be added to data table
+     * @param currentColumnMetadata
+     *        The column that the value is added to
+     * @return the converted value
      * @throws SQLServerException
      *         when an error occurs
      */
-    private void internalAddrow(JDBCType jdbcType, Object val, Object[] rowValues,
-            Map.Entry<Integer, SQLServerDataColumn> pair) throws SQLServerException {
-
-        SQLServerDataColumn currentColumnMetadata = pair.getValue();
+    private Object convertValue(JDBCType jdbcType, Object val,
+            SQLServerDataColumn currentColumnMetadata) throws SQLServerException {
         boolean isColumnMetadataUpdated = false;
         boolean bValueNull;
         int nValueLen;
         switch (jdbcType) {
             case BIGINT:
-                rowValues[pair.getKey()] = (null == val) ? null : Long.parseLong(val.toString());
-                break;
+                if (val instanceof Long)
+                    return val;
+                return (null == val) ? null : Long.parseLong(val.toString());
 
             case BIT:
-                rowValues[pair.getKey()] = (null == val) ? null : Boolean.parseBoolean(val.toString());
-                break;
+                if (val instanceof Boolean)
+                    return val;
+                return (null == val) ? null : Boolean.parseBoolean(val.toString());
 
             case INTEGER:
-                rowValues[pair.getKey()] = (null == val) ? null : Integer.parseInt(val.toString());
-                break;
+                if (val instanceof Integer)
+                    return val;
+                return (null == val) ? null : Integer.parseInt(val.toString());
 
             case SMALLINT:
             case TINYINT:
-                rowValues[pair.getKey()] = (null == val) ? null : Short.parseShort(val.toString());
-                break;
+                if (val instanceof Short)
+                    return val;
+                return (null == val) ? null : Short.parseShort(val.toString());
 
             case DECIMAL:
             case NUMERIC:
@@ -205,20 +496,20 @@ public final class SQLServerDataTable {
                     if (isColumnMetadataUpdated) {
                         currentColumnMetadata.precision = currentColumnMetadata.scale
                                 + currentColumnMetadata.numberOfDigitsIntegerPart;
-                        columnMetadata.put(pair.getKey(), currentColumnMetadata);
                     }
                 }
-                rowValues[pair.getKey()] = bd;
-                break;
+                return bd;
 
             case DOUBLE:
-                rowValues[pair.getKey()] = (null == val) ? null : Double.parseDouble(val.toString());
-                break;
+                if (val instanceof Double)
+                    return val;
+                return (null == val) ? null : Double.parseDouble(val.toString());
 
             case FLOAT:
             case REAL:
-                rowValues[pair.getKey()] = (null == val) ? null : Float.parseFloat(val.toString());
-                break;
+                if (val instanceof Float)
+                    return val;
+                return (null == val) ? null : Float.parseFloat(val.toString());
 
             case TIMESTAMP_WITH_TIMEZONE:
             case TIME_WITH_TIMEZONE:
@@ -233,19 +524,18 @@ public final class SQLServerDataTable {
                 // DataTypes.SHORT_VARTYPE_MAX_BYTES
 
                 if (null == val)
-                    rowValues[pair.getKey()] = null;
+                    return null;
                 // java.sql.Date, java.sql.Time and java.sql.Timestamp are subclass of java.util.Date
                 else if (val instanceof java.util.Date)
-                    rowValues[pair.getKey()] = val.toString();
+                    return val.toString();
                 else if (val instanceof microsoft.sql.DateTimeOffset)
-                    rowValues[pair.getKey()] = val.toString();
+                    return val.toString();
                 else if (val instanceof OffsetDateTime)
-                    rowValues[pair.getKey()] = val.toString();
+                    return val.toString();
                 else if (val instanceof OffsetTime)
-                    rowValues[pair.getKey()] = val.toString();
+                    return val.toString();
                 else
-                    rowValues[pair.getKey()] = (String) val;
-                break;
+                    return (String) val;
 
             case BINARY:
             case VARBINARY:
@@ -255,11 +545,8 @@ public final class SQLServerDataTable {
 
                 if (nValueLen > currentColumnMetadata.precision) {
                     currentColumnMetadata.precision = nValueLen;
-                    columnMetadata.put(pair.getKey(), currentColumnMetadata);
                 }
-                rowValues[pair.getKey()] = (bValueNull) ? null : (byte[]) val;
-
-                break;
+                return (bValueNull) ? null : (byte[]) val;
 
             case CHAR:
                 if (val instanceof UUID && (val != null))
@@ -275,10 +562,8 @@ public final class SQLServerDataTable {
 
                 if (nValueLen > currentColumnMetadata.precision) {
                     currentColumnMetadata.precision = nValueLen;
-                    columnMetadata.put(pair.getKey(), currentColumnMetadata);
                 }
-                rowValues[pair.getKey()] = (bValueNull) ? null : (String) val;
-                break;
+                return (bValueNull) ? null : (String) val;
             case SQL_VARIANT:
                 JDBCType internalJDBCType;
                 if (null == val) { // TODO:Check this later
@@ -287,8 +572,7 @@ public final class SQLServerDataTable {
                 }
                 JavaType javaType = JavaType.of(val);
                 internalJDBCType = javaType.getJDBCType(SSType.UNKNOWN, jdbcType);
-                internalAddrow(internalJDBCType, val, rowValues, pair);
-                break;
+                return convertValue(internalJDBCType, val, currentColumnMetadata);
             default:
                 MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_unsupportedDataTypeTVP"));
                 Object[] msgArgs = {jdbcType};
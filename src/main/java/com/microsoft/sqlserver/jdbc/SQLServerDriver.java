@@ -232,7 +232,8 @@ enum ApplicationIntent {
 
 
 enum SQLServerDriverObjectProperty {
-    GSS_CREDENTIAL("gsscredential", null);
+    GSS_CREDENTIAL("gsscredential", null),
+    REQUEST_TIMING_LISTENER("requestTimingListener", null);
     private final String name;
     private final String defaultValue;
 
@@ -313,7 +314,8 @@ enum SQLServerDriverIntProperty {
     SOCKET_TIMEOUT("socketTimeout", 0),
     SERVER_PREPARED_STATEMENT_DISCARD_THRESHOLD("serverPreparedStatementDiscardThreshold", SQLServerConnection.DEFAULT_SERVER_PREPARED_STATEMENT_DISCARD_THRESHOLD),
     STATEMENT_POOLING_CACHE_SIZE("statementPoolingCacheSize", SQLServerConnection.DEFAULT_STATEMENT_POOLING_CACHE_SIZE),
-    CANCEL_QUERY_TIMEOUT("cancelQueryTimeout", -1),;
+    CANCEL_QUERY_TIMEOUT("cancelQueryTimeout", -1),
+    COLUMN_DECRYPTION_PARALLELISM("columnDecryptionParallelism", 1);
 
     private final String name;
     private final int defaultValue;
@@ -347,7 +349,9 @@ enum SQLServerDriverBooleanProperty {
     XOPEN_STATES("xopenStates", false),
     FIPS("fips", false),
     ENABLE_PREPARE_ON_FIRST_PREPARED_STATEMENT("enablePrepareOnFirstPreparedStatementCall", SQLServerConnection.DEFAULT_ENABLE_PREPARE_ON_FIRST_PREPARED_STATEMENT_CALL),
-    USE_BULK_COPY_FOR_BATCH_INSERT("useBulkCopyForBatchInsert", false);
+    USE_BULK_COPY_FOR_BATCH_INSERT("useBulkCopyForBatchInsert", false),
+    USE_SOCKET_CHANNEL("useSocketChannel", false),
+    REGISTER_STATEMENT_CACHE_MBEAN("registerStatementCacheMBean", false);
 
     private final String name;
     private final boolean defaultValue;
@@ -507,9 +511,18 @@ public final class SQLServerDriver implements java.sql.Driver {
                             SSLProtocol.TLS_V11.toString(), SSLProtocol.TLS_V12.toString()}),
             new SQLServerDriverPropertyInfo(SQLServerDriverIntProperty.CANCEL_QUERY_TIMEOUT.toString(),
                     Integer.toString(SQLServerDriverIntProperty.CANCEL_QUERY_TIMEOUT.getDefaultValue()), false, null),
+            new SQLServerDriverPropertyInfo(SQLServerDriverIntProperty.COLUMN_DECRYPTION_PARALLELISM.toString(),
+                    Integer.toString(SQLServerDriverIntProperty.COLUMN_DECRYPTION_PARALLELISM.getDefaultValue()), false,
+                    null),
             new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_INSERT.toString(),
                     Boolean.toString(SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_INSERT.getDefaultValue()),
                     false, TRUE_FALSE),
+            new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.USE_SOCKET_CHANNEL.toString(),
+                    Boolean.toString(SQLServerDriverBooleanProperty.USE_SOCKET_CHANNEL.getDefaultValue()), false,
+                    TRUE_FALSE),
+            new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.REGISTER_STATEMENT_CACHE_MBEAN.toString(),
+                    Boolean.toString(SQLServerDriverBooleanProperty.REGISTER_STATEMENT_CACHE_MBEAN.getDefaultValue()),
+                    false, TRUE_FALSE),
             new SQLServerDriverPropertyInfo(SQLServerDriverStringProperty.MSI_CLIENT_ID.toString(),
                     SQLServerDriverStringProperty.MSI_CLIENT_ID.getDefaultValue(), false, null),};
 
@@ -522,7 +535,9 @@ public final class SQLServerDriver implements java.sql.Driver {
             new SQLServerDriverPropertyInfo(SQLServerDriverStringProperty.ACCESS_TOKEN.toString(),
                     SQLServerDriverStringProperty.ACCESS_TOKEN.getDefaultValue(), false, null),
             new SQLServerDriverPropertyInfo(SQLServerDriverObjectProperty.GSS_CREDENTIAL.toString(),
-                    SQLServerDriverObjectProperty.GSS_CREDENTIAL.getDefaultValue(), false, null),};
+                    SQLServerDriverObjectProperty.GSS_CREDENTIAL.getDefaultValue(), false, null),
+            new SQLServerDriverPropertyInfo(SQLServerDriverObjectProperty.REQUEST_TIMING_LISTENER.toString(),
+                    SQLServerDriverObjectProperty.REQUEST_TIMING_LISTENER.getDefaultValue(), false, null),};
 
     private static final String driverPropertiesSynonyms[][] = {
             {"database", SQLServerDriverStringProperty.DATABASE_NAME.toString()},
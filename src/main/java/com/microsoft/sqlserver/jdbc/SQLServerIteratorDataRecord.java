@@ -0,0 +1,79 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+
+/**
+ * Provides the rows of a table-valued parameter from an {@link Iterator} or a {@link Stream} of rows.
+ * <p>
+ * The rows are pulled from the iterator one at a time while the parameter is written to the server, so that a
+ * table-valued parameter of any number of rows is sent without holding more than one row in memory. Each row is an
+ * array of Objects with one element per column, as for {@link SQLServerDataTable#addRow(Object...)}; a null array or a
+ * missing element is sent as null. As the rows are not held, the parameter can only be sent once, and a statement
+ * that is executed again must be given a new record.
+ * <p>
+ * The precision of variable-length columns cannot be inferred from rows that have not been read yet, so it must be
+ * given in the metadata of the columns, for example with {@link SQLServerMetaData#SQLServerMetaData(String, int, int)}.
+ */
+public final class SQLServerIteratorDataRecord implements ISQLServerDataRecord {
+    private final Iterator<Object[]> rows;
+    private final SQLServerMetaData[] columnMetadata;
+    private Object[] currentRow = null;
+
+    /**
+     * Constructs a record over the rows of an iterator.
+     *
+     * @param rows
+     *        the rows, each an array of the values of the columns
+     * @param columnMetadata
+     *        the metadata of the columns, in order
+     */
+    public SQLServerIteratorDataRecord(Iterator<Object[]> rows, SQLServerMetaData... columnMetadata) {
+        this.rows = rows;
+        this.columnMetadata = columnMetadata;
+    }
+
+    /**
+     * Constructs a record over the rows of a stream. The stream is consumed lazily through its iterator, and is not
+     * closed by the driver.
+     *
+     * @param rows
+     *        the rows, each an array of the values of the columns
+     * @param columnMetadata
+     *        the metadata of the columns, in order
+     */
+    public SQLServerIteratorDataRecord(Stream<Object[]> rows, SQLServerMetaData... columnMetadata) {
+        this(rows.iterator(), columnMetadata);
+    }
+
+    @Override
+    public SQLServerMetaData getColumnMetaData(int column) {
+        return columnMetadata[column - 1];
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnMetadata.length;
+    }
+
+    @Override
+    public Object[] getRowData() {
+        return currentRow;
+    }
+
+    @Override
+    public boolean next() {
+        if (!rows.hasNext()) {
+            currentRow = null;
+            return false;
+        }
+        currentRow = rows.next();
+        return true;
+    }
+}
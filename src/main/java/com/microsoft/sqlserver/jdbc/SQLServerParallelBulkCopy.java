@@ -0,0 +1,1033 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.MessageFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+
+/**
+ * Bulk loads a SQL Server table over several connections at the same time. <br>
+ * <br>
+ * SQLServerBulkCopy sends all rows over one connection, so a load is limited by the speed at which one thread encodes
+ * the rows and one connection sends them. SQLServerParallelBulkCopy opens a number of connections to the same server,
+ * from a connection URL or a DataSource, and runs a SQLServerBulkCopy on each of them. The rows of the source are read
+ * on the calling thread and handed out to the connections in chunks, so each connection loads a part of the rows in
+ * its own INSERT BULK statement. <br>
+ * <br>
+ * For the connections to load the table at the same time, the table must allow concurrent bulk loads. When the
+ * destination is a heap and the TableLock option is set, each connection takes a bulk update (BU) lock on the table,
+ * and BU locks do not block each other. When the table has a clustered index, the TableLock option makes the
+ * connections load the table one at a time. <br>
+ * <br>
+ * The rows are not loaded in the order of the source, and the connections commit independently. When a connection
+ * fails, the others stop at the end of their current chunk and the rows they sent so far are kept, according to the
+ * BatchSize and UseInternalTransaction options. The exception thrown is the one for the earliest rows of the source,
+ * with the exceptions of the other connections added as suppressed exceptions.
+ */
+public class SQLServerParallelBulkCopy implements java.lang.AutoCloseable {
+    /*
+     * Class name for logging.
+     */
+    private static final String loggerClassName = "com.microsoft.sqlserver.jdbc.SQLServerParallelBulkCopy";
+
+    /*
+     * Logger
+     */
+    private static final java.util.logging.Logger loggerExternal = java.util.logging.Logger.getLogger(loggerClassName);
+
+    private static final int DEFAULT_ROWS_PER_CHUNK = 1000;
+
+    /**
+     * Runs the loads of the connections. Threads are created on demand, are daemon threads, and are reclaimed after a
+     * minute of inactivity.
+     */
+    private static final class LoaderPool {
+        private static final AtomicInteger threadCount = new AtomicInteger(0);
+        static final ExecutorService executor = Executors.newCachedThreadPool(task -> {
+            Thread t = new Thread(task, "mssql-jdbc-parallel-bulk-copy-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * A column mapping, with an Integer or a String for each of the source and destination columns.
+     */
+    private static final class ColumnMapping {
+        final Object sourceColumn;
+        final Object destinationColumn;
+
+        ColumnMapping(Object sourceColumn, Object destinationColumn) {
+            this.sourceColumn = sourceColumn;
+            this.destinationColumn = destinationColumn;
+        }
+    }
+
+    /**
+     * Consecutive rows of the source, numbered in the order in which they were read.
+     */
+    private static final class Chunk {
+        final long sequence;
+        final List<Object[]> rows;
+
+        Chunk(long sequence, int capacity) {
+            this.sequence = sequence;
+            this.rows = new ArrayList<>(capacity);
+        }
+    }
+
+    /*
+     * Tells a connection that there are no more chunks.
+     */
+    private static final Chunk END_OF_DATA = new Chunk(Long.MAX_VALUE, 0);
+
+    /**
+     * An exception, with the sequence number of the chunk being read or loaded when it happened and the connection
+     * that loaded it, or -1 if it happened while reading the source.
+     */
+    private static final class Failure {
+        final long sequence;
+        final int loader;
+        final SQLServerException exception;
+
+        Failure(long sequence, int loader, SQLServerException exception) {
+            this.sequence = sequence;
+            this.loader = loader;
+            this.exception = exception;
+        }
+    }
+
+    private final String connectionUrl;
+    private final DataSource dataSource;
+    private final int degreeOfParallelism;
+
+    /*
+     * The bulk copies of the connections, opened by the first call to writeToServer
+     */
+    private SQLServerBulkCopy[] bulkCopies;
+
+    /*
+     * The connections opened from the DataSource, which the bulk copies do not close
+     */
+    private final List<Connection> connections = new ArrayList<>();
+
+    private String destinationTableName;
+    private SQLServerBulkCopyOptions copyOptions = new SQLServerBulkCopyOptions();
+    private final List<ColumnMapping> columnMappings = new ArrayList<>();
+    private int rowsPerChunk = DEFAULT_ROWS_PER_CHUNK;
+    private long rowsCopied;
+    private boolean isClosed = false;
+
+    /**
+     * Constructs a SQLServerParallelBulkCopy that loads a table over the given number of connections opened with a
+     * connection URL. The connections are opened by the first call to writeToServer.
+     *
+     * @param connectionUrl
+     *        Connection string for the destination server.
+     * @param degreeOfParallelism
+     *        The number of connections.
+     * @throws SQLServerException
+     *         If the connection URL is null or the number of connections is not positive.
+     */
+    public SQLServerParallelBulkCopy(String connectionUrl, int degreeOfParallelism) throws SQLServerException {
+        loggerExternal.entering(loggerClassName, "SQLServerParallelBulkCopy",
+                new Object[] {"connectionUrl not traced.", degreeOfParallelism});
+
+        if ((connectionUrl == null) || "".equals(connectionUrl.trim())) {
+            throw new SQLServerException(null, SQLServerException.getErrString("R_nullConnection"), null, 0, false);
+        }
+        if (0 >= degreeOfParallelism) {
+            throwInvalidArgument("degreeOfParallelism");
+        }
+
+        this.connectionUrl = connectionUrl;
+        this.dataSource = null;
+        this.degreeOfParallelism = degreeOfParallelism;
+
+        loggerExternal.exiting(loggerClassName, "SQLServerParallelBulkCopy");
+    }
+
+    /**
+     * Constructs a SQLServerParallelBulkCopy that loads a table over the given number of connections obtained from a
+     * DataSource. The connections are obtained by the first call to writeToServer, and must be from the Microsoft JDBC
+     * driver for SQL Server.
+     *
+     * @param dataSource
+     *        DataSource of connections to the destination server.
+     * @param degreeOfParallelism
+     *        The number of connections.
+     * @throws SQLServerException
+     *         If the DataSource is null or the number of connections is not positive.
+     */
+    public SQLServerParallelBulkCopy(DataSource dataSource, int degreeOfParallelism) throws SQLServerException {
+        loggerExternal.entering(loggerClassName, "SQLServerParallelBulkCopy",
+                new Object[] {dataSource, degreeOfParallelism});
+
+        if (null == dataSource) {
+            throwInvalidArgument("dataSource");
+        }
+        if (0 >= degreeOfParallelism) {
+            throwInvalidArgument("degreeOfParallelism");
+        }
+
+        this.connectionUrl = null;
+        this.dataSource = dataSource;
+        this.degreeOfParallelism = degreeOfParallelism;
+
+        loggerExternal.exiting(loggerClassName, "SQLServerParallelBulkCopy");
+    }
+
+    /**
+     * Returns the number of connections that load the table.
+     *
+     * @return the number of connections
+     */
+    public int getDegreeOfParallelism() {
+        return degreeOfParallelism;
+    }
+
+    /**
+     * Adds a new column mapping, using ordinals to specify both the source and destination columns.
+     *
+     * @param sourceColumn
+     *        Source column ordinal.
+     * @param destinationColumn
+     *        Destination column ordinal.
+     * @throws SQLServerException
+     *         If the column mapping is invalid
+     */
+    public void addColumnMapping(int sourceColumn, int destinationColumn) throws SQLServerException {
+        if (0 >= sourceColumn) {
+            throwInvalidArgument("sourceColumn");
+        } else if (0 >= destinationColumn) {
+            throwInvalidArgument("destinationColumn");
+        }
+        columnMappings.add(new ColumnMapping(sourceColumn, destinationColumn));
+    }
+
+    /**
+     * Adds a new column mapping, using an ordinal for the source column and a string for the destination column.
+     *
+     * @param sourceColumn
+     *        Source column ordinal.
+     * @param destinationColumn
+     *        Destination column name.
+     * @throws SQLServerException
+     *         If the column mapping is invalid
+     */
+    public void addColumnMapping(int sourceColumn, String destinationColumn) throws SQLServerException {
+        if (0 >= sourceColumn) {
+            throwInvalidArgument("sourceColumn");
+        } else if (null == destinationColumn || destinationColumn.isEmpty()) {
+            throwInvalidArgument("destinationColumn");
+        }
+        columnMappings.add(new ColumnMapping(sourceColumn, destinationColumn));
+    }
+
+    /**
+     * Adds a new column mapping, using a column name to describe the source column and an ordinal to specify the
+     * destination column.
+     *
+     * @param sourceColumn
+     *        Source column name.
+     * @param destinationColumn
+     *        Destination column ordinal.
+     * @throws SQLServerException
+     *         If the column mapping is invalid
+     */
+    public void addColumnMapping(String sourceColumn, int destinationColumn) throws SQLServerException {
+        if (0 >= destinationColumn) {
+            throwInvalidArgument("destinationColumn");
+        } else if (null == sourceColumn || sourceColumn.isEmpty()) {
+            throwInvalidArgument("sourceColumn");
+        }
+        columnMappings.add(new ColumnMapping(sourceColumn, destinationColumn));
+    }
+
+    /**
+     * Adds a new column mapping, using column names to specify both source and destination columns.
+     *
+     * @param sourceColumn
+     *        Source column name.
+     * @param destinationColumn
+     *        Destination column name.
+     * @throws SQLServerException
+     *         If the column mapping is invalid
+     */
+    public void addColumnMapping(String sourceColumn, String destinationColumn) throws SQLServerException {
+        if (null == sourceColumn || sourceColumn.isEmpty()) {
+            throwInvalidArgument("sourceColumn");
+        } else if (null == destinationColumn || destinationColumn.isEmpty()) {
+            throwInvalidArgument("destinationColumn");
+        }
+        columnMappings.add(new ColumnMapping(sourceColumn, destinationColumn));
+    }
+
+    /**
+     * Clears the contents of the column mappings
+     */
+    public void clearColumnMappings() {
+        columnMappings.clear();
+    }
+
+    /**
+     * Returns the name of the destination table on the server.
+     *
+     * @return Destination table name.
+     */
+    public String getDestinationTableName() {
+        return destinationTableName;
+    }
+
+    /**
+     * Sets the name of the destination table on the server.
+     *
+     * @param tableName
+     *        Destination table name.
+     * @throws SQLServerException
+     *         If the table name is null
+     */
+    public void setDestinationTableName(String tableName) throws SQLServerException {
+        if (null == tableName || 0 == tableName.trim().length()) {
+            throwInvalidArgument("tableName");
+        }
+        destinationTableName = tableName.trim();
+    }
+
+    /**
+     * Returns the current SQLServerBulkCopyOptions, which are used by all connections.
+     *
+     * @return Current SQLServerBulkCopyOptions settings.
+     */
+    public SQLServerBulkCopyOptions getBulkCopyOptions() {
+        return copyOptions;
+    }
+
+    /**
+     * Sets the options used by all connections, if the supplied SQLServerBulkCopyOptions is not null.
+     *
+     * @param copyOptions
+     *        Settings to change how the WriteToServer methods behave.
+     * @throws SQLServerException
+     *         If the SQLServerParallelBulkCopy was constructed with a DataSource and the UseInternalTransaction option
+     *         is specified.
+     */
+    public void setBulkCopyOptions(SQLServerBulkCopyOptions copyOptions) throws SQLServerException {
+        if (null != copyOptions) {
+            // As for SQLServerBulkCopy, an internal transaction needs a connection opened by the bulk copy
+            if (null != dataSource && copyOptions.isUseInternalTransaction()) {
+                SQLServerException.makeFromDriverError(null, null,
+                        SQLServerException.getErrString("R_invalidTransactionOption"), null, false);
+            }
+            this.copyOptions = copyOptions;
+        }
+    }
+
+    /**
+     * Returns the number of rows handed to a connection at a time.
+     *
+     * @return the number of rows in a chunk
+     */
+    public int getRowsPerChunk() {
+        return rowsPerChunk;
+    }
+
+    /**
+     * Sets the number of rows handed to a connection at a time. Smaller chunks spread the rows more evenly over the
+     * connections, larger chunks reduce the cost of handing them out. The default is 1000.
+     *
+     * @param rowsPerChunk
+     *        the number of rows in a chunk
+     * @throws SQLServerException
+     *         If the number of rows is not positive
+     */
+    public void setRowsPerChunk(int rowsPerChunk) throws SQLServerException {
+        if (0 >= rowsPerChunk) {
+            throwInvalidArgument("rowsPerChunk");
+        }
+        this.rowsPerChunk = rowsPerChunk;
+    }
+
+    /**
+     * Returns the number of rows loaded by the last call to writeToServer, over all connections. When the call failed,
+     * the rows of the connections that failed are not counted, even if some of them were committed.
+     *
+     * @return the number of rows copied
+     */
+    public long getRowsCopied() {
+        return rowsCopied;
+    }
+
+    /**
+     * Closes the connections.
+     */
+    @Override
+    public void close() {
+        loggerExternal.entering(loggerClassName, "close");
+
+        closeConnections();
+        isClosed = true;
+
+        loggerExternal.exiting(loggerClassName, "close");
+    }
+
+    private void closeConnections() {
+        if (null != bulkCopies) {
+            for (SQLServerBulkCopy bulkCopy : bulkCopies) {
+                if (null != bulkCopy) {
+                    bulkCopy.close();
+                }
+            }
+            bulkCopies = null;
+        }
+        for (Connection connection : connections) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                // Ignore this exception
+            }
+        }
+        connections.clear();
+    }
+
+    /**
+     * Copies all rows in the supplied ResultSet to the destination table over all connections. The rows are read from
+     * the ResultSet on the calling thread, with values that are not streamed.
+     *
+     * @param sourceData
+     *        ResultSet to read data rows from.
+     * @throws SQLServerException
+     *         If there are any issues encountered when performing the bulk copy operation
+     */
+    public void writeToServer(ResultSet sourceData) throws SQLServerException {
+        loggerExternal.entering(loggerClassName, "writeToServer");
+
+        if (null == sourceData) {
+            throwInvalidArgument("sourceData");
+        }
+        writeToServer(new ResultSetSource(sourceData));
+
+        loggerExternal.exiting(loggerClassName, "writeToServer");
+    }
+
+    /**
+     * Copies all rows from the supplied ISQLServerBulkRecord to the destination table over all connections. The rows
+     * are read from the ISQLServerBulkRecord on the calling thread, and the arrays returned by getRowData are copied.
+     *
+     * @param sourceData
+     *        SQLServerBulkReader to read data rows from.
+     * @throws SQLServerException
+     *         If there are any issues encountered when performing the bulk copy operation
+     */
+    public void writeToServer(ISQLServerBulkRecord sourceData) throws SQLServerException {
+        loggerExternal.entering(loggerClassName, "writeToServer");
+
+        if (null == sourceData) {
+            throwInvalidArgument("sourceData");
+        }
+        writeToServer(new BulkRecordSource(sourceData));
+
+        loggerExternal.exiting(loggerClassName, "writeToServer");
+    }
+
+    private void writeToServer(RowSource source) throws SQLServerException {
+        if (isClosed) {
+            SQLServerException.makeFromDriverError(null, null, SQLServerException.getErrString("R_connectionIsClosed"),
+                    null, false);
+        }
+        if (null == destinationTableName) {
+            SQLServerException.makeFromDriverError(null, null,
+                    SQLServerException.getErrString("R_invalidDestinationTable"), null, false);
+        }
+        rowsCopied = 0;
+        openConnections();
+
+        // Each connection takes a chunk at a time, so the queue holds enough chunks to keep them all busy while the
+        // source is read.
+        BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(2 * degreeOfParallelism);
+        AtomicBoolean isAborted = new AtomicBoolean(false);
+        Loader[] loaders = new Loader[degreeOfParallelism];
+        List<Future<?>> futures = new ArrayList<>(degreeOfParallelism);
+        for (int i = 0; i < degreeOfParallelism; i++) {
+            SQLServerBulkCopy bulkCopy = bulkCopies[i];
+            bulkCopy.setDestinationTableName(destinationTableName);
+            bulkCopy.setBulkCopyOptions(copyOptions);
+            bulkCopy.clearColumnMappings();
+            for (ColumnMapping mapping : columnMappings) {
+                addColumnMapping(bulkCopy, mapping);
+            }
+            loaders[i] = new Loader(i, bulkCopy, new PartitionRecord(source, queue, isAborted));
+        }
+        for (Loader loader : loaders) {
+            futures.add(LoaderPool.executor.submit(loader));
+        }
+
+        List<Failure> failures = new ArrayList<>();
+        long sequence = 0;
+        boolean isSourceRead = false;
+        try {
+            Chunk chunk = new Chunk(sequence, rowsPerChunk);
+            while (!isAborted.get() && source.next()) {
+                chunk.rows.add(source.getRowData());
+                if (chunk.rows.size() == rowsPerChunk) {
+                    put(queue, chunk);
+                    chunk = new Chunk(++sequence, rowsPerChunk);
+                }
+            }
+            if (!chunk.rows.isEmpty() && !isAborted.get()) {
+                put(queue, chunk);
+            }
+            isSourceRead = true;
+        } catch (SQLServerException e) {
+            failures.add(new Failure(sequence, -1, e));
+        } finally {
+            if (!isSourceRead) {
+                // Stop the connections at the end of their current chunk
+                isAborted.set(true);
+            }
+            // Every connection takes chunks until it takes one of these
+            for (int i = 0; i < degreeOfParallelism; i++) {
+                put(queue, END_OF_DATA);
+            }
+        }
+
+        for (int i = 0; i < degreeOfParallelism; i++) {
+            try {
+                futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.add(new Failure(Long.MAX_VALUE, i, new SQLServerException(e.getMessage(), e)));
+            } catch (ExecutionException e) {
+                failures.add(new Failure(Long.MAX_VALUE, i, new SQLServerException(e.getMessage(), e.getCause())));
+            }
+            if (null != loaders[i].failure) {
+                failures.add(loaders[i].failure);
+            } else {
+                rowsCopied += loaders[i].record.rowCount;
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            failures.sort(Comparator.<Failure> comparingLong(f -> f.sequence).thenComparingInt(f -> f.loader));
+            SQLServerException first = failures.get(0).exception;
+            for (int i = 1; i < failures.size(); i++) {
+                first.addSuppressed(failures.get(i).exception);
+            }
+            throw first;
+        }
+    }
+
+    private void openConnections() throws SQLServerException {
+        if (null != bulkCopies) {
+            return;
+        }
+        SQLServerBulkCopy[] opened = new SQLServerBulkCopy[degreeOfParallelism];
+        try {
+            for (int i = 0; i < degreeOfParallelism; i++) {
+                if (null != connectionUrl) {
+                    opened[i] = new SQLServerBulkCopy(connectionUrl);
+                } else {
+                    Connection connection = dataSource.getConnection();
+                    connections.add(connection);
+                    opened[i] = new SQLServerBulkCopy(connection);
+                }
+            }
+        } catch (SQLException e) {
+            bulkCopies = opened;
+            closeConnections();
+            if (e instanceof SQLServerException) {
+                throw (SQLServerException) e;
+            }
+            throw new SQLServerException(e.getMessage(), e);
+        }
+        bulkCopies = opened;
+    }
+
+    private static void addColumnMapping(SQLServerBulkCopy bulkCopy, ColumnMapping mapping) throws SQLServerException {
+        if (mapping.sourceColumn instanceof Integer) {
+            if (mapping.destinationColumn instanceof Integer) {
+                bulkCopy.addColumnMapping((Integer) mapping.sourceColumn, (Integer) mapping.destinationColumn);
+            } else {
+                bulkCopy.addColumnMapping((Integer) mapping.sourceColumn, (String) mapping.destinationColumn);
+            }
+        } else {
+            if (mapping.destinationColumn instanceof Integer) {
+                bulkCopy.addColumnMapping((String) mapping.sourceColumn, (Integer) mapping.destinationColumn);
+            } else {
+                bulkCopy.addColumnMapping((String) mapping.sourceColumn, (String) mapping.destinationColumn);
+            }
+        }
+    }
+
+    /*
+     * Puts a chunk on the queue even if the thread is interrupted, as the connections wait for it.
+     */
+    private static void put(BlockingQueue<Chunk> queue, Chunk chunk) {
+        boolean isInterrupted = false;
+        for (;;) {
+            try {
+                queue.put(chunk);
+                break;
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Helper method to throw a SQLServerExeption with the invalidArgument message and given argument.
+     */
+    private static void throwInvalidArgument(String argument) throws SQLServerException {
+        MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+        Object[] msgArgs = {argument};
+        SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+    }
+
+    /**
+     * Loads the chunks a connection takes from the queue.
+     */
+    private static final class Loader implements Runnable {
+        final int index;
+        final SQLServerBulkCopy bulkCopy;
+        final PartitionRecord record;
+        volatile Failure failure;
+
+        Loader(int index, SQLServerBulkCopy bulkCopy, PartitionRecord record) {
+            this.index = index;
+            this.bulkCopy = bulkCopy;
+            this.record = record;
+        }
+
+        @Override
+        public void run() {
+            try {
+                bulkCopy.writeToServer(record);
+            } catch (SQLServerException e) {
+                failure = new Failure(record.sequence, index, e);
+                record.isAborted.set(true);
+            } catch (RuntimeException e) {
+                failure = new Failure(record.sequence, index, new SQLServerException(e.getMessage(), e));
+                record.isAborted.set(true);
+            } finally {
+                // Take the remaining chunks so that the source does not wait for this connection
+                record.drain();
+            }
+        }
+    }
+
+    /**
+     * The source rows, read on the calling thread.
+     */
+    private interface RowSource {
+        Set<Integer> getColumnOrdinals();
+
+        String getColumnName(int column);
+
+        int getColumnType(int column);
+
+        int getPrecision(int column);
+
+        int getScale(int column);
+
+        boolean isAutoIncrement(int column);
+
+        DateTimeFormatter getColumnDateTimeFormatter(int column);
+
+        boolean next() throws SQLServerException;
+
+        /*
+         * Returns the values of the current row in an array that is not reused for the next row.
+         */
+        Object[] getRowData() throws SQLServerException;
+    }
+
+    private static final class BulkRecordSource implements RowSource {
+        private final ISQLServerBulkRecord record;
+
+        BulkRecordSource(ISQLServerBulkRecord record) {
+            this.record = record;
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return record.getColumnOrdinals();
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return record.getColumnName(column);
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return record.getColumnType(column);
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return record.getPrecision(column);
+        }
+
+        @Override
+        public int getScale(int column) {
+            return record.getScale(column);
+        }
+
+        @Override
+        public boolean isAutoIncrement(int column) {
+            return record.isAutoIncrement(column);
+        }
+
+        @Override
+        public DateTimeFormatter getColumnDateTimeFormatter(int column) {
+            // As in SQLServerBulkCopy, only the CSV file record is known to implement this
+            return (record instanceof SQLServerBulkCSVFileRecord) ? record.getColumnDateTimeFormatter(column) : null;
+        }
+
+        @Override
+        public boolean next() throws SQLServerException {
+            return record.next();
+        }
+
+        @Override
+        public Object[] getRowData() throws SQLServerException {
+            return record.getRowData().clone();
+        }
+    }
+
+    /**
+     * Reads the rows of a ResultSet into values that SQLServerBulkCopy sends from an ISQLServerBulkRecord, which are
+     * the values SQLServerBulkCopy reads from a ResultSet, except for temporal values, which are sent as strings.
+     */
+    private static final class ResultSetSource implements RowSource {
+        private final ResultSet resultSet;
+        private final Set<Integer> columnOrdinals = new LinkedHashSet<>();
+        private final String[] names;
+        private final int[] types;
+        private final int[] precisions;
+        private final int[] scales;
+        private final boolean[] isAutoIncrement;
+
+        ResultSetSource(ResultSet resultSet) throws SQLServerException {
+            this.resultSet = resultSet;
+            try {
+                if (resultSet.isClosed()) {
+                    SQLServerException.makeFromDriverError(null, null,
+                            SQLServerException.getErrString("R_resultsetClosed"), null, false);
+                }
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                names = new String[columnCount + 1];
+                types = new int[columnCount + 1];
+                precisions = new int[columnCount + 1];
+                scales = new int[columnCount + 1];
+                isAutoIncrement = new boolean[columnCount + 1];
+                for (int i = 1; i <= columnCount; i++) {
+                    columnOrdinals.add(i);
+                    names[i] = metaData.getColumnName(i);
+                    types[i] = metaData.getColumnType(i);
+                    precisions[i] = metaData.getPrecision(i);
+                    scales[i] = metaData.getScale(i);
+                    isAutoIncrement[i] = metaData.isAutoIncrement(i);
+                    switch (types[i]) {
+                        case microsoft.sql.Types.DATETIME:
+                        case microsoft.sql.Types.SMALLDATETIME:
+                            types[i] = java.sql.Types.TIMESTAMP;
+                            precisions[i] = 0;
+                            break;
+                        case java.sql.Types.TIMESTAMP:
+                        case java.sql.Types.DATE:
+                        case java.sql.Types.TIME:
+                        case microsoft.sql.Types.DATETIMEOFFSET:
+                            // Sent as varchar with the length of the destination column
+                            precisions[i] = 0;
+                            break;
+                        case microsoft.sql.Types.SQL_VARIANT:
+                            MessageFormat form = new MessageFormat(
+                                    SQLServerException.getErrString("R_BulkTypeNotSupported"));
+                            Object[] msgArgs = {JDBCType.of(types[i]).toString().toLowerCase(Locale.ENGLISH)};
+                            SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, true);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            } catch (SQLServerException e) {
+                throw e;
+            } catch (SQLException e) {
+                throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveColMeta"), e);
+            }
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return columnOrdinals;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return names[column];
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return types[column];
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return precisions[column];
+        }
+
+        @Override
+        public int getScale(int column) {
+            return scales[column];
+        }
+
+        @Override
+        public boolean isAutoIncrement(int column) {
+            return isAutoIncrement[column];
+        }
+
+        @Override
+        public DateTimeFormatter getColumnDateTimeFormatter(int column) {
+            return null;
+        }
+
+        @Override
+        public boolean next() throws SQLServerException {
+            try {
+                return resultSet.next();
+            } catch (SQLException e) {
+                throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveSourceData"), e);
+            }
+        }
+
+        @Override
+        public Object[] getRowData() throws SQLServerException {
+            Object[] row = new Object[types.length - 1];
+            try {
+                for (int i = 1; i < types.length; i++) {
+                    row[i - 1] = getValue(i);
+                }
+            } catch (SQLException e) {
+                throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveSourceData"), e);
+            }
+            return row;
+        }
+
+        private Object getValue(int column) throws SQLException {
+            switch (types[column]) {
+                case microsoft.sql.Types.MONEY:
+                case microsoft.sql.Types.SMALLMONEY:
+                case java.sql.Types.DECIMAL:
+                case java.sql.Types.NUMERIC:
+                    return resultSet.getBigDecimal(column);
+
+                case microsoft.sql.Types.GUID:
+                case java.sql.Types.LONGVARCHAR:
+                case java.sql.Types.CHAR:
+                case java.sql.Types.VARCHAR:
+                    return resultSet.getString(column);
+
+                case java.sql.Types.LONGVARBINARY:
+                case java.sql.Types.BINARY:
+                case java.sql.Types.VARBINARY:
+                    return resultSet.getBytes(column);
+
+                case java.sql.Types.TIMESTAMP: {
+                    Timestamp value = resultSet.getTimestamp(column);
+                    return (null == value) ? null : value.toString();
+                }
+
+                case java.sql.Types.TIME: {
+                    // Read as a timestamp to keep the fractional seconds, and send the time part
+                    Timestamp value = resultSet.getTimestamp(column);
+                    if (null == value) {
+                        return null;
+                    }
+                    String timestamp = value.toString();
+                    return timestamp.substring(timestamp.indexOf(' ') + 1);
+                }
+
+                case java.sql.Types.DATE: {
+                    java.sql.Date value = resultSet.getDate(column);
+                    return (null == value) ? null : value.toString();
+                }
+
+                case microsoft.sql.Types.DATETIMEOFFSET: {
+                    microsoft.sql.DateTimeOffset value = ((SQLServerResultSet) resultSet).getDateTimeOffset(column);
+                    return (null == value) ? null : value.toString();
+                }
+
+                default:
+                    // Numbers are read with getObject as the get methods return 0 for null, and national character
+                    // strings as in SQLServerBulkCopy
+                    return resultSet.getObject(column);
+            }
+        }
+    }
+
+    /**
+     * The rows a connection takes from the queue, with the metadata of the source.
+     */
+    static final class PartitionRecord extends SQLServerBulkCommon {
+        /**
+         * Update serialVersionUID when making changes to this file
+         */
+        private static final long serialVersionUID = -3190574806541226744L;
+
+        private final transient BlockingQueue<Chunk> queue;
+        private final transient AtomicBoolean isAborted;
+        private final Set<Integer> columnOrdinals = new LinkedHashSet<>();
+        private final Set<Integer> autoIncrementColumns = new HashSet<>();
+        private transient Chunk chunk;
+        private int position;
+
+        /*
+         * The sequence number of the chunk being loaded, or -1 before the first chunk
+         */
+        long sequence = -1;
+        long rowCount = 0;
+        private boolean isEndOfData = false;
+
+        /*
+         * Copies the metadata of the source, which is not read again as the source is read on another thread.
+         */
+        private PartitionRecord(RowSource source, BlockingQueue<Chunk> queue, AtomicBoolean isAborted) {
+            this.queue = queue;
+            this.isAborted = isAborted;
+            columnMetadata = new HashMap<>();
+            for (Integer column : source.getColumnOrdinals()) {
+                columnOrdinals.add(column);
+                columnMetadata.put(column,
+                        new ColumnMetadata(source.getColumnName(column), source.getColumnType(column),
+                                source.getPrecision(column), source.getScale(column),
+                                source.getColumnDateTimeFormatter(column)));
+                if (source.isAutoIncrement(column)) {
+                    autoIncrementColumns.add(column);
+                }
+            }
+        }
+
+        @Override
+        public DateTimeFormatter getColumnDateTimeFormatter(int column) {
+            return columnMetadata.get(column).dateTimeFormatter;
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return columnOrdinals;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnMetadata.get(column).columnName;
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return columnMetadata.get(column).columnType;
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return columnMetadata.get(column).precision;
+        }
+
+        @Override
+        public int getScale(int column) {
+            return columnMetadata.get(column).scale;
+        }
+
+        @Override
+        public boolean isAutoIncrement(int column) {
+            return autoIncrementColumns.contains(column);
+        }
+
+        @Override
+        public boolean next() throws SQLServerException {
+            if (isEndOfData) {
+                return false;
+            }
+            if (null != chunk && ++position < chunk.rows.size()) {
+                rowCount++;
+                return true;
+            }
+            // Stop at the end of a chunk when another connection failed
+            if (isAborted.get()) {
+                return false;
+            }
+            chunk = take();
+            if (END_OF_DATA == chunk) {
+                isEndOfData = true;
+                return false;
+            }
+            sequence = chunk.sequence;
+            position = 0;
+            rowCount++;
+            return true;
+        }
+
+        @Override
+        public Object[] getRowData() throws SQLServerException {
+            return chunk.rows.get(position);
+        }
+
+        private Chunk take() throws SQLServerException {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLServerException(e.getMessage(), e);
+            }
+        }
+
+        void drain() {
+            boolean isInterrupted = Thread.interrupted();
+            while (!isEndOfData) {
+                try {
+                    if (END_OF_DATA == queue.take()) {
+                        isEndOfData = true;
+                    }
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+            chunk = null;
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -32,7 +32,7 @@ public class SQLServerPooledConnection implements PooledConnection, Serializable
     private final Vector<ConnectionEventListener> listeners;
     private SQLServerDataSource factoryDataSource;
     private SQLServerConnection physicalConnection;
-    private SQLServerConnectionPoolProxy lastProxyConnection;
+    private volatile SQLServerConnectionPoolProxy lastProxyConnection;
     private String factoryUser, factoryPassword;
     private java.util.logging.Logger pcLogger;
     private final String traceID;
@@ -141,6 +141,15 @@ public class SQLServerPooledConnection implements PooledConnection, Serializable
         }
     }
 
+    /**
+     * Returns whether the last connection handle issued from this pooled connection has been closed, which returns the
+     * physical connection to the pool.
+     */
+    boolean isReturnedToPool() throws SQLServerException {
+        SQLServerConnectionPoolProxy proxy = lastProxyConnection;
+        return null == proxy || proxy.isClosed();
+    }
+
     /**
      * Notifies any interested parties (e.g. pooling managers) of a ConnectionEvent activity on the connection. Calling
      * notifyEvent with null event will place the connection back in the pool. Calling notifyEvent with a non-null event
@@ -238,6 +247,11 @@ public class SQLServerPooledConnection implements PooledConnection, Serializable
         return physicalConnection;
     }
 
+    // Returns true if the physical connection can be handed out again without a round trip to the server.
+    synchronized boolean isPhysicalConnectionUsable() {
+        return null != physicalConnection && !physicalConnection.isSessionUnAvailable();
+    }
+
     // Returns unique id for each PooledConnection instance.
     private static int nextPooledConnectionID() {
         return basePooledConnectionID.incrementAndGet();
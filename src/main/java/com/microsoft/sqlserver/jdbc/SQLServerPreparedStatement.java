@@ -23,11 +23,16 @@ import java.sql.SQLXML;
 import java.sql.Statement;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
+import java.util.regex.Pattern;
 
 import com.microsoft.sqlserver.jdbc.SQLServerConnection.CityHash128Key;
 import com.microsoft.sqlserver.jdbc.SQLServerConnection.PreparedStatementHandle;
@@ -119,6 +124,10 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
      */
     private boolean useBulkCopyForBatchInsert;
 
+    /** Numeric and binary constants allowed in the VALUES list of a batch insert that uses bulk copy */
+    private static final Pattern NUMERIC_CONSTANT = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+    private static final Pattern BINARY_CONSTANT = Pattern.compile("0[xX][0-9a-fA-F]*");
+
     /**
      * Returns the prepared statement's useBulkCopyForBatchInsert value.
      * 
@@ -184,6 +193,9 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
      */
     private boolean encryptionMetadataIsRetrieved = false;
 
+    /** The key of the parameter encryption metadata in the connection's cache, if it was taken from there */
+    private CityHash128Key cachedEncryptionMetadataKey = null;
+
     private String localUserSQL;
 
     // Internal function used in tracing
@@ -446,6 +458,45 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
         return resultSet;
     }
 
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync() throws SQLServerException {
+        return executeQueryAsync(getDefaultAsyncExecutor());
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "executeQueryAsync");
+        CompletableFuture<ResultSet> future = executeAsync(this::executeQuery, executor);
+        loggerExternal.exiting(getClassNameLogging(), "executeQueryAsync", future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Integer> executeUpdateAsync() throws SQLServerException {
+        return executeUpdateAsync(getDefaultAsyncExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Integer> executeUpdateAsync(Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "executeUpdateAsync");
+        CompletableFuture<Integer> future = executeAsync(this::executeUpdate, executor);
+        loggerExternal.exiting(getClassNameLogging(), "executeUpdateAsync", future);
+        return future;
+    }
+
+    @Override
+    public SQLServerRowPublisher publishQuery() throws SQLServerException {
+        return publishQuery(getDefaultAsyncExecutor());
+    }
+
+    @Override
+    public SQLServerRowPublisher publishQuery(Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "publishQuery");
+        SQLServerRowPublisher publisher = createRowPublisher(this::executeQuery, executor);
+        loggerExternal.exiting(getClassNameLogging(), "publishQuery", publisher);
+        return publisher;
+    }
+
     /**
      * Executes a query without cursoring for metadata.
      *
@@ -593,7 +644,10 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
             } catch (SQLException e) {
                 if (retryBasedOnFailedReuseOfCachedHandle(e, attempt, needsPrepare, false))
                     continue;
-                else
+                else if (retryBasedOnStaleEncryptionMetadata(e, attempt)) {
+                    hasNewTypeDefinitions = true;
+                    continue;
+                } else
                     throw e;
             }
             break;
@@ -621,8 +675,33 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
         // 8179: Could not find prepared statement with handle %d.
         if (needsPrepare && !isBatch)
             return false;
-        return 1 == attempt && (586 == e.getErrorCode() || 8179 == e.getErrorCode())
+        boolean retry = 1 == attempt && (586 == e.getErrorCode() || 8179 == e.getErrorCode())
                 && connection.isStatementPoolingEnabled();
+        if (retry)
+            connection.getStatementCacheCounters().increment(StatementCacheCounters.Counter.REPREPARE);
+        return retry;
+    }
+
+    /**
+     * Returns if the execution should be retried because the server rejected parameter encryption metadata that was
+     * taken from the connection's cache. The cache entry is removed, and the metadata is retrieved from the server
+     * again before returning true.
+     */
+    private boolean retryBasedOnStaleEncryptionMetadata(SQLException e, int attempt) throws SQLServerException {
+        // 33514: The parameter encryption metadata does not match the encryption of the column, for example because
+        // the column was re-encrypted with another key since the metadata was cached.
+        if (1 != attempt || null == cachedEncryptionMetadataKey || 33514 != e.getErrorCode()
+                || connection.isSessionUnAvailable())
+            return false;
+
+        connection.removeCachedParameterEncryptionMetadata(cachedEncryptionMetadataKey);
+        for (Parameter param : inOutParam)
+            param.cryptoMeta = null;
+        buildPreparedStrings(inOutParam, false);
+        getParameterEncryptionMetadata(inOutParam);
+        setMaxRowsAndMaxFieldSize();
+        buildPreparedStrings(inOutParam, true);
+        return true;
     }
 
     /**
@@ -837,6 +916,62 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
     }
 
     private void getParameterEncryptionMetadata(Parameter[] params) throws SQLServerException {
+        assert connection != null : "Connection should not be null";
+
+        CityHash128Key key = new CityHash128Key(preparedSQL, preparedTypeDefinitions);
+        cachedEncryptionMetadataKey = null;
+        ParameterEncryptionMetadata metadata = connection.getCachedParameterEncryptionMetadata(key);
+        if (null != metadata) {
+            try {
+                setParameterEncryptionMetadata(params, metadata);
+                cachedEncryptionMetadataKey = key;
+            } catch (SQLServerException e) {
+                // The column encryption keys may have changed since the metadata was cached, so describe the
+                // parameters again.
+                if (getStatementLogger().isLoggable(java.util.logging.Level.FINE)) {
+                    getStatementLogger().fine("Cached parameter encryption metadata is discarded: " + e.getMessage());
+                }
+                connection.removeCachedParameterEncryptionMetadata(key);
+                metadata = null;
+            }
+        }
+
+        if (null == metadata) {
+            metadata = describeParameterEncryption(params.length);
+            setParameterEncryptionMetadata(params, metadata);
+            connection.registerCachedParameterEncryptionMetadata(key, metadata);
+        }
+
+        for (int i = 0; i < params.length; i++) {
+            if (null == params[i].cryptoMeta && params[i].getForceEncryption()) {
+                MessageFormat form = new MessageFormat(
+                        SQLServerException.getErrString("R_ForceEncryptionTrue_HonorAETrue_UnencryptedColumn"));
+                Object[] msgArgs = {userSQL, i + 1};
+                SQLServerException.makeFromDriverError(connection, this, form.format(msgArgs), null, true);
+            }
+        }
+    }
+
+    /**
+     * Sets the crypto metadata of the parameters from the parameter encryption metadata, and decrypts their column
+     * encryption keys.
+     */
+    private void setParameterEncryptionMetadata(Parameter[] params,
+            ParameterEncryptionMetadata metadata) throws SQLServerException {
+        for (int i = 0; i < params.length; i++) {
+            params[i].cryptoMeta = metadata.newCryptoMetadata(i);
+            if (null != params[i].cryptoMeta) {
+                // Decrypt the symmetric key.(This will also validate and throw if needed).
+                SQLServerSecurityUtility.decryptSymmetricKey(params[i].cryptoMeta, connection);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the encryption metadata of the parameters of the statement from the server with
+     * sp_describe_parameter_encryption.
+     */
+    private ParameterEncryptionMetadata describeParameterEncryption(int parameterCount) throws SQLServerException {
         /*
          * The parameter list is created from the data types provided by the user for the parameters. the data types do
          * not need to be the same as in the table definition. Also, when string is sent to an int field, the parameter
@@ -844,8 +979,7 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
          */
         SQLServerResultSet rs = null;
         SQLServerCallableStatement stmt = null;
-
-        assert connection != null : "Connection should not be null";
+        ParameterEncryptionMetadata metadata = new ParameterEncryptionMetadata(parameterCount);
 
         try {
             if (getStatementLogger().isLoggable(java.util.logging.Level.FINE)) {
@@ -870,7 +1004,7 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
         if (null == rs) {
             // No results. Meaning no parameter.
             // Should never happen.
-            return;
+            return metadata;
         }
 
         Map<Integer, CekTableEntry> cekList = new HashMap<>();
@@ -932,19 +1066,10 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
                 SQLServerEncryptionType encType = SQLServerEncryptionType
                         .of((byte) rs.getInt(DescribeParameterEncryptionResultSet2.ColumnEncrytionType.value()));
                 if (SQLServerEncryptionType.PlainText != encType) {
-                    params[paramIndex].cryptoMeta = new CryptoMetadata(cekEntry, (short) cekOrdinal,
+                    metadata.set(paramIndex, new CryptoMetadata(cekEntry, (short) cekOrdinal,
                             (byte) rs.getInt(DescribeParameterEncryptionResultSet2.ColumnEncryptionAlgorithm.value()),
                             null, encType.value,
-                            (byte) rs.getInt(DescribeParameterEncryptionResultSet2.NormalizationRuleVersion.value()));
-                    // Decrypt the symmetric key.(This will also validate and throw if needed).
-                    SQLServerSecurityUtility.decryptSymmetricKey(params[paramIndex].cryptoMeta, connection);
-                } else {
-                    if (params[paramIndex].getForceEncryption()) {
-                        MessageFormat form = new MessageFormat(
-                                SQLServerException.getErrString("R_ForceEncryptionTrue_HonorAETrue_UnencryptedColumn"));
-                        Object[] msgArgs = {userSQL, paramIndex + 1};
-                        SQLServerException.makeFromDriverError(connection, this, form.format(msgArgs), null, true);
-                    }
+                            (byte) rs.getInt(DescribeParameterEncryptionResultSet2.NormalizationRuleVersion.value())));
                 }
             }
             if (getStatementLogger().isLoggable(java.util.logging.Level.FINE)) {
@@ -959,7 +1084,7 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
             }
         }
 
-        if (paramCount != params.length) {
+        if (paramCount != parameterCount) {
             // Encryption metadata wasn't sent by the server.
             // We expect the metadata to be sent for all the parameters in the original
             // sp_describe_parameter_encryption.
@@ -976,6 +1101,7 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
             stmt.close();
         }
         connection.resetCurrentCommand();
+        return metadata;
     }
 
     /**
@@ -1948,102 +2074,13 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
 
         localUserSQL = userSQL;
 
-        try {
-            if (this.useBulkCopyForBatchInsert && connection.isAzureDW() && isInsert(localUserSQL)) {
-                if (null == batchParamValues) {
-                    updateCounts = new int[0];
-                    loggerExternal.exiting(getClassNameLogging(), "executeBatch", updateCounts);
-                    return updateCounts;
-                }
-
-                // From the JDBC spec, section 9.1.4 - Making Batch Updates:
-                // The CallableStatement.executeBatch method (inherited from PreparedStatement) will
-                // throw a BatchUpdateException if the stored procedure returns anything other than an
-                // update count or takes OUT or INOUT parameters.
-                //
-                // Non-update count results (e.g. ResultSets) are treated as individual batch errors
-                // when they are encountered in the response.
-                //
-                // OUT and INOUT parameter checking is done here, before executing the batch. If any
-                // OUT or INOUT are present, the entire batch fails.
-                for (Parameter[] paramValues : batchParamValues) {
-                    for (Parameter paramValue : paramValues) {
-                        if (paramValue.isOutput()) {
-                            throw new BatchUpdateException(
-                                    SQLServerException.getErrString("R_outParamsNotPermittedinBatch"), null, 0, null);
-                        }
-                    }
-                }
-
-                String tableName = parseUserSQLForTableNameDW(false, false, false, false);
-                ArrayList<String> columnList = parseUserSQLForColumnListDW();
-                ArrayList<String> valueList = parseUserSQLForValueListDW(false);
-
-                checkAdditionalQuery();
-
-                try (SQLServerStatement stmt = (SQLServerStatement) connection.createStatement(
-                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, connection.getHoldability(),
-                        stmtColumnEncriptionSetting);
-                        SQLServerResultSet rs = stmt
-                                .executeQueryInternal("sp_executesql N'SET FMTONLY ON SELECT * FROM "
-                                        + Util.escapeSingleQuotes(tableName) + " '")) {
-                    if (null != columnList && columnList.size() > 0) {
-                        if (columnList.size() != valueList.size()) {
-                            throw new IllegalArgumentException(
-                                    "Number of provided columns does not match the table definition.");
-                        }
-                    } else {
-                        if (rs.getColumnCount() != valueList.size()) {
-                            throw new IllegalArgumentException(
-                                    "Number of provided columns does not match the table definition.");
-                        }
-                    }
-
-                    SQLServerBulkBatchInsertRecord batchRecord = new SQLServerBulkBatchInsertRecord(batchParamValues,
-                            columnList, valueList, null);
-
-                    for (int i = 1; i <= rs.getColumnCount(); i++) {
-                        Column c = rs.getColumn(i);
-                        CryptoMetadata cryptoMetadata = c.getCryptoMetadata();
-                        int jdbctype;
-                        TypeInfo ti = c.getTypeInfo();
-                        checkValidColumns(ti);
-                        if (null != cryptoMetadata) {
-                            jdbctype = cryptoMetadata.getBaseTypeInfo().getSSType().getJDBCType().getIntValue();
-                        } else {
-                            jdbctype = ti.getSSType().getJDBCType().getIntValue();
-                        }
-                        batchRecord.addColumnMetadata(i, c.getColumnName(), jdbctype, ti.getPrecision(), ti.getScale());
-                    }
-
-                    SQLServerBulkCopy bcOperation = new SQLServerBulkCopy(connection);
-                    SQLServerBulkCopyOptions option = new SQLServerBulkCopyOptions();
-                    option.setBulkCopyTimeout(queryTimeout);
-                    bcOperation.setBulkCopyOptions(option);
-                    bcOperation.setDestinationTableName(tableName);
-                    bcOperation.setStmtColumnEncriptionSetting(this.getStmtColumnEncriptionSetting());
-                    bcOperation.setDestinationTableMetadata(rs);
-                    bcOperation.writeToServer((ISQLServerBulkRecord) batchRecord);
-                    bcOperation.close();
-                    updateCounts = new int[batchParamValues.size()];
-                    for (int i = 0; i < batchParamValues.size(); ++i) {
-                        updateCounts[i] = 1;
-                    }
-
-                    batchParamValues = null;
-                    loggerExternal.exiting(getClassNameLogging(), "executeBatch", updateCounts);
-                    return updateCounts;
-                }
-            }
-        } catch (SQLException e) {
-            // throw a BatchUpdateException with the given error message, and return null for the updateCounts.
-            throw new BatchUpdateException(e.getMessage(), null, 0, null);
-        } catch (IllegalArgumentException e) {
-            // If we fail with IllegalArgumentException, fall back to the original batch insert logic.
-            if (getStatementLogger().isLoggable(java.util.logging.Level.FINE)) {
-                getStatementLogger().fine("Parsing user's Batch Insert SQL Query failed: " + e.getMessage());
-                getStatementLogger().fine("Falling back to the original implementation for Batch Insert.");
-            }
+        long[] bulkCopyUpdateCounts = executeBatchWithBulkCopy();
+        if (null != bulkCopyUpdateCounts) {
+            updateCounts = new int[bulkCopyUpdateCounts.length];
+            for (int i = 0; i < bulkCopyUpdateCounts.length; ++i)
+                updateCounts[i] = (int) bulkCopyUpdateCounts[i];
+            loggerExternal.exiting(getClassNameLogging(), "executeBatch", updateCounts);
+            return updateCounts;
         }
 
         if (null == batchParamValues)
@@ -2105,102 +2142,11 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
 
         localUserSQL = userSQL;
 
-        try {
-            if (this.useBulkCopyForBatchInsert && connection.isAzureDW() && isInsert(localUserSQL)) {
-                if (null == batchParamValues) {
-                    updateCounts = new long[0];
-                    loggerExternal.exiting(getClassNameLogging(), "executeLargeBatch", updateCounts);
-                    return updateCounts;
-                }
-
-                // From the JDBC spec, section 9.1.4 - Making Batch Updates:
-                // The CallableStatement.executeBatch method (inherited from PreparedStatement) will
-                // throw a BatchUpdateException if the stored procedure returns anything other than an
-                // update count or takes OUT or INOUT parameters.
-                //
-                // Non-update count results (e.g. ResultSets) are treated as individual batch errors
-                // when they are encountered in the response.
-                //
-                // OUT and INOUT parameter checking is done here, before executing the batch. If any
-                // OUT or INOUT are present, the entire batch fails.
-                for (Parameter[] paramValues : batchParamValues) {
-                    for (Parameter paramValue : paramValues) {
-                        if (paramValue.isOutput()) {
-                            throw new BatchUpdateException(
-                                    SQLServerException.getErrString("R_outParamsNotPermittedinBatch"), null, 0, null);
-                        }
-                    }
-                }
-
-                String tableName = parseUserSQLForTableNameDW(false, false, false, false);
-                ArrayList<String> columnList = parseUserSQLForColumnListDW();
-                ArrayList<String> valueList = parseUserSQLForValueListDW(false);
-
-                checkAdditionalQuery();
-
-                try (SQLServerStatement stmt = (SQLServerStatement) connection.createStatement(
-                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, connection.getHoldability(),
-                        stmtColumnEncriptionSetting);
-                        SQLServerResultSet rs = stmt
-                                .executeQueryInternal("sp_executesql N'SET FMTONLY ON SELECT * FROM "
-                                        + Util.escapeSingleQuotes(tableName) + " '")) {
-                    if (null != columnList && columnList.size() > 0) {
-                        if (columnList.size() != valueList.size()) {
-                            throw new IllegalArgumentException(
-                                    "Number of provided columns does not match the table definition.");
-                        }
-                    } else {
-                        if (rs.getColumnCount() != valueList.size()) {
-                            throw new IllegalArgumentException(
-                                    "Number of provided columns does not match the table definition.");
-                        }
-                    }
-
-                    SQLServerBulkBatchInsertRecord batchRecord = new SQLServerBulkBatchInsertRecord(batchParamValues,
-                            columnList, valueList, null);
-
-                    for (int i = 1; i <= rs.getColumnCount(); i++) {
-                        Column c = rs.getColumn(i);
-                        CryptoMetadata cryptoMetadata = c.getCryptoMetadata();
-                        int jdbctype;
-                        TypeInfo ti = c.getTypeInfo();
-                        checkValidColumns(ti);
-                        if (null != cryptoMetadata) {
-                            jdbctype = cryptoMetadata.getBaseTypeInfo().getSSType().getJDBCType().getIntValue();
-                        } else {
-                            jdbctype = ti.getSSType().getJDBCType().getIntValue();
-                        }
-                        batchRecord.addColumnMetadata(i, c.getColumnName(), jdbctype, ti.getPrecision(), ti.getScale());
-                    }
-
-                    SQLServerBulkCopy bcOperation = new SQLServerBulkCopy(connection);
-                    SQLServerBulkCopyOptions option = new SQLServerBulkCopyOptions();
-                    option.setBulkCopyTimeout(queryTimeout);
-                    bcOperation.setBulkCopyOptions(option);
-                    bcOperation.setDestinationTableName(tableName);
-                    bcOperation.setStmtColumnEncriptionSetting(this.getStmtColumnEncriptionSetting());
-                    bcOperation.setDestinationTableMetadata(rs);
-                    bcOperation.writeToServer((ISQLServerBulkRecord) batchRecord);
-                    bcOperation.close();
-                    updateCounts = new long[batchParamValues.size()];
-                    for (int i = 0; i < batchParamValues.size(); ++i) {
-                        updateCounts[i] = 1;
-                    }
-
-                    batchParamValues = null;
-                    loggerExternal.exiting(getClassNameLogging(), "executeLargeBatch", updateCounts);
-                    return updateCounts;
-                }
-            }
-        } catch (SQLException e) {
-            // throw a BatchUpdateException with the given error message, and return null for the updateCounts.
-            throw new BatchUpdateException(e.getMessage(), null, 0, null);
-        } catch (IllegalArgumentException e) {
-            // If we fail with IllegalArgumentException, fall back to the original batch insert logic.
-            if (getStatementLogger().isLoggable(java.util.logging.Level.FINE)) {
-                getStatementLogger().fine("Parsing user's Batch Insert SQL Query failed: " + e.getMessage());
-                getStatementLogger().fine("Falling back to the original implementation for Batch Insert.");
-            }
+        long[] bulkCopyUpdateCounts = executeBatchWithBulkCopy();
+        if (null != bulkCopyUpdateCounts) {
+            updateCounts = bulkCopyUpdateCounts;
+            loggerExternal.exiting(getClassNameLogging(), "executeLargeBatch", updateCounts);
+            return updateCounts;
         }
 
         if (null == batchParamValues)
@@ -2246,6 +2192,211 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
         return updateCounts;
     }
 
+    /**
+     * Executes the batch with the bulk copy API when useBulkCopyForBatchInsert is set and the statement is a single
+     * INSERT ... VALUES statement whose values are parameters or constants. Returns null when the batch must be
+     * executed as separate INSERT statements instead, which is the case when the statement cannot be parsed or when
+     * bulk copy would not have the semantics of the INSERT statements.
+     * 
+     * @return the update counts of the batch, or null
+     * @throws BatchUpdateException
+     *         if the rows could not be copied. They are copied in a single bulk load, so none of them were inserted.
+     */
+    private long[] executeBatchWithBulkCopy() throws SQLServerException, BatchUpdateException {
+        if (!this.useBulkCopyForBatchInsert || null == batchParamValues || !isInsert(localUserSQL)) {
+            return null;
+        }
+
+        // From the JDBC spec, section 9.1.4 - Making Batch Updates:
+        // The CallableStatement.executeBatch method (inherited from PreparedStatement) will
+        // throw a BatchUpdateException if the stored procedure returns anything other than an
+        // update count or takes OUT or INOUT parameters.
+        //
+        // Non-update count results (e.g. ResultSets) are treated as individual batch errors
+        // when they are encountered in the response.
+        //
+        // OUT and INOUT parameter checking is done here, before executing the batch. If any
+        // OUT or INOUT are present, the entire batch fails.
+        for (Parameter[] paramValues : batchParamValues) {
+            for (Parameter paramValue : paramValues) {
+                if (paramValue.isOutput()) {
+                    throw new BatchUpdateException(SQLServerException.getErrString("R_outParamsNotPermittedinBatch"),
+                            null, 0, null);
+                }
+            }
+        }
+
+        try {
+            boolean isAzureDW = connection.isAzureDW();
+            String tableName = parseUserSQLForTableNameDW(false, false, false, false);
+            ArrayList<String> columnList = parseUserSQLForColumnListDW();
+            ArrayList<String> valueList = parseUserSQLForValueListDW(false);
+
+            checkAdditionalQuery();
+
+            // Bulk copy would fire the triggers once for all the rows rather than once per INSERT statement
+            if (!isAzureDW && hasInsertTriggers(tableName)) {
+                throw new IllegalArgumentException("The table has INSERT triggers.");
+            }
+
+            try (SQLServerStatement stmt = (SQLServerStatement) connection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY, connection.getHoldability(), stmtColumnEncriptionSetting);
+                    SQLServerResultSet rs = stmt.executeQueryInternal("sp_executesql N'SET FMTONLY ON SELECT * FROM "
+                            + Util.escapeSingleQuotes(tableName) + " '")) {
+                if (null != columnList && columnList.size() > 0) {
+                    if (columnList.size() != valueList.size()) {
+                        throw new IllegalArgumentException(
+                                "Number of provided columns does not match the table definition.");
+                    }
+                } else {
+                    if (rs.getColumnCount() != valueList.size()) {
+                        throw new IllegalArgumentException(
+                                "Number of provided columns does not match the table definition.");
+                    }
+                }
+
+                // The ordinals of the columns the statement inserts, and the values it inserts into them
+                Map<Integer, String> insertedValues = new HashMap<>();
+                for (int i = 1; i <= rs.getColumnCount(); i++) {
+                    if (null == columnList || columnList.isEmpty()) {
+                        insertedValues.put(i, valueList.get(i - 1));
+                    } else {
+                        int position = indexOfColumn(columnList, rs.getColumn(i).getColumnName());
+                        if (0 <= position) {
+                            insertedValues.put(i, valueList.get(position));
+                        }
+                    }
+                }
+                if (null != columnList && columnList.size() > 0 && insertedValues.size() != columnList.size()) {
+                    throw new IllegalArgumentException("The provided columns do not match the table definition.");
+                }
+
+                SQLServerBulkBatchInsertRecord batchRecord = new SQLServerBulkBatchInsertRecord(batchParamValues,
+                        columnList, valueList, null);
+
+                for (int i = 1; i <= rs.getColumnCount(); i++) {
+                    Column c = rs.getColumn(i);
+                    CryptoMetadata cryptoMetadata = c.getCryptoMetadata();
+                    int jdbctype;
+                    TypeInfo ti = c.getTypeInfo();
+                    if (isAzureDW || insertedValues.containsKey(i)) {
+                        checkValidColumns(ti);
+                    }
+                    if (insertedValues.containsKey(i)) {
+                        // Bulk copy would ignore the values of identity columns, which INSERT statements only accept
+                        // when IDENTITY_INSERT is on
+                        if (!isAzureDW && ti.isIdentity()) {
+                            throw new IllegalArgumentException("Values are inserted into an identity column.");
+                        }
+                        checkConstantConversion(insertedValues.get(i), ti.getSSType(), null != cryptoMetadata);
+                    }
+                    if (null != cryptoMetadata) {
+                        jdbctype = cryptoMetadata.getBaseTypeInfo().getSSType().getJDBCType().getIntValue();
+                    } else {
+                        jdbctype = ti.getSSType().getJDBCType().getIntValue();
+                    }
+                    batchRecord.addColumnMetadata(i, c.getColumnName(), jdbctype, ti.getPrecision(), ti.getScale());
+                }
+
+                SQLServerBulkCopy bcOperation = new SQLServerBulkCopy(connection);
+                SQLServerBulkCopyOptions option = new SQLServerBulkCopyOptions();
+                option.setBulkCopyTimeout(queryTimeout);
+                if (!isAzureDW) {
+                    // Like INSERT statements, check the constraints of the table, keep the NULL values that are
+                    // inserted, and give the columns that are not inserted their default values.
+                    option.setCheckConstraints(true);
+                    option.setKeepNulls(true);
+                    for (int column : insertedValues.keySet()) {
+                        bcOperation.addColumnMapping(column, column);
+                    }
+                }
+                bcOperation.setBulkCopyOptions(option);
+                bcOperation.setDestinationTableName(tableName);
+                bcOperation.setStmtColumnEncriptionSetting(this.getStmtColumnEncriptionSetting());
+                bcOperation.setDestinationTableMetadata(rs);
+                bcOperation.writeToServer((ISQLServerBulkRecord) batchRecord);
+                bcOperation.close();
+
+                // Each INSERT statement inserts one row
+                long[] updateCounts = new long[batchParamValues.size()];
+                Arrays.fill(updateCounts, 1);
+                batchParamValues = null;
+                return updateCounts;
+            }
+        } catch (IllegalArgumentException e) {
+            // If we fail with IllegalArgumentException, fall back to the original batch insert logic.
+            if (getStatementLogger().isLoggable(java.util.logging.Level.FINE)) {
+                getStatementLogger().fine("Parsing user's Batch Insert SQL Query failed: " + e.getMessage());
+                getStatementLogger().fine("Falling back to the original implementation for Batch Insert.");
+            }
+            return null;
+        } catch (SQLException e) {
+            SQLServerException lastError = (e instanceof SQLServerException) ? (SQLServerException) e
+                                                                             : new SQLServerException(e.getMessage(),
+                                                                                     e.getSQLState(),
+                                                                                     e.getErrorCode(), e);
+            long[] updateCounts = new long[batchParamValues.size()];
+            Arrays.fill(updateCounts, Statement.EXECUTE_FAILED);
+            batchParamValues = null;
+            DriverJDBCVersion.throwBatchUpdateException(lastError, updateCounts);
+            return null;
+        }
+    }
+
+    private static int indexOfColumn(List<String> columnList, String columnName) {
+        for (int i = 0; i < columnList.size(); i++) {
+            if (columnList.get(i).equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks that bulk copy converts a constant of the VALUES list the way the INSERT statement would. The bulk record
+     * converts strings for character columns, numbers for numeric columns and binary constants for binary columns the
+     * same way as the server. Other conversions differ, for example a string or a number is taken as hexadecimal digits
+     * for a binary column, so the batch is executed as INSERT statements instead.
+     */
+    private static void checkConstantConversion(String value, SSType ssType, boolean isEncrypted) {
+        if (value.equals("?") || value.equalsIgnoreCase("null")) {
+            return;
+        }
+
+        boolean isConverted;
+        if (isEncrypted) {
+            // The server does not convert constants for encrypted columns
+            isConverted = false;
+        } else if (value.startsWith("'")) {
+            isConverted = SSType.Category.CHARACTER == ssType.category
+                    || SSType.Category.LONG_CHARACTER == ssType.category
+                    || SSType.Category.NCHARACTER == ssType.category
+                    || SSType.Category.LONG_NCHARACTER == ssType.category;
+        } else if (BINARY_CONSTANT.matcher(value).matches()) {
+            isConverted = SSType.Category.BINARY == ssType.category || SSType.Category.LONG_BINARY == ssType.category;
+        } else {
+            isConverted = SSType.Category.NUMERIC == ssType.category;
+        }
+
+        if (!isConverted) {
+            throw new IllegalArgumentException(
+                    "The constant " + value + " is not converted for a " + ssType + " column as by INSERT.");
+        }
+    }
+
+    /**
+     * Returns whether the table has enabled triggers that fire on INSERT.
+     */
+    private boolean hasInsertTriggers(String tableName) throws SQLServerException, SQLTimeoutException {
+        try (SQLServerStatement stmt = (SQLServerStatement) connection.createStatement();
+                SQLServerResultSet rs = stmt.executeQueryInternal(
+                        "select count(*) from sys.triggers t join sys.trigger_events e on e.object_id = t.object_id"
+                                + " where t.parent_id = object_id('" + Util.escapeSingleQuotes(tableName)
+                                + "') and t.is_disabled = 0 and e.type_desc = 'INSERT'")) {
+            return rs.next() && 0 < rs.getInt(1);
+        }
+    }
+
     private void checkValidColumns(TypeInfo ti) throws SQLServerException {
         int jdbctype = ti.getSSType().getJDBCType().getIntValue();
         String typeName;
@@ -2555,64 +2706,73 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
     }
 
     private ArrayList<String> parseUserSQLForValueListDWHelper(ArrayList<String> listOfValues) {
-        // ignore all comments
-        while (checkAndRemoveCommentsAndSpace(false)) {}
-
-        // At this point, the next chunk of string is the value, without starting with ' (most likely a ?).
-        StringBuilder sb = new StringBuilder();
         while (localUserSQL.length() > 0) {
-            if (checkAndRemoveCommentsAndSpace(false)) {
-                continue;
-            }
-            if (localUserSQL.charAt(0) == ',' || localUserSQL.charAt(0) == ')') {
-                if (localUserSQL.charAt(0) == ',') {
-                    localUserSQL = localUserSQL.substring(1);
-                    if (!sb.toString().equals("?")) {
-                        // throw IllegalArgumentException and fallback to original logic for batch insert
-                        throw new IllegalArgumentException(
-                                "Only fully parameterized queries are allowed for using Bulk Copy API for batch insert at the moment.");
-                    }
-                    listOfValues.add(sb.toString());
-                    sb.setLength(0);
-                } else {
-                    localUserSQL = localUserSQL.substring(1);
-                    listOfValues.add(sb.toString());
-                    return listOfValues; // reached exit condition.
-                }
-            } else {
-                sb.append(localUserSQL.charAt(0));
+            // ignore all comments
+            while (checkAndRemoveCommentsAndSpace(false)) {}
+
+            listOfValues.add(parseUserSQLForValueDW());
+
+            while (checkAndRemoveCommentsAndSpace(false)) {}
+
+            if (checkSQLLength(1) && localUserSQL.charAt(0) == ',') {
                 localUserSQL = localUserSQL.substring(1);
-                localUserSQL = localUserSQL.trim(); // add entry.
+            } else if (checkSQLLength(1) && localUserSQL.charAt(0) == ')') {
+                localUserSQL = localUserSQL.substring(1);
+                return listOfValues; // reached exit condition.
+            } else {
+                throw new IllegalArgumentException("Invalid SQL Query.");
             }
         }
 
-        // Don't need this anymore since we removed support for non-parameterized query.
-        // if (localUserSQL.charAt(0) == '\'') {
-        // int tempint = localUserSQL.indexOf("\'", 1);
-        //
-        // // \' has not been found, this is wrong.
-        // if (tempint < 0) {
-        // throw new IllegalArgumentException("Invalid SQL Query.");
-        // }
-        //
-        // // keep checking if it's escaped
-        // while (tempint >= 0 && checkSQLLength(tempint + 2) && localUserSQL.charAt(tempint + 1) == '\'') {
-        // localUserSQL = localUserSQL.substring(0, tempint) + localUserSQL.substring(tempint + 1);
-        // tempint = localUserSQL.indexOf("\'", tempint + 1);
-        // }
-        //
-        // // we've found a ' that is actually trying to close the quote.
-        // // Include 's around the string as well, so we can distinguish '?' and ? later on.
-        // String tempstr = localUserSQL.substring(0, tempint + 1);
-        // localUserSQL = localUserSQL.substring(tempint + 1);
-        // listOfValues.add(tempstr);
-        // return parseUserSQLForValueListDWHelper(listOfValues);
-        // }
-
         // It shouldn't come here. If we did, something is wrong.
         throw new IllegalArgumentException("Invalid SQL Query.");
     }
 
+    /**
+     * Parses a value of the VALUES list, which is either a parameter marker or a constant: NULL, a number, a binary
+     * constant or a string. Strings are returned in single quotes, with the single quotes they contain unescaped.
+     */
+    private String parseUserSQLForValueDW() {
+        // N'...' and '...' strings. A single quote is escaped by ''.
+        int quote = (checkSQLLength(2) && (localUserSQL.charAt(0) == 'N' || localUserSQL.charAt(0) == 'n')) ? 1 : 0;
+        if (localUserSQL.charAt(quote) == '\'') {
+            StringBuilder sb = new StringBuilder("'");
+            int start = quote + 1;
+            int tempint = localUserSQL.indexOf('\'', start);
+            while (tempint >= 0 && tempint + 1 < localUserSQL.length() && localUserSQL.charAt(tempint + 1) == '\'') {
+                sb.append(localUserSQL, start, tempint + 1);
+                start = tempint + 2;
+                tempint = localUserSQL.indexOf('\'', start);
+            }
+
+            // ' has not been found, this is wrong.
+            if (tempint < 0) {
+                throw new IllegalArgumentException("Invalid SQL Query.");
+            }
+
+            sb.append(localUserSQL, start, tempint).append('\'');
+            localUserSQL = localUserSQL.substring(tempint + 1);
+            return sb.toString();
+        }
+
+        // Other values end with whitespace, a comment, or the , or ) that follows them.
+        int end = 0;
+        while (end < localUserSQL.length() && !Character.isWhitespace(localUserSQL.charAt(end))
+                && localUserSQL.charAt(end) != ',' && localUserSQL.charAt(end) != ')'
+                && !localUserSQL.startsWith("/*", end) && !localUserSQL.startsWith("--", end)) {
+            end++;
+        }
+        String value = localUserSQL.substring(0, end);
+        if (!value.equals("?") && !value.equalsIgnoreCase("null") && !NUMERIC_CONSTANT.matcher(value).matches()
+                && !BINARY_CONSTANT.matcher(value).matches()) {
+            // throw IllegalArgumentException and fallback to original logic for batch insert
+            throw new IllegalArgumentException(
+                    "Only parameters and constants are allowed in the VALUES list for using Bulk Copy API for batch insert.");
+        }
+        localUserSQL = localUserSQL.substring(end);
+        return value;
+    }
+
     private boolean checkAndRemoveCommentsAndSpace(boolean checkForSemicolon) {
         localUserSQL = localUserSQL.trim();
 
@@ -2821,6 +2981,11 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
                                     break;
                                 }
 
+                                // Do not let later executions re-use parameter encryption metadata that the
+                                // server rejected.
+                                if (33514 == e.getErrorCode() && null != cachedEncryptionMetadataKey)
+                                    connection.removeCachedParameterEncryptionMetadata(cachedEncryptionMetadataKey);
+
                                 // Otherwise, the connection is OK and the transaction is still intact,
                                 // so just record the failure for the particular batch item.
                                 updateCount = Statement.EXECUTE_FAILED;
@@ -0,0 +1,81 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+/**
+ * Identifies a prepared statement handle that can be created ahead of time with
+ * {@link ISQLServerConnection#prepareStatementHandles(java.util.List)}.
+ * <p>
+ * A cached handle is only reused by a prepared statement with the same SQL text and the same parameter definitions.
+ * The parameter definitions are the ones the driver derives from the types of the parameter values, for example
+ * <code>@P0 int,@P1 nvarchar(4000)</code>. The simplest way to obtain them is
+ * {@link ISQLServerConnection#getCachedPreparedStatementDefinitions()} on a connection that has already executed the
+ * statements.
+ */
+public final class SQLServerPreparedStatementDefinition {
+    private final String sql;
+    private final String parameterDefinitions;
+    private final boolean isServerSyntax;
+
+    /**
+     * Creates a definition for a statement without parameters.
+     *
+     * @param sql
+     *        the SQL text, as passed to {@link java.sql.Connection#prepareStatement(String)}
+     */
+    public SQLServerPreparedStatementDefinition(String sql) {
+        this(sql, "");
+    }
+
+    /**
+     * Creates a definition for a statement with parameters.
+     *
+     * @param sql
+     *        the SQL text, as passed to {@link java.sql.Connection#prepareStatement(String)}
+     * @param parameterDefinitions
+     *        the parameter definitions, for example <code>@P0 int,@P1 nvarchar(4000)</code>
+     */
+    public SQLServerPreparedStatementDefinition(String sql, String parameterDefinitions) {
+        this(sql, parameterDefinitions, false);
+    }
+
+    SQLServerPreparedStatementDefinition(String sql, String parameterDefinitions, boolean isServerSyntax) {
+        if (null == sql)
+            throw new NullPointerException("sql");
+        this.sql = sql;
+        this.parameterDefinitions = (null == parameterDefinitions) ? "" : parameterDefinitions;
+        this.isServerSyntax = isServerSyntax;
+    }
+
+    /**
+     * Returns the SQL text. For a definition taken from a connection, the text is in the form sent to the server, with
+     * the JDBC escapes translated and the parameter markers replaced by parameter names.
+     *
+     * @return the SQL text
+     */
+    public String getSQL() {
+        return sql;
+    }
+
+    /**
+     * Returns the parameter definitions.
+     *
+     * @return the parameter definitions, or an empty string if the statement has no parameters
+     */
+    public String getParameterDefinitions() {
+        return parameterDefinitions;
+    }
+
+    // Returns true if the SQL text has already been translated to the form sent to the server
+    boolean isServerSyntax() {
+        return isServerSyntax;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+/**
+ * The latency breakdown of one request, as passed to {@link ISQLServerRequestTimingListener}. All times are in
+ * nanoseconds, measured with {@link System#nanoTime()}.
+ * <p>
+ * The phases do not add up to the total: the total also includes the time the application spends between calls while
+ * it processes a result that is read incrementally (<code>responseBuffering=adaptive</code>), as well as the time to
+ * decode column values in the result set getters.
+ */
+public final class SQLServerRequestTiming {
+
+    /**
+     * The phases of a request.
+     */
+    public enum Phase {
+        /**
+         * Time waiting for the connection to become available, including buffering the unread response of a previous
+         * statement on the same connection.
+         */
+        SCHEDULER_WAIT,
+
+        /**
+         * Time spent writing the request into packet buffers, not counting the time spent writing them to the network.
+         */
+        REQUEST_ENCODING,
+
+        /**
+         * Time spent writing request packets to the network.
+         */
+        NETWORK_WRITE,
+
+        /**
+         * Time from the last request packet being written until the first response packet has been read. This is the
+         * time the server takes to start responding, plus one network round trip.
+         */
+        SERVER,
+
+        /**
+         * Time spent reading the remaining response packets from the network, including the time waiting for the
+         * server to produce them.
+         */
+        NETWORK_READ,
+
+        /**
+         * Time spent parsing the response tokens, not counting the time spent reading them from the network.
+         */
+        TOKEN_PROCESSING,
+
+        /**
+         * Time from the request being issued until its response has been processed.
+         */
+        TOTAL
+    }
+
+    private final String commandName;
+    private final long[] nanos;
+
+    SQLServerRequestTiming(String commandName, long[] nanos) {
+        assert Phase.values().length == nanos.length;
+        this.commandName = commandName;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Returns a description of the operation that sent the request, as it appears in the driver's trace log, for example
+     * <code>SQLServerPreparedStatement:3 executeXXX</code>.
+     * 
+     * @return the description of the operation
+     */
+    public String getCommandName() {
+        return commandName;
+    }
+
+    /**
+     * Returns the time spent in a phase of the request.
+     * 
+     * @param phase
+     *        the phase
+     * @return the time in nanoseconds
+     */
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(commandName);
+        for (Phase phase : Phase.values())
+            sb.append(' ').append(phase).append('=').append(nanos[phase.ordinal()]);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.text.MessageFormat;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.microsoft.sqlserver.jdbc.SQLServerRequestTiming.Phase;
+
+
+/**
+ * A request timing listener that aggregates the timings of all requests into one latency histogram per phase. The
+ * histogram can be shared by any number of connections, for example by setting it on a data source, and can be read
+ * while requests are being recorded.
+ * <p>
+ * Recording a request does not allocate and takes no locks. Values are kept in logarithmic buckets with 16 buckets per
+ * power of two, so percentiles are accurate to within 6.25%, over the whole range of <code>long</code> values.
+ */
+public final class SQLServerRequestTimingHistogram implements ISQLServerRequestTimingListener {
+    // Values below 2^SUB_BUCKET_BITS are counted exactly; above that each power of two is split into SUB_BUCKET_COUNT
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final AtomicLongArray counts = new AtomicLongArray(PHASES.length * BUCKET_COUNT);
+    private final LongAdder[] totals = new LongAdder[PHASES.length];
+    private final AtomicLongArray maximums = new AtomicLongArray(PHASES.length);
+    private final LongAdder requestCount = new LongAdder();
+
+    /**
+     * Creates an empty histogram.
+     */
+    public SQLServerRequestTimingHistogram() {
+        for (int i = 0; i < totals.length; i++)
+            totals[i] = new LongAdder();
+    }
+
+    @Override
+    public void onRequestComplete(SQLServerRequestTiming timing) {
+        for (Phase phase : PHASES)
+            record(phase, timing.getNanos(phase));
+        requestCount.increment();
+    }
+
+    private void record(Phase phase, long nanos) {
+        final int p = phase.ordinal();
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(p * BUCKET_COUNT + bucketIndex(value));
+        totals[p].add(value);
+
+        long max;
+        while (value > (max = maximums.get(p)) && !maximums.compareAndSet(p, max, value));
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    // Returns the largest value counted in the given bucket
+    static long bucketHighestValue(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowest + ((1L << shift) - 1);
+    }
+
+    /**
+     * Returns the number of requests recorded.
+     * 
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * Returns the mean time of a phase over all recorded requests.
+     * 
+     * @param phase
+     *        the phase
+     * @return the mean time in nanoseconds, or 0 if no requests were recorded
+     */
+    public long getMeanNanos(Phase phase) {
+        long count = requestCount.sum();
+        return (0 == count) ? 0 : totals[phase.ordinal()].sum() / count;
+    }
+
+    /**
+     * Returns the longest time of a phase over all recorded requests.
+     * 
+     * @param phase
+     *        the phase
+     * @return the maximum time in nanoseconds, or 0 if no requests were recorded
+     */
+    public long getMaxNanos(Phase phase) {
+        return maximums.get(phase.ordinal());
+    }
+
+    /**
+     * Returns the time of a phase at or below which the given percentage of the recorded requests fall.
+     * 
+     * @param phase
+     *        the phase
+     * @param percentile
+     *        the percentile, from 0 to 100, for example 99.9
+     * @return the time in nanoseconds, or 0 if no requests were recorded
+     */
+    public long getPercentileNanos(Phase phase, double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+            Object[] msgArgs = {"percentile"};
+            throw new IllegalArgumentException(form.format(msgArgs));
+        }
+
+        final int offset = phase.ordinal() * BUCKET_COUNT;
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            total += counts.get(offset + i);
+        if (0 == total)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(offset + i);
+            if (seen >= rank)
+                return Math.min(bucketHighestValue(i), getMaxNanos(phase));
+        }
+        return getMaxNanos(phase);
+    }
+
+    /**
+     * Discards all recorded requests. Requests recorded while the histogram is being reset may be partly discarded.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++)
+            counts.set(i, 0);
+        for (int i = 0; i < PHASES.length; i++) {
+            totals[i].reset();
+            maximums.set(i, 0);
+        }
+        requestCount.reset();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SQLServerRequestTimingHistogram requests=").append(getRequestCount());
+        for (Phase phase : PHASES) {
+            sb.append(' ').append(phase).append("(mean=").append(getMeanNanos(phase)).append(" p99=")
+                    .append(getPercentileNanos(phase, 99)).append(" max=").append(getMaxNanos(phase)).append(')');
+        }
+        return sb.toString();
+    }
+}
@@ -245,6 +245,8 @@ public final class SQLServerResource extends ListResourceBundle {
             {"R_statementPoolingCacheSizePropertyDescription",
                     "This setting specifies the size of the prepared statement cache for a connection. A value less than 1 means no cache."},
             {"R_gsscredentialPropertyDescription", "Impersonated GSS Credential to access SQL Server."},
+            {"R_requestTimingListenerPropertyDescription",
+                    "The listener that receives the latency breakdown of each request sent to the server."},
             {"R_msiClientIdPropertyDescription",
                     "Client Id of User Assigned Managed Identity to be used for generating access token for Azure AD MSI Authentication"},
             {"R_noParserSupport", "An error occurred while instantiating the required parser. Error: \"{0}\""},
@@ -285,10 +287,16 @@ public final class SQLServerResource extends ListResourceBundle {
             {"R_invalidNegativeArg", "The {0} argument cannot be negative."},
             {"R_BulkColumnMappingsIsEmpty",
                     "Cannot perform bulk copy operation if the only mapping is an identity column and KeepIdentity is set to false."},
+            {"R_invalidColumnOrderHint",
+                    "The column {0} of the order hint is not a destination column of the bulk copy."},
+            {"R_duplicateColumnOrderHint", "The column {0} already has an order hint."},
+            {"R_bulkCopyAborted", "The bulk copy was aborted by the progress listener."},
             {"R_DataSchemaMismatch", "Source data does not match source schema."},
             {"R_BulkDataDuplicateColumn", "Duplicate column names are not allowed."},
             {"R_invalidColumnOrdinal", "Column {0} is invalid. Column number should be greater than zero."},
             {"R_unsupportedEncoding", "The encoding {0} is not supported."},
+            {"R_unsupportedCSVEscapeDelimiters",
+                    "Quoted fields can only be read with a delimiter that matches a single string, from a file encoded in UTF-8, US-ASCII, ISO-8859-1 or windows-1252."},
             {"R_UnexpectedDescribeParamFormat",
                     "Internal error. The format of the resultset returned by sp_describe_parameter_encryption is invalid. One of the resultsets is missing."},
             {"R_InvalidEncryptionKeyOridnal",
@@ -504,6 +512,8 @@ public final class SQLServerResource extends ListResourceBundle {
                                                                                                                   // JKS/PKCS
             {"R_invalidCEKCacheTtl",
                     "Invalid column encryption key cache time-to-live specified. The columnEncryptionKeyCacheTtl value cannot be negative and timeUnit can only be DAYS, HOURS, MINUTES or SECONDS."},
+            {"R_invalidCEKCacheSize",
+                    "Invalid column encryption key cache size specified. The columnEncryptionKeyCacheSize value must be greater than 0."},
             {"R_sendTimeAsDateTimeForAE", "Use sendTimeAsDateTime=false with Always Encrypted."},
             {"R_TVPnotWorkWithSetObjectResultSet",
                     "setObject() with ResultSet is not supported for Table-Valued Parameter. Please use setStructured()."},
@@ -532,8 +542,25 @@ public final class SQLServerResource extends ListResourceBundle {
             {"R_cancelQueryTimeoutPropertyDescription",
                     "The number of seconds to wait to cancel sending a query timeout."},
             {"R_invalidCancelQueryTimeout", "The cancel timeout value {0} is not valid."},
+            {"R_columnDecryptionParallelismPropertyDescription",
+                    "The number of threads that decrypt the values of encrypted columns read in columnar batches. The default is 1, which decrypts them on the reading thread."},
+            {"R_invalidColumnDecryptionParallelism", "The columnDecryptionParallelism {0} is not valid."},
             {"R_useBulkCopyForBatchInsertPropertyDescription",
                     "Whether the driver will use bulk copy API for batch insert operations"},
+            {"R_useSocketChannelPropertyDescription",
+                    "Whether the driver will send and receive unencrypted TDS packets through a socket channel using direct buffers."},
+            {"R_registerStatementCacheMBeanPropertyDescription",
+                    "Whether the driver will publish the statement cache counters of all connections as a JMX MBean."},
+            {"R_readTimedOut", "Read timed out"},
+            {"R_publisherSubscribed", "The publisher has already been subscribed to."},
+            {"R_invalidDemand", "The number of requested rows must be positive."},
+            {"R_asyncExecutionRejected", "The executor rejected the asynchronous execution."},
+            {"R_invalidColumnarBatchSize", "The batch size {0} is not valid. It must be between 1 and {1}."},
+            {"R_columnarBatchNotForwardOnly", "Columnar batches can only be fetched from forward only result sets."},
+            {"R_connectionPoolTimeout", "Timed out after {0} seconds waiting for a connection from the connection pool."},
+            {"R_connectionPoolClosed", "The connection pool is closed."},
+            {"R_preparedHandleNotReturned", "The server did not return the prepared statement handle."},
+            {"R_invalidPoolSize", "The maximum pool size {0} must be greater than zero and not less than the minimum pool size {1}."},
             {"R_UnknownDataClsTokenNumber", "Unknown token for Data Classification."}, // From Server
             {"R_InvalidDataClsVersionNumber", "Invalid version number {0} for Data Classification."}, // From Server
             {"R_unknownUTF8SupportValue", "Unknown value for UTF8 support."},
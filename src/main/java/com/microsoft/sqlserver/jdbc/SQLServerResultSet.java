@@ -23,8 +23,14 @@ import java.sql.SQLType;
 import java.sql.SQLWarning;
 import java.sql.SQLXML;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
@@ -1066,6 +1072,182 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
         return false;
     }
 
+    @Override
+    public SQLServerColumnarBatch fetchColumnarBatch(int batchSize) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "fetchColumnarBatch", batchSize);
+        checkClosed();
+        if (batchSize <= 0 || batchSize > SQLServerColumnVector.MAX_CAPACITY) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidColumnarBatchSize"));
+            Object[] msgArgs = {batchSize, SQLServerColumnVector.MAX_CAPACITY};
+            SQLServerException.makeFromDriverError(stmt.connection, stmt, form.format(msgArgs), null, false);
+        }
+        if (!isForwardOnly())
+            SQLServerException.makeFromDriverError(stmt.connection, stmt,
+                    SQLServerException.getErrString("R_columnarBatchNotForwardOnly"), null, false);
+
+        SQLServerResultSetMetaData resultSetMetaData = (SQLServerResultSetMetaData) getMetaData();
+        SQLServerColumnVector[] vectors = new SQLServerColumnVector[getColumnCount()];
+        for (int columnIndex = 1; columnIndex <= vectors.length; ++columnIndex) {
+            vectors[columnIndex - 1] = new SQLServerColumnVector(columns[columnIndex - 1],
+                    resultSetMetaData.getColumnLabel(columnIndex), resultSetMetaData.getColumnType(columnIndex),
+                    batchSize);
+        }
+
+        // With a columnDecryptionParallelism above 1, the values of encrypted columns are read without decrypting them
+        // and are decrypted once all the rows of the batch have been read.
+        byte[][][] encryptedValues = null;
+        if (1 < stmt.connection.getColumnDecryptionParallelism()) {
+            for (int columnIndex = 1; columnIndex <= vectors.length; ++columnIndex) {
+                Column column = columns[columnIndex - 1];
+                if (null != column.getCryptoMetadata() && null == column.filter) {
+                    if (null == encryptedValues)
+                        encryptedValues = new byte[vectors.length][][];
+                    encryptedValues[columnIndex - 1] = new byte[Math.min(batchSize, 16)][];
+                }
+            }
+        }
+
+        int rowCount = 0;
+        while (rowCount < batchSize && next()) {
+            // The values of the last row are read again if the application calls the getters on it, so remember
+            // where it starts.
+            TDSReaderMark rowStart = (batchSize - 1 == rowCount) ? tdsReader.mark() : null;
+
+            readColumnarRow(vectors, encryptedValues, rowCount);
+            ++rowCount;
+
+            if (null != rowStart) {
+                for (int columnIndex = 1; columnIndex <= vectors.length; ++columnIndex)
+                    getColumn(columnIndex).clear();
+                tdsReader.reset(rowStart);
+                lastColumnIndex = 1;
+                areNullCompressedColumnsInitialized = false;
+            }
+        }
+
+        if (null != encryptedValues)
+            decryptColumnarValues(vectors, encryptedValues, rowCount);
+
+        SQLServerColumnarBatch batch = new SQLServerColumnarBatch(vectors, rowCount);
+        loggerExternal.exiting(getClassNameLogging(), "fetchColumnarBatch", batch);
+        return batch;
+    }
+
+    /**
+     * Reads the values of the current row into column vectors. Values that can be decoded directly are read from the
+     * response without marking the columns; the others are read through the getter conversions. Afterwards all the
+     * values of the row have been consumed. The encrypted bytes of the columns that have an array in encryptedValues
+     * are stored there at index row, null for NULL, instead of being decrypted; the arrays grow as rows are read.
+     */
+    private void readColumnarRow(SQLServerColumnVector[] vectors, byte[][][] encryptedValues,
+            int row) throws SQLServerException {
+        assert 1 == lastColumnIndex;
+
+        initializeNullCompressedColumns();
+        for (int columnIndex = 1; columnIndex <= vectors.length; ++columnIndex) {
+            Column column = columns[columnIndex - 1];
+            SQLServerColumnVector vector = vectors[columnIndex - 1];
+
+            if (null != encryptedValues && null != encryptedValues[columnIndex - 1]) {
+                if (column.isInitialized()) {
+                    ++lastColumnIndex;
+                } else {
+                    if (row == encryptedValues[columnIndex - 1].length)
+                        encryptedValues[columnIndex - 1] = Arrays.copyOf(encryptedValues[columnIndex - 1],
+                                (int) Math.min(2L * row, SQLServerColumnVector.MAX_CAPACITY));
+                    encryptedValues[columnIndex - 1][row] = loadColumn(columnIndex).getEncryptedValue(tdsReader);
+                    skipColumns(1, false);
+                }
+            } else if (column.isInitialized()) {
+                // NULL value from the null bitmap of an NBCROW; there is nothing to read
+                vector.appendNull();
+                ++lastColumnIndex;
+            } else if (vector.isDirect()) {
+                vector.readValue(tdsReader);
+                ++lastColumnIndex;
+            } else {
+                vector.appendValue(getValue(loadColumn(columnIndex), vector.getJDBCType(), null,
+                        vector.getCalendar()));
+                skipColumns(1, false);
+            }
+        }
+    }
+
+    /**
+     * Decrypts the encrypted values read by readColumnarRow() and appends them to their column vectors in order. The
+     * rows are split into at most columnDecryptionParallelism ranges, which are decrypted on the common fork join pool
+     * except for the first one, which is decrypted on the calling thread.
+     */
+    private void decryptColumnarValues(SQLServerColumnVector[] vectors, byte[][][] encryptedValues,
+            int rowCount) throws SQLServerException {
+        SQLServerConnection con = stmt.connection;
+        Object[][] values = new Object[vectors.length][];
+        Calendar[] calendars = new Calendar[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            if (null != encryptedValues[i]) {
+                // The crypto metadata of a column is shared by the threads, so initialize its cipher algorithm first
+                CryptoMetadata cryptoMetadata = columns[i].getCryptoMetadata();
+                if (!cryptoMetadata.IsAlgorithmInitialized())
+                    SQLServerSecurityUtility.decryptSymmetricKey(cryptoMetadata, con);
+                values[i] = new Object[rowCount];
+                calendars[i] = vectors[i].getCalendar();
+            }
+        }
+
+        int taskCount = Math.max(1, Math.min(con.getColumnDecryptionParallelism(), rowCount));
+        int rowsPerTask = (rowCount + taskCount - 1) / taskCount;
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(taskCount - 1);
+        for (int start = rowsPerTask; start < rowCount; start += rowsPerTask) {
+            int taskStart = start;
+            int taskEnd = Math.min(rowCount, start + rowsPerTask);
+            tasks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    decryptColumnarRows(vectors, encryptedValues, calendars, values, taskStart, taskEnd);
+                } catch (SQLServerException e) {
+                    throw new CompletionException(e);
+                }
+            }, ForkJoinPool.commonPool()));
+        }
+        decryptColumnarRows(vectors, encryptedValues, calendars, values, 0, Math.min(rowCount, rowsPerTask));
+        for (CompletableFuture<Void> task : tasks) {
+            try {
+                task.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof SQLServerException)
+                    throw (SQLServerException) e.getCause();
+                throw e;
+            }
+        }
+
+        for (int i = 0; i < vectors.length; i++) {
+            if (null != values[i]) {
+                for (int row = 0; row < rowCount; row++)
+                    vectors[i].appendValue(values[i][row]);
+            }
+        }
+    }
+
+    /**
+     * Decrypts the encrypted values of the rows from start (inclusive) to end (exclusive) into values. Runs on any
+     * thread; the calendars of the columns are only cloned, as the conversions modify the calendar they are given.
+     */
+    private void decryptColumnarRows(SQLServerColumnVector[] vectors, byte[][][] encryptedValues, Calendar[] calendars,
+            Object[][] values, int start, int end) throws SQLServerException {
+        for (int i = 0; i < vectors.length; i++) {
+            if (null == encryptedValues[i])
+                continue;
+
+            CryptoMetadata cryptoMetadata = columns[i].getCryptoMetadata();
+            JDBCType jdbcType = vectors[i].getJDBCType();
+            Calendar cal = (null != calendars[i]) ? (Calendar) calendars[i].clone() : null;
+            for (int row = start; row < end; row++) {
+                if (null != encryptedValues[i][row])
+                    values[i][row] = ServerDTVImpl.decryptValue(encryptedValues[i][row], jdbcType, cryptoMetadata,
+                            stmt.connection, cal);
+            }
+        }
+    }
+
     @Override
     public boolean wasNull() throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "wasNull");
@@ -2038,11 +2220,50 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
 
     private Object getValue(int columnIndex, JDBCType jdbcType, InputStreamGetterArgs getterArgs,
             Calendar cal) throws SQLServerException {
-        Object o = getterGetColumn(columnIndex).getValue(jdbcType, getterArgs, cal, tdsReader);
+        return getValue(getterGetColumn(columnIndex), jdbcType, getterArgs, cal);
+    }
+
+    private Object getValue(Column column, JDBCType jdbcType, InputStreamGetterArgs getterArgs,
+            Calendar cal) throws SQLServerException {
+        Object o = column.getValue(jdbcType, getterArgs, cal, tdsReader);
         lastValueWasNull = (null == o);
         return o;
     }
 
+    /**
+     * Returns the value of a column converted to BIT, TINYINT, SMALLINT, INTEGER or BIGINT, as 1 or 0 for BIT and 0 for
+     * NULL. Values of fixed-length numeric columns are decoded directly, without boxing.
+     */
+    private long getLongValue(int columnIndex, JDBCType jdbcType) throws SQLServerException {
+        Column column = getterGetColumn(columnIndex);
+        if (column.hasPrimitiveValue()) {
+            long value = column.getLongValue(jdbcType, tdsReader);
+            lastValueWasNull = column.isNull();
+            return value;
+        }
+
+        Object o = getValue(column, jdbcType, null, null);
+        if (null == o)
+            return 0;
+        return (o instanceof Boolean) ? (((Boolean) o) ? 1 : 0) : ((Number) o).longValue();
+    }
+
+    /**
+     * Returns the value of a column converted to REAL or DOUBLE, as 0 for NULL. Values of fixed-length numeric columns
+     * are decoded directly, without boxing.
+     */
+    private double getDoubleValue(int columnIndex, JDBCType jdbcType) throws SQLServerException {
+        Column column = getterGetColumn(columnIndex);
+        if (column.hasPrimitiveValue()) {
+            double value = column.getDoubleValue(jdbcType, tdsReader);
+            lastValueWasNull = column.isNull();
+            return value;
+        }
+
+        Object o = getValue(column, jdbcType, null, null);
+        return (null == o) ? 0 : ((Number) o).doubleValue();
+    }
+
     void setInternalVariantType(int columnIndex, SqlVariant type) throws SQLServerException {
         getterGetColumn(columnIndex).setInternalVariant(type);
     }
@@ -2134,36 +2355,40 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
     public boolean getBoolean(int columnIndex) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getBoolean", columnIndex);
         checkClosed();
-        Boolean value = (Boolean) getValue(columnIndex, JDBCType.BIT);
-        loggerExternal.exiting(getClassNameLogging(), "getBoolean", value);
-        return null != value ? value : false;
+        boolean value = 0 != getLongValue(columnIndex, JDBCType.BIT);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getBoolean", value);
+        return value;
     }
 
     @Override
     public boolean getBoolean(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getBoolean", columnName);
         checkClosed();
-        Boolean value = (Boolean) getValue(findColumn(columnName), JDBCType.BIT);
-        loggerExternal.exiting(getClassNameLogging(), "getBoolean", value);
-        return null != value ? value : false;
+        boolean value = 0 != getLongValue(findColumn(columnName), JDBCType.BIT);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getBoolean", value);
+        return value;
     }
 
     @Override
     public byte getByte(int columnIndex) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getByte", columnIndex);
         checkClosed();
-        Short value = (Short) getValue(columnIndex, JDBCType.TINYINT);
-        loggerExternal.exiting(getClassNameLogging(), "getByte", value);
-        return null != value ? value.byteValue() : 0;
+        byte value = (byte) getLongValue(columnIndex, JDBCType.TINYINT);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getByte", value);
+        return value;
     }
 
     @Override
     public byte getByte(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getByte", columnName);
         checkClosed();
-        Short value = (Short) getValue(findColumn(columnName), JDBCType.TINYINT);
-        loggerExternal.exiting(getClassNameLogging(), "getByte", value);
-        return null != value ? value.byteValue() : 0;
+        byte value = (byte) getLongValue(findColumn(columnName), JDBCType.TINYINT);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getByte", value);
+        return value;
     }
 
     @Override
@@ -2226,36 +2451,40 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
     public double getDouble(int columnIndex) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getDouble", columnIndex);
         checkClosed();
-        Double value = (Double) getValue(columnIndex, JDBCType.DOUBLE);
-        loggerExternal.exiting(getClassNameLogging(), "getDouble", value);
-        return null != value ? value : 0;
+        double value = getDoubleValue(columnIndex, JDBCType.DOUBLE);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getDouble", value);
+        return value;
     }
 
     @Override
     public double getDouble(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getDouble", columnName);
         checkClosed();
-        Double value = (Double) getValue(findColumn(columnName), JDBCType.DOUBLE);
-        loggerExternal.exiting(getClassNameLogging(), "getDouble", value);
-        return null != value ? value : 0;
+        double value = getDoubleValue(findColumn(columnName), JDBCType.DOUBLE);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getDouble", value);
+        return value;
     }
 
     @Override
     public float getFloat(int columnIndex) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getFloat", columnIndex);
         checkClosed();
-        Float value = (Float) getValue(columnIndex, JDBCType.REAL);
-        loggerExternal.exiting(getClassNameLogging(), "getFloat", value);
-        return null != value ? value : 0;
+        float value = (float) getDoubleValue(columnIndex, JDBCType.REAL);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getFloat", value);
+        return value;
     }
 
     @Override
     public float getFloat(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getFloat", columnName);
         checkClosed();
-        Float value = (Float) getValue(findColumn(columnName), JDBCType.REAL);
-        loggerExternal.exiting(getClassNameLogging(), "getFloat", value);
-        return null != value ? value : 0;
+        float value = (float) getDoubleValue(findColumn(columnName), JDBCType.REAL);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getFloat", value);
+        return value;
     }
 
     @Override
@@ -2298,36 +2527,40 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
     public int getInt(int columnIndex) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getInt", columnIndex);
         checkClosed();
-        Integer value = (Integer) getValue(columnIndex, JDBCType.INTEGER);
-        loggerExternal.exiting(getClassNameLogging(), "getInt", value);
-        return null != value ? value : 0;
+        int value = (int) getLongValue(columnIndex, JDBCType.INTEGER);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getInt", value);
+        return value;
     }
 
     @Override
     public int getInt(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getInt", columnName);
         checkClosed();
-        Integer value = (Integer) getValue(findColumn(columnName), JDBCType.INTEGER);
-        loggerExternal.exiting(getClassNameLogging(), "getInt", value);
-        return null != value ? value : 0;
+        int value = (int) getLongValue(findColumn(columnName), JDBCType.INTEGER);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getInt", value);
+        return value;
     }
 
     @Override
     public long getLong(int columnIndex) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getLong", columnIndex);
         checkClosed();
-        Long value = (Long) getValue(columnIndex, JDBCType.BIGINT);
-        loggerExternal.exiting(getClassNameLogging(), "getLong", value);
-        return null != value ? value : 0;
+        long value = getLongValue(columnIndex, JDBCType.BIGINT);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getLong", value);
+        return value;
     }
 
     @Override
     public long getLong(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getLong", columnName);
         checkClosed();
-        Long value = (Long) getValue(findColumn(columnName), JDBCType.BIGINT);
-        loggerExternal.exiting(getClassNameLogging(), "getLong", value);
-        return null != value ? value : 0;
+        long value = getLongValue(findColumn(columnName), JDBCType.BIGINT);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getLong", value);
+        return value;
     }
 
     @Override
@@ -2466,18 +2699,20 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
     public short getShort(int columnIndex) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getShort", columnIndex);
         checkClosed();
-        Short value = (Short) getValue(columnIndex, JDBCType.SMALLINT);
-        loggerExternal.exiting(getClassNameLogging(), "getShort", value);
-        return null != value ? value : 0;
+        short value = (short) getLongValue(columnIndex, JDBCType.SMALLINT);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getShort", value);
+        return value;
     }
 
     @Override
     public short getShort(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getShort", columnName);
         checkClosed();
-        Short value = (Short) getValue(findColumn(columnName), JDBCType.SMALLINT);
-        loggerExternal.exiting(getClassNameLogging(), "getShort", value);
-        return null != value ? value : 0;
+        short value = (short) getLongValue(findColumn(columnName), JDBCType.SMALLINT);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getShort", value);
+        return value;
     }
 
     @Override
@@ -0,0 +1,212 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+
+/**
+ * Publishes the rows of a query as a {@link java.util.concurrent.Flow.Publisher}. Each row is delivered as an array of
+ * column values, as returned by {@link ResultSet#getObject(int)}.
+ * <p>
+ * The query is executed when the first row is requested, and rows are read from the server only as they are
+ * requested. With the default adaptive response buffering and a forward-only, read-only statement, no rows beyond the
+ * ones requested are buffered by the driver: when there is no outstanding demand, the driver stops reading from the
+ * socket and TCP flow control pauses the server.
+ * <p>
+ * A publisher executes its query once and can be subscribed to only once. Subscriber signals are delivered on a thread
+ * of the executor given when the publisher was created. Cancelling the subscription cancels the statement and closes
+ * the result set. This class requires a JDBC 4.3 (Java 9 or later) runtime.
+ */
+public final class SQLServerRowPublisher implements Flow.Publisher<Object[]> {
+    private static final java.util.logging.Logger logger = java.util.logging.Logger
+            .getLogger("com.microsoft.sqlserver.jdbc.SQLServerRowPublisher");
+
+    private final SQLServerStatement statement;
+    private final SQLServerStatement.AsyncExecution<ResultSet> execution;
+    private final Executor executor;
+    private final AtomicBoolean isSubscribed = new AtomicBoolean(false);
+
+    SQLServerRowPublisher(SQLServerStatement statement, SQLServerStatement.AsyncExecution<ResultSet> execution,
+            Executor executor) {
+        this.statement = statement;
+        this.execution = execution;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Object[]> subscriber) {
+        if (null == subscriber)
+            throw new NullPointerException("subscriber");
+
+        if (!isSubscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {}
+
+                @Override
+                public void cancel() {}
+            });
+            subscriber.onError(new IllegalStateException(SQLServerException.getErrString("R_publisherSubscribed")));
+            return;
+        }
+
+        RowSubscription subscription = new RowSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Reads rows on behalf of one subscriber. Signals from request() and cancel() are serialized onto the executor so
+     * that the result set is only ever used by one thread at a time.
+     */
+    private final class RowSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Object[]> subscriber;
+        private final AtomicLong demand = new AtomicLong(0);
+        private final AtomicInteger pendingSignals = new AtomicInteger(0);
+        private volatile boolean isCancelled = false;
+        private boolean isDone = false;
+        private ResultSet resultSet;
+        private int columnCount;
+
+        RowSubscription(Flow.Subscriber<? super Object[]> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                isCancelled = true;
+                signal(new IllegalArgumentException(SQLServerException.getErrString("R_invalidDemand")));
+                return;
+            }
+
+            // Add to the outstanding demand, saturating at Long.MAX_VALUE (unbounded)
+            demand.getAndUpdate(current -> (Long.MAX_VALUE - current < n) ? Long.MAX_VALUE : current + n);
+            signal(null);
+        }
+
+        @Override
+        public void cancel() {
+            if (!isCancelled) {
+                isCancelled = true;
+
+                // Interrupt a pending execution or a row read that is blocked on the server
+                try {
+                    if (!statement.isClosed())
+                        statement.cancel();
+                } catch (SQLException e) {
+                    if (logger.isLoggable(Level.FINER))
+                        logger.finer(toString() + " Ignored error cancelling statement: " + e.getMessage());
+                }
+                signal(null);
+            }
+        }
+
+        private volatile Throwable pendingError;
+
+        private void signal(Throwable error) {
+            if (null != error)
+                pendingError = error;
+
+            if (0 == pendingSignals.getAndIncrement()) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Fail the subscription on the calling thread rather than blocking it with the query
+                    pendingError = e;
+                    drain();
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!isDone)
+                    deliver();
+                missed = pendingSignals.addAndGet(-missed);
+            } while (0 != missed);
+        }
+
+        private void deliver() {
+            try {
+                if (null != pendingError) {
+                    fail(pendingError);
+                    return;
+                }
+
+                if (isCancelled) {
+                    close();
+                    return;
+                }
+
+                if (0 == demand.get())
+                    return;
+
+                if (null == resultSet) {
+                    resultSet = execution.execute();
+                    columnCount = resultSet.getMetaData().getColumnCount();
+                }
+
+                while (!isCancelled && 0 < demand.get()) {
+                    if (!resultSet.next()) {
+                        close();
+                        subscriber.onComplete();
+                        return;
+                    }
+
+                    Object[] row = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++)
+                        row[i] = resultSet.getObject(i + 1);
+
+                    if (Long.MAX_VALUE != demand.get())
+                        demand.decrementAndGet();
+
+                    subscriber.onNext(row);
+                }
+
+                if (isCancelled)
+                    close();
+            } catch (SQLException | RuntimeException e) {
+                if (isCancelled)
+                    close();
+                else
+                    fail(e);
+            }
+        }
+
+        private void fail(Throwable error) {
+            close();
+            subscriber.onError(error);
+        }
+
+        private void close() {
+            isDone = true;
+            if (null != resultSet) {
+                try {
+                    resultSet.close();
+                } catch (SQLException e) {
+                    if (logger.isLoggable(Level.FINER))
+                        logger.finer(toString() + " Ignored error closing result set: " + e.getMessage());
+                }
+                resultSet = null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "SQLServerRowPublisher (" + statement.toString() + ")";
+        }
+    }
+}
@@ -20,6 +20,13 @@ import java.util.ListIterator;
 import java.util.Stack;
 import java.util.StringTokenizer;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
@@ -1201,6 +1208,166 @@ public class SQLServerStatement implements ISQLServerStatement {
         loggerExternal.exiting(getClassNameLogging(), "cancel");
     }
 
+    /**
+     * Default executor for the asynchronous execute methods. The asynchronous methods offload the blocking execution,
+     * so each execution holds a thread until the statement completes. The pool has a fixed number of threads, twice the
+     * number of processors but at least 4, and a queue of 8 executions per thread. Executions beyond that are rejected
+     * rather than queued without limit. Applications that run more executions concurrently should pass their own
+     * executor. The threads are daemon threads and are reclaimed after a minute of inactivity.
+     */
+    private static final class AsyncExecutionPool {
+        static final int POOL_SIZE = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        static final int QUEUE_SIZE = 8 * POOL_SIZE;
+
+        private static final AtomicInteger threadCount = new AtomicInteger(0);
+        static final ExecutorService executor;
+
+        static {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(QUEUE_SIZE), task -> {
+                        Thread t = new Thread(task, "mssql-jdbc-async-execution-" + threadCount.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+    }
+
+    /**
+     * A statement execution that can be run asynchronously.
+     */
+    @FunctionalInterface
+    interface AsyncExecution<T> {
+        T execute() throws SQLException;
+    }
+
+    /**
+     * Runs a statement execution on the given executor.
+     * 
+     * @param execution
+     *        the blocking execution to run
+     * @param executor
+     *        the executor to run it on
+     * @return a future that completes with the result of the execution. Cancelling the future cancels the statement.
+     * @throws SQLServerException
+     *         if the statement is closed, the executor is null or the executor rejects the execution
+     */
+    final <T> CompletableFuture<T> executeAsync(AsyncExecution<T> execution,
+            Executor executor) throws SQLServerException {
+        checkClosed();
+
+        if (null == executor) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+            Object[] msgArgs = {"executor"};
+            SQLServerException.makeFromDriverError(connection, this, form.format(msgArgs), null, false);
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                // Don't start an execution that was cancelled while it was queued
+                if (future.isDone())
+                    return;
+
+                try {
+                    future.complete(execution.execute());
+                } catch (SQLException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            SQLServerException.makeFromDriverError(connection, this,
+                    SQLServerException.getErrString("R_asyncExecutionRejected"), null, false);
+        }
+
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled()) {
+                try {
+                    if (!isClosed())
+                        cancel();
+                } catch (SQLException ex) {
+                    if (stmtlogger.isLoggable(Level.FINER))
+                        stmtlogger.finer(toString() + " Ignored error cancelling asynchronous execution: "
+                                + ex.getMessage());
+                }
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLServerException {
+        return executeQueryAsync(sql, AsyncExecutionPool.executor);
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql, Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "executeQueryAsync", sql);
+        CompletableFuture<ResultSet> future = executeAsync(() -> executeQuery(sql), executor);
+        loggerExternal.exiting(getClassNameLogging(), "executeQueryAsync", future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Integer> executeUpdateAsync(String sql) throws SQLServerException {
+        return executeUpdateAsync(sql, AsyncExecutionPool.executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> executeUpdateAsync(String sql, Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "executeUpdateAsync", sql);
+        CompletableFuture<Integer> future = executeAsync(() -> executeUpdate(sql), executor);
+        loggerExternal.exiting(getClassNameLogging(), "executeUpdateAsync", future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<int[]> executeBatchAsync() throws SQLServerException {
+        return executeBatchAsync(AsyncExecutionPool.executor);
+    }
+
+    @Override
+    public CompletableFuture<int[]> executeBatchAsync(Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "executeBatchAsync");
+        CompletableFuture<int[]> future = executeAsync(this::executeBatch, executor);
+        loggerExternal.exiting(getClassNameLogging(), "executeBatchAsync", future);
+        return future;
+    }
+
+    @Override
+    public SQLServerRowPublisher publishQuery(String sql) throws SQLServerException {
+        return publishQuery(sql, AsyncExecutionPool.executor);
+    }
+
+    @Override
+    public SQLServerRowPublisher publishQuery(String sql, Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "publishQuery", sql);
+        SQLServerRowPublisher publisher = createRowPublisher(() -> executeQuery(sql), executor);
+        loggerExternal.exiting(getClassNameLogging(), "publishQuery", publisher);
+        return publisher;
+    }
+
+    final SQLServerRowPublisher createRowPublisher(AsyncExecution<ResultSet> execution,
+            Executor executor) throws SQLServerException {
+        DriverJDBCVersion.checkSupportsJDBC43();
+        checkClosed();
+
+        if (null == executor) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+            Object[] msgArgs = {"executor"};
+            SQLServerException.makeFromDriverError(connection, this, form.format(msgArgs), null, false);
+        }
+        return new SQLServerRowPublisher(this, execution, executor);
+    }
+
+    /**
+     * Returns the default executor for the asynchronous execute methods.
+     */
+    static final Executor getDefaultAsyncExecutor() {
+        return AsyncExecutionPool.executor;
+    }
+
     Vector<SQLWarning> sqlWarnings; // the SQL warnings chain
 
     @Override
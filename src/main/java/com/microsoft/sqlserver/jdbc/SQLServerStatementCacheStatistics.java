@@ -0,0 +1,121 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+/**
+ * A snapshot of the statement cache counters of a connection, or of all connections. Obtain the snapshot of a
+ * connection with {@link ISQLServerConnection#getStatementCacheStatistics()}, and the snapshot of all connections
+ * with {@link #getTotalStatistics()}.
+ */
+public final class SQLServerStatementCacheStatistics implements ISQLServerStatementCacheStatistics {
+    private final long handleCacheHitCount;
+    private final long handleCacheMissCount;
+    private final long handleCacheEvictionCount;
+    private final long parameterMetadataCacheHitCount;
+    private final long parameterMetadataCacheMissCount;
+    private final long parameterEncryptionMetadataCacheHitCount;
+    private final long parameterEncryptionMetadataCacheMissCount;
+    private final long parsedSQLCacheHitCount;
+    private final long parsedSQLCacheMissCount;
+    private final long unprepareBatchCount;
+    private final long unpreparedHandleCount;
+    private final long reprepareCount;
+
+    SQLServerStatementCacheStatistics(ISQLServerStatementCacheStatistics counters) {
+        handleCacheHitCount = counters.getPreparedStatementHandleCacheHitCount();
+        handleCacheMissCount = counters.getPreparedStatementHandleCacheMissCount();
+        handleCacheEvictionCount = counters.getPreparedStatementHandleCacheEvictionCount();
+        parameterMetadataCacheHitCount = counters.getParameterMetadataCacheHitCount();
+        parameterMetadataCacheMissCount = counters.getParameterMetadataCacheMissCount();
+        parameterEncryptionMetadataCacheHitCount = counters.getParameterEncryptionMetadataCacheHitCount();
+        parameterEncryptionMetadataCacheMissCount = counters.getParameterEncryptionMetadataCacheMissCount();
+        parsedSQLCacheHitCount = counters.getParsedSQLCacheHitCount();
+        parsedSQLCacheMissCount = counters.getParsedSQLCacheMissCount();
+        unprepareBatchCount = counters.getUnprepareBatchCount();
+        unpreparedHandleCount = counters.getUnpreparedHandleCount();
+        reprepareCount = counters.getReprepareCount();
+    }
+
+    /**
+     * Returns a snapshot of the statement cache counters totalled over all connections.
+     * 
+     * @return the statement cache counters of all connections
+     */
+    public static SQLServerStatementCacheStatistics getTotalStatistics() {
+        return new SQLServerStatementCacheStatistics(StatementCacheCounters.total);
+    }
+
+    @Override
+    public long getPreparedStatementHandleCacheHitCount() {
+        return handleCacheHitCount;
+    }
+
+    @Override
+    public long getPreparedStatementHandleCacheMissCount() {
+        return handleCacheMissCount;
+    }
+
+    @Override
+    public long getPreparedStatementHandleCacheEvictionCount() {
+        return handleCacheEvictionCount;
+    }
+
+    @Override
+    public long getParameterMetadataCacheHitCount() {
+        return parameterMetadataCacheHitCount;
+    }
+
+    @Override
+    public long getParameterMetadataCacheMissCount() {
+        return parameterMetadataCacheMissCount;
+    }
+
+    @Override
+    public long getParameterEncryptionMetadataCacheHitCount() {
+        return parameterEncryptionMetadataCacheHitCount;
+    }
+
+    @Override
+    public long getParameterEncryptionMetadataCacheMissCount() {
+        return parameterEncryptionMetadataCacheMissCount;
+    }
+
+    @Override
+    public long getParsedSQLCacheHitCount() {
+        return parsedSQLCacheHitCount;
+    }
+
+    @Override
+    public long getParsedSQLCacheMissCount() {
+        return parsedSQLCacheMissCount;
+    }
+
+    @Override
+    public long getUnprepareBatchCount() {
+        return unprepareBatchCount;
+    }
+
+    @Override
+    public long getUnpreparedHandleCount() {
+        return unpreparedHandleCount;
+    }
+
+    @Override
+    public long getReprepareCount() {
+        return reprepareCount;
+    }
+
+    @Override
+    public String toString() {
+        return "handleCache(hits:" + handleCacheHitCount + " misses:" + handleCacheMissCount + " evictions:"
+                + handleCacheEvictionCount + ") parameterMetadataCache(hits:" + parameterMetadataCacheHitCount
+                + " misses:" + parameterMetadataCacheMissCount + ") parameterEncryptionMetadataCache(hits:"
+                + parameterEncryptionMetadataCacheHitCount + " misses:" + parameterEncryptionMetadataCacheMissCount
+                + ") parsedSQLCache(hits:" + parsedSQLCacheHitCount + " misses:" + parsedSQLCacheMissCount
+                + ") unprepareBatches:" + unprepareBatchCount + " unpreparedHandles:" + unpreparedHandleCount
+                + " reprepares:" + reprepareCount;
+    }
+}
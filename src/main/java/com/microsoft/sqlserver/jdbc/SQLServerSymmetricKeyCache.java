@@ -6,53 +6,43 @@
 package com.microsoft.sqlserver.jdbc;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.util.concurrent.TimeUnit.SECONDS;
 
 import java.text.MessageFormat;
 import java.util.Base64;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
-
-class CacheClear implements Runnable {
-
-    private String keylookupValue;
-    static private java.util.logging.Logger aeLogger = java.util.logging.Logger
-            .getLogger("com.microsoft.sqlserver.jdbc.CacheClear");
-
-    CacheClear(String keylookupValue) {
-        this.keylookupValue = keylookupValue;
-    }
-
-    @Override
-    public void run() {
-        // remove() is a no-op if the key is not in the map.
-        // It is a concurrentHashMap, update/remove operations are thread safe.
-        synchronized (SQLServerSymmetricKeyCache.lock) {
-            SQLServerSymmetricKeyCache instance = SQLServerSymmetricKeyCache.getInstance();
-            if (instance.getCache().containsKey(keylookupValue)) {
-                instance.getCache().get(keylookupValue).zeroOutKey();
-                instance.getCache().remove(keylookupValue);
-                if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
-                    aeLogger.fine("Removed encryption key from cache...");
-                }
-            }
-        }
-    }
-}
+import mssql.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import mssql.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap.Builder;
 
 
 /**
- * 
- * Cache for the Symmetric keys
  *
+ * Cache for the Symmetric keys
+ * <p>
+ * The cache holds up to {@link #getCapacity()} keys, evicting the least recently used key when full. A key expires
+ * columnEncryptionKeyCacheTtl after it was decrypted. When a key that was decrypted by a globally registered key store
+ * provider is used in the last tenth of its time-to-live, it is decrypted again by that provider in the background, so
+ * that keys in use do not expire and queries do not wait on the key store. Keys decrypted by the key store providers of
+ * a connection are not refreshed, as the cache outlives the connection. Reads do not take a lock; decrypting a key that
+ * is not in the cache does.
  */
 final class SQLServerSymmetricKeyCache {
+    static final int DEFAULT_CAPACITY = 1000;
+
+    // How often keys that expired without being used again are removed and zeroed out
+    private static final long PURGE_INTERVAL_SECONDS = 60;
+
+    // How long to wait before refreshing a key again after the key store failed to decrypt it
+    private static final long REFRESH_RETRY_SECONDS = 10;
+
     static final Object lock = new Object();
-    private final ConcurrentHashMap<String, SQLServerSymmetricKey> cache;
+    private final ConcurrentLinkedHashMap<String, CacheEntry> cache;
     private static final SQLServerSymmetricKeyCache instance = new SQLServerSymmetricKeyCache();
     private static ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1, new ThreadFactory() {
         @Override
@@ -63,118 +53,294 @@ final class SQLServerSymmetricKeyCache {
         }
     });
 
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder refreshFailureCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private boolean isPurgeScheduled = false;
+
     static final private java.util.logging.Logger aeLogger = java.util.logging.Logger
             .getLogger("com.microsoft.sqlserver.jdbc.SQLServerSymmetricKeyCache");
 
+    /**
+     * A decrypted key, with the encrypted key it was decrypted from so that it can be refreshed. Times are in
+     * System.nanoTime().
+     */
+    private static final class CacheEntry {
+        final SQLServerSymmetricKey key;
+        final EncryptionKeyInfo keyInfo;
+        // Whether the key was decrypted by a global key store provider, which the refresh looks up by name
+        final boolean isRefreshable;
+        volatile long refreshTime;
+        final long expiryTime;
+        final AtomicBoolean isRefreshing = new AtomicBoolean(false);
+
+        CacheEntry(SQLServerSymmetricKey key, EncryptionKeyInfo keyInfo, boolean isRefreshable, long ttlSeconds) {
+            this.key = key;
+            this.keyInfo = keyInfo;
+            this.isRefreshable = isRefreshable;
+            long ttl = TimeUnit.SECONDS.toNanos(ttlSeconds);
+            long now = System.nanoTime();
+            this.expiryTime = now + ttl;
+            this.refreshTime = expiryTime - ttl / 10;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiryTime >= 0;
+        }
+
+        boolean needsRefresh(long now) {
+            return now - refreshTime >= 0;
+        }
+    }
+
     private SQLServerSymmetricKeyCache() {
-        cache = new ConcurrentHashMap<>();
+        // Evicted keys are not zeroed out, as a query may have just been given the key and not used it yet.
+        cache = new Builder<String, CacheEntry>().maximumWeightedCapacity(DEFAULT_CAPACITY)
+                .listener((keyLookupValue, entry) -> {
+                    evictionCount.increment();
+                    if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
+                        aeLogger.fine("Evicted encryption key from cache...");
+                    }
+                }).build();
     }
 
     static SQLServerSymmetricKeyCache getInstance() {
         return instance;
     }
 
-    ConcurrentHashMap<String, SQLServerSymmetricKey> getCache() {
-        return cache;
+    int getCapacity() {
+        return (int) cache.capacity();
+    }
+
+    void setCapacity(int capacity) {
+        cache.setCapacity(capacity);
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    long getHitCount() {
+        return hitCount.sum();
+    }
+
+    long getMissCount() {
+        return missCount.sum();
+    }
+
+    long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    long getRefreshFailureCount() {
+        return refreshFailureCount.sum();
+    }
+
+    long getEvictionCount() {
+        return evictionCount.sum();
     }
 
     /**
      * Returns key
-     * 
+     *
      * @param keyInfo
      *        contains encryption meta data information
      * @param connection
      * @return plain text key
      */
     SQLServerSymmetricKey getKey(EncryptionKeyInfo keyInfo, SQLServerConnection connection) throws SQLServerException {
-        SQLServerSymmetricKey encryptionKey = null;
-        synchronized (lock) {
-            String serverName = connection.getTrustedServerNameAE();
-            assert null != serverName : "serverName should not be null in getKey.";
+        String serverName = connection.getTrustedServerNameAE();
+        assert null != serverName : "serverName should not be null in getKey.";
 
-            StringBuilder keyLookupValuebuffer = new StringBuilder(serverName);
-            String keyLookupValue;
-            keyLookupValuebuffer.append(":");
+        StringBuilder keyLookupValuebuffer = new StringBuilder(serverName);
+        String keyLookupValue;
+        keyLookupValuebuffer.append(":");
 
-            keyLookupValuebuffer
-                    .append(Base64.getEncoder().encodeToString((new String(keyInfo.encryptedKey, UTF_8)).getBytes()));
+        keyLookupValuebuffer
+                .append(Base64.getEncoder().encodeToString((new String(keyInfo.encryptedKey, UTF_8)).getBytes()));
 
-            keyLookupValuebuffer.append(":");
-            keyLookupValuebuffer.append(keyInfo.keyStoreName);
-            keyLookupValue = keyLookupValuebuffer.toString();
-            keyLookupValuebuffer.setLength(0); // Get rid of the buffer, will be garbage collected.
+        keyLookupValuebuffer.append(":");
+        keyLookupValuebuffer.append(keyInfo.keyStoreName);
+        keyLookupValue = keyLookupValuebuffer.toString();
+        keyLookupValuebuffer.setLength(0); // Get rid of the buffer, will be garbage collected.
 
-            if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
-                aeLogger.fine("Checking trusted master key path...");
-            }
-            Boolean[] hasEntry = new Boolean[1];
-            List<String> trustedKeyPaths = SQLServerConnection.getColumnEncryptionTrustedMasterKeyPaths(serverName,
-                    hasEntry);
-            if (hasEntry[0]) {
-                if ((null == trustedKeyPaths) || (0 == trustedKeyPaths.size())
-                        || (!trustedKeyPaths.contains(keyInfo.keyPath))) {
-                    MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_UntrustedKeyPath"));
-                    Object[] msgArgs = {keyInfo.keyPath, serverName};
-                    throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
-                }
+        if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
+            aeLogger.fine("Checking trusted master key path...");
+        }
+        Boolean[] hasEntry = new Boolean[1];
+        List<String> trustedKeyPaths = SQLServerConnection.getColumnEncryptionTrustedMasterKeyPaths(serverName,
+                hasEntry);
+        if (hasEntry[0]) {
+            if ((null == trustedKeyPaths) || (0 == trustedKeyPaths.size())
+                    || (!trustedKeyPaths.contains(keyInfo.keyPath))) {
+                MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_UntrustedKeyPath"));
+                Object[] msgArgs = {keyInfo.keyPath, serverName};
+                throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
             }
+        }
 
-            if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
-                aeLogger.fine("Checking Symmetric key cache...");
+        if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
+            aeLogger.fine("Checking Symmetric key cache...");
+        }
+
+        SQLServerSymmetricKey encryptionKey = getCachedKey(keyLookupValue);
+        if (null != encryptionKey) {
+            hitCount.increment();
+            return encryptionKey;
+        }
+
+        synchronized (lock) {
+            // Another thread may have decrypted the key while this one waited
+            encryptionKey = getCachedKey(keyLookupValue);
+            if (null != encryptionKey) {
+                hitCount.increment();
+                return encryptionKey;
             }
+            missCount.increment();
 
-            // if ColumnEncryptionKeyCacheTtl is 0 no caching at all
-            if (!cache.containsKey(keyLookupValue)) {
+            SQLServerColumnEncryptionKeyStoreProvider provider = getProvider(keyInfo, connection);
+            byte[] plaintextKey;
+            plaintextKey = provider.decryptColumnEncryptionKey(keyInfo.keyPath, keyInfo.algorithmName,
+                    keyInfo.encryptedKey);
+            encryptionKey = new SQLServerSymmetricKey(plaintextKey);
 
-                // Check for the connection provider first.
-                SQLServerColumnEncryptionKeyStoreProvider provider = connection
+            /*
+             * a ColumnEncryptionKeyCacheTtl value of '0' means no caching at all. The expected use case is to have the
+             * application set it once. The application could set it multiple times, in which case a key gets the TTL
+             * defined at the time of its entry into the cache.
+             */
+            long columnEncryptionKeyCacheTtl = SQLServerConnection.getColumnEncryptionKeyCacheTtl();
+            if (0 != columnEncryptionKeyCacheTtl) {
+                boolean isGlobalProvider = provider != connection
                         .getSystemColumnEncryptionKeyStoreProvider(keyInfo.keyStoreName);
-
-                // There is no connection provider of this name, check for the global system providers.
-                if (null == provider) {
-                    provider = SQLServerConnection
-                            .getGlobalSystemColumnEncryptionKeyStoreProvider(keyInfo.keyStoreName);
+                cache.put(keyLookupValue,
+                        new CacheEntry(encryptionKey, keyInfo, isGlobalProvider, columnEncryptionKeyCacheTtl));
+                if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
+                    aeLogger.fine("Adding encryption key to cache...");
                 }
+                schedulePurge();
+            }
+        }
+        return encryptionKey;
+    }
 
-                // There is no global system provider of this name, check for the global custom providers.
-                if (null == provider) {
-                    provider = SQLServerConnection
-                            .getGlobalCustomColumnEncryptionKeyStoreProvider(keyInfo.keyStoreName);
-                }
+    /**
+     * Returns the cached key of a lookup value, or null if the key is not cached or has expired. Starts refreshing the
+     * key in the background if it is close to expiring.
+     */
+    private SQLServerSymmetricKey getCachedKey(String keyLookupValue) {
+        CacheEntry entry = cache.get(keyLookupValue);
+        if (null == entry)
+            return null;
 
-                // No provider was found of this name.
-                if (null == provider) {
-                    String systemProviders = connection.getAllSystemColumnEncryptionKeyStoreProviders();
-                    String customProviders = SQLServerConnection
-                            .getAllGlobalCustomSystemColumnEncryptionKeyStoreProviders();
-                    MessageFormat form = new MessageFormat(
-                            SQLServerException.getErrString("R_UnrecognizedKeyStoreProviderName"));
-                    Object[] msgArgs = {keyInfo.keyStoreName, systemProviders, customProviders};
-                    throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
-                }
+        long now = System.nanoTime();
+        if (entry.isExpired(now)) {
+            remove(keyLookupValue, entry);
+            return null;
+        }
 
-                byte[] plaintextKey;
-                plaintextKey = provider.decryptColumnEncryptionKey(keyInfo.keyPath, keyInfo.algorithmName,
-                        keyInfo.encryptedKey);
-                encryptionKey = new SQLServerSymmetricKey(plaintextKey);
-
-                /*
-                 * a ColumnEncryptionKeyCacheTtl value of '0' means no caching at all. The expected use case is to have
-                 * the application set it once. The application could set it multiple times, in which case a key gets
-                 * the TTL defined at the time of its entry into the cache.
-                 */
-                long columnEncryptionKeyCacheTtl = SQLServerConnection.getColumnEncryptionKeyCacheTtl();
-                if (0 != columnEncryptionKeyCacheTtl) {
-                    cache.putIfAbsent(keyLookupValue, encryptionKey);
-                    if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
-                        aeLogger.fine("Adding encryption key to cache...");
-                    }
-                    scheduler.schedule(new CacheClear(keyLookupValue), columnEncryptionKeyCacheTtl, SECONDS);
+        if (entry.isRefreshable && entry.needsRefresh(now) && entry.isRefreshing.compareAndSet(false, true)) {
+            scheduler.execute(() -> refresh(keyLookupValue, entry));
+        }
+        return entry.key;
+    }
+
+    private SQLServerColumnEncryptionKeyStoreProvider getProvider(EncryptionKeyInfo keyInfo,
+            SQLServerConnection connection) throws SQLServerException {
+        // Check for the connection provider first.
+        SQLServerColumnEncryptionKeyStoreProvider provider = connection
+                .getSystemColumnEncryptionKeyStoreProvider(keyInfo.keyStoreName);
+
+        // There is no connection provider of this name, check for the global system providers.
+        if (null == provider) {
+            provider = SQLServerConnection.getGlobalSystemColumnEncryptionKeyStoreProvider(keyInfo.keyStoreName);
+        }
+
+        // There is no global system provider of this name, check for the global custom providers.
+        if (null == provider) {
+            provider = SQLServerConnection.getGlobalCustomColumnEncryptionKeyStoreProvider(keyInfo.keyStoreName);
+        }
+
+        // No provider was found of this name.
+        if (null == provider) {
+            String systemProviders = connection.getAllSystemColumnEncryptionKeyStoreProviders();
+            String customProviders = SQLServerConnection.getAllGlobalCustomSystemColumnEncryptionKeyStoreProviders();
+            MessageFormat form = new MessageFormat(
+                    SQLServerException.getErrString("R_UnrecognizedKeyStoreProviderName"));
+            Object[] msgArgs = {keyInfo.keyStoreName, systemProviders, customProviders};
+            throw new SQLServerException(this, form.format(msgArgs), null, 0, false);
+        }
+        return provider;
+    }
+
+    /**
+     * Decrypts a cached key again with the global provider of its key store, and replaces the entry with one with a new
+     * time-to-live. If the key store fails, the refresh is retried after REFRESH_RETRY_SECONDS, and the entry is kept
+     * until it expires.
+     */
+    private void refresh(String keyLookupValue, CacheEntry entry) {
+        try {
+            long columnEncryptionKeyCacheTtl = SQLServerConnection.getColumnEncryptionKeyCacheTtl();
+            if (0 == columnEncryptionKeyCacheTtl)
+                return;
+
+            SQLServerColumnEncryptionKeyStoreProvider provider = SQLServerConnection
+                    .getGlobalSystemColumnEncryptionKeyStoreProvider(entry.keyInfo.keyStoreName);
+            if (null == provider)
+                provider = SQLServerConnection
+                        .getGlobalCustomColumnEncryptionKeyStoreProvider(entry.keyInfo.keyStoreName);
+            // The provider was unregistered, so the key is decrypted again on its next use after it expires
+            if (null == provider)
+                return;
+
+            byte[] plaintextKey = provider.decryptColumnEncryptionKey(entry.keyInfo.keyPath,
+                    entry.keyInfo.algorithmName, entry.keyInfo.encryptedKey);
+            CacheEntry refreshed = new CacheEntry(new SQLServerSymmetricKey(plaintextKey), entry.keyInfo, true,
+                    columnEncryptionKeyCacheTtl);
+
+            // The replaced key is not zeroed out, as a query may have just been given it
+            if (cache.replace(keyLookupValue, entry, refreshed)) {
+                refreshCount.increment();
+                if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
+                    aeLogger.fine("Refreshed encryption key in cache...");
                 }
-            } else {
-                encryptionKey = cache.get(keyLookupValue);
             }
+        } catch (SQLServerException | RuntimeException e) {
+            refreshFailureCount.increment();
+            entry.refreshTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(REFRESH_RETRY_SECONDS);
+            if (aeLogger.isLoggable(java.util.logging.Level.WARNING)) {
+                aeLogger.warning("Failed to refresh encryption key in cache: " + e.getMessage());
+            }
+        } finally {
+            entry.isRefreshing.set(false);
         }
-        return encryptionKey;
+    }
+
+    private void remove(String keyLookupValue, CacheEntry entry) {
+        if (cache.remove(keyLookupValue, entry)) {
+            entry.key.zeroOutKey();
+            if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
+                aeLogger.fine("Removed encryption key from cache...");
+            }
+        }
+    }
+
+    /**
+     * Starts removing the keys that expired without being used again, if not started already.
+     */
+    private synchronized void schedulePurge() {
+        if (isPurgeScheduled)
+            return;
+
+        scheduler.scheduleWithFixedDelay(() -> {
+            long now = System.nanoTime();
+            cache.forEach((keyLookupValue, entry) -> {
+                if (entry.isExpired(now))
+                    remove(keyLookupValue, entry);
+            });
+        }, PURGE_INTERVAL_SECONDS, PURGE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        isPurgeScheduled = true;
     }
 }
@@ -101,4 +101,14 @@ class SharedTimer implements Serializable {
         }
         return executor.schedule(task, delay, unit);
     }
+
+    /**
+     * Schedule a task to execute periodically using this SharedTimer's internal executor. The task must not block.
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period, TimeUnit unit) {
+        if (executor == null) {
+            throw new IllegalStateException("Cannot schedule tasks after shutdown");
+        }
+        return executor.scheduleAtFixedRate(task, period, period, unit);
+    }
 }
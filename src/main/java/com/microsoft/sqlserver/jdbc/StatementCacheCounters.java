@@ -0,0 +1,150 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+
+/**
+ * Counts statement cache activity of a connection. Every count is also added to the process-wide total, which can be
+ * published as a JMX MBean.
+ */
+final class StatementCacheCounters implements ISQLServerStatementCacheStatistics {
+    private static final java.util.logging.Logger logger = java.util.logging.Logger
+            .getLogger("com.microsoft.sqlserver.jdbc.internals.StatementCacheCounters");
+
+    static final String MBEAN_NAME = "com.microsoft.sqlserver.jdbc:type=StatementCache";
+
+    enum Counter {
+        HANDLE_HIT,
+        HANDLE_MISS,
+        HANDLE_EVICTION,
+        METADATA_HIT,
+        METADATA_MISS,
+        ENCRYPTION_METADATA_HIT,
+        ENCRYPTION_METADATA_MISS,
+        PARSED_SQL_HIT,
+        PARSED_SQL_MISS,
+        UNPREPARE_BATCH,
+        UNPREPARED_HANDLE,
+        REPREPARE
+    }
+
+    // Counts of all connections. The parsed SQL cache is shared by all connections, so it is only counted here.
+    static final StatementCacheCounters total = new StatementCacheCounters(null);
+
+    private static boolean isMBeanRegistered = false;
+
+    private final StatementCacheCounters parent;
+    private final LongAdder[] counts = new LongAdder[Counter.values().length];
+
+    StatementCacheCounters(StatementCacheCounters parent) {
+        this.parent = parent;
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = new LongAdder();
+    }
+
+    void increment(Counter counter) {
+        add(counter, 1);
+    }
+
+    void add(Counter counter, long value) {
+        counts[counter.ordinal()].add(value);
+        if (null != parent)
+            parent.add(counter, value);
+    }
+
+    long get(Counter counter) {
+        return counts[counter.ordinal()].sum();
+    }
+
+    /**
+     * Registers the process-wide counters with the platform MBean server, if not done already.
+     */
+    static synchronized void registerMBean() {
+        if (isMBeanRegistered)
+            return;
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name))
+                server.registerMBean(new StandardMBean(total, ISQLServerStatementCacheStatistics.class, true), name);
+        } catch (JMException | SecurityException e) {
+            // Another copy of the driver may have registered the name already
+            if (logger.isLoggable(Level.FINE))
+                logger.fine("Failed to register MBean " + MBEAN_NAME + ": " + e.getMessage());
+        }
+        isMBeanRegistered = true;
+    }
+
+    @Override
+    public long getPreparedStatementHandleCacheHitCount() {
+        return get(Counter.HANDLE_HIT);
+    }
+
+    @Override
+    public long getPreparedStatementHandleCacheMissCount() {
+        return get(Counter.HANDLE_MISS);
+    }
+
+    @Override
+    public long getPreparedStatementHandleCacheEvictionCount() {
+        return get(Counter.HANDLE_EVICTION);
+    }
+
+    @Override
+    public long getParameterMetadataCacheHitCount() {
+        return get(Counter.METADATA_HIT);
+    }
+
+    @Override
+    public long getParameterMetadataCacheMissCount() {
+        return get(Counter.METADATA_MISS);
+    }
+
+    @Override
+    public long getParameterEncryptionMetadataCacheHitCount() {
+        return get(Counter.ENCRYPTION_METADATA_HIT);
+    }
+
+    @Override
+    public long getParameterEncryptionMetadataCacheMissCount() {
+        return get(Counter.ENCRYPTION_METADATA_MISS);
+    }
+
+    @Override
+    public long getParsedSQLCacheHitCount() {
+        return total.get(Counter.PARSED_SQL_HIT);
+    }
+
+    @Override
+    public long getParsedSQLCacheMissCount() {
+        return total.get(Counter.PARSED_SQL_MISS);
+    }
+
+    @Override
+    public long getUnprepareBatchCount() {
+        return get(Counter.UNPREPARE_BATCH);
+    }
+
+    @Override
+    public long getUnpreparedHandleCount() {
+        return get(Counter.UNPREPARED_HANDLE);
+    }
+
+    @Override
+    public long getReprepareCount() {
+        return get(Counter.REPREPARE);
+    }
+}
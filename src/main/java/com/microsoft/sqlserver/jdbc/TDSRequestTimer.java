@@ -0,0 +1,126 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.logging.Level;
+
+import com.microsoft.sqlserver.jdbc.SQLServerRequestTiming.Phase;
+
+
+/**
+ * Collects the latency breakdown of the requests of one command and reports each request to a
+ * {@link ISQLServerRequestTimingListener}.
+ *
+ * A timer is only attached to a command when a listener is set on the connection, so that commands pay no timing
+ * overhead otherwise. Requests of a command are sent one at a time, so a timer times at most one request at once. The
+ * response of a request may be buffered by a different thread (see TDSCommand.detach()), but only while the executing
+ * thread is blocked on the connection, so the fields are not shared concurrently.
+ */
+final class TDSRequestTimer {
+    private final ISQLServerRequestTimingListener listener;
+    private final String commandName;
+
+    // Wait for the connection, charged to the first request of the command
+    private long schedulerWaitNanos;
+
+    // Timestamps of the current request; requestStartNanos is 0 when no request is being timed
+    private long requestStartNanos;
+    private long requestSentNanos;
+    private long firstResponseNanos;
+
+    private long networkWriteNanos;
+    private long networkReadNanos;
+    private long tokenProcessingNanos;
+    private boolean isResponseProcessed;
+
+    TDSRequestTimer(ISQLServerRequestTimingListener listener, String commandName, long schedulerWaitNanos) {
+        this.listener = listener;
+        this.commandName = commandName;
+        this.schedulerWaitNanos = schedulerWaitNanos;
+    }
+
+    void onRequestStart() {
+        requestStartNanos = System.nanoTime();
+        requestSentNanos = 0;
+        firstResponseNanos = 0;
+        networkWriteNanos = 0;
+        networkReadNanos = 0;
+        tokenProcessingNanos = 0;
+        isResponseProcessed = false;
+    }
+
+    void onNetworkWrite(long startNanos) {
+        if (0 != requestStartNanos)
+            networkWriteNanos += System.nanoTime() - startNanos;
+    }
+
+    void onRequestSent() {
+        if (0 != requestStartNanos && 0 == requestSentNanos)
+            requestSentNanos = System.nanoTime();
+    }
+
+    void onPacketRead(long startNanos) {
+        if (0 == requestStartNanos)
+            return;
+
+        long endNanos = System.nanoTime();
+        if (0 == firstResponseNanos)
+            firstResponseNanos = endNanos;
+        else
+            networkReadNanos += endNanos - startNanos;
+    }
+
+    long getNetworkReadNanos() {
+        return networkReadNanos;
+    }
+
+    void onResponseProcessed() {
+        if (0 != requestStartNanos)
+            isResponseProcessed = true;
+    }
+
+    /**
+     * Accounts for one pass of the token parser and, if it reached the end of the response, reports the request.
+     *
+     * @param startNanos
+     *        when the parser started
+     * @param startNetworkReadNanos
+     *        the network read time when the parser started, to exclude packets read by the parser
+     */
+    void onTokensParsed(long startNanos, long startNetworkReadNanos) {
+        if (0 == requestStartNanos)
+            return;
+
+        long endNanos = System.nanoTime();
+        tokenProcessingNanos += (endNanos - startNanos) - (networkReadNanos - startNetworkReadNanos);
+
+        if (isResponseProcessed)
+            report(endNanos);
+    }
+
+    private void report(long endNanos) {
+        long[] nanos = new long[Phase.values().length];
+        long sentNanos = (0 != requestSentNanos) ? requestSentNanos : endNanos;
+        nanos[Phase.SCHEDULER_WAIT.ordinal()] = schedulerWaitNanos;
+        nanos[Phase.REQUEST_ENCODING.ordinal()] = Math.max(0, sentNanos - requestStartNanos - networkWriteNanos);
+        nanos[Phase.NETWORK_WRITE.ordinal()] = networkWriteNanos;
+        nanos[Phase.SERVER.ordinal()] = (0 != firstResponseNanos) ? firstResponseNanos - sentNanos : 0;
+        nanos[Phase.NETWORK_READ.ordinal()] = networkReadNanos;
+        nanos[Phase.TOKEN_PROCESSING.ordinal()] = tokenProcessingNanos;
+        nanos[Phase.TOTAL.ordinal()] = schedulerWaitNanos + endNanos - requestStartNanos;
+
+        // Later requests of the same command did not wait for the connection
+        schedulerWaitNanos = 0;
+        requestStartNanos = 0;
+
+        try {
+            listener.onRequestComplete(new SQLServerRequestTiming(commandName, nanos));
+        } catch (RuntimeException e) {
+            if (TDSCommand.logger.isLoggable(Level.FINE))
+                TDSCommand.logger.fine(commandName + ": Ignoring error from request timing listener: " + e);
+        }
+    }
+}
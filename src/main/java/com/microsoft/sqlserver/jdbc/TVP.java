@@ -10,7 +10,6 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.text.MessageFormat;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -50,7 +49,7 @@ class TVP {
     ResultSet sourceResultSet = null;
     SQLServerDataTable sourceDataTable = null;
     Map<Integer, SQLServerMetaData> columnMetadata = null;
-    Iterator<Entry<Integer, Object[]>> sourceDataTableRowIterator = null;
+    int sourceDataTableRow = 0;
     ISQLServerDataRecord sourceRecord = null;
     TVPType tvpType = null;
     Set<String> columnNames = null;
@@ -82,7 +81,6 @@ class TVP {
         }
         initTVP(TVPType.SQLServerDataTable, tvpPartName);
         sourceDataTable = tvpDataTable;
-        sourceDataTableRowIterator = sourceDataTable.getIterator();
         populateMetadataFromDataTable();
     }
 
@@ -130,8 +128,7 @@ class TVP {
             }
             return rowData;
         } else if (TVPType.SQLServerDataTable == tvpType) {
-            Map.Entry<Integer, Object[]> rowPair = sourceDataTableRowIterator.next();
-            return rowPair.getValue();
+            return sourceDataTable.getRowData(sourceDataTableRow++);
         } else
             return sourceRecord.getRowData();
     }
@@ -144,7 +141,7 @@ class TVP {
                 throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveSourceData"), e);
             }
         } else if (TVPType.SQLServerDataTable == tvpType) {
-            return sourceDataTableRowIterator.hasNext();
+            return sourceDataTableRow < sourceDataTable.rowCount;
         } else if (null != sourceRecord) {
             return sourceRecord.next();
         }
@@ -247,6 +247,43 @@ final class DTV {
         return impl.getValue(this, jdbcType, scale, streamGetterArgs, cal, typeInfo, cryptoMetadata, tdsReader);
     }
 
+    /**
+     * Returns the encrypted bytes of the value of an encrypted column from the server, or null if the value is null.
+     */
+    byte[] getEncryptedValue(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        if (null == impl)
+            impl = new ServerDTVImpl();
+        return ((ServerDTVImpl) impl).getEncryptedValue(typeInfo, tdsReader);
+    }
+
+    /**
+     * Returns whether the DTV's value is an unencrypted fixed-length numeric value from the server, which can be read
+     * without boxing with getLongValue() and getDoubleValue().
+     */
+    final boolean hasPrimitiveValue(TypeInfo typeInfo, CryptoMetadata cryptoMetadata) {
+        return (null == impl || impl instanceof ServerDTVImpl) && null == cryptoMetadata
+                && ServerDTVImpl.isPrimitiveType(typeInfo.getSSType());
+    }
+
+    /**
+     * Returns the DTV's value converted to BIT, TINYINT, SMALLINT, INTEGER or BIGINT, without boxing it. BIT values are
+     * returned as 1 or 0, and NULL as 0.
+     */
+    final long getLongValue(JDBCType jdbcType, TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        if (null == impl)
+            impl = new ServerDTVImpl();
+        return ((ServerDTVImpl) impl).getLongValue(jdbcType, typeInfo, tdsReader);
+    }
+
+    /**
+     * Returns the DTV's value converted to REAL or DOUBLE, without boxing it. NULL is returned as 0.
+     */
+    final double getDoubleValue(JDBCType jdbcType, TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        if (null == impl)
+            impl = new ServerDTVImpl();
+        return ((ServerDTVImpl) impl).getDoubleValue(jdbcType, typeInfo, tdsReader);
+    }
+
     Object getSetterValue() {
         return impl.getSetterValue();
     }
@@ -3351,6 +3388,135 @@ final class ServerDTVImpl extends DTVImpl {
 
     }
 
+    /**
+     * Returns whether values of the given type can be read with getLongValue() and getDoubleValue().
+     */
+    static boolean isPrimitiveType(SSType ssType) {
+        switch (ssType) {
+            case BIT:
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case REAL:
+            case FLOAT:
+            case MONEY:
+            case SMALLMONEY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the value converted to BIT, TINYINT, SMALLINT, INTEGER or BIGINT, with the same result as getValue() but
+     * without boxing it. BIT values are returned as 1 or 0, and NULL as 0.
+     */
+    long getLongValue(JDBCType jdbcType, TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        if (!preparePrimitiveValue(jdbcType, typeInfo, tdsReader))
+            return 0;
+
+        switch (typeInfo.getSSType()) {
+            case REAL:
+            case FLOAT:
+                return convertDoubleToLong(tdsReader.readFloatingPointValue(valueLength), jdbcType);
+
+            case MONEY:
+            case SMALLMONEY:
+                long unscaledValue = tdsReader.readMoneyValue(valueLength);
+                if (JDBCType.BIT == jdbcType)
+                    return (0 != unscaledValue) ? 1 : 0;
+
+                // Same as BigDecimal.longValue(), which discards the fractional part
+                return convertLongToLong(unscaledValue / 10000, jdbcType);
+
+            default:
+                return convertLongToLong(tdsReader.readIntegerValue(valueLength), jdbcType);
+        }
+    }
+
+    /**
+     * Returns the value converted to REAL or DOUBLE, with the same result as getValue() but without boxing it. Returns 0
+     * for NULL.
+     */
+    double getDoubleValue(JDBCType jdbcType, TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        if (!preparePrimitiveValue(jdbcType, typeInfo, tdsReader))
+            return 0;
+
+        boolean isReal = (JDBCType.REAL == jdbcType);
+        switch (typeInfo.getSSType()) {
+            case REAL:
+            case FLOAT:
+                double value = tdsReader.readFloatingPointValue(valueLength);
+                return isReal ? (float) value : value;
+
+            case MONEY:
+            case SMALLMONEY:
+                long unscaledValue = tdsReader.readMoneyValue(valueLength);
+
+                // Both operands of the division are exact, so its result is rounded the same way as
+                // BigDecimal.doubleValue()
+                if (!isReal && Math.abs(unscaledValue) <= (1L << 53))
+                    return unscaledValue / 10000.0;
+                BigDecimal decimalValue = BigDecimal.valueOf(unscaledValue, 4);
+                return isReal ? decimalValue.floatValue() : decimalValue.doubleValue();
+
+            default:
+                long longValue = tdsReader.readIntegerValue(valueLength);
+                return isReal ? (float) longValue : (double) longValue;
+        }
+    }
+
+    // Prepares the value for reading and returns false if it is NULL
+    private boolean preparePrimitiveValue(JDBCType jdbcType, TypeInfo typeInfo,
+            TDSReader tdsReader) throws SQLServerException {
+        assert isPrimitiveType(typeInfo.getSSType());
+
+        if (null == valueMark && (!isNull))
+            getValuePrep(typeInfo, tdsReader);
+
+        if (!typeInfo.getSSType().convertsTo(jdbcType) && !isNull)
+            DataTypes.throwConversionError(typeInfo.getSSType().toString(), jdbcType.toString());
+
+        if (isNull)
+            return false;
+
+        tdsReader.reset(valueMark);
+        return true;
+    }
+
+    // Narrows an integer value the way DDC.convertLongToObject() does
+    private static long convertLongToLong(long value, JDBCType jdbcType) {
+        switch (jdbcType) {
+            case BIT:
+                return (0 != value) ? 1 : 0;
+            case TINYINT:
+            case SMALLINT:
+                return (short) value;
+            case INTEGER:
+                return (int) value;
+            default:
+                assert JDBCType.BIGINT == jdbcType : "Unexpected JDBCType " + jdbcType;
+                return value;
+        }
+    }
+
+    // Converts a floating point value the way DDC.convertDoubleToObject() does
+    private static long convertDoubleToLong(double value, JDBCType jdbcType) {
+        switch (jdbcType) {
+            case BIT:
+                return (0 != Double.compare(0.0d, value)) ? 1 : 0;
+            case TINYINT:
+            case SMALLINT:
+                return (short) value;
+            case INTEGER:
+                return (int) value;
+            default:
+                assert JDBCType.BIGINT == jdbcType : "Unexpected JDBCType " + jdbcType;
+                return (long) value;
+        }
+    }
+
     static final private java.util.logging.Logger aeLogger = java.util.logging.Logger
             .getLogger("com.microsoft.sqlserver.jdbc.DTV");
 
@@ -3409,8 +3575,9 @@ final class ServerDTVImpl extends DTVImpl {
         valueMark = tdsReader.mark();
     }
 
-    Object denormalizedValue(byte[] decryptedValue, JDBCType jdbcType, TypeInfo baseTypeInfo, SQLServerConnection con,
-            InputStreamGetterArgs streamGetterArgs, byte normalizeRuleVersion, Calendar cal) throws SQLServerException {
+    static Object denormalizedValue(byte[] decryptedValue, JDBCType jdbcType, TypeInfo baseTypeInfo,
+            SQLServerConnection con, InputStreamGetterArgs streamGetterArgs, byte normalizeRuleVersion,
+            Calendar cal) throws SQLServerException {
         if (0x01 != normalizeRuleVersion) {
             MessageFormat form = new MessageFormat(
                     SQLServerException.getErrString("R_UnsupportedNormalizationVersionAE"));
@@ -3641,6 +3808,64 @@ final class ServerDTVImpl extends DTVImpl {
         }
     }
 
+    /**
+     * Reads the encrypted bytes of a value from the response, which must be positioned at the value.
+     */
+    private byte[] readEncryptedValue(TypeInfo typeInfo, InputStreamGetterArgs streamGetterArgs,
+            TDSReader tdsReader) throws SQLServerException {
+        Object encryptedValue;
+        if (DataTypes.UNKNOWN_STREAM_LENGTH == valueLength) {
+            encryptedValue = DDC.convertStreamToObject(PLPInputStream.makeStream(tdsReader, streamGetterArgs, this),
+                    typeInfo, JDBCType.VARBINARY, streamGetterArgs);
+        } else {
+            encryptedValue = DDC.convertStreamToObject(
+                    new SimpleInputStream(tdsReader, valueLength, streamGetterArgs, this), typeInfo, JDBCType.VARBINARY,
+                    streamGetterArgs);
+        }
+
+        if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
+            aeLogger.fine("Encrypted data is retrieved.");
+        }
+
+        // AE does not support streaming types
+        if ((encryptedValue instanceof SimpleInputStream) || (encryptedValue instanceof PLPInputStream)) {
+            throw new SQLServerException(SQLServerException.getErrString("R_notSupported"), null);
+        }
+        return (byte[]) encryptedValue;
+    }
+
+    /**
+     * Returns the encrypted bytes of the value of an encrypted column without decrypting them, or null if the value is
+     * null. The bytes are decrypted later with {@link #decryptValue}.
+     */
+    byte[] getEncryptedValue(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        if (null == valueMark && !isNull)
+            getValuePrep(typeInfo, tdsReader);
+
+        if (isNull)
+            return null;
+
+        if (STREAMCONSUMED == valueLength) {
+            throw new SQLServerException(null, SQLServerException.getErrString("R_dataAlreadyAccessed"), null, 0,
+                    false);
+        }
+
+        tdsReader.reset(valueMark);
+        return readEncryptedValue(typeInfo, InputStreamGetterArgs.getDefaultArgs(), tdsReader);
+    }
+
+    /**
+     * Decrypts the encrypted bytes of a value and converts the value to a JDBC type, as getValue() does for encrypted
+     * values. Does not use the response, so it can run on any thread once the cipher algorithm of the crypto metadata
+     * has been initialized; the calendar must not be shared with other threads.
+     */
+    static Object decryptValue(byte[] encryptedValue, JDBCType jdbcType, CryptoMetadata cryptoMetadata,
+            SQLServerConnection con, Calendar cal) throws SQLServerException {
+        byte[] decryptedValue = SQLServerSecurityUtility.decryptWithKey(encryptedValue, cryptoMetadata, con);
+        return denormalizedValue(decryptedValue, jdbcType, cryptoMetadata.baseTypeInfo, con,
+                InputStreamGetterArgs.getDefaultArgs(), cryptoMetadata.normalizationRuleVersion, cal);
+    }
+
     Object getValue(DTV dtv, JDBCType jdbcType, int scale, InputStreamGetterArgs streamGetterArgs, Calendar cal,
             TypeInfo typeInfo, CryptoMetadata cryptoMetadata, TDSReader tdsReader) throws SQLServerException {
         SQLServerConnection con = tdsReader.getConnection();
@@ -3701,25 +3926,7 @@ final class ServerDTVImpl extends DTVImpl {
             tdsReader.reset(valueMark);
 
             if (encrypted) {
-                if (DataTypes.UNKNOWN_STREAM_LENGTH == valueLength) {
-                    convertedValue = DDC.convertStreamToObject(
-                            PLPInputStream.makeStream(tdsReader, streamGetterArgs, this), typeInfo, JDBCType.VARBINARY,
-                            streamGetterArgs);
-                } else {
-                    convertedValue = DDC.convertStreamToObject(
-                            new SimpleInputStream(tdsReader, valueLength, streamGetterArgs, this), typeInfo,
-                            JDBCType.VARBINARY, streamGetterArgs);
-                }
-
-                if (aeLogger.isLoggable(java.util.logging.Level.FINE)) {
-                    aeLogger.fine("Encrypted data is retrieved.");
-                }
-
-                // AE does not support streaming types
-                if ((convertedValue instanceof SimpleInputStream) || (convertedValue instanceof PLPInputStream)) {
-                    throw new SQLServerException(SQLServerException.getErrString("R_notSupported"), null);
-                }
-
+                convertedValue = readEncryptedValue(typeInfo, streamGetterArgs, tdsReader);
                 decryptedValue = SQLServerSecurityUtility.decryptWithKey((byte[]) convertedValue, cryptoMetadata, con);
                 return denormalizedValue(decryptedValue, jdbcType, cryptoMetadata.baseTypeInfo, con, streamGetterArgs,
                         cryptoMetadata.normalizationRuleVersion, cal);
@@ -4158,7 +4365,7 @@ final class ServerDTVImpl extends DTVImpl {
         return null;
     }
 
-    private long readNanosSinceMidnightAE(byte[] value, int scale, SSType baseSSType) throws SQLServerException {
+    private static long readNanosSinceMidnightAE(byte[] value, int scale, SSType baseSSType) throws SQLServerException {
         long hundredNanosSinceMidnight = 0;
         for (int i = 0; i < value.length; i++)
             hundredNanosSinceMidnight |= (value[i] & 0xFFL) << (8 * i);
@@ -4171,7 +4378,7 @@ final class ServerDTVImpl extends DTVImpl {
         return 100 * hundredNanosSinceMidnight;
     }
 
-    private int getDaysIntoCE(byte[] datePortion, SSType baseSSType) throws SQLServerException {
+    private static int getDaysIntoCE(byte[] datePortion, SSType baseSSType) throws SQLServerException {
         int daysIntoCE = 0;
         for (int i = 0; i < datePortion.length; i++) {
             daysIntoCE |= ((datePortion[i] & 0xFF) << (8 * i));
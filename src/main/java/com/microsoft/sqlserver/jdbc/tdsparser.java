@@ -27,6 +27,23 @@ final class TDSParser {
     }
 
     static void parse(TDSReader tdsReader, TDSTokenHandler tdsTokenHandler) throws SQLServerException {
+        // Time the token processing of the current request if a request timing listener is in use
+        final TDSRequestTimer requestTimer = tdsReader.getCommand().getRequestTimer();
+        if (null == requestTimer) {
+            parseTokens(tdsReader, tdsTokenHandler);
+            return;
+        }
+
+        final long startNanos = System.nanoTime();
+        final long startNetworkReadNanos = requestTimer.getNetworkReadNanos();
+        try {
+            parseTokens(tdsReader, tdsTokenHandler);
+        } finally {
+            requestTimer.onTokensParsed(startNanos, startNetworkReadNanos);
+        }
+    }
+
+    private static void parseTokens(TDSReader tdsReader, TDSTokenHandler tdsTokenHandler) throws SQLServerException {
         final boolean isLogging = logger.isLoggable(Level.FINEST);
 
         // Process TDS tokens from the token stream until we're told to stop.
@@ -5,6 +5,7 @@
 package com.microsoft.sqlserver.jdbc.AlwaysEncrypted;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.sql.Connection;
 import java.sql.Date;
@@ -20,6 +21,12 @@ import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 
 import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerColumnEncryptionKeyCacheStatistics;
+import com.microsoft.sqlserver.jdbc.SQLServerColumnVector;
+import com.microsoft.sqlserver.jdbc.SQLServerColumnarBatch;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerResultSet;
+import com.microsoft.sqlserver.jdbc.SQLServerStatementCacheStatistics;
 import com.microsoft.sqlserver.jdbc.TestUtils;
 import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
 
@@ -82,6 +89,103 @@ public class RegressionAlwaysEncryptedTest extends AESetup {
         }
     }
 
+    /**
+     * Tests that the parameter encryption metadata of a statement is re-used by the next statement of the connection
+     * with the same SQL text and parameters.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void alwaysEncryptedMetadataCache() throws SQLException {
+        try (SQLServerConnection connection = (SQLServerConnection) DriverManager.getConnection(connectionString
+                + ";trustservercertificate=true;columnEncryptionSetting=enabled;disableStatementPooling=false;statementPoolingCacheSize=10;",
+                AEInfo); Statement stmt = connection.createStatement()) {
+            dropTables(stmt);
+
+            createNumericTable(stmt);
+            populateNumericTable(connection);
+            populateNumericTable(connection);
+            verifyNumericTable(connection, false);
+
+            SQLServerStatementCacheStatistics statistics = connection.getStatementCacheStatistics();
+            assertEquals(1, statistics.getParameterEncryptionMetadataCacheMissCount());
+            assertEquals(1, statistics.getParameterEncryptionMetadataCacheHitCount());
+
+            dropTables(stmt);
+        }
+    }
+
+    /**
+     * Tests reading encrypted columns in a columnar batch that is decrypted by several threads.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void alwaysEncryptedParallelDecryption() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(connectionString
+                + ";trustservercertificate=true;columnEncryptionSetting=enabled;columnDecryptionParallelism=4;", AEInfo);
+                Statement stmt = connection.createStatement()) {
+            dropTables(stmt);
+
+            createNumericTable(stmt);
+            for (int i = 0; i < 10; i++)
+                populateNumericTable(connection);
+
+            try (SQLServerResultSet rs = (SQLServerResultSet) stmt
+                    .executeQuery("select * from " + AbstractSQLGenerator.escapeIdentifier(numericTable))) {
+                SQLServerColumnarBatch batch = rs.fetchColumnarBatch(100);
+                assertEquals(10, batch.getRowCount());
+                for (int row = 0; row < batch.getRowCount(); row++) {
+                    for (int column = 1; column <= 3; column++)
+                        assertEquals(2 == column ? 0 : 1, batch.getColumn(column).getLong(row));
+                    for (int column = 4; column <= 6; column++)
+                        assertEquals(255, batch.getColumn(column).getLong(row));
+                    for (int column = 7; column <= 9; column++) {
+                        SQLServerColumnVector vector = batch.getColumn(column);
+                        assertEquals(false, vector.isNull(row));
+                        assertEquals(127, vector.getLong(row));
+                    }
+                }
+            }
+
+            dropTables(stmt);
+        }
+    }
+
+    /**
+     * Tests that a column encryption key is decrypted by the key store once and then read from the cache.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void columnEncryptionKeyCacheStatistics() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                connectionString + ";trustservercertificate=true;columnEncryptionSetting=enabled;", AEInfo);
+                Statement stmt = connection.createStatement()) {
+            dropTables(stmt);
+
+            createNumericTable(stmt);
+            populateNumericTable(connection);
+
+            SQLServerColumnEncryptionKeyCacheStatistics before = SQLServerColumnEncryptionKeyCacheStatistics
+                    .getStatistics();
+            for (int i = 0; i < 3; i++) {
+                try (ResultSet rs = stmt
+                        .executeQuery("select * from " + AbstractSQLGenerator.escapeIdentifier(numericTable))) {
+                    while (rs.next())
+                        assertEquals(255, rs.getInt(4));
+                }
+            }
+            SQLServerColumnEncryptionKeyCacheStatistics after = SQLServerColumnEncryptionKeyCacheStatistics
+                    .getStatistics();
+            assertTrue(after.getHitCount() - before.getHitCount() >= 2);
+            assertTrue(after.getMissCount() - before.getMissCount() <= 1);
+            assertTrue(after.getSize() <= after.getCapacity());
+
+            dropTables(stmt);
+        }
+    }
+
     private void populateDateTable(Connection connection) throws SQLException {
         String sql = "insert into " + AbstractSQLGenerator.escapeIdentifier(dateTable) + " values( " + "?" + ")";
         try (PreparedStatement sqlPstmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
@@ -0,0 +1,110 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+
+/**
+ * Tests the BulkCSVRowParser class. The rows are read from a stream that returns one byte per read, so that every
+ * delimiter, quote and line terminator is split across reads, and each row is moved to the start of the buffer while it
+ * is read.
+ *
+ */
+@RunWith(JUnitPlatform.class)
+public class BulkCSVRowParserTest {
+
+    @Test
+    public void testLineTerminators() throws IOException {
+        String[][] expected = {{"a", "b"}, {"c", "d"}, {"e", ""}, {"", "f"}, {""}, {"g", "h"}};
+        assertRows(expected, "a,b\r\nc,d\re,\n,f\r\n\r\ng,h\r\n", ",", false);
+    }
+
+    @Test
+    public void testUnterminatedLastLine() throws IOException {
+        assertRows(new String[][] {{"a", "b"}, {"c", "d"}}, "a,b\nc,d", ",", false);
+        assertRows(new String[][] {{"a", "b"}, {"c", ""}}, "a,b\r\nc,", ",", false);
+        assertRows(new String[][] {{"a"}, {"b"}}, "a\r\nb", ",", false);
+        assertRows(new String[][] {{"a", "b c"}}, "a,\"b c\"", ",", true);
+        assertRows(new String[][] {}, "", ",", false);
+    }
+
+    @Test
+    public void testMultiByteDelimiter() throws IOException {
+        String[][] expected = {{"a", "b", "c"}, {"d|e", "f", ""}, {"", "|g|"}};
+        assertRows(expected, "a||b||c\nd|e||f||\r\n|||g|", "||", false);
+    }
+
+    @Test
+    public void testQuotedFields() throws IOException {
+        String[][] expected = {{"", "a\"b", "\""}, {"c,d", "e\r\nf", "\"\""}, {"", ""}};
+        assertRows(expected, "\"\",\"a\"\"b\",\"\"\"\"\n\"c,d\",\"e\r\nf\",\"\"\"\"\"\"\r\n\"\",\"\"", ",", true);
+    }
+
+    @Test
+    public void testQuotedFieldsDisabled() throws IOException {
+        String[][] expected = {{"\"\"", "\"a"}, {"b\"\"", ""}};
+        assertRows(expected, "\"\",\"a\nb\"\",", ",", false);
+    }
+
+    @Test
+    public void testQuoteBeforeDelimiter() throws IOException {
+        String[][] expected = {{"", "a"}, {"b", ""}};
+        assertRows(expected, "\"\"||a\n\"b\"||\"\"", "||", true);
+    }
+
+    /**
+     * Asserts the rows parsed from a file, read one byte at a time and all at once.
+     */
+    private static void assertRows(String[][] expected, String file, String delimiter,
+            boolean isQuotedFieldEnabled) throws IOException {
+        byte[] bytes = file.getBytes(StandardCharsets.UTF_8);
+        assertRows(expected, new ByteArrayInputStream(bytes), delimiter, isQuotedFieldEnabled);
+        assertRows(expected, new OneByteInputStream(bytes), delimiter, isQuotedFieldEnabled);
+    }
+
+    private static void assertRows(String[][] expected, InputStream in, String delimiter,
+            boolean isQuotedFieldEnabled) throws IOException {
+        BulkCSVRowParser parser = new BulkCSVRowParser(in, StandardCharsets.UTF_8, delimiter);
+        parser.setQuotedFieldEnabled(isQuotedFieldEnabled);
+        List<String[]> rows = new ArrayList<>();
+        while (parser.nextRow())
+            rows.add(parser.getStrings());
+
+        assertEquals(expected.length, rows.size());
+        for (int i = 0; i < expected.length; i++)
+            assertArrayEquals(expected[i], rows.get(i), "row " + i);
+
+        // The end of the stream stays reached
+        assertFalse(parser.nextRow());
+    }
+
+    /**
+     * Returns one byte per read.
+     */
+    private static final class OneByteInputStream extends ByteArrayInputStream {
+        OneByteInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(1, len));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy.BulkColumnMetaData;
+
+
+/**
+ * Tests the bytes the column writers of SQLServerBulkCopy encode a row from a CSV file into.
+ *
+ */
+@RunWith(JUnitPlatform.class)
+public class BulkCopyColumnWriterTest {
+
+    private static final byte[] ROOT_KEY = new byte[32];
+
+    static {
+        for (int i = 0; i < ROOT_KEY.length; i++)
+            ROOT_KEY[i] = (byte) i;
+    }
+
+    /**
+     * Writes a row of each type specialized writer, the generic writer and a string sent to a binary column.
+     */
+    @Test
+    public void testMixedTypeRow() throws Exception {
+        // Source JDBC type, precision, scale and destination type of each column
+        Object[][] columns = {{Types.INTEGER, 10, 0, SSType.INTEGER}, {Types.BIGINT, 19, 0, SSType.BIGINT},
+                {Types.SMALLINT, 5, 0, SSType.SMALLINT}, {Types.TINYINT, 3, 0, SSType.TINYINT},
+                {Types.BIT, 1, 0, SSType.BIT}, {Types.DOUBLE, 15, 0, SSType.FLOAT}, {Types.REAL, 7, 0, SSType.REAL},
+                {Types.NVARCHAR, 20, 0, SSType.NVARCHAR}, {Types.VARCHAR, 20, 0, SSType.VARCHAR},
+                {Types.VARBINARY, 20, 0, SSType.VARBINARY}, {Types.VARCHAR, 20, 0, SSType.VARBINARY},
+                {Types.DECIMAL, 10, 2, SSType.DECIMAL}, {Types.INTEGER, 10, 0, SSType.INTEGER}};
+        String row = "42,-2,300,255,1,1.5,-0.25,H\u00e9,abc,0A0B,0C0D0E,12.50,";
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(TDS.TDS_ROW);
+        // Nullable fixed length types are sent with their length
+        expected.write(0x04);
+        expected.write(littleEndian(42, 4));
+        expected.write(0x08);
+        expected.write(littleEndian(-2, 8));
+        expected.write(0x02);
+        expected.write(littleEndian(300, 2));
+        expected.write(new byte[] {0x01, (byte) 0xFF});
+        expected.write(new byte[] {0x01, 0x01});
+        expected.write(0x08);
+        expected.write(littleEndian(Double.doubleToLongBits(1.5), 8));
+        expected.write(0x04);
+        expected.write(littleEndian(Float.floatToIntBits(-0.25f), 4));
+        expected.write(littleEndian(4, 2));
+        expected.write("H\u00e9".getBytes(StandardCharsets.UTF_16LE));
+        expected.write(littleEndian(3, 2));
+        expected.write("abc".getBytes(StandardCharsets.US_ASCII));
+        expected.write(new byte[] {0x02, 0x00, 0x0A, 0x0B});
+        // The hexadecimal string sent to the varbinary column is converted by the generic writer
+        expected.write(new byte[] {0x03, 0x00, 0x0C, 0x0D, 0x0E});
+        // The decimal is written by the generic writer, always with 16 bytes of unscaled value and a positive sign
+        expected.write(new byte[] {0x11, 0x01});
+        expected.write(littleEndian(1250, 8));
+        expected.write(new byte[8]);
+        // Null int
+        expected.write(0x00);
+
+        assertArrayEquals(expected.toByteArray(), encodeRow(row, columns, 0, null));
+    }
+
+    /**
+     * Writes a value to an encrypted column, which is sent as varbinary.
+     */
+    @Test
+    public void testEncryptedColumn() throws Exception {
+        // The second column is encrypted
+        Object[][] columns = {{Types.INTEGER, 10, 0, SSType.INTEGER}, {Types.INTEGER, 10, 0, SSType.INTEGER}};
+        SQLServerAeadAes256CbcHmac256Algorithm algorithm = new SQLServerAeadAes256CbcHmac256Algorithm(
+                new SQLServerAeadAes256CbcHmac256EncryptionKey(ROOT_KEY,
+                        SQLServerAeadAes256CbcHmac256Algorithm.algorithmName),
+                SQLServerEncryptionType.Deterministic, (byte) 0x01);
+
+        // Integers are normalized to 8 bytes before they are encrypted
+        byte[] cipherText = algorithm
+                .encryptData(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(7).array());
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(TDS.TDS_ROW);
+        expected.write(0x04);
+        expected.write(littleEndian(6, 4));
+        expected.write(littleEndian(cipherText.length, 2));
+        expected.write(cipherText);
+
+        assertArrayEquals(expected.toByteArray(), encodeRow("6,7", columns, 2, algorithm));
+    }
+
+    private static byte[] littleEndian(long value, int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++)
+            bytes[i] = (byte) (value >> (8 * i));
+        return bytes;
+    }
+
+    /**
+     * Encodes a CSV row through the column writers, and returns the payload of the bulk load message. The destination
+     * metadata, which bulk copy normally queries from the server, is built from the columns. The destination column of
+     * the given ordinal, if any, is encrypted with the given algorithm.
+     */
+    private static byte[] encodeRow(String row, Object[][] columns, int encryptedOrdinal,
+            SQLServerEncryptionAlgorithm algorithm) throws Exception {
+        SQLServerConnection con = InMemoryTDS.newConnection();
+        InMemoryTDS.setField(con, "trustedServerNameAE", "localhost");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TDSWriter writer = InMemoryTDS.newWriter(con, TDS.PKT_BULK, out);
+
+        SQLServerBulkCSVFileRecord record = new SQLServerBulkCSVFileRecord(
+                new ByteArrayInputStream(row.getBytes(StandardCharsets.UTF_8)), "UTF-8", ",", false);
+        for (int i = 0; i < columns.length; i++)
+            record.addColumnMetadata(i + 1, "c" + (i + 1), (Integer) columns[i][0], (Integer) columns[i][1],
+                    (Integer) columns[i][2]);
+        record.next();
+
+        SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con);
+        InMemoryTDS.setField(bulkCopy, "sourceBulkRecord", record);
+        invoke(bulkCopy, "getSourceMetadata");
+
+        Map<Integer, BulkColumnMetaData> destColumnMetadata = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            SSType ssType = (SSType) columns[i][3];
+            BulkColumnMetaData destColumn = bulkCopy.new BulkColumnMetaData("c" + (i + 1), true,
+                    (Integer) columns[i][1], (Integer) columns[i][2], ssType.getJDBCType().getIntValue(), null);
+            destColumn.ssType = ssType;
+            destColumn.collation = con.getDatabaseCollation();
+            if (i + 1 == encryptedOrdinal) {
+                // Encrypted columns are varbinary columns on the server
+                destColumn.ssType = SSType.VARBINARY;
+                destColumn.cryptoMeta = newCryptoMetadata(ssType, algorithm);
+            }
+            destColumnMetadata.put(i + 1, destColumn);
+        }
+        InMemoryTDS.setField(bulkCopy, "destColumnMetadata", destColumnMetadata);
+        InMemoryTDS.setField(bulkCopy, "destColumnCount", columns.length);
+        invoke(bulkCopy, "validateColumnMappings");
+        invoke(bulkCopy, "compileColumnWriters");
+
+        writer.writeByte((byte) TDS.TDS_ROW);
+        bulkCopy.writeRowData(writer, record.getRowData());
+        writer.endMessage();
+
+        byte[] message = out.toByteArray();
+        return Arrays.copyOfRange(message, TDS.PACKET_HEADER_SIZE, message.length);
+    }
+
+    /**
+     * Returns the metadata of a column encrypted with the given algorithm, whose plaintext is of the given type.
+     */
+    private static CryptoMetadata newCryptoMetadata(SSType baseType,
+            SQLServerEncryptionAlgorithm algorithm) throws Exception {
+        Constructor<TypeInfo> constructor = TypeInfo.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        TypeInfo baseTypeInfo = constructor.newInstance();
+        baseTypeInfo.setSSType(baseType);
+
+        CryptoMetadata cryptoMeta = new CryptoMetadata(null, (short) 0, (byte) TDS.AEAD_AES_256_CBC_HMAC_SHA256,
+                SQLServerAeadAes256CbcHmac256Algorithm.algorithmName,
+                SQLServerEncryptionType.Deterministic.getValue(), (byte) 0x01);
+        cryptoMeta.setBaseTypeInfo(baseTypeInfo);
+        cryptoMeta.setEncryptionAlgorithm(algorithm);
+        return cryptoMeta;
+    }
+
+    private static void invoke(Object target, String methodName) throws ReflectiveOperationException {
+        Method method = target.getClass().getDeclaredMethod(methodName);
+        method.setAccessible(true);
+        method.invoke(target);
+    }
+}
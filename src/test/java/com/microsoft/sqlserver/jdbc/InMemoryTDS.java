@@ -0,0 +1,161 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+
+
+/**
+ * Sets up the TDS layer of the driver over in-memory streams, so that the encoding and decoding classes can be tested
+ * and benchmarked without a server. The connection is never opened; the few fields that login would set are set directly.
+ */
+final class InMemoryTDS {
+    /** SQL_Latin1_General_CP1_CI_AS */
+    static final byte[] COLLATION = {0x09, 0x04, (byte) 0xD0, 0x00, 0x34};
+
+    static final int PACKET_SIZE = TDS.DEFAULT_PACKET_SIZE;
+
+    /** Output stream that discards the request packets written by the driver */
+    static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {}
+
+        @Override
+        public void write(byte[] b, int off, int len) {}
+    };
+
+    private InMemoryTDS() {}
+
+    /**
+     * Returns an unconnected connection that looks as if it had logged in to SQL Server 2016 with the default packet
+     * size and a SQL_Latin1_General_CP1_CI_AS database collation.
+     */
+    static SQLServerConnection newConnection() throws Exception {
+        SQLServerConnection con = new SQLServerConnection("InMemoryTDS");
+        setField(con, "tdsVersion", TDS.VER_DENALI);
+        setField(con, "serverMajorVersion", 13);
+        setField(con, "tdsPacketSize", PACKET_SIZE);
+        con.columnEncryptionSetting = ColumnEncryptionSetting.Disabled.toString();
+        setField(con, "responseBuffering", "adaptive");
+        setField(con, "databaseCollation", newReader(con, COLLATION).readCollation());
+        return con;
+    }
+
+    /**
+     * Makes the connection look open, with a channel that returns the given response message to the next request.
+     * Statements executed on the connection afterwards read their results from the response.
+     */
+    static void setResponse(SQLServerConnection con, byte[] payload) throws Exception {
+        TDSChannel channel = newChannel(con, new ByteArrayInputStream(toPackets(payload)), DISCARD);
+        channel.numMsgsSent = 0;
+        setField(con, "tdsChannel", channel);
+
+        Field state = SQLServerConnection.class.getDeclaredField("state");
+        state.setAccessible(true);
+        for (Object value : state.getType().getEnumConstants()) {
+            if ("Opened".equals(value.toString()))
+                state.set(con, value);
+        }
+    }
+
+    /**
+     * Returns a channel that reads the response from the given stream and writes requests to the given stream.
+     */
+    static TDSChannel newChannel(SQLServerConnection con, InputStream in, OutputStream out) throws Exception {
+        TDSChannel channel = new TDSChannel(con);
+        setField(channel, "inputStream", in);
+        setField(channel, "outputStream", out);
+
+        // Responses are not preceded by requests
+        channel.numMsgsSent = Integer.MAX_VALUE;
+        return channel;
+    }
+
+    /**
+     * Returns a reader over a response message with the given payload. The whole message is read into memory, so
+     * reading past the end of the payload fails.
+     */
+    static TDSReader newReader(SQLServerConnection con, byte[] payload) throws Exception {
+        TDSChannel channel = newChannel(con, new ByteArrayInputStream(toPackets(payload)), DISCARD);
+        TDSReader reader = new TDSReader(channel, con, null);
+        for (int i = 0; i < packetCount(payload.length); i++)
+            reader.readPacket();
+        return reader;
+    }
+
+    /**
+     * Returns a writer that has started a message of the given type. The packets written are discarded, so the
+     * message can be written to indefinitely.
+     */
+    static TDSWriter newWriter(SQLServerConnection con, byte tdsMessageType) throws Exception {
+        return newWriter(con, tdsMessageType, DISCARD);
+    }
+
+    /**
+     * Returns a writer that has started a message of the given type, and writes its packets to the given stream.
+     */
+    static TDSWriter newWriter(SQLServerConnection con, byte tdsMessageType, OutputStream out) throws Exception {
+        TDSChannel channel = newChannel(con, new ByteArrayInputStream(new byte[0]), out);
+        TDSWriter writer = channel.getWriter();
+        writer.startMessage(new WriteOnlyCommand(), tdsMessageType);
+        return writer;
+    }
+
+    private static int packetCount(int payloadLength) {
+        int maxPayload = PACKET_SIZE - TDS.PACKET_HEADER_SIZE;
+        return Math.max(1, (payloadLength + maxPayload - 1) / maxPayload);
+    }
+
+    /**
+     * Splits a message payload into reply packets.
+     */
+    static byte[] toPackets(byte[] payload) {
+        int maxPayload = PACKET_SIZE - TDS.PACKET_HEADER_SIZE;
+        int count = packetCount(payload.length);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + count * TDS.PACKET_HEADER_SIZE);
+        for (int i = 0; i < count; i++) {
+            int offset = i * maxPayload;
+            int length = Math.min(maxPayload, payload.length - offset);
+            int packetLength = length + TDS.PACKET_HEADER_SIZE;
+            out.write(TDS.PKT_REPLY);
+            out.write((i == count - 1) ? TDS.STATUS_BIT_EOM : 0);
+            out.write((packetLength >> 8) & 0xFF);
+            out.write(packetLength & 0xFF);
+            out.write(0); // SPID
+            out.write(0);
+            out.write(i + 1); // Packet number
+            out.write(0); // Window
+            out.write(payload, offset, length);
+        }
+        return out.toByteArray();
+    }
+
+    static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * A command that writes a request without ever reading its response.
+     */
+    static final class WriteOnlyCommand extends UninterruptableTDSCommand {
+        private static final long serialVersionUID = 1L;
+
+        WriteOnlyCommand() {
+            super("InMemoryTDS");
+        }
+
+        @Override
+        boolean doExecute() throws SQLServerException {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.SQLServerRequestTiming.Phase;
+
+
+/**
+ * Tests the SQLServerRequestTimingHistogram class
+ *
+ */
+@RunWith(JUnitPlatform.class)
+public class SQLServerRequestTimingHistogramTest {
+
+    private static SQLServerRequestTiming timing(long totalNanos) {
+        long[] nanos = new long[Phase.values().length];
+        nanos[Phase.TOTAL.ordinal()] = totalNanos;
+        return new SQLServerRequestTiming("test", nanos);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 16, "expected about " + expected + " but was " + actual);
+    }
+
+    @Test
+    public void testBuckets() {
+        int previous = -1;
+        for (long value : new long[] {0, 1, 15, 16, 17, 31, 32, 1000, 1L << 40, Long.MAX_VALUE}) {
+            int index = SQLServerRequestTimingHistogram.bucketIndex(value);
+            assertTrue(index > previous);
+            assertTrue(SQLServerRequestTimingHistogram.bucketHighestValue(index) >= value);
+            assertWithin(value, SQLServerRequestTimingHistogram.bucketHighestValue(index));
+            previous = index;
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        SQLServerRequestTimingHistogram histogram = new SQLServerRequestTimingHistogram();
+        assertEquals(0, histogram.getPercentileNanos(Phase.TOTAL, 99));
+
+        for (int i = 1; i <= 1000; i++)
+            histogram.onRequestComplete(timing(i * 1000L));
+
+        assertEquals(1000, histogram.getRequestCount());
+        assertEquals(1000000L, histogram.getMaxNanos(Phase.TOTAL));
+        assertEquals(500500L, histogram.getMeanNanos(Phase.TOTAL));
+        assertWithin(500000L, histogram.getPercentileNanos(Phase.TOTAL, 50));
+        assertWithin(990000L, histogram.getPercentileNanos(Phase.TOTAL, 99));
+        assertEquals(1000000L, histogram.getPercentileNanos(Phase.TOTAL, 100));
+        assertEquals(0, histogram.getPercentileNanos(Phase.SERVER, 99));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(Phase.TOTAL, 101));
+
+        histogram.reset();
+        assertEquals(0, histogram.getRequestCount());
+        assertEquals(0, histogram.getMaxNanos(Phase.TOTAL));
+        assertEquals(0, histogram.getPercentileNanos(Phase.TOTAL, 50));
+    }
+}
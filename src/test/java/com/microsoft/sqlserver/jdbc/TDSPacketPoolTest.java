@@ -0,0 +1,87 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+
+/**
+ * Tests the TDSPacketPool class
+ *
+ */
+@RunWith(JUnitPlatform.class)
+public class TDSPacketPoolTest {
+
+    private static TDSPacket consumed(TDSPacketPool pool, int size) {
+        TDSPacket packet = pool.acquire(size);
+        packet.payloadLength = size;
+        packet.isUnlinked = true;
+        return packet;
+    }
+
+    @Test
+    public void testReuse() {
+        TDSPacketPool pool = new TDSPacketPool();
+        TDSPacket packet = consumed(pool, TDS.DEFAULT_PACKET_SIZE);
+        assertEquals(0, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+
+        pool.release(packet);
+        TDSPacket reused = pool.acquire(TDS.DEFAULT_PACKET_SIZE);
+        assertSame(packet, reused);
+        assertEquals(0, reused.payloadLength);
+        assertNull(reused.next);
+        assertFalse(reused.isRecyclable());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+    }
+
+    @Test
+    public void testMarkedPacketIsNotRecyclable() {
+        TDSPacketPool pool = new TDSPacketPool();
+        TDSPacket packet = consumed(pool, TDS.DEFAULT_PACKET_SIZE);
+        packet.isMarked = true;
+        assertFalse(packet.isRecyclable());
+    }
+
+    @Test
+    public void testPacketSizeChange() {
+        TDSPacketPool pool = new TDSPacketPool();
+        TDSPacket packet = consumed(pool, TDS.INITIAL_PACKET_SIZE);
+        pool.release(packet);
+
+        TDSPacket resized = pool.acquire(TDS.DEFAULT_PACKET_SIZE);
+        assertNotSame(packet, resized);
+        assertEquals(TDS.DEFAULT_PACKET_SIZE, resized.payload.length);
+        assertEquals(0, pool.getHitCount());
+        assertEquals(2, pool.getMissCount());
+    }
+
+    @Test
+    public void testRetainedMemoryCap() {
+        TDSPacketPool pool = new TDSPacketPool();
+        int maxRetained = TDSPacketPool.MAX_RETAINED_BYTES / TDS.MAX_PACKET_SIZE;
+
+        TDSPacket[] packets = new TDSPacket[maxRetained + 10];
+        for (int i = 0; i < packets.length; i++) {
+            packets[i] = consumed(pool, TDS.MAX_PACKET_SIZE);
+        }
+        for (TDSPacket packet : packets) {
+            pool.release(packet);
+        }
+        for (int i = 0; i < packets.length; i++) {
+            pool.acquire(TDS.MAX_PACKET_SIZE);
+        }
+        assertEquals(maxRetained, pool.getHitCount());
+    }
+}
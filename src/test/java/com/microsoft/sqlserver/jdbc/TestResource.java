@@ -61,6 +61,7 @@ public final class TestResource extends ListResourceBundle {
             {"R_issueAzureDW", "This is a known failure in DW for now."},
             {"R_cursorAzureDW", "Cursor support is not implemented for Azure DW."},
             {"R_spatialDWNotSupported", "Geometry/Geography is not supported for DW."},
+            {"R_triggersDWNotSupported", "Triggers and check constraints are not supported for DW."},
             {"R_expectedExceptionNotThrown", "Expected exception is not thrown."},
             {"R_errorNotCalled", "Error occurred is not called."}, {"R_errorCalled", "Error occurred is called."},
             {"R_supportUnwrapping", "{0} supports unwrapping."},
@@ -169,5 +170,6 @@ public final class TestResource extends ListResourceBundle {
             {"R_incorrectColumnNumInsertDW",
                     "Column name or number of supplied values does not match table definition."},
             {"R_incorrectSyntaxTable", "Incorrect syntax near the keyword 'table'."},
-            {"R_incorrectSyntaxTableDW", "Incorrect syntax near 'table'."},};
+            {"R_incorrectSyntaxTableDW", "Incorrect syntax near 'table'."},
+            {"R_asyncExecutionRejected", "The executor rejected the asynchronous execution."},};
 }
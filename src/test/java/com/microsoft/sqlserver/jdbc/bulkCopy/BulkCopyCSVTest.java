@@ -5,16 +5,23 @@
 package com.microsoft.sqlserver.jdbc.bulkCopy;
 
 import static org.junit.Assert.fail;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.math.BigDecimal;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.Arrays;
 
 import org.junit.jupiter.api.AfterAll;
@@ -116,6 +123,32 @@ public class BulkCopyCSVTest extends AbstractTest {
         }
     }
 
+    /**
+     * test reading quoted fields that contain the delimiter, line breaks and quotes
+     * 
+     * @throws SQLException
+     */
+    @Test
+    @DisplayName("Test SQLServerBulkCSVFileRecord with quoted fields")
+    public void testCSVEscapeColumnDelimiters() throws SQLException {
+        String csv = "id,name,price\r\n1,\"Smith, John\",12.50\r\n2,\"line 1\nline 2\",-3\n3,\"say \"\"hi\"\"\",\n";
+        try (SQLServerBulkCSVFileRecord fileRecord = new SQLServerBulkCSVFileRecord(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), encoding, delimiter, true)) {
+            fileRecord.addColumnMetadata(1, null, Types.INTEGER, 0, 0);
+            fileRecord.addColumnMetadata(2, null, Types.VARCHAR, 50, 0);
+            fileRecord.addColumnMetadata(3, null, Types.DECIMAL, 10, 2);
+            fileRecord.setEscapeColumnDelimitersCSV(true);
+
+            assertTrue(fileRecord.next());
+            assertArrayEquals(new Object[] {1, "Smith, John", new BigDecimal("12.50")}, fileRecord.getRowData());
+            assertTrue(fileRecord.next());
+            assertArrayEquals(new Object[] {2, "line 1\nline 2", new BigDecimal("-3.00")}, fileRecord.getRowData());
+            assertTrue(fileRecord.next());
+            assertArrayEquals(new Object[] {3, "say \"hi\"", null}, fileRecord.getRowData());
+            assertFalse(fileRecord.next());
+        }
+    }
+
     private void testBulkCopyCSV(SQLServerBulkCSVFileRecord fileRecord, boolean firstLineIsColumnNames) {
         DBTable destTable = null;
         try (BufferedReader br = new BufferedReader(
@@ -0,0 +1,175 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.bulkCopy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.SQLServerSortOrder;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+
+
+/**
+ * Tests the ORDER hint of bulk copy, declared with SQLServerBulkCopyOptions.addColumnOrderHint.
+ */
+@RunWith(JUnitPlatform.class)
+public class BulkCopyOrderHintTest extends AbstractTest {
+
+    private static final int ROW_COUNT = 1000;
+
+    private static String srcTable = RandomUtil.getIdentifier("BulkCopyOrderHintTest_SourceTable");
+    private static String desTable = RandomUtil.getIdentifier("BulkCopyOrderHintTest_DestinationTable");
+
+    /**
+     * Copies rows sorted by the clustered index of the destination, in both directions.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testSortedSource() throws SQLException {
+        copy("id asc, c1 desc", SQLServerSortOrder.Ascending, SQLServerSortOrder.Descending);
+        copy("id desc, c1 asc", SQLServerSortOrder.Descending, SQLServerSortOrder.Ascending);
+    }
+
+    /**
+     * Checks that order hints name the mapped columns regardless of case, as column mappings do.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testColumnNameCase() throws SQLException {
+        copy("ID", "C1", "id asc, c1 desc", SQLServerSortOrder.Ascending, SQLServerSortOrder.Descending);
+    }
+
+    /**
+     * Checks that the server rejects rows that are not in the declared order.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testUnsortedSource() throws SQLException {
+        assertThrows(SQLServerException.class,
+                () -> copy("id desc, c1 asc", SQLServerSortOrder.Ascending, SQLServerSortOrder.Ascending));
+    }
+
+    /**
+     * Checks that an order hint must name a mapped destination column.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testUnmappedColumn() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(connectionString); Statement stmt = conn.createStatement()) {
+            createTables(stmt);
+
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            options.addColumnOrderHint("c2", SQLServerSortOrder.Ascending);
+            try (ResultSet rs = stmt
+                    .executeQuery("select id, c1 from " + AbstractSQLGenerator.escapeIdentifier(srcTable));
+                    SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(conn)) {
+                bulkCopy.setDestinationTableName(AbstractSQLGenerator.escapeIdentifier(desTable));
+                bulkCopy.setBulkCopyOptions(options);
+                bulkCopy.addColumnMapping(1, "id");
+                bulkCopy.addColumnMapping(2, "c1");
+                SQLServerException e = assertThrows(SQLServerException.class, () -> bulkCopy.writeToServer(rs));
+                assertTrue(e.getMessage().contains("c2"), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Checks the validation of order hints.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testInvalidOrderHint() throws SQLException {
+        SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+        assertThrows(SQLServerException.class, () -> options.addColumnOrderHint("id", SQLServerSortOrder.Unspecified));
+        assertThrows(SQLServerException.class, () -> options.addColumnOrderHint(" ", SQLServerSortOrder.Ascending));
+        options.addColumnOrderHint("id", SQLServerSortOrder.Ascending);
+        assertThrows(SQLServerException.class, () -> options.addColumnOrderHint("id", SQLServerSortOrder.Descending));
+        assertThrows(SQLServerException.class, () -> options.addColumnOrderHint("ID", SQLServerSortOrder.Ascending));
+        assertEquals(1, options.getColumnOrderHints().size());
+        options.clearColumnOrderHints();
+        assertTrue(options.getColumnOrderHints().isEmpty());
+    }
+
+    private void copy(String sourceOrder, SQLServerSortOrder idOrder,
+            SQLServerSortOrder c1Order) throws SQLException {
+        copy("id", "c1", sourceOrder, idOrder, c1Order);
+    }
+
+    private void copy(String idName, String c1Name, String sourceOrder, SQLServerSortOrder idOrder,
+            SQLServerSortOrder c1Order) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(connectionString); Statement stmt = conn.createStatement()) {
+            createTables(stmt);
+
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            options.setTableLock(true);
+            options.addColumnOrderHint(idName, idOrder);
+            options.addColumnOrderHint(c1Name, c1Order);
+            try (ResultSet rs = stmt.executeQuery("select * from " + AbstractSQLGenerator.escapeIdentifier(srcTable)
+                    + " order by " + sourceOrder);
+                    SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(conn)) {
+                bulkCopy.setDestinationTableName(AbstractSQLGenerator.escapeIdentifier(desTable));
+                bulkCopy.setBulkCopyOptions(options);
+                bulkCopy.writeToServer(rs);
+            }
+
+            try (ResultSet rs = stmt
+                    .executeQuery("select count(*) from " + AbstractSQLGenerator.escapeIdentifier(desTable))) {
+                rs.next();
+                assertEquals(ROW_COUNT, rs.getInt(1));
+            }
+        }
+    }
+
+    private static void dropTables(Statement stmt) throws SQLException {
+        TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(srcTable), stmt);
+        TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(desTable), stmt);
+    }
+
+    private static void createTables(Statement stmt) throws SQLException {
+        dropTables(stmt);
+        stmt.execute("create table " + AbstractSQLGenerator.escapeIdentifier(srcTable)
+                + " (id int not null, c1 int not null, c2 nvarchar(50) null)");
+        stmt.execute("create table " + AbstractSQLGenerator.escapeIdentifier(desTable)
+                + " (id int not null, c1 int not null, c2 nvarchar(50) null, primary key clustered (id, c1))");
+        stmt.execute("insert into " + AbstractSQLGenerator.escapeIdentifier(srcTable) + " select top " + ROW_COUNT
+                + " n / 2, n % 2, N'name ' + cast(n as nvarchar(10)) from (select row_number() over"
+                + " (order by a.object_id) as n from sys.all_objects a cross join sys.all_objects b) as numbers");
+    }
+
+    /**
+     * drops tables
+     *
+     * @throws SQLException
+     */
+    @AfterAll
+    public static void terminate() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(connectionString); Statement stmt = conn.createStatement()) {
+            dropTables(stmt);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.bulkCopy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCSVFileRecord;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerDataSource;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.SQLServerParallelBulkCopy;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+
+
+/**
+ * Tests bulk copy over several connections with SQLServerParallelBulkCopy.
+ */
+@RunWith(JUnitPlatform.class)
+public class BulkCopyParallelTest extends AbstractTest {
+
+    private static final int ROW_COUNT = 5000;
+    private static final int DEGREE_OF_PARALLELISM = 4;
+
+    private static String srcTable = RandomUtil.getIdentifier("BulkCopyParallelTest_SourceTable");
+    private static String desTable = RandomUtil.getIdentifier("BulkCopyParallelTest_DestinationTable");
+
+    /**
+     * Copies a ResultSet into a heap table over several connections with table locks, and checks that every row was
+     * copied once.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testResultSetSource() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(connectionString); Statement stmt = conn.createStatement()) {
+            dropTables(stmt);
+            createTables(stmt);
+            stmt.execute("insert into " + AbstractSQLGenerator.escapeIdentifier(srcTable) + " select top " + ROW_COUNT
+                    + " n, n * 1.25, N'name ' + cast(n as nvarchar(10)),"
+                    + " dateadd(second, n, '2019-01-02 03:04:05.1234567'),"
+                    + " dateadd(second, n, '01:02:03.1234567'), dateadd(day, n, '2019-01-02'),"
+                    + " case when n % 10 = 0 then null else n end"
+                    + " from (select row_number() over (order by a.object_id) as n"
+                    + " from sys.all_objects a cross join sys.all_objects b) as numbers");
+
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            options.setTableLock(true);
+            try (ResultSet rs = stmt.executeQuery("select * from " + AbstractSQLGenerator.escapeIdentifier(srcTable));
+                    SQLServerParallelBulkCopy bulkCopy = new SQLServerParallelBulkCopy(connectionString,
+                            DEGREE_OF_PARALLELISM)) {
+                bulkCopy.setDestinationTableName(AbstractSQLGenerator.escapeIdentifier(desTable));
+                bulkCopy.setBulkCopyOptions(options);
+                bulkCopy.setRowsPerChunk(100);
+                bulkCopy.writeToServer(rs);
+                assertEquals(ROW_COUNT, bulkCopy.getRowsCopied());
+            }
+
+            verifyDestinationTableData(stmt, ROW_COUNT);
+        }
+    }
+
+    /**
+     * Copies a CSV file into a table over several connections obtained from a DataSource, with column mappings.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testBulkRecordSource() throws SQLException {
+        StringBuilder csv = new StringBuilder("id,name\n");
+        for (int i = 1; i <= ROW_COUNT; i++) {
+            csv.append(i).append(",name ").append(i).append('\n');
+        }
+
+        SQLServerDataSource ds = new SQLServerDataSource();
+        ds.setURL(connectionString);
+
+        try (Connection conn = DriverManager.getConnection(connectionString); Statement stmt = conn.createStatement()) {
+            dropTables(stmt);
+            createTables(stmt);
+
+            try (SQLServerBulkCSVFileRecord record = new SQLServerBulkCSVFileRecord(
+                    new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), "UTF-8", ",", true);
+                    SQLServerParallelBulkCopy bulkCopy = new SQLServerParallelBulkCopy(ds, DEGREE_OF_PARALLELISM)) {
+                record.addColumnMetadata(1, null, Types.INTEGER, 0, 0);
+                record.addColumnMetadata(2, null, Types.NVARCHAR, 50, 0);
+                bulkCopy.setDestinationTableName(AbstractSQLGenerator.escapeIdentifier(desTable));
+                bulkCopy.addColumnMapping("id", "id");
+                bulkCopy.addColumnMapping("name", "c2");
+                bulkCopy.writeToServer(record);
+                assertEquals(ROW_COUNT, bulkCopy.getRowsCopied());
+            }
+
+            try (ResultSet rs = stmt.executeQuery("select count(*), count(distinct id), sum(cast(id as bigint)) from "
+                    + AbstractSQLGenerator.escapeIdentifier(desTable)
+                    + " where c2 = N'name ' + cast(id as nvarchar(10))")) {
+                rs.next();
+                assertEquals(ROW_COUNT, rs.getInt(1));
+                assertEquals(ROW_COUNT, rs.getInt(2));
+                assertEquals((long) ROW_COUNT * (ROW_COUNT + 1) / 2, rs.getLong(3));
+            }
+        }
+    }
+
+    /**
+     * Checks that the failures of all connections are reported.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testMissingDestinationTable() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(connectionString); Statement stmt = conn.createStatement()) {
+            dropTables(stmt);
+            createTables(stmt);
+            stmt.execute("insert into " + AbstractSQLGenerator.escapeIdentifier(srcTable)
+                    + " (id) values (1), (2), (3)");
+            TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(desTable), stmt);
+
+            try (ResultSet rs = stmt.executeQuery("select * from " + AbstractSQLGenerator.escapeIdentifier(srcTable));
+                    SQLServerParallelBulkCopy bulkCopy = new SQLServerParallelBulkCopy(connectionString,
+                            DEGREE_OF_PARALLELISM)) {
+                bulkCopy.setDestinationTableName(AbstractSQLGenerator.escapeIdentifier(desTable));
+                SQLServerException e = assertThrows(SQLServerException.class, () -> bulkCopy.writeToServer(rs));
+                assertEquals(DEGREE_OF_PARALLELISM - 1, e.getSuppressed().length);
+                assertEquals(0, bulkCopy.getRowsCopied());
+            }
+        }
+    }
+
+    private static void verifyDestinationTableData(Statement stmt, int expectedNumberOfRows) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("select count(*) from (select * from "
+                + AbstractSQLGenerator.escapeIdentifier(srcTable) + " except select * from "
+                + AbstractSQLGenerator.escapeIdentifier(desTable) + ") as missing")) {
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+        try (ResultSet rs = stmt
+                .executeQuery("select count(*) from " + AbstractSQLGenerator.escapeIdentifier(desTable))) {
+            rs.next();
+            assertEquals(expectedNumberOfRows, rs.getInt(1));
+        }
+    }
+
+    private static void dropTables(Statement stmt) throws SQLException {
+        TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(srcTable), stmt);
+        TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(desTable), stmt);
+    }
+
+    private static void createTables(Statement stmt) throws SQLException {
+        String columns = " (id int not null, c1 decimal(18,2) null, c2 nvarchar(50) null, c3 datetime2(7) null,"
+                + " c4 time(7) null, c5 date null, c6 int null)";
+        stmt.execute("create table " + AbstractSQLGenerator.escapeIdentifier(srcTable) + columns);
+        stmt.execute("create table " + AbstractSQLGenerator.escapeIdentifier(desTable) + columns);
+    }
+
+    /**
+     * drops tables
+     *
+     * @throws SQLException
+     */
+    @AfterAll
+    public static void terminate() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(connectionString); Statement stmt = conn.createStatement()) {
+            dropTables(stmt);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.bulkCopy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkCopyProgressListener;
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyProgress;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+
+
+/**
+ * Tests the progress listener of bulk copy.
+ */
+@RunWith(JUnitPlatform.class)
+public class BulkCopyProgressTest extends AbstractTest {
+
+    private static final int ROW_COUNT = 1000;
+    private static final int BATCH_SIZE = 100;
+
+    private static String srcTable = RandomUtil.getIdentifier("BulkCopyProgressTest_SourceTable");
+    private static String desTable = RandomUtil.getIdentifier("BulkCopyProgressTest_DestinationTable");
+
+    /**
+     * Checks the progress reported after each batch and after every NotifyAfter rows.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testProgress() throws SQLException {
+        List<SQLServerBulkCopyProgress> batches = new ArrayList<>();
+        List<SQLServerBulkCopyProgress> notifications = new ArrayList<>();
+        copy(connectionString, progress -> (progress.isBatchComplete() ? batches : notifications).add(progress), 30);
+
+        assertEquals(ROW_COUNT / BATCH_SIZE, batches.size());
+        for (int i = 0; i < batches.size(); i++) {
+            SQLServerBulkCopyProgress batch = batches.get(i);
+            assertEquals((i + 1) * BATCH_SIZE, batch.getRowsCopied());
+            assertEquals(i + 1, batch.getBatchesCompleted());
+            assertTrue(batch.getBytesSent() > 0, batch.toString());
+            if (i > 0) {
+                assertTrue(batch.getBytesSent() > batches.get(i - 1).getBytesSent(), batch.toString());
+                assertTrue(batch.getElapsedNanos() >= batches.get(i - 1).getElapsedNanos(), batch.toString());
+            }
+        }
+
+        assertEquals(ROW_COUNT / 30, notifications.size());
+        for (int i = 0; i < notifications.size(); i++) {
+            assertEquals((i + 1) * 30, notifications.get(i).getRowsCopied());
+        }
+        verifyDestinationRowCount(ROW_COUNT);
+    }
+
+    /**
+     * Aborts the bulk copy after a batch, which keeps the rows of the completed batches.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testAbortAfterBatch() throws SQLException {
+        assertThrows(SQLServerException.class, () -> copy(connectionString, progress -> {
+            if (3 == progress.getBatchesCompleted()) {
+                progress.abort();
+            }
+        }, 0));
+        verifyDestinationRowCount(3 * BATCH_SIZE);
+    }
+
+    /**
+     * Aborts the bulk copy within a batch, which drops the rows of the current batch.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testAbortWithinBatch() throws SQLException {
+        assertThrows(SQLServerException.class, () -> copy(connectionString, progress -> {
+            if (250 == progress.getRowsCopied()) {
+                progress.abort();
+            }
+        }, 50));
+        verifyDestinationRowCount(2 * BATCH_SIZE);
+    }
+
+    /**
+     * Checks that exceptions thrown by the listener are ignored.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testListenerException() throws SQLException {
+        copy(connectionString, progress -> {
+            throw new IllegalStateException();
+        }, 10);
+        verifyDestinationRowCount(ROW_COUNT);
+    }
+
+    /**
+     * Checks that NotifyAfter cannot be negative.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testInvalidNotifyAfter() throws SQLException {
+        try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connectionString)) {
+            assertThrows(SQLServerException.class, () -> bulkCopy.setNotifyAfter(-1));
+            assertEquals(0, bulkCopy.getNotifyAfter());
+        }
+    }
+
+    private static void copy(String url, ISQLServerBulkCopyProgressListener listener,
+            int notifyAfter) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(connectionString); Statement stmt = conn.createStatement()) {
+            createTables(stmt);
+
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            options.setBatchSize(BATCH_SIZE);
+            options.setUseInternalTransaction(true);
+            try (ResultSet rs = stmt.executeQuery("select * from " + AbstractSQLGenerator.escapeIdentifier(srcTable));
+                    SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(url)) {
+                bulkCopy.setDestinationTableName(AbstractSQLGenerator.escapeIdentifier(desTable));
+                bulkCopy.setBulkCopyOptions(options);
+                bulkCopy.setProgressListener(listener);
+                bulkCopy.setNotifyAfter(notifyAfter);
+                bulkCopy.writeToServer(rs);
+            }
+        }
+    }
+
+    private static void verifyDestinationRowCount(int expectedNumberOfRows) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(connectionString); Statement stmt = conn.createStatement();
+                ResultSet rs = stmt
+                        .executeQuery("select count(*) from " + AbstractSQLGenerator.escapeIdentifier(desTable))) {
+            rs.next();
+            assertEquals(expectedNumberOfRows, rs.getInt(1));
+        }
+    }
+
+    private static void dropTables(Statement stmt) throws SQLException {
+        TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(srcTable), stmt);
+        TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(desTable), stmt);
+    }
+
+    private static void createTables(Statement stmt) throws SQLException {
+        dropTables(stmt);
+        stmt.execute("create table " + AbstractSQLGenerator.escapeIdentifier(srcTable)
+                + " (id int not null, c1 nvarchar(50) null)");
+        stmt.execute("create table " + AbstractSQLGenerator.escapeIdentifier(desTable)
+                + " (id int not null, c1 nvarchar(50) null)");
+        stmt.execute("insert into " + AbstractSQLGenerator.escapeIdentifier(srcTable) + " select top " + ROW_COUNT
+                + " n, N'name ' + cast(n as nvarchar(10)) from (select row_number() over"
+                + " (order by a.object_id) as n from sys.all_objects a cross join sys.all_objects b) as numbers");
+    }
+
+    /**
+     * drops tables
+     *
+     * @throws SQLException
+     */
+    @AfterAll
+    public static void terminate() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(connectionString); Statement stmt = conn.createStatement()) {
+            dropTables(stmt);
+        }
+    }
+}
@@ -5,12 +5,14 @@
 package com.microsoft.sqlserver.jdbc.connection;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
+import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -31,6 +33,9 @@ import org.junit.runner.RunWith;
 
 import com.microsoft.sqlserver.jdbc.ISQLServerConnection;
 import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerConnectionPoolDataSource;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
 import com.microsoft.sqlserver.jdbc.SQLServerXADataSource;
 import com.microsoft.sqlserver.jdbc.TestResource;
 import com.microsoft.sqlserver.jdbc.TestUtils;
@@ -178,6 +183,85 @@ public class PoolingTest extends AbstractTest {
         }
     }
 
+    /**
+     * test that a pooled connection returned with autocommit off is rolled back and reset before reuse
+     * 
+     * @throws SQLException
+     */
+    @Test
+    public void testPooledConnectionReset() throws SQLException {
+        SQLServerConnectionPoolDataSource ds = new SQLServerConnectionPoolDataSource();
+        ds.setURL(connectionString);
+        PooledConnection pc = ds.getPooledConnection();
+        try {
+            try (Connection con = pc.getConnection(); Statement stmt = con.createStatement()) {
+                TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(tableName), stmt);
+                stmt.execute("CREATE TABLE " + AbstractSQLGenerator.escapeIdentifier(tableName) + " (c1 int)");
+            }
+
+            // No transaction is started, so nothing is rolled back when the connection is returned
+            try (Connection con = pc.getConnection()) {
+                con.setAutoCommit(false);
+                con.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            }
+
+            // The open transaction is rolled back when the connection is returned
+            try (Connection con = pc.getConnection(); Statement stmt = con.createStatement()) {
+                assertTrue(con.getAutoCommit());
+                assertEquals(Connection.TRANSACTION_READ_COMMITTED, con.getTransactionIsolation());
+                try (ResultSet rs = stmt.executeQuery("SELECT @@OPTIONS & 2, @@TRANCOUNT")) {
+                    rs.next();
+                    assertEquals(0, rs.getInt(1));
+                    assertEquals(0, rs.getInt(2));
+                }
+
+                con.setAutoCommit(false);
+                stmt.executeUpdate("INSERT INTO " + AbstractSQLGenerator.escapeIdentifier(tableName) + " VALUES (1)");
+            }
+
+            try (Connection con = pc.getConnection(); Statement stmt = con.createStatement();
+                    ResultSet rs = stmt
+                            .executeQuery("SELECT COUNT(*) FROM " + AbstractSQLGenerator.escapeIdentifier(tableName))) {
+                rs.next();
+                assertEquals(0, rs.getInt(1));
+            }
+        } finally {
+            pc.close();
+        }
+    }
+
+    /**
+     * test that endRequest keeps the session state of a pooled connection whose handle is still open
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testEndRequestOnOpenPooledConnection() throws Exception {
+        SQLServerConnectionPoolDataSource ds = new SQLServerConnectionPoolDataSource();
+        ds.setURL(connectionString);
+        PooledConnection pc = ds.getPooledConnection();
+        Method getPhysicalConnection = pc.getClass().getDeclaredMethod("getPhysicalConnection");
+        getPhysicalConnection.setAccessible(true);
+        try (Connection con = pc.getConnection(); Statement stmt = con.createStatement()) {
+            SQLServerConnection physicalConnection = (SQLServerConnection) getPhysicalConnection.invoke(pc);
+            assumeTrue(TestUtils.isJDBC43OrGreater(physicalConnection));
+
+            physicalConnection.beginRequest();
+            stmt.execute("CREATE TABLE #endRequestTest (c1 int)");
+            stmt.execute("SET DATEFIRST 3");
+            physicalConnection.endRequest();
+
+            // The connection has not been returned to the pool, so its session is not reset
+            try (ResultSet rs = stmt.executeQuery("SELECT OBJECT_ID('tempdb..#endRequestTest'), @@DATEFIRST")) {
+                rs.next();
+                assertTrue(0 != rs.getInt(1));
+                assertEquals(3, rs.getInt(2));
+            }
+        } finally {
+            pc.close();
+        }
+    }
+
     /**
      * test connection pool with HikariCP
      * 
@@ -213,6 +297,90 @@ public class PoolingTest extends AbstractTest {
         }
     }
 
+    /**
+     * test the connection pool built into SQLServerConnectionPoolDataSource
+     * 
+     * @throws SQLException
+     */
+    @Test
+    public void testBuiltInPool() throws SQLException {
+        SQLServerConnectionPoolDataSource ds = new SQLServerConnectionPoolDataSource();
+        ds.setURL(connectionString);
+        ds.setConnectionPooling(true);
+        ds.setMaxPoolSize(2);
+        ds.setConnectionWaitTimeout(0);
+
+        try {
+            connect(ds);
+
+            String firstSession;
+            try (Connection con = ds.getConnection(); Statement stmt = con.createStatement();
+                    ResultSet rs = stmt.executeQuery("SELECT @@SPID")) {
+                rs.next();
+                firstSession = rs.getString(1);
+                stmt.execute("CREATE TABLE " + AbstractSQLGenerator.escapeIdentifier(tempTableName) + " (myid int)");
+            }
+
+            // The same physical connection is reused, and its session state is reset
+            try (Connection con = ds.getConnection(); Statement stmt = con.createStatement()) {
+                try (ResultSet rs = stmt.executeQuery("SELECT @@SPID")) {
+                    rs.next();
+                    assertEquals(firstSession, rs.getString(1));
+                }
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT OBJECT_ID('tempdb.." + AbstractSQLGenerator.escapeIdentifier(tempTableName) + "')")) {
+                    rs.next();
+                    assertEquals(null, rs.getObject(1));
+                }
+            }
+            assertEquals(1, ds.getPooledConnectionCount());
+            assertEquals(1, ds.getIdlePooledConnectionCount());
+            assertEquals(3, ds.getPooledConnectionBorrowCount());
+
+            // The pool is exhausted once maxPoolSize connections are in use
+            try (Connection con1 = ds.getConnection(); Connection con2 = ds.getConnection()) {
+                assertEquals(2, ds.getActivePooledConnectionCount());
+                try (Connection con3 = ds.getConnection()) {
+                    fail(TestResource.getResource("R_expectedExceptionNotThrown"));
+                } catch (SQLServerException e) {
+                    assertEquals(1, ds.getPooledConnectionWaitTimeoutCount());
+                }
+            }
+            assertEquals(0, ds.getActivePooledConnectionCount());
+            assertEquals(2, ds.getPooledConnectionCreatedCount());
+        } finally {
+            ds.closeConnectionPool();
+        }
+        assertEquals(0, ds.getPooledConnectionCount());
+    }
+
+    /**
+     * test that disabling connection pooling closes the pool built into SQLServerConnectionPoolDataSource
+     * 
+     * @throws SQLException
+     */
+    @Test
+    public void testDisableBuiltInPool() throws SQLException {
+        SQLServerConnectionPoolDataSource ds = new SQLServerConnectionPoolDataSource();
+        ds.setURL(connectionString);
+        ds.setConnectionPooling(true);
+
+        try (Connection con = ds.getConnection()) {
+            ds.setConnectionPooling(false);
+            assertEquals(0, ds.getPooledConnectionCount());
+
+            // The connection in use is closed when it is returned
+            assertFalse(con.isClosed());
+        }
+        assertEquals(0, ds.getPooledConnectionCount());
+
+        // Connections are no longer pooled
+        try (Connection con = ds.getConnection()) {
+            assertEquals(0, ds.getPooledConnectionCount());
+            assertEquals(0, ds.getPooledConnectionBorrowCount());
+        }
+    }
+
     /**
      * setup connection, get connection from pool, and test threads
      * 
@@ -0,0 +1,82 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerDataSource;
+import com.microsoft.sqlserver.jdbc.SQLServerRequestTiming;
+import com.microsoft.sqlserver.jdbc.SQLServerRequestTiming.Phase;
+import com.microsoft.sqlserver.jdbc.SQLServerRequestTimingHistogram;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+
+
+/**
+ * Tests the request timing listener
+ *
+ */
+@RunWith(JUnitPlatform.class)
+public class RequestTimingTest extends AbstractTest {
+
+    @Test
+    public void testConnectionListener() throws SQLException {
+        List<SQLServerRequestTiming> timings = new CopyOnWriteArrayList<>();
+        try (Connection con = DriverManager.getConnection(connectionString); Statement stmt = con.createStatement()) {
+            ((ISQLServerConnection) con).setRequestTimingListener(timings::add);
+
+            try (ResultSet rs = stmt.executeQuery("SELECT 1")) {
+                while (rs.next());
+            }
+            assertEquals(1, timings.size());
+
+            SQLServerRequestTiming timing = timings.get(0);
+            assertTrue(timing.getNanos(Phase.SERVER) > 0);
+            assertTrue(timing.getNanos(Phase.TOTAL) >= timing.getNanos(Phase.SERVER));
+            for (Phase phase : Phase.values())
+                assertTrue(timing.getNanos(phase) >= 0, phase.toString());
+
+            ((ISQLServerConnection) con).setRequestTimingListener(null);
+            stmt.execute("SELECT 1");
+            assertEquals(1, timings.size());
+        }
+    }
+
+    @Test
+    public void testDataSourceListener() throws SQLException {
+        SQLServerRequestTimingHistogram histogram = new SQLServerRequestTimingHistogram();
+        SQLServerDataSource ds = new SQLServerDataSource();
+        ds.setURL(connectionString);
+        ds.setRequestTimingListener(histogram);
+        assertEquals(histogram, ds.getRequestTimingListener());
+
+        try (Connection con = ds.getConnection(); Statement stmt = con.createStatement()) {
+            long loginRequests = histogram.getRequestCount();
+            assertTrue(loginRequests > 0);
+
+            for (int i = 0; i < 10; i++)
+                stmt.execute("SELECT 1");
+            assertEquals(loginRequests + 10, histogram.getRequestCount());
+        }
+
+        assertTrue(histogram.getPercentileNanos(Phase.TOTAL, 50) > 0);
+        assertTrue(histogram.getPercentileNanos(Phase.TOTAL, 100) <= histogram.getMaxNanos(Phase.TOTAL));
+        assertFalse(ds.getReference().toString().contains("requestTimingListener"));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerDataSource;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+
+
+/**
+ * Tests the useSocketChannel connection property
+ *
+ */
+@RunWith(JUnitPlatform.class)
+@Tag("AzureDWTest")
+public class SocketChannelTest extends AbstractTest {
+
+    @Test
+    public void testDataSource() {
+        SQLServerDataSource ds = new SQLServerDataSource();
+        assertEquals(false, ds.getUseSocketChannel());
+        ds.setUseSocketChannel(true);
+        assertEquals(true, ds.getUseSocketChannel());
+    }
+
+    /**
+     * Sends a request spanning many packets and reads a response spanning many packets over socket channel I/O.
+     * 
+     * @throws SQLException
+     */
+    @Test
+    public void testLargeRequestAndResponse() throws SQLException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        String value = sb.toString();
+
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager
+                .getConnection(connectionString + ";useSocketChannel=true;packetSize=512;")) {
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT ?")) {
+                pstmt.setString(1, value);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(value, rs.getString(1));
+                }
+            }
+
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(
+                    "SELECT TOP 10000 a.object_id, REPLICATE('x', 100) FROM sys.all_objects a CROSS JOIN sys.all_objects b")) {
+                int rowCount = 0;
+                while (rs.next()) {
+                    assertEquals(100, rs.getString(2).length());
+                    rowCount++;
+                }
+                assertEquals(10000, rowCount);
+            }
+        }
+    }
+}
@@ -239,6 +239,43 @@ public class TimeoutTest extends AbstractTest {
         }
     }
 
+    /**
+     * When socketTimeout occurs with socket channel I/O, the connection will be marked as closed.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testSocketTimeoutWithSocketChannel() throws Exception {
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString)) {
+            dropWaitForDelayProcedure(conn);
+            createWaitForDelayPreocedure(conn);
+        }
+
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString
+                + ";useSocketChannel=true;socketTimeout=" + (waitForDelaySeconds * 1000 / 2) + ";")) {
+
+            try (SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+                stmt.execute("exec " + AbstractSQLGenerator.escapeIdentifier(waitForDelaySPName));
+                throw new Exception(TestResource.getResource("R_expectedExceptionNotThrown"));
+            } catch (Exception e) {
+                if (!(e instanceof SQLException)) {
+                    throw e;
+                }
+                assertEquals(e.getMessage(), TestResource.getResource("R_readTimedOut"),
+                        TestResource.getResource("R_invalidExceptionMessage"));
+            }
+
+            try (SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+                stmt.execute("SELECT @@version");
+            } catch (SQLException e) {
+                assertEquals(e.getMessage(), TestResource.getResource("R_connectionIsClosed"),
+                        TestResource.getResource("R_invalidExceptionMessage"));
+            }
+        } catch (Exception e) {
+            fail(TestResource.getResource("R_unexpectedErrorMessage") + e.toString());
+        }
+    }
+
     private static void dropWaitForDelayProcedure(SQLServerConnection conn) throws SQLException {
         try (SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
             TestUtils.dropProcedureIfExists(AbstractSQLGenerator.escapeIdentifier(waitForDelaySPName), stmt);
@@ -1,5 +1,6 @@
 package com.microsoft.sqlserver.jdbc.preparedStatement;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -54,6 +55,8 @@ public class BatchExecutionWithBulkCopyTest extends AbstractTest {
     static String tableName = RandomUtil.getIdentifier("BulkCopyParseTest");
     static String tableNameBulk = RandomUtil.getIdentifier("BulkCopyParseTest");
     static String unsupportedTableName = RandomUtil.getIdentifier("BulkCopyUnsupportedTable'");
+    static String defaultsTableName = RandomUtil.getIdentifier("BulkCopyDefaultsTable");
+    static String constantsTableName = RandomUtil.getIdentifier("BulkCopyConstantsTable");
     static String squareBracketTableName = RandomUtil.getIdentifier("BulkCopy]]]]test'");
     static String doubleQuoteTableName = RandomUtil.getIdentifier("\"BulkCopy\"\"\"\"test\"");
     static String schemaTableName = "\"dbo\"         . /*some comment */     " + squareBracketTableName;
@@ -693,6 +696,137 @@ public class BatchExecutionWithBulkCopyTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void testConstantsAndColumnOrder() throws Exception {
+        assumeFalse(isSqlAzureDW(), TestResource.getResource("R_triggersDWNotSupported"));
+        String valid = "insert into " + AbstractSQLGenerator.escapeIdentifier(defaultsTableName)
+                + " (c3, /* comment */ c1, c4) values ('it''s', ?, ?)";
+
+        try (Connection connection = DriverManager.getConnection(connectionString + ";useBulkCopyForBatchInsert=true;");
+                SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) connection.prepareStatement(valid);
+                Statement stmt = (SQLServerStatement) connection.createStatement()) {
+            createDefaultsTable(stmt);
+
+            for (int i = 1; i <= 3; i++) {
+                pstmt.setInt(1, i);
+                pstmt.setInt(2, i * 10);
+                pstmt.addBatch();
+            }
+            int[] updateCounts = pstmt.executeBatch();
+            assertEquals(3, updateCounts.length);
+            for (int updateCount : updateCounts) {
+                assertEquals(1, updateCount);
+            }
+
+            // the check constraint is enforced, and none of the rows of the failed batch are inserted
+            pstmt.setInt(1, 4);
+            pstmt.setInt(2, 40);
+            pstmt.addBatch();
+            pstmt.setInt(1, 5);
+            pstmt.setInt(2, -1);
+            pstmt.addBatch();
+            try {
+                pstmt.executeBatch();
+                throw new Exception(TestResource.getResource("R_expectedExceptionNotThrown"));
+            } catch (BatchUpdateException e) {
+                assertEquals(2, e.getUpdateCounts().length);
+                for (int updateCount : e.getUpdateCounts()) {
+                    assertEquals(Statement.EXECUTE_FAILED, updateCount);
+                }
+            }
+
+            try (ResultSet rs = stmt.executeQuery("select c1, c2, c3, c4 from "
+                    + AbstractSQLGenerator.escapeIdentifier(defaultsTableName) + " order by c1")) {
+                for (int i = 1; i <= 3; i++) {
+                    assertTrue(rs.next());
+                    assertEquals(i, rs.getInt(1));
+                    assertEquals("default", rs.getString(2));
+                    assertEquals("it's", rs.getString(3));
+                    assertEquals(i * 10, rs.getInt(4));
+                }
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    @Test
+    public void testNumericAndBinaryConstants() throws Exception {
+        assumeFalse(isSqlAzureDW(), TestResource.getResource("R_triggersDWNotSupported"));
+        // the number 5 and the string '0A' are not binary constants, so they are inserted as by INSERT statements
+        String valid = "insert into " + AbstractSQLGenerator.escapeIdentifier(constantsTableName)
+                + " (c1, c2, c3, c4, c5, c6) values (?, 12.5, 1, 0x0A0B, 5, '0A')";
+
+        try (Connection connection = DriverManager.getConnection(connectionString + ";useBulkCopyForBatchInsert=true;");
+                SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) connection.prepareStatement(valid);
+                Statement stmt = (SQLServerStatement) connection.createStatement()) {
+            TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(constantsTableName), stmt);
+            stmt.execute("create table " + AbstractSQLGenerator.escapeIdentifier(constantsTableName)
+                    + " (c1 int, c2 decimal(5, 2), c3 bit, c4 varbinary(10), c5 varbinary(10), c6 varbinary(10))");
+
+            for (int i = 1; i <= 3; i++) {
+                pstmt.setInt(1, i);
+                pstmt.addBatch();
+            }
+            int[] updateCounts = pstmt.executeBatch();
+            assertEquals(3, updateCounts.length);
+            for (int updateCount : updateCounts) {
+                assertEquals(1, updateCount);
+            }
+
+            try (ResultSet rs = stmt.executeQuery("select c1, c2, c3, c4, c5, c6 from "
+                    + AbstractSQLGenerator.escapeIdentifier(constantsTableName) + " order by c1")) {
+                for (int i = 1; i <= 3; i++) {
+                    assertTrue(rs.next());
+                    assertEquals(i, rs.getInt(1));
+                    assertEquals(new BigDecimal("12.50"), rs.getBigDecimal(2));
+                    assertTrue(rs.getBoolean(3));
+                    assertArrayEquals(new byte[] {0x0A, 0x0B}, rs.getBytes(4));
+                    assertArrayEquals(new byte[] {0, 0, 0, 5}, rs.getBytes(5));
+                    assertArrayEquals(new byte[] {'0', 'A'}, rs.getBytes(6));
+                }
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    @Test
+    public void testInsertTrigger() throws Exception {
+        assumeFalse(isSqlAzureDW(), TestResource.getResource("R_triggersDWNotSupported"));
+        String valid = "insert into " + AbstractSQLGenerator.escapeIdentifier(defaultsTableName)
+                + " (c1, c4) values (?, ?)";
+
+        try (Connection connection = DriverManager.getConnection(connectionString + ";useBulkCopyForBatchInsert=true;");
+                SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) connection.prepareStatement(valid);
+                Statement stmt = (SQLServerStatement) connection.createStatement()) {
+            createDefaultsTable(stmt);
+            stmt.execute("create trigger " + AbstractSQLGenerator.escapeIdentifier(defaultsTableName + "_trigger")
+                    + " on " + AbstractSQLGenerator.escapeIdentifier(defaultsTableName)
+                    + " after insert as update t set c3 = 'trigger' from "
+                    + AbstractSQLGenerator.escapeIdentifier(defaultsTableName) + " t join inserted i on t.c1 = i.c1");
+
+            for (int i = 1; i <= 3; i++) {
+                pstmt.setInt(1, i);
+                pstmt.setInt(2, i);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+
+            // the batch is executed as INSERT statements, which fire the trigger
+            try (ResultSet rs = stmt.executeQuery("select count(*) from "
+                    + AbstractSQLGenerator.escapeIdentifier(defaultsTableName) + " where c3 = 'trigger'")) {
+                rs.next();
+                assertEquals(3, rs.getInt(1));
+            }
+        }
+    }
+
+    private static void createDefaultsTable(Statement stmt) throws SQLException {
+        TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(defaultsTableName), stmt);
+        stmt.execute("create table " + AbstractSQLGenerator.escapeIdentifier(defaultsTableName)
+                + " (id int identity, c1 int not null, c2 nvarchar(20) default N'default',"
+                + " c3 varchar(20) null, c4 int check (c4 > 0))");
+    }
+
     @BeforeEach
     public void testSetup() throws TestAbortedException, Exception {
         try (Connection connection = DriverManager
@@ -718,6 +852,8 @@ public class BatchExecutionWithBulkCopyTest extends AbstractTest {
                 TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(tableName), stmt);
                 TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(tableNameBulk), stmt);
                 TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(unsupportedTableName), stmt);
+                TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(defaultsTableName), stmt);
+                TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(constantsTableName), stmt);
                 TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(squareBracketTableName), stmt);
                 TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(doubleQuoteTableName), stmt);
                 TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(schemaTableName), stmt);
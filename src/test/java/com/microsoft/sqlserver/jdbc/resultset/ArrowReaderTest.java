@@ -0,0 +1,106 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.SQLServerArrowReader;
+import com.microsoft.sqlserver.jdbc.SQLServerResultSet;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+
+
+/**
+ * Tests exporting result sets to Apache Arrow with SQLServerArrowReader
+ *
+ */
+@RunWith(JUnitPlatform.class)
+public class ArrowReaderTest extends AbstractTest {
+    private static final String valuesQuery = "SELECT v.n, CAST(v.n * 1000000000 AS bigint), CAST(v.n / 4.0 AS float),"
+            + " CAST(v.n + 0.1234 AS decimal(18,4)), CAST(v.n + 0.5 AS money), CAST(v.n AS decimal(38,2)),"
+            + " DATEADD(day, v.n, CAST('2019-03-14' AS date)),"
+            + " DATEADD(second, v.n, CAST('2019-03-14T15:09:26.535897' AS datetime2(6))),"
+            + " CASE WHEN v.n % 2 = 0 THEN N'résumé ' + CAST(v.n AS nvarchar(10)) END,"
+            + " CAST(v.n AS varbinary(4)), CAST(v.n % 2 AS bit)"
+            + " FROM (SELECT TOP 10 ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS n FROM sys.objects) v ORDER BY v.n";
+
+    /**
+     * Tests the Arrow types of the columns and the values of the record batches.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testRecordBatches() throws SQLException {
+        try (Connection con = DriverManager.getConnection(connectionString); Statement stmt = con.createStatement();
+                SQLServerResultSet rs = (SQLServerResultSet) stmt.executeQuery(valuesQuery);
+                BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+                SQLServerArrowReader reader = new SQLServerArrowReader(rs, allocator, 4)) {
+            assertEquals(new ArrowType.Int(32, true), reader.getSchema().getFields().get(0).getType());
+            assertEquals(new ArrowType.Decimal(19, 4), reader.getSchema().getFields().get(4).getType());
+            assertEquals(new ArrowType.Decimal(38, 2), reader.getSchema().getFields().get(5).getType());
+
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            List<FieldVector> vectors = root.getFieldVectors();
+            int n = 0;
+            while (reader.loadNextBatch()) {
+                assertTrue(root.getRowCount() <= 4);
+                for (int row = 0; row < root.getRowCount(); row++) {
+                    ++n;
+                    assertEquals(n, ((IntVector) vectors.get(0)).get(row));
+                    assertEquals(n * 1000000000L, ((BigIntVector) vectors.get(1)).get(row));
+                    assertEquals(n / 4.0, ((Float8Vector) vectors.get(2)).get(row));
+                    assertEquals(new BigDecimal(n + ".1234"), ((DecimalVector) vectors.get(3)).getObject(row));
+                    assertEquals(new BigDecimal(n + ".5000"), ((DecimalVector) vectors.get(4)).getObject(row));
+                    assertEquals(new BigDecimal(n + ".00"), ((DecimalVector) vectors.get(5)).getObject(row));
+                    assertEquals(LocalDate.of(2019, 3, 14).plusDays(n).toEpochDay(),
+                            ((DateDayVector) vectors.get(6)).get(row));
+                    LocalDateTime created = LocalDateTime.of(2019, 3, 14, 15, 9, 26, 535897000).plusSeconds(n);
+                    assertEquals(created.toEpochSecond(ZoneOffset.UTC) * 1000000 + 535897,
+                            ((TimeStampMicroVector) vectors.get(7)).get(row));
+
+                    VarCharVector name = (VarCharVector) vectors.get(8);
+                    assertEquals(0 != n % 2, name.isNull(row));
+                    if (0 == n % 2)
+                        assertEquals("résumé " + n, name.getObject(row).toString());
+
+                    assertEquals(4, ((VarBinaryVector) vectors.get(9)).get(row).length);
+                    assertEquals(n % 2, ((BitVector) vectors.get(10)).get(row));
+                }
+            }
+            assertEquals(10, n);
+            assertEquals(0, root.getRowCount());
+            assertFalse(rs.next());
+        }
+    }
+}
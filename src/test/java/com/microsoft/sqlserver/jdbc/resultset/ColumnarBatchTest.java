@@ -0,0 +1,157 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.SQLServerColumnVector;
+import com.microsoft.sqlserver.jdbc.SQLServerColumnarBatch;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.SQLServerResultSet;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+
+
+/**
+ * Tests reading result sets with SQLServerResultSet.fetchColumnarBatch
+ *
+ */
+@RunWith(JUnitPlatform.class)
+public class ColumnarBatchTest extends AbstractTest {
+    private static final String valuesQuery = "SELECT v.n, CAST(v.n * 1000000000 AS bigint), CAST(v.n / 4.0 AS float),"
+            + " CAST(v.n + 0.1234 AS decimal(18,4)), CAST(v.n + 0.5 AS money),"
+            + " DATEADD(day, v.n, CAST('2019-03-14' AS date)),"
+            + " DATEADD(second, v.n, CAST('2019-03-14T15:09:26.535897' AS datetime2(6))),"
+            + " CASE WHEN v.n % 2 = 0 THEN N'résumé ' + CAST(v.n AS nvarchar(10)) END,"
+            + " CAST('code' AS varchar(10)), CAST(REPLICATE('x', v.n) AS varchar(max)),"
+            + " CAST(v.n AS decimal(38,2))"
+            + " FROM (SELECT TOP 10 ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS n FROM sys.objects) v ORDER BY v.n";
+
+    /**
+     * Tests that the batches hold the same values as the getters return, and that the cursor is left on the last row
+     * of each batch.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testBatchValues() throws SQLException {
+        try (Connection con = DriverManager.getConnection(connectionString); Statement stmt = con.createStatement();
+                SQLServerResultSet rs = (SQLServerResultSet) stmt.executeQuery(valuesQuery)) {
+            int n = 0;
+            SQLServerColumnarBatch batch;
+            while ((batch = rs.fetchColumnarBatch(4)).getRowCount() > 0) {
+                assertEquals(11, batch.getColumnCount());
+                for (int row = 0; row < batch.getRowCount(); row++) {
+                    ++n;
+                    assertEquals(n, batch.getColumn(1).getLong(row));
+                    assertEquals(n * 1000000000L, batch.getColumn(2).getLong(row));
+                    assertEquals(n / 4.0, batch.getColumn(3).getDouble(row));
+
+                    SQLServerColumnVector decimal = batch.getColumn(4);
+                    assertEquals(SQLServerColumnVector.VectorType.LONG, decimal.getVectorType());
+                    assertEquals(new BigDecimal(n + ".1234"), BigDecimal.valueOf(decimal.getLong(row), 4));
+                    assertEquals(4, batch.getColumn(5).getScale());
+                    assertEquals(n * 10000L + 5000, batch.getColumn(5).getLong(row));
+
+                    assertEquals(LocalDate.of(2019, 3, 14).plusDays(n).toEpochDay(), batch.getColumn(6).getLong(row));
+                    LocalDateTime created = LocalDateTime.of(2019, 3, 14, 15, 9, 26, 535897000).plusSeconds(n);
+                    assertEquals(created.toEpochSecond(ZoneOffset.UTC) * 1000000 + 535897,
+                            batch.getColumn(7).getLong(row));
+
+                    SQLServerColumnVector name = batch.getColumn(8);
+                    assertEquals(SQLServerColumnVector.VectorType.UTF8, name.getVectorType());
+                    assertEquals(0 != n % 2, name.isNull(row));
+                    if (0 == n % 2)
+                        assertEquals("résumé " + n, name.getString(row));
+
+                    assertEquals("code", batch.getColumn(9).getString(row));
+                    assertEquals(n, batch.getColumn(10).getString(row).length());
+                    assertEquals(n + ".00", batch.getColumn(11).getString(row));
+                }
+
+                // The getters read the last row of the batch
+                if (4 == batch.getRowCount()) {
+                    assertEquals(n, rs.getInt(1));
+                    assertEquals(n, rs.getString(10).length());
+                }
+                assertEquals(batch.getRowCount() / 2, batch.getColumn(8).getNullCount());
+            }
+            assertEquals(10, n);
+            assertFalse(rs.next());
+        }
+    }
+
+    /**
+     * Tests mixing next() and fetchColumnarBatch, and the argument and cursor type checks.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testBatchAfterNext() throws SQLException {
+        try (Connection con = DriverManager.getConnection(connectionString); Statement stmt = con.createStatement();
+                SQLServerResultSet rs = (SQLServerResultSet) stmt.executeQuery(valuesQuery)) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+
+            SQLServerColumnarBatch batch = rs.fetchColumnarBatch(100);
+            assertEquals(9, batch.getRowCount());
+            assertEquals(2, batch.getColumn(1).getLong(0));
+            assertEquals(0, rs.fetchColumnarBatch(100).getRowCount());
+
+            assertThrows(SQLServerException.class, () -> rs.fetchColumnarBatch(0));
+        }
+
+        try (Connection con = DriverManager.getConnection(connectionString);
+                Statement stmt = con.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+                SQLServerResultSet rs = (SQLServerResultSet) stmt.executeQuery(valuesQuery)) {
+            assertThrows(SQLServerException.class, () -> rs.fetchColumnarBatch(10));
+        }
+    }
+
+    /**
+     * Tests that the column vectors grow as rows are read, so that a batch size far larger than the result set does not
+     * allocate memory for it, and that batch sizes beyond the capacity of a vector are rejected.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testLargeBatchSize() throws SQLException {
+        String query = "SELECT TOP 1000 ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS n,"
+                + " CAST(ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS nvarchar(10)),"
+                + " CAST(ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) / 2.0 AS float)"
+                + " FROM sys.all_columns a CROSS JOIN sys.all_columns b";
+        try (Connection con = DriverManager.getConnection(connectionString); Statement stmt = con.createStatement();
+                SQLServerResultSet rs = (SQLServerResultSet) stmt.executeQuery(query)) {
+            assertThrows(SQLServerException.class, () -> rs.fetchColumnarBatch(-1));
+            assertThrows(SQLServerException.class, () -> rs.fetchColumnarBatch(Integer.MAX_VALUE));
+
+            SQLServerColumnarBatch batch = rs.fetchColumnarBatch(Integer.MAX_VALUE - 8);
+            assertEquals(1000, batch.getRowCount());
+            for (int row = 0; row < batch.getRowCount(); row++) {
+                assertEquals(row + 1, batch.getColumn(1).getLong(row));
+                assertEquals(String.valueOf(row + 1), batch.getColumn(2).getString(row));
+                assertEquals((row + 1) / 2.0, batch.getColumn(3).getDouble(row));
+            }
+            assertTrue(batch.getColumn(1).getLongValues().length < 2 * 1000);
+            assertEquals(0, rs.fetchColumnarBatch(Integer.MAX_VALUE - 8).getRowCount());
+        }
+    }
+}
@@ -371,6 +371,61 @@ public class ResultSetTest extends AbstractTest {
         }
     }
 
+    /**
+     * Tests that the primitive getters return the same values as getObject() for fixed-length numeric columns, including
+     * narrowing conversions and NULL.
+     * 
+     * @throws SQLException
+     */
+    @Test
+    public void testPrimitiveGetters() throws SQLException {
+        try (Connection con = DriverManager.getConnection(connectionString); Statement stmt = con.createStatement()) {
+            stmt.executeUpdate("create table " + AbstractSQLGenerator.escapeIdentifier(tableName)
+                    + " (c1 bit, c2 tinyint, c3 smallint, c4 int, c5 bigint, c6 real, c7 float, c8 smallmoney,"
+                    + " c9 money)");
+            stmt.executeUpdate("insert into " + AbstractSQLGenerator.escapeIdentifier(tableName)
+                    + " values (1, 255, -32768, 2147483647, -9223372036854775808, -1234.5678, 12345678.12345678,"
+                    + " -214748.3648, 922337203685477.5807)");
+            stmt.executeUpdate("insert into " + AbstractSQLGenerator.escapeIdentifier(tableName)
+                    + " values (null, null, null, null, null, null, null, null, null)");
+
+            try (ResultSet rs = stmt.executeQuery(
+                    "select * from " + AbstractSQLGenerator.escapeIdentifier(tableName) + " order by c1 desc")) {
+                assertTrue(rs.next());
+                for (int i = 1; i <= 9; i++) {
+                    Object value = rs.getObject(i);
+                    double doubleValue = (value instanceof Boolean) ? ((Boolean) value ? 1 : 0)
+                                                                    : ((Number) value).doubleValue();
+                    long longValue = (value instanceof Boolean) ? ((Boolean) value ? 1 : 0)
+                                                                : ((Number) value).longValue();
+
+                    assertEquals(doubleValue, rs.getDouble(i));
+                    assertEquals((float) doubleValue, rs.getFloat(i));
+                    assertEquals(longValue, rs.getLong(i));
+                    assertEquals((int) longValue, rs.getInt(i));
+                    assertEquals((short) longValue, rs.getShort(i));
+                    assertEquals(0 != doubleValue, rs.getBoolean(i));
+                    assertFalse(rs.wasNull());
+                }
+                assertEquals(-9223372036854775808L, rs.getLong("c5"));
+                assertEquals(922337203685477L, rs.getLong("c9"));
+                assertEquals(-214748.3648, rs.getDouble("c8"));
+
+                assertTrue(rs.next());
+                for (int i = 1; i <= 9; i++) {
+                    assertEquals(0, rs.getInt(i));
+                    assertTrue(rs.wasNull());
+                    assertEquals(0.0, rs.getDouble(i));
+                    assertTrue(rs.wasNull());
+                    assertFalse(rs.getBoolean(i));
+                    assertTrue(rs.wasNull());
+                }
+            } finally {
+                TestUtils.dropTableIfExists(AbstractSQLGenerator.escapeIdentifier(tableName), stmt);
+            }
+        }
+    }
+
     /**
      * Tests getters and setters for holdability.
      * 
@@ -0,0 +1,129 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerPreparedStatement;
+import com.microsoft.sqlserver.jdbc.SQLServerRowPublisher;
+import com.microsoft.sqlserver.jdbc.SQLServerStatement;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+
+
+/**
+ * Tests the row publisher returned by SQLServerStatement.publishQuery
+ *
+ */
+@RunWith(JUnitPlatform.class)
+public class RowPublisherTest extends AbstractTest {
+    private static final String rowsQuery = "SELECT TOP 100 ROW_NUMBER() OVER (ORDER BY (SELECT NULL)), 'row' FROM sys.objects a CROSS JOIN sys.objects b";
+
+    /**
+     * Requests a fixed number of rows at a time and records what it receives.
+     */
+    static class BatchSubscriber implements Flow.Subscriber<Object[]> {
+        final List<Object[]> rows = new ArrayList<>();
+        final CompletableFuture<Throwable> done = new CompletableFuture<>();
+        final int batchSize;
+        final int cancelAfter;
+        Flow.Subscription subscription;
+
+        BatchSubscriber(int batchSize, int cancelAfter) {
+            this.batchSize = batchSize;
+            this.cancelAfter = cancelAfter;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(batchSize);
+        }
+
+        @Override
+        public void onNext(Object[] row) {
+            rows.add(row);
+            if (rows.size() == cancelAfter) {
+                subscription.cancel();
+                done.complete(null);
+            } else if (0 == rows.size() % batchSize) {
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            done.complete(t);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(null);
+        }
+    }
+
+    @Test
+    public void testPublishAllRows() throws Exception {
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString);
+                SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+            BatchSubscriber subscriber = new BatchSubscriber(7, Integer.MAX_VALUE);
+            stmt.publishQuery(rowsQuery).subscribe(subscriber);
+
+            assertNull(subscriber.done.get(30, TimeUnit.SECONDS));
+            assertEquals(100, subscriber.rows.size());
+            for (int i = 0; i < subscriber.rows.size(); i++) {
+                assertEquals(2, subscriber.rows.get(i).length);
+                assertEquals((long) (i + 1), ((Number) subscriber.rows.get(i)[0]).longValue());
+                assertEquals("row", subscriber.rows.get(i)[1]);
+            }
+        }
+    }
+
+    @Test
+    public void testCancelSubscription() throws Exception {
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString);
+                SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) conn.prepareStatement(rowsQuery)) {
+            BatchSubscriber subscriber = new BatchSubscriber(5, 12);
+            pstmt.publishQuery().subscribe(subscriber);
+
+            assertNull(subscriber.done.get(30, TimeUnit.SECONDS));
+            assertEquals(12, subscriber.rows.size());
+
+            // The statement remains usable after the subscription is cancelled
+            try (java.sql.ResultSet rs = pstmt.executeQuery()) {
+                assertTrue(rs.next());
+            }
+        }
+    }
+
+    @Test
+    public void testSecondSubscriberAndError() throws Exception {
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString);
+                SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+            SQLServerRowPublisher publisher = stmt.publishQuery("SELECT * FROM NoSuchTable_RowPublisherTest");
+            BatchSubscriber first = new BatchSubscriber(1, Integer.MAX_VALUE);
+            BatchSubscriber second = new BatchSubscriber(1, Integer.MAX_VALUE);
+            publisher.subscribe(first);
+            publisher.subscribe(second);
+
+            assertTrue(first.done.get(30, TimeUnit.SECONDS) instanceof SQLException);
+            assertTrue(second.done.get(30, TimeUnit.SECONDS) instanceof IllegalStateException);
+        }
+    }
+}
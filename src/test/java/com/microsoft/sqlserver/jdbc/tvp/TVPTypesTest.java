@@ -13,6 +13,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -24,6 +25,8 @@ import org.junit.runner.RunWith;
 import com.microsoft.sqlserver.jdbc.RandomUtil;
 import com.microsoft.sqlserver.jdbc.SQLServerCallableStatement;
 import com.microsoft.sqlserver.jdbc.SQLServerDataTable;
+import com.microsoft.sqlserver.jdbc.SQLServerIteratorDataRecord;
+import com.microsoft.sqlserver.jdbc.SQLServerMetaData;
 import com.microsoft.sqlserver.jdbc.SQLServerPreparedStatement;
 import com.microsoft.sqlserver.jdbc.SQLServerResultSet;
 import com.microsoft.sqlserver.jdbc.TestUtils;
@@ -142,6 +145,78 @@ public class TVPTypesTest extends AbstractTest {
         }
     }
 
+    /**
+     * Test adding rows with a RowBuilder
+     * 
+     * @throws SQLException
+     */
+    @Test
+    public void testRowBuilder() throws SQLException {
+        createTables("bigint");
+        createTVPS("bigint");
+
+        tvp = new SQLServerDataTable();
+        tvp.addColumnMetadata("c1", java.sql.Types.BIGINT);
+        SQLServerDataTable.RowBuilder row = tvp.newRowBuilder();
+        long sum = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (0 == i % 10) {
+                row.setNull(1);
+            } else {
+                row.setLong(1, i * 1000000007L);
+                sum += i * 1000000007L;
+            }
+            row.addRow();
+        }
+
+        try (SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) connection.prepareStatement(
+                "INSERT INTO " + AbstractSQLGenerator.escapeIdentifier(tableName) + " select * from ? ;")) {
+            pstmt.setStructured(1, tvpName, tvp);
+
+            pstmt.execute();
+
+            try (Connection con = DriverManager.getConnection(connectionString); Statement stmt = con.createStatement();
+                    ResultSet rs = stmt.executeQuery("select count(*), count(c1), sum(c1) from "
+                            + AbstractSQLGenerator.escapeIdentifier(tableName))) {
+                assertTrue(rs.next());
+                assertEquals(1000, rs.getInt(1));
+                assertEquals(900, rs.getInt(2));
+                assertEquals(sum, rs.getLong(3));
+            }
+        }
+    }
+
+    /**
+     * Test sending rows generated by a stream
+     * 
+     * @throws SQLException
+     */
+    @Test
+    public void testStreamedRows() throws SQLException {
+        createTables("nvarchar(100)");
+        createTVPS("nvarchar(100)");
+
+        SQLServerIteratorDataRecord record = new SQLServerIteratorDataRecord(
+                IntStream.range(0, 5000).mapToObj(i -> new Object[] {(0 == i % 10) ? null : "row " + i}),
+                new SQLServerMetaData("c1", java.sql.Types.NVARCHAR, 100));
+
+        try (SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) connection.prepareStatement(
+                "INSERT INTO " + AbstractSQLGenerator.escapeIdentifier(tableName) + " select * from ? ;")) {
+            pstmt.setStructured(1, tvpName, record);
+
+            pstmt.execute();
+
+            try (Connection con = DriverManager.getConnection(connectionString); Statement stmt = con.createStatement();
+                    ResultSet rs = stmt.executeQuery("select count(*), count(c1), max(c1) from "
+                            + AbstractSQLGenerator.escapeIdentifier(tableName))) {
+                assertTrue(rs.next());
+                assertEquals(5000, rs.getInt(1));
+                assertEquals(4500, rs.getInt(2));
+                assertEquals("row 999", rs.getString(3));
+            }
+        }
+    }
+
     /**
      * Test ntext support
      * 
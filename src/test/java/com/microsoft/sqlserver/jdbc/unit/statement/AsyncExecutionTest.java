@@ -0,0 +1,133 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.unit.statement;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.SQLServerPreparedStatement;
+import com.microsoft.sqlserver.jdbc.SQLServerStatement;
+import com.microsoft.sqlserver.jdbc.TestResource;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+
+
+/**
+ * Tests the asynchronous execute methods of SQLServerStatement and SQLServerPreparedStatement
+ *
+ */
+@RunWith(JUnitPlatform.class)
+@Tag("AzureDWTest")
+public class AsyncExecutionTest extends AbstractTest {
+    private static final String tableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("AsyncExecutionTest"));
+
+    @BeforeAll
+    public static void setupTable() throws SQLException {
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString);
+                SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            stmt.execute("CREATE TABLE " + tableName + " (c1 INT)");
+        }
+    }
+
+    @Test
+    public void testExecuteQueryAsync() throws Exception {
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString);
+                SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+            CompletableFuture<Integer> future = stmt.executeQueryAsync("SELECT 42").thenApply(rs -> {
+                try {
+                    rs.next();
+                    return rs.getInt(1);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            assertEquals(42, (int) future.get());
+        }
+    }
+
+    @Test
+    public void testExecuteUpdateAndBatchAsync() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString);
+                SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) conn
+                        .prepareStatement("INSERT INTO " + tableName + " VALUES (?)")) {
+            pstmt.setInt(1, 1);
+            assertEquals(1, (int) pstmt.executeUpdateAsync(executor).get());
+
+            pstmt.setInt(1, 2);
+            pstmt.addBatch();
+            pstmt.setInt(1, 3);
+            pstmt.addBatch();
+            assertArrayEquals(new int[] {1, 1}, pstmt.executeBatchAsync(executor).get());
+
+            try (SQLServerPreparedStatement select = (SQLServerPreparedStatement) conn
+                    .prepareStatement("SELECT COUNT(*) FROM " + tableName);
+                    ResultSet rs = select.executeQueryAsync().get()) {
+                assertTrue(rs.next());
+                assertEquals(3, rs.getInt(1));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testExecuteAsyncError() throws Exception {
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString);
+                SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+            stmt.executeQueryAsync("SELECT * FROM " + RandomUtil.getIdentifier("NoSuchTable")).get();
+            fail(TestResource.getResource("R_expectedExceptionNotThrown"));
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+        }
+    }
+
+    @Test
+    public void testExecuteAsyncRejected() throws Exception {
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString);
+                SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+            try {
+                stmt.executeUpdateAsync("SELECT 1", task -> {
+                    throw new RejectedExecutionException();
+                });
+                fail(TestResource.getResource("R_expectedExceptionNotThrown"));
+            } catch (SQLServerException e) {
+                assertEquals(TestResource.getResource("R_asyncExecutionRejected"), e.getMessage());
+            }
+        }
+    }
+
+    @AfterAll
+    public static void dropTable() throws SQLException {
+        try (SQLServerConnection conn = (SQLServerConnection) DriverManager.getConnection(connectionString);
+                SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+        }
+    }
+}
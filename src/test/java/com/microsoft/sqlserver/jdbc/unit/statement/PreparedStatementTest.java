@@ -4,18 +4,22 @@
  */
 package com.microsoft.sqlserver.jdbc.unit.statement;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
 import java.sql.BatchUpdateException;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
@@ -23,6 +27,8 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.management.ObjectName;
+
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
@@ -31,6 +37,8 @@ import com.microsoft.sqlserver.jdbc.RandomUtil;
 import com.microsoft.sqlserver.jdbc.SQLServerConnection;
 import com.microsoft.sqlserver.jdbc.SQLServerDataSource;
 import com.microsoft.sqlserver.jdbc.SQLServerPreparedStatement;
+import com.microsoft.sqlserver.jdbc.SQLServerPreparedStatementDefinition;
+import com.microsoft.sqlserver.jdbc.SQLServerStatementCacheStatistics;
 import com.microsoft.sqlserver.jdbc.TestResource;
 import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
 import com.microsoft.sqlserver.testframework.AbstractTest;
@@ -255,6 +263,143 @@ public class PreparedStatementTest extends AbstractTest {
         }
     }
 
+    /**
+     * Test preparing statement handles ahead of time from the handle cache of another connection.
+     * 
+     * @throws SQLException
+     */
+    @Test
+    public void testPrepareStatementHandles() throws SQLException {
+        String query = String.format("/*preparestatementhandlestest_%s*/SELECT ? + 1", UUID.randomUUID().toString());
+        String unparameterizedQuery = String.format("/*preparestatementhandlestest_%s*/SELECT 'x'",
+                UUID.randomUUID().toString());
+
+        List<SQLServerPreparedStatementDefinition> definitions;
+        try (SQLServerConnection con = (SQLServerConnection) DriverManager.getConnection(connectionString)) {
+            con.setStatementPoolingCacheSize(10);
+            try (SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) con.prepareStatement(query)) {
+                pstmt.setInt(1, 1);
+                pstmt.execute(); // sp_executesql
+                pstmt.execute(); // sp_prepexec, actual handle created and cached.
+            }
+            definitions = con.getCachedPreparedStatementDefinitions();
+            assertEquals(1, definitions.size());
+            assertEquals("@P0 int", definitions.get(0).getParameterDefinitions());
+        }
+
+        try (SQLServerConnection con = (SQLServerConnection) DriverManager.getConnection(connectionString)) {
+            // Nothing is prepared without statement pooling
+            assertEquals(0, con.prepareStatementHandles(definitions));
+
+            con.setStatementPoolingCacheSize(10);
+            assertEquals(2, con.prepareStatementHandles(
+                    Arrays.asList(definitions.get(0), new SQLServerPreparedStatementDefinition(unparameterizedQuery))));
+            assertEquals(2, con.getStatementHandleCacheEntryCount());
+
+            // Already cached statements are skipped
+            assertEquals(0, con.prepareStatementHandles(definitions));
+
+            // The first execution reuses the prepared handle
+            try (SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) con.prepareStatement(query)) {
+                pstmt.setInt(1, 41);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    assertEquals(42, rs.getInt(1));
+                }
+                assertTrue(0 < pstmt.getPreparedStatementHandle());
+            }
+            try (SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) con
+                    .prepareStatement(unparameterizedQuery)) {
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    assertEquals("x", rs.getString(1));
+                }
+                assertTrue(0 < pstmt.getPreparedStatementHandle());
+            }
+        }
+    }
+
+    /**
+     * Test that a statement that cannot be prepared does not keep the other statements from being prepared and cached.
+     * 
+     * @throws SQLException
+     */
+    @Test
+    public void testPrepareStatementHandlesWithInvalidStatement() throws SQLException {
+        String firstQuery = String.format("/*preparestatementhandlesinvalidtest_%s*/SELECT 1",
+                UUID.randomUUID().toString());
+        String invalidQuery = String.format("/*preparestatementhandlesinvalidtest_%s*/SELECT FROM WHERE",
+                UUID.randomUUID().toString());
+        String lastQuery = String.format("/*preparestatementhandlesinvalidtest_%s*/SELECT 2",
+                UUID.randomUUID().toString());
+
+        try (SQLServerConnection con = (SQLServerConnection) DriverManager.getConnection(connectionString)) {
+            con.setStatementPoolingCacheSize(10);
+            try {
+                con.prepareStatementHandles(Arrays.asList(new SQLServerPreparedStatementDefinition(firstQuery),
+                        new SQLServerPreparedStatementDefinition(invalidQuery),
+                        new SQLServerPreparedStatementDefinition(lastQuery)));
+                fail(TestResource.getResource("R_expectedExceptionNotThrown"));
+            } catch (SQLException e) {
+                // The statements before and after the invalid one are prepared and cached, so their handles are
+                // unprepared with the cache
+                assertEquals(2, con.getStatementHandleCacheEntryCount());
+            }
+
+            try (SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) con.prepareStatement(lastQuery)) {
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    assertEquals(2, rs.getInt(1));
+                }
+                assertTrue(0 < pstmt.getPreparedStatementHandle());
+            }
+        }
+    }
+
+    /**
+     * Test the statement cache counters of a connection and their MBean.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testStatementCacheStatistics() throws Exception {
+        String query = String.format("/*statementcachestatisticstest_%s*/SELECT 1; -- ", UUID.randomUUID().toString());
+
+        try (SQLServerConnection con = (SQLServerConnection) DriverManager
+                .getConnection(connectionString + ";registerStatementCacheMBean=true")) {
+            con.setStatementPoolingCacheSize(1);
+            con.setServerPreparedStatementDiscardThreshold(1);
+
+            for (int i = 0; i < 2; ++i) {
+                try (SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) con.prepareStatement(query)) {
+                    pstmt.execute();
+                    pstmt.execute();
+                }
+            }
+            SQLServerStatementCacheStatistics statistics = con.getStatementCacheStatistics();
+            assertTrue(0 < statistics.getPreparedStatementHandleCacheMissCount());
+            assertEquals(1, statistics.getPreparedStatementHandleCacheHitCount());
+            assertEquals(0, statistics.getPreparedStatementHandleCacheEvictionCount());
+
+            // A second statement evicts the first one from the cache
+            try (SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) con.prepareStatement(query + "1")) {
+                pstmt.execute();
+                pstmt.execute();
+            }
+            con.closeUnreferencedPreparedStatementHandles();
+            statistics = con.getStatementCacheStatistics();
+            assertEquals(1, statistics.getPreparedStatementHandleCacheEvictionCount());
+            assertEquals(1, statistics.getUnprepareBatchCount());
+            assertEquals(1, statistics.getUnpreparedHandleCount());
+
+            assertTrue(statistics.getPreparedStatementHandleCacheEvictionCount() <= SQLServerStatementCacheStatistics
+                    .getTotalStatistics().getPreparedStatementHandleCacheEvictionCount());
+            assertTrue(0 < (Long) ManagementFactory.getPlatformMBeanServer().getAttribute(
+                    new ObjectName("com.microsoft.sqlserver.jdbc:type=StatementCache"),
+                    "PreparedStatementHandleCacheEvictionCount"));
+        }
+    }
+
     @Test
     public void testPrepareRace() throws Exception {
 